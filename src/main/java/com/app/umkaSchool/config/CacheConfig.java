@@ -40,6 +40,24 @@ public class CacheConfig {
     @Value("${cache.studentGroup.maxSize:200}")
     private Integer studentGroupCacheMaxSize; 
 
+    @Value("${cache.studentStats.ttl:600}")
+    private Long studentStatsCacheTtl; 
+
+    @Value("${cache.studentStats.maxSize:1000}")
+    private Integer studentStatsCacheMaxSize; 
+
+    @Value("${cache.teacherGroupStats.ttl:60}")
+    private Long teacherGroupStatsCacheTtl; 
+
+    @Value("${cache.teacherGroupStats.maxSize:200}")
+    private Integer teacherGroupStatsCacheMaxSize; 
+
+    @Value("${cache.homeworkMatrix.ttl:600}")
+    private Long homeworkMatrixCacheTtl;
+
+    @Value("${cache.homeworkMatrix.maxSize:500}")
+    private Integer homeworkMatrixCacheMaxSize;
+
     @Bean
     public CacheManager cacheManager() {
         SimpleCacheManager cacheManager = new SimpleCacheManager();
@@ -48,7 +66,10 @@ public class CacheConfig {
             buildCache("users", userCacheMaxSize, userCacheTtl),
             buildCache("exerciseTypes", exerciseTypeCacheMaxSize, exerciseTypeCacheTtl),
             buildCache("achievements", achievementCacheMaxSize, achievementCacheTtl),
-            buildCache("studentGroups", studentGroupCacheMaxSize, studentGroupCacheTtl)
+            buildCache("studentGroups", studentGroupCacheMaxSize, studentGroupCacheTtl),
+            buildCache("studentStats", studentStatsCacheMaxSize, studentStatsCacheTtl),
+            buildCache("teacherGroupStats", teacherGroupStatsCacheMaxSize, teacherGroupStatsCacheTtl),
+            buildCache("homeworkMatrix", homeworkMatrixCacheMaxSize, homeworkMatrixCacheTtl)
         ));
         
         return cacheManager;
@@ -2,6 +2,7 @@ package com.app.umkaSchool.config;
 
 import com.app.umkaSchool.service.DailyChallengeService;
 import com.app.umkaSchool.service.HomeworkAssignmentService;
+import com.app.umkaSchool.service.LeaderboardService;
 import com.app.umkaSchool.service.ProgressSnapshotService;
 import com.app.umkaSchool.service.WeeklyReportService;
 import org.slf4j.Logger;
@@ -16,15 +17,18 @@ public class ScheduledTasks {
     private final HomeworkAssignmentService homeworkAssignmentService;
     private final DailyChallengeService dailyChallengeService;
     private final WeeklyReportService weeklyReportService;
+    private final LeaderboardService leaderboardService;
 
     public ScheduledTasks(ProgressSnapshotService progressSnapshotService,
                          HomeworkAssignmentService homeworkAssignmentService,
                          DailyChallengeService dailyChallengeService,
-                         WeeklyReportService weeklyReportService) {
+                         WeeklyReportService weeklyReportService,
+                         LeaderboardService leaderboardService) {
         this.progressSnapshotService = progressSnapshotService;
         this.homeworkAssignmentService = homeworkAssignmentService;
         this.dailyChallengeService = dailyChallengeService;
         this.weeklyReportService = weeklyReportService;
+        this.leaderboardService = leaderboardService;
     }
 
     /**
@@ -44,8 +48,8 @@ public class ScheduledTasks {
     }
 
     /**
-     * Runs daily at 00:00 (midnight) to check and update overdue homework assignments.
-     * Updates assignments with due date = today from PENDING to OVERDUE.
+     * Runs daily at 00:00 (midnight) as a safety net for the deadline timer in HomeworkDeadlineScheduler.
+     * Updates assignments already past their due date (up to a few days back) from PENDING to OVERDUE.
      * Cron format: second, minute, hour, day of month, month, day of week
      */
     @Scheduled(cron = "0 0 0 * * ?")
@@ -60,15 +64,18 @@ public class ScheduledTasks {
     }
 
     /**
-     * Runs daily at 00:00 (midnight) to automatically create a daily challenge for today
-     * if it doesn't exist. Copies the most recent challenge and creates a new one with today's date.
+     * Runs daily at 00:01 to automatically create a daily challenge for today if it doesn't exist
+     * (nothing to do when challenges are planned ahead through the admin API). Copies the most recent
+     * challenge and creates a new one with today's date, then swaps it into the in-memory cache served
+     * to student dashboards. Kept off the midnight tick used by the overdue homework job.
      * Cron format: second, minute, hour, day of month, month, day of week
      */
-    @Scheduled(cron = "0 0 0 * * ?")
+    @Scheduled(cron = "0 1 0 * * ?")
     public void createTodayChallengeIfNotExists() {
         logger.info("Starting scheduled creation of today's daily challenge");
         try {
             dailyChallengeService.createTodayChallengeIfNotExists();
+            dailyChallengeService.refreshTodayChallenge();
             logger.info("Daily challenge creation check completed successfully");
         } catch (Exception e) {
             logger.error("Error during scheduled daily challenge creation: {}", e.getMessage(), e);
@@ -77,7 +84,7 @@ public class ScheduledTasks {
 
     /**
      * Runs every Monday at 10:00 AM to send weekly reports to all guardians about their children's progress
-     * for the previous week (Monday to Sunday).
+     * for the previous week (Monday to Sunday). Reports are queued in the email outbox and delivered in the background.
      * Cron format: second, minute, hour, day of month, month, day of week (0=Sunday, 1=Monday, ..., 4=Thursday)
      */
     @Scheduled(cron = "0 0 10 * * 1")
@@ -90,5 +97,20 @@ public class ScheduledTasks {
             logger.error("Error during scheduled weekly reports sending: {}", e.getMessage(), e);
         }
     }
-}
 
+    /**
+     * Runs daily at 00:15 to rebuild the in-memory leaderboards from the database.
+     * Corrects boards for students that changed groups and drops expired daily challenge boards.
+     * Cron format: second, minute, hour, day of month, month, day of week
+     */
+    @Scheduled(cron = "0 15 0 * * ?")
+    public void rebuildLeaderboards() {
+        logger.info("Starting scheduled leaderboard rebuild");
+        try {
+            leaderboardService.rebuildLeaderboards();
+            logger.info("Leaderboard rebuild completed successfully");
+        } catch (Exception e) {
+            logger.error("Error during scheduled leaderboard rebuild: {}", e.getMessage(), e);
+        }
+    }
+}
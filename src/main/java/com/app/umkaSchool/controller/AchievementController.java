@@ -1,9 +1,18 @@
 package com.app.umkaSchool.controller;
 
+import com.app.umkaSchool.dto.achievement.AchievementBackfillResponse;
 import com.app.umkaSchool.dto.achievement.AchievementResponse;
+import com.app.umkaSchool.dto.achievement.CreateAchievementRequest;
 import com.app.umkaSchool.service.AchievementService;
+import com.app.umkaSchool.util.CatalogVersions;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.UUID;
@@ -13,15 +22,17 @@ import java.util.UUID;
 public class AchievementController {
 
     private final AchievementService achievementService;
+    private final CatalogVersions catalogVersions;
 
-    public AchievementController(AchievementService achievementService) {
+    public AchievementController(AchievementService achievementService, CatalogVersions catalogVersions) {
         this.achievementService = achievementService;
+        this.catalogVersions = catalogVersions;
     }
 
     @GetMapping
-    public ResponseEntity<List<AchievementResponse>> getAllAchievements() {
-        List<AchievementResponse> achievements = achievementService.getAllAchievements();
-        return ResponseEntity.ok(achievements);
+    public ResponseEntity<List<AchievementResponse>> getAllAchievements(WebRequest request) {
+        return catalogVersions.conditional(request, catalogVersions.etag(CatalogVersions.Catalog.ACHIEVEMENTS),
+                achievementService::getAllAchievements);
     }
 
     @GetMapping("/student/{studentId}")
@@ -38,4 +49,29 @@ public class AchievementController {
         List<AchievementResponse> achievements = achievementService.getRecentStudentAchievements(studentId, hours);
         return ResponseEntity.ok(achievements);
     }
-}
\ No newline at end of file
+
+    @GetMapping(value = "/student/{studentId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamStudentAchievements(@PathVariable UUID studentId) {
+        return ResponseEntity.ok(achievementService.subscribeToAchievements(studentId));
+    }
+
+    @PostMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AchievementResponse> createAchievement(@Valid @RequestBody CreateAchievementRequest request) {
+        AchievementResponse response = achievementService.createAchievement(request);
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+
+    @PostMapping("/{achievementId}/backfill")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AchievementBackfillResponse> backfillAchievement(@PathVariable UUID achievementId) {
+        AchievementBackfillResponse response = achievementService.backfillAchievement(achievementId);
+        return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
+    }
+
+    @GetMapping("/{achievementId}/backfill")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<AchievementBackfillResponse> getBackfillStatus(@PathVariable UUID achievementId) {
+        return ResponseEntity.ok(achievementService.getBackfillStatus(achievementId));
+    }
+}
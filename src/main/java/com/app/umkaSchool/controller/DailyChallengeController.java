@@ -2,12 +2,19 @@ package com.app.umkaSchool.controller;
 
 import com.app.umkaSchool.dto.dailychallenge.CreateDailyChallengeRequest;
 import com.app.umkaSchool.dto.dailychallenge.DailyChallengeResponse;
+import com.app.umkaSchool.dto.dailychallenge.DailyChallengeStatsResponse;
+import com.app.umkaSchool.dto.dailychallenge.PlanDailyChallengesRequest;
+import com.app.umkaSchool.dto.dailychallenge.PlanDailyChallengesResponse;
 import com.app.umkaSchool.service.DailyChallengeService;
+import com.app.umkaSchool.service.DailyChallengeStatsService;
+import com.app.umkaSchool.util.CatalogVersions;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -18,10 +25,16 @@ import java.util.UUID;
 public class DailyChallengeController {
 
     private final DailyChallengeService dailyChallengeService;
+    private final DailyChallengeStatsService dailyChallengeStatsService;
+    private final CatalogVersions catalogVersions;
 
     @Autowired
-    public DailyChallengeController(DailyChallengeService dailyChallengeService) {
+    public DailyChallengeController(DailyChallengeService dailyChallengeService,
+                                    DailyChallengeStatsService dailyChallengeStatsService,
+                                    CatalogVersions catalogVersions) {
         this.dailyChallengeService = dailyChallengeService;
+        this.dailyChallengeStatsService = dailyChallengeStatsService;
+        this.catalogVersions = catalogVersions;
     }
 
     @PostMapping
@@ -31,28 +44,45 @@ public class DailyChallengeController {
         return new ResponseEntity<>(response, HttpStatus.CREATED);
     }
 
+    @PostMapping("/plan")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PlanDailyChallengesResponse> planDailyChallenges(
+            @Valid @RequestBody PlanDailyChallengesRequest request) {
+        PlanDailyChallengesResponse response = dailyChallengeService.planDailyChallenges(request);
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+
     @GetMapping("/today")
-    public ResponseEntity<DailyChallengeResponse> getTodayChallenge() {
-        DailyChallengeResponse response = dailyChallengeService.getTodayChallenge();
-        return ResponseEntity.ok(response);
+    public ResponseEntity<DailyChallengeResponse> getTodayChallenge(WebRequest request) {
+        // "Today" changes at midnight without any write, so the date is part of the tag
+        String etag = catalogVersions.etag(CatalogVersions.Catalog.DAILY_CHALLENGES, LocalDate.now().toString());
+        return catalogVersions.conditional(request, etag, dailyChallengeService::getTodayChallenge);
     }
 
     @GetMapping("/date/{date}")
-    public ResponseEntity<DailyChallengeResponse> getDailyChallengeByDate(@PathVariable LocalDate date) {
-        DailyChallengeResponse response = dailyChallengeService.getDailyChallengeByDate(date);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<DailyChallengeResponse> getDailyChallengeByDate(@PathVariable LocalDate date,
+                                                                          WebRequest request) {
+        return catalogVersions.conditional(request, catalogVersions.etag(CatalogVersions.Catalog.DAILY_CHALLENGES),
+                () -> dailyChallengeService.getDailyChallengeByDate(date));
     }
 
     @GetMapping("/{challengeId}")
-    public ResponseEntity<DailyChallengeResponse> getDailyChallengeById(@PathVariable UUID challengeId) {
-        DailyChallengeResponse response = dailyChallengeService.getDailyChallengeById(challengeId);
+    public ResponseEntity<DailyChallengeResponse> getDailyChallengeById(@PathVariable UUID challengeId,
+                                                                        WebRequest request) {
+        return catalogVersions.conditional(request, catalogVersions.etag(CatalogVersions.Catalog.DAILY_CHALLENGES),
+                () -> dailyChallengeService.getDailyChallengeById(challengeId));
+    }
+
+    @GetMapping("/{challengeId}/stats")
+    public ResponseEntity<DailyChallengeStatsResponse> getDailyChallengeStats(@PathVariable UUID challengeId) {
+        DailyChallengeStatsResponse response = dailyChallengeStatsService.getChallengeStats(challengeId);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping
-    public ResponseEntity<List<DailyChallengeResponse>> getAllDailyChallenges() {
-        List<DailyChallengeResponse> challenges = dailyChallengeService.getAllDailyChallenges();
-        return ResponseEntity.ok(challenges);
+    public ResponseEntity<List<DailyChallengeResponse>> getAllDailyChallenges(WebRequest request) {
+        return catalogVersions.conditional(request, catalogVersions.etag(CatalogVersions.Catalog.DAILY_CHALLENGES),
+                dailyChallengeService::getAllDailyChallenges);
     }
 
     @DeleteMapping("/{challengeId}")
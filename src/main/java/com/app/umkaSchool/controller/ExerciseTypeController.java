@@ -4,11 +4,13 @@ import com.app.umkaSchool.dto.exercisetype.CreateExerciseTypeRequest;
 import com.app.umkaSchool.dto.exercisetype.ExerciseTypeResponse;
 import com.app.umkaSchool.dto.exercisetype.UpdateExerciseTypeRequest;
 import com.app.umkaSchool.service.ExerciseTypeService;
+import com.app.umkaSchool.util.CatalogVersions;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -18,10 +20,12 @@ import java.util.UUID;
 public class ExerciseTypeController {
 
     private final ExerciseTypeService exerciseTypeService;
+    private final CatalogVersions catalogVersions;
 
     @Autowired
-    public ExerciseTypeController(ExerciseTypeService exerciseTypeService) {
+    public ExerciseTypeController(ExerciseTypeService exerciseTypeService, CatalogVersions catalogVersions) {
         this.exerciseTypeService = exerciseTypeService;
+        this.catalogVersions = catalogVersions;
     }
 
     @PostMapping
@@ -39,27 +43,28 @@ public class ExerciseTypeController {
     }
 
     @GetMapping("/{exerciseTypeId}")
-    public ResponseEntity<ExerciseTypeResponse> getExerciseTypeById(@PathVariable UUID exerciseTypeId) {
-        ExerciseTypeResponse response = exerciseTypeService.getExerciseTypeById(exerciseTypeId);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<ExerciseTypeResponse> getExerciseTypeById(@PathVariable UUID exerciseTypeId, WebRequest request) {
+        return catalogVersions.conditional(request, catalogVersions.etag(CatalogVersions.Catalog.EXERCISE_TYPES),
+                () -> exerciseTypeService.getExerciseTypeById(exerciseTypeId));
     }
 
     @GetMapping("/name/{name}")
-    public ResponseEntity<ExerciseTypeResponse> getExerciseTypeByName(@PathVariable String name) {
-        ExerciseTypeResponse response = exerciseTypeService.getExerciseTypeByName(name);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<ExerciseTypeResponse> getExerciseTypeByName(@PathVariable String name, WebRequest request) {
+        return catalogVersions.conditional(request, catalogVersions.etag(CatalogVersions.Catalog.EXERCISE_TYPES),
+                () -> exerciseTypeService.getExerciseTypeByName(name));
     }
 
     @GetMapping
-    public ResponseEntity<List<ExerciseTypeResponse>> getAllExerciseTypes() {
-        List<ExerciseTypeResponse> exerciseTypes = exerciseTypeService.getAllExerciseTypes();
-        return ResponseEntity.ok(exerciseTypes);
+    public ResponseEntity<List<ExerciseTypeResponse>> getAllExerciseTypes(WebRequest request) {
+        return catalogVersions.conditional(request, catalogVersions.etag(CatalogVersions.Catalog.EXERCISE_TYPES),
+                exerciseTypeService::getAllExerciseTypes);
     }
 
     @GetMapping("/teacher/{teacherId}")
-    public ResponseEntity<List<ExerciseTypeResponse>> getExerciseTypesByTeacher(@PathVariable UUID teacherId) {
-        List<ExerciseTypeResponse> exerciseTypes = exerciseTypeService.getExerciseTypesByTeacher(teacherId);
-        return ResponseEntity.ok(exerciseTypes);
+    public ResponseEntity<List<ExerciseTypeResponse>> getExerciseTypesByTeacher(@PathVariable UUID teacherId,
+                                                                                WebRequest request) {
+        return catalogVersions.conditional(request, catalogVersions.etag(CatalogVersions.Catalog.EXERCISE_TYPES),
+                () -> exerciseTypeService.getExerciseTypesByTeacher(teacherId));
     }
 
     @DeleteMapping("/{exerciseTypeId}")
@@ -2,6 +2,7 @@ package com.app.umkaSchool.controller;
 
 import com.app.umkaSchool.dto.homeworkassignment.CreateHomeworkAssignmentRequest;
 import com.app.umkaSchool.dto.homeworkassignment.HomeworkAssignmentResponse;
+import com.app.umkaSchool.dto.homeworkassignment.HomeworkProgressMatrixResponse;
 import com.app.umkaSchool.dto.homeworkassignment.UpdateHomeworkAssignmentRequest;
 import com.app.umkaSchool.model.enums.HomeworkStatus;
 import com.app.umkaSchool.service.HomeworkAssignmentService;
@@ -9,6 +10,7 @@ import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -138,4 +140,11 @@ public class HomeworkAssignmentController {
         List<UUID> completedExerciseIds = homeworkAssignmentService.getCompletedExerciseIds(assignmentId, studentId);
         return ResponseEntity.ok(completedExerciseIds);
     }
+
+    @GetMapping("/{assignmentId}/matrix")
+    @PreAuthorize("hasAnyRole('ADMIN', 'TEACHER')")
+    public ResponseEntity<HomeworkProgressMatrixResponse> getProgressMatrix(@PathVariable UUID assignmentId) {
+        HomeworkProgressMatrixResponse response = homeworkAssignmentService.getProgressMatrix(assignmentId);
+        return ResponseEntity.ok(response);
+    }
 }
@@ -4,11 +4,13 @@ import com.app.umkaSchool.dto.homework.CreateHomeworkRequest;
 import com.app.umkaSchool.dto.homework.HomeworkResponse;
 import com.app.umkaSchool.dto.homework.UpdateHomeworkRequest;
 import com.app.umkaSchool.service.HomeworkService;
+import com.app.umkaSchool.util.CatalogVersions;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.UUID;
@@ -18,10 +20,12 @@ import java.util.UUID;
 public class HomeworkController {
 
     private final HomeworkService homeworkService;
+    private final CatalogVersions catalogVersions;
 
     @Autowired
-    public HomeworkController(HomeworkService homeworkService) {
+    public HomeworkController(HomeworkService homeworkService, CatalogVersions catalogVersions) {
         this.homeworkService = homeworkService;
+        this.catalogVersions = catalogVersions;
     }
 
     @PostMapping
@@ -39,27 +43,28 @@ public class HomeworkController {
     }
 
     @GetMapping("/{homeworkId}")
-    public ResponseEntity<HomeworkResponse> getHomeworkById(@PathVariable UUID homeworkId) {
-        HomeworkResponse response = homeworkService.getHomeworkById(homeworkId);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<HomeworkResponse> getHomeworkById(@PathVariable UUID homeworkId, WebRequest request) {
+        return catalogVersions.conditional(request, catalogVersions.etag(CatalogVersions.Catalog.HOMEWORK),
+                () -> homeworkService.getHomeworkById(homeworkId));
     }
 
     @GetMapping("/title/{title}")
-    public ResponseEntity<HomeworkResponse> getHomeworkByTitle(@PathVariable String title) {
-        HomeworkResponse response = homeworkService.getHomeworkByTitle(title);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<HomeworkResponse> getHomeworkByTitle(@PathVariable String title, WebRequest request) {
+        return catalogVersions.conditional(request, catalogVersions.etag(CatalogVersions.Catalog.HOMEWORK),
+                () -> homeworkService.getHomeworkByTitle(title));
     }
 
     @GetMapping
-    public ResponseEntity<List<HomeworkResponse>> getAllHomework() {
-        List<HomeworkResponse> homework = homeworkService.getAllHomework();
-        return ResponseEntity.ok(homework);
+    public ResponseEntity<List<HomeworkResponse>> getAllHomework(WebRequest request) {
+        return catalogVersions.conditional(request, catalogVersions.etag(CatalogVersions.Catalog.HOMEWORK),
+                homeworkService::getAllHomework);
     }
 
     @GetMapping("/teacher/{teacherId}")
-    public ResponseEntity<List<HomeworkResponse>> getHomeworkByTeacher(@PathVariable UUID teacherId) {
-        List<HomeworkResponse> homework = homeworkService.getHomeworkByTeacher(teacherId);
-        return ResponseEntity.ok(homework);
+    public ResponseEntity<List<HomeworkResponse>> getHomeworkByTeacher(@PathVariable UUID teacherId,
+                                                                       WebRequest request) {
+        return catalogVersions.conditional(request, catalogVersions.etag(CatalogVersions.Catalog.HOMEWORK),
+                () -> homeworkService.getHomeworkByTeacher(teacherId));
     }
 
     @DeleteMapping("/{homeworkId}")
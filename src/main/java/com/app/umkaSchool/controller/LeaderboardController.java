@@ -0,0 +1,58 @@
+package com.app.umkaSchool.controller;
+
+import com.app.umkaSchool.dto.leaderboard.LeaderboardEntryResponse;
+import com.app.umkaSchool.dto.leaderboard.LeaderboardResponse;
+import com.app.umkaSchool.service.LeaderboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/leaderboards")
+public class LeaderboardController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final LeaderboardService leaderboardService;
+
+    @Autowired
+    public LeaderboardController(LeaderboardService leaderboardService) {
+        this.leaderboardService = leaderboardService;
+    }
+
+    @GetMapping("/group/{groupId}")
+    public ResponseEntity<LeaderboardResponse> getGroupLeaderboard(
+            @PathVariable UUID groupId,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(leaderboardService.getGroupLeaderboard(groupId, limit));
+    }
+
+    @GetMapping("/group/{groupId}/student/{studentId}")
+    public ResponseEntity<LeaderboardEntryResponse> getGroupRank(
+            @PathVariable UUID groupId,
+            @PathVariable UUID studentId) {
+        return ResponseEntity.ok(leaderboardService.getGroupRank(groupId, studentId));
+    }
+
+    @GetMapping("/daily-challenge/{challengeId}")
+    public ResponseEntity<LeaderboardResponse> getDailyChallengeLeaderboard(
+            @PathVariable UUID challengeId,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(leaderboardService.getDailyChallengeLeaderboard(challengeId, limit));
+    }
+
+    @GetMapping("/daily-challenge/{challengeId}/student/{studentId}")
+    public ResponseEntity<LeaderboardEntryResponse> getDailyChallengeRank(
+            @PathVariable UUID challengeId,
+            @PathVariable UUID studentId) {
+        return ResponseEntity.ok(leaderboardService.getDailyChallengeRank(challengeId, studentId));
+    }
+}
@@ -1,6 +1,7 @@
 package com.app.umkaSchool.controller;
 
 import com.app.umkaSchool.dto.progresssnapshot.ProgressSnapshotResponse;
+import com.app.umkaSchool.dto.progresssnapshot.ProgressTimeSeriesResponse;
 import com.app.umkaSchool.exception.ResourceNotFoundException;
 import com.app.umkaSchool.model.Student;
 import com.app.umkaSchool.service.ProgressSnapshotService;
@@ -57,6 +58,27 @@ public class ProgressSnapshotController {
         return ResponseEntity.ok(snapshots);
     }
 
+    @GetMapping("/student/{studentId}/timeseries")
+    public ResponseEntity<ProgressTimeSeriesResponse> getProgressTimeSeries(
+            @PathVariable UUID studentId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "day") String bucket) {
+        try {
+            studentService.getStudentEntity(studentId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+
+        if (!isValidBucket(bucket)) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(29);
+        return ResponseEntity.ok(progressSnapshotService.getProgressTimeSeries(studentId, start, end, bucket));
+    }
+
     @GetMapping("/student/{studentId}/date/{date}")
     public ResponseEntity<ProgressSnapshotResponse> getSnapshotByDate(
             @PathVariable UUID studentId,
@@ -89,17 +111,23 @@ public class ProgressSnapshotController {
     public ResponseEntity<com.app.umkaSchool.dto.stats.StatsResponse> getStudentStats(
             @PathVariable UUID studentId,
             @RequestParam(defaultValue = "all") String period) {
-        
-        Student student = studentService.getStudentEntity(studentId);
 
         if (!isValidPeriod(period)) {
             return ResponseEntity.badRequest().build();
         }
 
-        com.app.umkaSchool.dto.stats.StatsResponse stats = progressSnapshotService.getStudentStats(student, period);
+        com.app.umkaSchool.dto.stats.StatsResponse stats = progressSnapshotService.getStudentStats(studentId, period);
         return ResponseEntity.ok(stats);
     }
 
+    private boolean isValidBucket(String bucket) {
+        return bucket != null && (
+            bucket.equalsIgnoreCase("day") ||
+            bucket.equalsIgnoreCase("week") ||
+            bucket.equalsIgnoreCase("month")
+        );
+    }
+
     private boolean isValidPeriod(String period) {
         return period != null && (
             period.equalsIgnoreCase("day") ||
@@ -1,6 +1,7 @@
 package com.app.umkaSchool.controller;
 
 import com.app.umkaSchool.dto.teacher.CreateTeacherRequest;
+import com.app.umkaSchool.dto.teacher.TeacherGroupStatsResponse;
 import com.app.umkaSchool.dto.teacher.TeacherResponse;
 import com.app.umkaSchool.dto.teacher.UpdateTeacherRequest;
 import com.app.umkaSchool.service.TeacherService;
@@ -61,5 +62,23 @@ public class TeacherController {
         teacherService.deleteTeacher(teacherId);
         return ResponseEntity.noContent().build();
     }
-}
 
+    @GetMapping("/{teacherId}/groups/stats")
+    public ResponseEntity<TeacherGroupStatsResponse> getGroupStats(
+            @PathVariable UUID teacherId,
+            @RequestParam(defaultValue = "week") String period) {
+        if (!isValidPeriod(period)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(teacherService.getGroupStats(teacherId, period));
+    }
+
+    private boolean isValidPeriod(String period) {
+        return period != null && (
+            period.equalsIgnoreCase("day") ||
+            period.equalsIgnoreCase("week") ||
+            period.equalsIgnoreCase("month") ||
+            period.equalsIgnoreCase("all")
+        );
+    }
+}
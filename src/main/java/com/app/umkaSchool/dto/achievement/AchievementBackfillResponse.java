@@ -0,0 +1,24 @@
+package com.app.umkaSchool.dto.achievement;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AchievementBackfillResponse {
+    private UUID achievementId;
+    private String status; // RUNNING, COMPLETED or FAILED; the counts are set once the run has finished
+    private ZonedDateTime startedAt;
+    private Integer studentsChecked;
+    private Integer studentsSkipped; // already covered by an earlier run today
+    private Integer studentsAwarded;
+    private Integer failedChunks;
+    private Long durationMs;
+}
@@ -0,0 +1,27 @@
+package com.app.umkaSchool.dto.achievement;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class CreateAchievementRequest {
+    @NotBlank(message = "Name is required")
+    @Size(max = 100, message = "Name must be at most 100 characters")
+    private String name;
+
+    private String description;
+
+    @NotBlank(message = "Icon URL is required")
+    @Size(max = 512, message = "Icon URL must be at most 512 characters")
+    private String iconUrl;
+
+    @NotBlank(message = "Required criteria are required")
+    private String requiredCriteria; // JSON: {"totalAttempts": 100, "anyOf": [{"currentStreak": 7}, {"minAccuracy": 95}]}
+
+    @Min(value = 0, message = "Points cannot be negative")
+    private Integer points;
+
+    private Boolean backfill; // award to existing students right away, defaults to true
+}
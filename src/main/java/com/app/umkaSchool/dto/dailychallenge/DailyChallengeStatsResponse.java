@@ -0,0 +1,36 @@
+package com.app.umkaSchool.dto.dailychallenge;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyChallengeStatsResponse {
+    private UUID challengeId;
+    private long attempts;
+    private long completions;
+    private long answers;
+    private long correctAnswers;
+    private double averageScore;
+    private List<ExerciseStats> exercises;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ExerciseStats {
+        private UUID exerciseId;
+        private long attempts;
+        private long completions;
+        private long answers;
+        private long correctAnswers;
+        private double averageScore;
+    }
+}
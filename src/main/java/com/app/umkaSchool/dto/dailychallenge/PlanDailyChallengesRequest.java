@@ -0,0 +1,39 @@
+package com.app.umkaSchool.dto.dailychallenge;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Plans one challenge per day for {@code days} days from {@code startDate} (tomorrow if omitted). Either
+ * {@code templateChallengeIds} are copied in rotation, or each day takes the next
+ * {@code exercisesPerChallenge} exercises from the {@code exerciseIds} pool, wrapping around.
+ * Days that already have a challenge are skipped.
+ */
+@Data
+public class PlanDailyChallengesRequest {
+    private LocalDate startDate;
+
+    @NotNull(message = "Number of days is required")
+    @Min(value = 1, message = "Number of days must be between 1 and 90")
+    @Max(value = 90, message = "Number of days must be between 1 and 90")
+    private Integer days;
+
+    private List<UUID> templateChallengeIds;
+
+    private List<UUID> exerciseIds;
+
+    @Min(value = 1, message = "Exercises per challenge must be at least 1")
+    private Integer exercisesPerChallenge;
+
+    private String title;
+
+    private String description;
+
+    private UUID createdById;
+}
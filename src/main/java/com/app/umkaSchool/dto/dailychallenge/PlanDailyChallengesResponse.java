@@ -0,0 +1,18 @@
+package com.app.umkaSchool.dto.dailychallenge;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlanDailyChallengesResponse {
+    private List<LocalDate> createdDates;
+    private List<LocalDate> skippedDates;
+}
@@ -0,0 +1,46 @@
+package com.app.umkaSchool.dto.homeworkassignment;
+
+import com.app.umkaSchool.model.enums.HomeworkStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Students x exercises progress of one assignment. Column i of every row refers to {@code exercises[i]}.
+ * {@code completed} is a base64 bit set: bit i (least significant bit of byte i / 8 first) is set when the
+ * student completed exercise i. {@code scores[i]} is the student's best score on exercise i, 0 if none.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HomeworkProgressMatrixResponse {
+    private UUID assignmentId;
+    private List<ExerciseColumn> exercises;
+    private List<StudentRow> students;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ExerciseColumn {
+        private UUID exerciseId;
+        private Integer orderIndex;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StudentRow {
+        private UUID studentId;
+        private String studentName;
+        private HomeworkStatus status;
+        private String completed;
+        private int[] scores;
+    }
+}
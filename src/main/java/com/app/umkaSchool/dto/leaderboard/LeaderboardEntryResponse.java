@@ -0,0 +1,20 @@
+package com.app.umkaSchool.dto.leaderboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardEntryResponse {
+    private Integer rank;
+    private UUID studentId;
+    private String studentName;
+    private Long score;
+    private Integer totalParticipants;
+}
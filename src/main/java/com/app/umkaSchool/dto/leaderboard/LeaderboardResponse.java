@@ -0,0 +1,20 @@
+package com.app.umkaSchool.dto.leaderboard;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardResponse {
+    private String scope; // GROUP or DAILY_CHALLENGE
+    private UUID scopeId;
+    private Integer totalParticipants;
+    private List<LeaderboardEntryResponse> entries;
+}
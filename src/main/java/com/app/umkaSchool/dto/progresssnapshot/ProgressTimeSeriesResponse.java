@@ -0,0 +1,29 @@
+package com.app.umkaSchool.dto.progresssnapshot;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Chart-ready progress series. The arrays are parallel: index i of every list belongs to the bucket
+ * starting at {@code dates[i]}. Buckets without activity are present with zero values.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProgressTimeSeriesResponse {
+    private UUID studentId;
+    private String bucket; // day, week or month
+    private LocalDate from;
+    private LocalDate to;
+    private List<LocalDate> dates;
+    private List<Long> attempts;
+    private List<Long> correct;
+    private List<Long> seconds;
+}
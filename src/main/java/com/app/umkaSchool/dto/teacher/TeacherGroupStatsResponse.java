@@ -0,0 +1,53 @@
+package com.app.umkaSchool.dto.teacher;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeacherGroupStatsResponse {
+    private UUID teacherId;
+    private String period;
+    private List<GroupStats> groups;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class GroupStats {
+        private UUID groupId; // null for the teacher's students without a group
+        private String groupName;
+        private Integer studentCount;
+        private Long totalAttempts;
+        private Long totalCorrect;
+        private Integer accuracyRate;
+        private Long practiceTimeSeconds;
+        private ZonedDateTime lastActivityAt;
+        private List<StudentStats> students;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StudentStats {
+        private UUID studentId;
+        private String firstName;
+        private String lastName;
+        private Long totalAttempts;
+        private Long totalCorrect;
+        private Integer accuracyRate;
+        private Long practiceTimeSeconds;
+        private Integer currentStreak;
+        private Integer bestStreak;
+        private ZonedDateTime lastActivityAt;
+    }
+}
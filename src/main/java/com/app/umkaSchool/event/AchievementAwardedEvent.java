@@ -0,0 +1,13 @@
+package com.app.umkaSchool.event;
+
+import com.app.umkaSchool.dto.achievement.AchievementResponse;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published when one or more achievements are awarded to a student on the attempt completion path.
+ * The responses carry {@code earnedAt} and {@code isNew = true}, ready to be pushed to the student.
+ */
+public record AchievementAwardedEvent(UUID studentId, List<AchievementResponse> achievements) {
+}
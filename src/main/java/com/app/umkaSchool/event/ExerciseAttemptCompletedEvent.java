@@ -0,0 +1,65 @@
+package com.app.umkaSchool.event;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * Published when a student finishes an exercise attempt.
+ * Listeners use it to refresh derived, read-optimized state (caches, rankings, counters)
+ * without the attempt completion path having to know about them.
+ * <p>
+ * A session can report completion more than once (an early auto-complete, then the final results), so the
+ * event also carries what earlier events for the same attempt already reported. Counters should add the
+ * deltas and count a completion only when {@code firstCompletion} is set.
+ * <p>
+ * {@code transactionId} is the database transaction that completed the attempt ({@code txid_current()}),
+ * or 0 if unknown; it lets a listener tell whether a database snapshot already includes the change.
+ */
+public record ExerciseAttemptCompletedEvent(
+        UUID attemptId,
+        UUID studentId,
+        UUID groupId,
+        UUID exerciseId,
+        int score,
+        long totalAttempts,
+        long totalCorrect,
+        ZonedDateTime completedAt,
+        boolean firstCompletion,
+        int previousScore,
+        long previousTotalAttempts,
+        long previousTotalCorrect,
+        long transactionId) {
+
+    /**
+     * Event whose database transaction is not known.
+     */
+    public ExerciseAttemptCompletedEvent(UUID attemptId, UUID studentId, UUID groupId, UUID exerciseId,
+                                         int score, long totalAttempts, long totalCorrect,
+                                         ZonedDateTime completedAt, boolean firstCompletion, int previousScore,
+                                         long previousTotalAttempts, long previousTotalCorrect) {
+        this(attemptId, studentId, groupId, exerciseId, score, totalAttempts, totalCorrect, completedAt,
+                firstCompletion, previousScore, previousTotalAttempts, previousTotalCorrect, 0L);
+    }
+
+    /**
+     * Event for an attempt completed in one step, with nothing reported before.
+     */
+    public ExerciseAttemptCompletedEvent(UUID attemptId, UUID studentId, UUID groupId, UUID exerciseId,
+                                         int score, long totalAttempts, long totalCorrect,
+                                         ZonedDateTime completedAt) {
+        this(attemptId, studentId, groupId, exerciseId, score, totalAttempts, totalCorrect, completedAt,
+                true, 0, 0L, 0L, 0L);
+    }
+
+    public int scoreDelta() {
+        return score - previousScore;
+    }
+
+    public long totalAttemptsDelta() {
+        return totalAttempts - previousTotalAttempts;
+    }
+
+    public long totalCorrectDelta() {
+        return totalCorrect - previousTotalCorrect;
+    }
+}
@@ -0,0 +1,9 @@
+package com.app.umkaSchool.event;
+
+import java.util.UUID;
+
+/**
+ * Published when a student starts an exercise attempt; see {@link ExerciseAttemptCompletedEvent}.
+ */
+public record ExerciseAttemptStartedEvent(UUID attemptId, UUID studentId, UUID exerciseId) {
+}
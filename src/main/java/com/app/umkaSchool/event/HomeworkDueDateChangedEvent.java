@@ -0,0 +1,11 @@
+package com.app.umkaSchool.event;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * Published when an assignment is created, gets a new due date or is deleted (dueDate is null).
+ * Listeners should react after commit.
+ */
+public record HomeworkDueDateChangedEvent(UUID assignmentId, ZonedDateTime dueDate) {
+}
@@ -0,0 +1,11 @@
+package com.app.umkaSchool.event;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * Published once per assignment when its due date is within the configured reminder lead time.
+ * Published outside of any transaction.
+ */
+public record HomeworkDueSoonEvent(UUID assignmentId, ZonedDateTime dueDate) {
+}
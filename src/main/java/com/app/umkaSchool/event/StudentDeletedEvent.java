@@ -0,0 +1,9 @@
+package com.app.umkaSchool.event;
+
+import java.util.UUID;
+
+/**
+ * Published synchronously, inside the transaction that deletes a student, before the student row is removed.
+ */
+public record StudentDeletedEvent(UUID studentId) {
+}
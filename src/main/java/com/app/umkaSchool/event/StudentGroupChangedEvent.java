@@ -0,0 +1,10 @@
+package com.app.umkaSchool.event;
+
+import java.util.UUID;
+
+/**
+ * Published synchronously, inside the transaction that moves a student into, out of or between groups.
+ * Either group id may be null (no group before / after).
+ */
+public record StudentGroupChangedEvent(UUID studentId, UUID previousGroupId, UUID newGroupId) {
+}
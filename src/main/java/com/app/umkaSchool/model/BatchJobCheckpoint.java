@@ -0,0 +1,37 @@
+package com.app.umkaSchool.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Marks the student ids of one chunk as fully processed by a chunked batch job for a given run date,
+ * so that a failed run can be restarted without redoing the chunks that already committed.
+ */
+@Data
+@Entity
+@Table(name = "batch_job_checkpoint")
+public class BatchJobCheckpoint {
+    @EmbeddedId
+    private BatchJobCheckpointId id = new BatchJobCheckpointId();
+
+    @Column(name = "range_end", nullable = false)
+    private UUID rangeEnd;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "processed_ids", nullable = false)
+    private List<UUID> processedIds;
+
+    @Column(name = "processed_count", nullable = false)
+    private Integer processedCount;
+
+    @CreationTimestamp
+    @Column(name = "completed_at", nullable = false, updatable = false)
+    private ZonedDateTime completedAt;
+}
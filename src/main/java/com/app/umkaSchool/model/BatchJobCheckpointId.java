@@ -0,0 +1,26 @@
+package com.app.umkaSchool.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.UUID;
+
+@Data
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchJobCheckpointId implements Serializable {
+    @Column(name = "job_name")
+    private String jobName;
+
+    @Column(name = "run_date")
+    private LocalDate runDate;
+
+    @Column(name = "range_start")
+    private UUID rangeStart;
+}
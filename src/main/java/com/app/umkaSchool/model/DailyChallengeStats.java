@@ -0,0 +1,36 @@
+package com.app.umkaSchool.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.ZonedDateTime;
+
+/**
+ * Running participation totals for one exercise of a daily challenge. Rows are only ever incremented
+ * by {@code DailyChallengeStatsRepository#addCounts}, never written through the entity.
+ */
+@Data
+@Entity
+@Table(name = "daily_challenge_stats")
+public class DailyChallengeStats {
+    @EmbeddedId
+    private DailyChallengeStatsId id = new DailyChallengeStatsId();
+
+    @Column(name = "attempts", nullable = false)
+    private Long attempts;
+
+    @Column(name = "completions", nullable = false)
+    private Long completions;
+
+    @Column(name = "answers", nullable = false)
+    private Long answers;
+
+    @Column(name = "correct_answers", nullable = false)
+    private Long correctAnswers;
+
+    @Column(name = "total_score", nullable = false)
+    private Long totalScore;
+
+    @Column(name = "updated_at", nullable = false)
+    private ZonedDateTime updatedAt;
+}
@@ -0,0 +1,22 @@
+package com.app.umkaSchool.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@Data
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyChallengeStatsId implements Serializable {
+    @Column(name = "daily_challenge_id")
+    private UUID dailyChallengeId;
+
+    @Column(name = "exercise_id")
+    private UUID exerciseId;
+}
@@ -0,0 +1,59 @@
+package com.app.umkaSchool.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * An email waiting for, or done with, background delivery. Rows are written and moved between states only
+ * through {@code EmailOutboxRepository}'s native statements.
+ */
+@Data
+@Entity
+@Table(name = "email_outbox")
+public class EmailOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @Column(name = "email_outbox_id", insertable = false, updatable = false, nullable = false)
+    private UUID id;
+
+    @Column(name = "dedup_key", nullable = false)
+    private String dedupKey;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(name = "html_content", nullable = false)
+    private String htmlContent;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private ZonedDateTime nextAttemptAt;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private ZonedDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private ZonedDateTime sentAt;
+
+    public enum Status {
+        PENDING,
+        SENDING,
+        SENT,
+        FAILED
+    }
+}
@@ -6,6 +6,7 @@ import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
@@ -50,6 +51,15 @@ public class HomeworkAssignment {
     @Column(name = "homework_assignment_status", nullable = false, columnDefinition = "homework_status")
     private HomeworkStatus status = HomeworkStatus.PENDING;
 
+    // Maintained in SQL by HomeworkAssignmentRepository; never written from the entity
+    @ColumnDefault("0")
+    @Column(name = "assigned_count", nullable = false, insertable = false, updatable = false)
+    private Integer assignedCount = 0;
+
+    @ColumnDefault("0")
+    @Column(name = "completed_count", nullable = false, insertable = false, updatable = false)
+    private Integer completedCount = 0;
+
     @JsonIgnore
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
@@ -9,6 +9,8 @@ import lombok.ToString;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
+import java.util.UUID;
+
 @Data
 @Entity
 @Table(name = "homework_assignment_student")
@@ -36,4 +38,13 @@ public class HomeworkAssignmentStudent {
     @Enumerated(EnumType.STRING)
     @Column(name = "homework_assignment_status", nullable = false, columnDefinition = "homework_status")
     private HomeworkStatus status = HomeworkStatus.PENDING;
+
+    // Group this row was expanded from; null when the student was assigned directly
+    @Column(name = "student_group_id")
+    private UUID sourceGroupId;
+
+    // Bit n is set once the exercise with orderIndex n is completed; null until first computed.
+    // Only written by SQL (atomic OR), never by entity updates.
+    @Column(name = "completed_exercises", insertable = false, updatable = false)
+    private Long completedExercises;
 }
\ No newline at end of file
@@ -2,12 +2,20 @@ package com.app.umkaSchool.repository;
 
 import com.app.umkaSchool.model.Achievement;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.UUID;
 
 @Repository
 public interface AchievementRepository extends JpaRepository<Achievement, UUID> {
+
+    /**
+     * Achievements have no updated_at, so the whole (small) table is hashed.
+     */
+    @Query(value = "SELECT md5(concat(count(*), ':', sum(hashtext(CAST(a AS text))))) " +
+            "FROM {h-schema}achievement a", nativeQuery = true)
+    String findCatalogFingerprint();
 }
 
 
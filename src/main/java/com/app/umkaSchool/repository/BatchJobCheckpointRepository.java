@@ -0,0 +1,21 @@
+package com.app.umkaSchool.repository;
+
+import com.app.umkaSchool.model.BatchJobCheckpoint;
+import com.app.umkaSchool.model.BatchJobCheckpointId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface BatchJobCheckpointRepository extends JpaRepository<BatchJobCheckpoint, BatchJobCheckpointId> {
+    List<BatchJobCheckpoint> findById_JobNameAndId_RunDate(String jobName, LocalDate runDate);
+
+    @Modifying
+    @Query("DELETE FROM BatchJobCheckpoint c WHERE c.id.jobName = :jobName AND c.id.runDate < :before")
+    int deleteOlderThan(@Param("jobName") String jobName, @Param("before") LocalDate before);
+}
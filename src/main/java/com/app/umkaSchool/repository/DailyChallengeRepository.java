@@ -3,23 +3,70 @@ package com.app.umkaSchool.repository;
 import com.app.umkaSchool.model.DailyChallenge;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface DailyChallengeRepository extends JpaRepository<DailyChallenge, UUID> {
-    @EntityGraph(attributePaths = {"exercises", "exercises.exercise", "exercises.exercise.exerciseType"})
+    @EntityGraph(attributePaths = {"exercises", "exercises.exercise", "exercises.exercise.exerciseType",
+            "createdBy", "createdBy.user"})
     Optional<DailyChallenge> findByChallengeDate(LocalDate challengeDate);
     
     @EntityGraph(attributePaths = {"exercises", "exercises.exercise", "exercises.exercise.exerciseType"})
     Optional<DailyChallenge> findById(UUID id);
     
     boolean existsByChallengeDate(LocalDate challengeDate);
+
+    @Query("SELECT dc.challengeDate FROM DailyChallenge dc WHERE dc.challengeDate BETWEEN :from AND :to")
+    List<LocalDate> findChallengeDatesBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
     
-    @EntityGraph(attributePaths = {"exercises", "exercises.exercise", "exercises.exercise.exerciseType"})
+    @EntityGraph(attributePaths = {"exercises", "exercises.exercise", "exercises.exercise.exerciseType",
+            "createdBy", "createdBy.user"})
     Optional<DailyChallenge> findFirstByOrderByChallengeDateDesc();
-}
 
+    @Query("SELECT dce.dailyChallenge.id FROM DailyChallengeExercise dce " +
+           "WHERE dce.exercise.id = :exerciseId " +
+           "AND dce.dailyChallenge.challengeDate >= :since")
+    List<UUID> findIdsByExerciseIdSince(@Param("exerciseId") UUID exerciseId, @Param("since") LocalDate since);
+
+    /**
+     * Copies the exercises of one challenge into another in a single statement (see
+     * {@link HomeworkRepository#cloneWithExercises}). Order indexes are kept.
+     * @return number of exercises linked to the target challenge
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "WITH src AS MATERIALIZED (" +
+            "    SELECT dce.exercise_id AS source_id, gen_random_uuid() AS clone_id, dce.order_index " +
+            "    FROM {h-schema}daily_challenge_exercise dce WHERE dce.daily_challenge_id = :sourceId" +
+            "), ex AS (" +
+            "    INSERT INTO {h-schema}exercise (exercise_id, exercise_type_id, parameters, difficulty, points) " +
+            "    SELECT s.clone_id, e.exercise_type_id, e.parameters, e.difficulty, e.points " +
+            "    FROM src s JOIN {h-schema}exercise e ON e.exercise_id = s.source_id " +
+            "    RETURNING exercise_id" +
+            ") " +
+            "INSERT INTO {h-schema}daily_challenge_exercise (daily_challenge_id, exercise_id, order_index) " +
+            "SELECT :targetId, ex.exercise_id, s.order_index " +
+            "FROM ex JOIN src s ON s.clone_id = ex.exercise_id", nativeQuery = true)
+    int cloneExercisesInto(@Param("sourceId") UUID sourceId, @Param("targetId") UUID targetId);
+
+    /**
+     * Changes whenever a challenge, its exercise list, one of its exercises or their types, or a teacher
+     * shown as its author changes. Link rows have no updated_at, so they are hashed.
+     */
+    @Query(value = "SELECT md5(concat(" +
+            "    (SELECT concat(count(*), ':', max(updated_at)) FROM {h-schema}daily_challenge), '|', " +
+            "    (SELECT concat(count(*), ':', sum(hashtext(CAST(link AS text)))) FROM {h-schema}daily_challenge_exercise link), '|', " +
+            "    (SELECT concat(count(*), ':', max(updated_at)) FROM {h-schema}exercise), '|', " +
+            "    (SELECT concat(count(*), ':', max(updated_at)) FROM {h-schema}exercise_type), '|', " +
+            "    (SELECT concat(count(*), ':', max(u.updated_at)) FROM {h-schema}teacher t " +
+            "        JOIN {h-schema}app_user u ON u.app_user_id = t.app_user_id)" +
+            "))", nativeQuery = true)
+    String findCatalogFingerprint();
+}
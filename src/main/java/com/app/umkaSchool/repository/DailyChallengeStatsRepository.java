@@ -0,0 +1,41 @@
+package com.app.umkaSchool.repository;
+
+import com.app.umkaSchool.model.DailyChallengeStats;
+import com.app.umkaSchool.model.DailyChallengeStatsId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface DailyChallengeStatsRepository extends JpaRepository<DailyChallengeStats, DailyChallengeStatsId> {
+    List<DailyChallengeStats> findById_DailyChallengeId(UUID dailyChallengeId);
+
+    /**
+     * Adds counter deltas to a challenge exercise's totals, creating the row on first use.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO {h-schema}daily_challenge_stats " +
+            "(daily_challenge_id, exercise_id, attempts, completions, answers, correct_answers, total_score) " +
+            "VALUES (:challengeId, :exerciseId, :attempts, :completions, :answers, :correctAnswers, :totalScore) " +
+            "ON CONFLICT (daily_challenge_id, exercise_id) DO UPDATE SET " +
+            "attempts = daily_challenge_stats.attempts + EXCLUDED.attempts, " +
+            "completions = daily_challenge_stats.completions + EXCLUDED.completions, " +
+            "answers = daily_challenge_stats.answers + EXCLUDED.answers, " +
+            "correct_answers = daily_challenge_stats.correct_answers + EXCLUDED.correct_answers, " +
+            "total_score = daily_challenge_stats.total_score + EXCLUDED.total_score, " +
+            "updated_at = now()", nativeQuery = true)
+    int addCounts(@Param("challengeId") UUID challengeId,
+                  @Param("exerciseId") UUID exerciseId,
+                  @Param("attempts") long attempts,
+                  @Param("completions") long completions,
+                  @Param("answers") long answers,
+                  @Param("correctAnswers") long correctAnswers,
+                  @Param("totalScore") long totalScore);
+}
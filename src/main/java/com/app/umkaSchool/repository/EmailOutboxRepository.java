@@ -0,0 +1,74 @@
+package com.app.umkaSchool.repository;
+
+import com.app.umkaSchool.model.EmailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, UUID> {
+
+    /**
+     * Queues an email unless one with the same dedup key was queued before. Joins the caller's transaction,
+     * so the email is only queued if the caller's work commits.
+     *
+     * @return 1 if queued, 0 if the key already existed
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO {h-schema}email_outbox (dedup_key, recipient, subject, html_content) " +
+            "VALUES (:dedupKey, :recipient, :subject, :htmlContent) " +
+            "ON CONFLICT (dedup_key) DO NOTHING", nativeQuery = true)
+    int enqueue(@Param("dedupKey") String dedupKey,
+                @Param("recipient") String recipient,
+                @Param("subject") String subject,
+                @Param("htmlContent") String htmlContent);
+
+    /**
+     * Locks up to {@code limit} due emails, skipping rows another sender has locked. SENDING rows are due
+     * again once their lease has run out, which recovers emails claimed by a sender that crashed.
+     * Must run in the same transaction as {@link #claim}.
+     */
+    @Query(value = "SELECT * FROM {h-schema}email_outbox " +
+            "WHERE status IN ('PENDING', 'SENDING') AND next_attempt_at <= :now " +
+            "ORDER BY next_attempt_at " +
+            "LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<EmailOutbox> lockDue(@Param("now") ZonedDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "UPDATE {h-schema}email_outbox " +
+            "SET status = 'SENDING', attempts = attempts + 1, next_attempt_at = :leaseUntil " +
+            "WHERE email_outbox_id IN (:ids)", nativeQuery = true)
+    int claim(@Param("ids") List<UUID> ids, @Param("leaseUntil") ZonedDateTime leaseUntil);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE {h-schema}email_outbox " +
+            "SET status = 'SENT', sent_at = :sentAt, last_error = NULL " +
+            "WHERE email_outbox_id = :id", nativeQuery = true)
+    int markSent(@Param("id") UUID id, @Param("sentAt") ZonedDateTime sentAt);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE {h-schema}email_outbox " +
+            "SET status = 'PENDING', next_attempt_at = :nextAttemptAt, last_error = :error " +
+            "WHERE email_outbox_id = :id", nativeQuery = true)
+    int scheduleRetry(@Param("id") UUID id,
+                      @Param("nextAttemptAt") ZonedDateTime nextAttemptAt,
+                      @Param("error") String error);
+
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE {h-schema}email_outbox " +
+            "SET status = 'FAILED', last_error = :error " +
+            "WHERE email_outbox_id = :id", nativeQuery = true)
+    int markFailed(@Param("id") UUID id, @Param("error") String error);
+}
@@ -1,16 +1,26 @@
 package com.app.umkaSchool.repository;
 
 import com.app.umkaSchool.model.ExerciseAttempt;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface ExerciseAttemptRepository extends JpaRepository<ExerciseAttempt, UUID> {
+    // Serializes concurrent updates of one attempt, so each sees what the previous one already reported
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT ea FROM ExerciseAttempt ea WHERE ea.id = :id")
+    Optional<ExerciseAttempt> findByIdForUpdate(@Param("id") UUID id);
+
     @Query("SELECT ea FROM ExerciseAttempt ea " +
            "JOIN FETCH ea.student s " +
            "JOIN FETCH s.user " +
@@ -24,29 +34,81 @@ public interface ExerciseAttemptRepository extends JpaRepository<ExerciseAttempt
     List<ExerciseAttempt> findByStudent_IdAndExercise_IdOrderByCompletedAtDesc(UUID studentId, UUID exerciseId);
     Long countByStudent_Id(UUID studentId);
 
+    // Id of the current transaction, assigning one if it has none yet
+    @Query(value = "SELECT txid_current()", nativeQuery = true)
+    Long currentTransactionId();
+
+    // Snapshot of the current transaction as "xmin:xmax:xip,...", see txid_current_snapshot()
+    @Query(value = "SELECT CAST(txid_current_snapshot() AS text)", nativeQuery = true)
+    String currentSnapshot();
+
+    // Leaderboard seed: row = [student_group_id, student_id, total score]
+    @Query(value = "SELECT s.student_group_id, ea.student_id, CAST(SUM(ea.score) AS bigint) " +
+           "FROM {h-schema}exercise_attempt ea " +
+           "JOIN {h-schema}student s ON s.student_id = ea.student_id " +
+           "WHERE ea.completed_at IS NOT NULL AND s.student_group_id IS NOT NULL " +
+           "GROUP BY s.student_group_id, ea.student_id", nativeQuery = true)
+    List<Object[]> sumScoresByGroupAndStudent();
+
+    // Leaderboard seed: row = [daily_challenge_id, student_id, score on the challenge's exercises]
+    @Query(value = "SELECT dce.daily_challenge_id, ea.student_id, CAST(SUM(ea.score) AS bigint) " +
+           "FROM {h-schema}exercise_attempt ea " +
+           "JOIN {h-schema}daily_challenge_exercise dce ON dce.exercise_id = ea.exercise_id " +
+           "JOIN {h-schema}daily_challenge dc ON dc.daily_challenge_id = dce.daily_challenge_id " +
+           "WHERE ea.completed_at IS NOT NULL AND dc.challenge_date >= :since " +
+           "GROUP BY dce.daily_challenge_id, ea.student_id", nativeQuery = true)
+    List<Object[]> sumScoresByDailyChallengeAndStudent(@Param("since") LocalDate since);
+
+    // Per-bucket totals of completed attempts; row = [bucket_start date, attempts, correct, seconds].
+    // Truncation happens in the given time zone so buckets line up with the application's calendar days.
+    @Query(value = "SELECT CAST(date_trunc(:bucket, ea.completed_at AT TIME ZONE :zone) AS date) AS bucket_start, " +
+           "CAST(COALESCE(SUM(ea.total_attempts), 0) AS bigint) AS attempts, " +
+           "CAST(COALESCE(SUM(ea.total_correct), 0) AS bigint) AS correct, " +
+           "CAST(COALESCE(SUM(EXTRACT(EPOCH FROM (ea.completed_at - ea.started_at))), 0) AS bigint) AS seconds " +
+           "FROM {h-schema}exercise_attempt ea " +
+           "WHERE ea.student_id = :studentId " +
+           "AND ea.completed_at >= :fromTime " +
+           "AND ea.completed_at < :toTime " +
+           "GROUP BY 1 ORDER BY 1", nativeQuery = true)
+    List<Object[]> sumCompletedAttemptsByBucket(@Param("studentId") UUID studentId,
+                                                @Param("bucket") String bucket,
+                                                @Param("zone") String zone,
+                                                @Param("fromTime") ZonedDateTime fromTime,
+                                                @Param("toTime") ZonedDateTime toTime);
+
+    // Weekly report breakdown: row = [student_id, exercise_type name, attempts, correct, seconds]
+    @Query(value = "SELECT ea.student_id, et.name, " +
+           "CAST(SUM(ea.total_attempts) AS bigint), CAST(SUM(ea.total_correct) AS bigint), " +
+           "CAST(COALESCE(SUM(EXTRACT(EPOCH FROM (ea.completed_at - ea.started_at))), 0) AS bigint) " +
+           "FROM {h-schema}exercise_attempt ea " +
+           "JOIN {h-schema}exercise e ON e.exercise_id = ea.exercise_id " +
+           "JOIN {h-schema}exercise_type et ON et.exercise_type_id = e.exercise_type_id " +
+           "WHERE ea.student_id IN (:studentIds) " +
+           "AND ea.completed_at >= :fromTime " +
+           "AND ea.completed_at < :toTime " +
+           "GROUP BY ea.student_id, et.name", nativeQuery = true)
+    List<Object[]> sumCompletedAttemptsBySubject(@Param("studentIds") List<UUID> studentIds,
+                                                 @Param("fromTime") ZonedDateTime fromTime,
+                                                 @Param("toTime") ZonedDateTime toTime);
+
     // Count completed exercises for a student in a homework assignment using JOIN
-    // This joins exercise_attempt -> homework_exercise -> homework_assignment -> (homework_assignment_student OR homework_assignment_student_group)
+    // This joins exercise_attempt -> homework_exercise -> homework_assignment -> homework_assignment_student
+    // (group assignments are expanded into per-student rows, so one equi-join covers both cases)
     @Query("SELECT COUNT(DISTINCT ea.exercise.id) FROM ExerciseAttempt ea " +
            "JOIN HomeworkExercise he ON ea.exercise.id = he.exercise.id " +
            "JOIN HomeworkAssignment ha ON he.homework.id = ha.homework.id " +
-           "LEFT JOIN HomeworkAssignmentStudent has ON ha.id = has.homeworkAssignment.id " +
-           "LEFT JOIN HomeworkAssignmentStudentGroup hasg ON ha.id = hasg.homeworkAssignment.id " +
-           "LEFT JOIN Student s ON s.id = :studentId " +
+           "JOIN HomeworkAssignmentStudent has ON has.homeworkAssignment.id = ha.id AND has.student.id = ea.student.id " +
            "WHERE ha.id = :homeworkAssignmentId " +
            "AND ea.student.id = :studentId " +
-           "AND ea.completedAt IS NOT NULL " +
-           "AND (has.student.id = :studentId OR hasg.studentGroup.id = s.group.id)")
+           "AND ea.completedAt IS NOT NULL")
     Long countCompletedExercises(@Param("homeworkAssignmentId") UUID homeworkAssignmentId, @Param("studentId") UUID studentId);
 
     @Query("SELECT DISTINCT ea.exercise.id FROM ExerciseAttempt ea " +
            "JOIN HomeworkExercise he ON ea.exercise.id = he.exercise.id " +
            "JOIN HomeworkAssignment ha ON he.homework.id = ha.homework.id " +
-           "LEFT JOIN HomeworkAssignmentStudent has ON ha.id = has.homeworkAssignment.id " +
-           "LEFT JOIN HomeworkAssignmentStudentGroup hasg ON ha.id = hasg.homeworkAssignment.id " +
-           "LEFT JOIN Student s ON s.id = :studentId " +
+           "JOIN HomeworkAssignmentStudent has ON has.homeworkAssignment.id = ha.id AND has.student.id = ea.student.id " +
            "WHERE ha.id = :homeworkAssignmentId " +
            "AND ea.student.id = :studentId " +
-           "AND ea.completedAt IS NOT NULL " +
-           "AND (has.student.id = :studentId OR hasg.studentGroup.id = s.group.id)")
+           "AND ea.completedAt IS NOT NULL")
     List<UUID> findCompletedExerciseIds(@Param("homeworkAssignmentId") UUID homeworkAssignmentId, @Param("studentId") UUID studentId);
 }
@@ -2,6 +2,7 @@ package com.app.umkaSchool.repository;
 
 import com.app.umkaSchool.model.ExerciseType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -17,4 +18,14 @@ public interface ExerciseTypeRepository extends JpaRepository<ExerciseType, UUID
     List<ExerciseType> findAllByOrderByNameAsc();
 
     boolean existsByName(String name);
+
+    /**
+     * Changes whenever a type is added, edited or removed, or a teacher shown as a creator is renamed or deleted.
+     */
+    @Query(value = "SELECT md5(concat(" +
+            "    (SELECT concat(count(*), ':', max(updated_at)) FROM {h-schema}exercise_type), '|', " +
+            "    (SELECT concat(count(*), ':', max(u.updated_at)) FROM {h-schema}teacher t " +
+            "        JOIN {h-schema}app_user u ON u.app_user_id = t.app_user_id)" +
+            "))", nativeQuery = true)
+    String findCatalogFingerprint();
 }
\ No newline at end of file
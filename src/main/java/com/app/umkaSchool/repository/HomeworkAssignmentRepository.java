@@ -3,11 +3,14 @@ package com.app.umkaSchool.repository;
 import com.app.umkaSchool.model.HomeworkAssignment;
 import com.app.umkaSchool.model.enums.HomeworkStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -22,9 +25,54 @@ public interface HomeworkAssignmentRepository extends JpaRepository<HomeworkAssi
 
     List<HomeworkAssignment> findByDueDateBeforeAndStatus(ZonedDateTime date, HomeworkStatus status);
 
-    @Query("SELECT ha FROM HomeworkAssignment ha " +
-           "WHERE CAST(ha.dueDate AS date) = CAST(:date AS date)")
-    List<HomeworkAssignment> findByDueDateOnDate(@Param("date") ZonedDateTime date);
+    /**
+     * Marks pending per-student rows of assignments due in [from, to) as OVERDUE.
+     * The half-open range on due_date lets the planner use idx_homework_assignment_due_date.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE {h-schema}homework_assignment_student has " +
+            "SET homework_assignment_status = 'OVERDUE' " +
+            "FROM {h-schema}homework_assignment ha " +
+            "WHERE ha.homework_assignment_id = has.homework_assignment_id " +
+            "AND ha.due_date >= :from AND ha.due_date < :to " +
+            "AND has.homework_assignment_status = 'PENDING'", nativeQuery = true)
+    int markStudentsOverdueDueBetween(@Param("from") ZonedDateTime from, @Param("to") ZonedDateTime to);
+
+    /**
+     * Marks pending assignments due in [from, to) as OVERDUE; completed ones keep their status.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE {h-schema}homework_assignment " +
+            "SET homework_assignment_status = 'OVERDUE' " +
+            "WHERE due_date >= :from AND due_date < :to " +
+            "AND homework_assignment_status = 'PENDING'", nativeQuery = true)
+    int markOverdueDueBetween(@Param("from") ZonedDateTime from, @Param("to") ZonedDateTime to);
+
+    /**
+     * Marks the given assignments and their pending student rows as OVERDUE, in one statement. Assignments
+     * whose due date has moved past {@code now} since they were scheduled are left alone.
+     * @return the number of assignments updated
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query(value = "WITH students AS (" +
+            "    UPDATE {h-schema}homework_assignment_student has " +
+            "    SET homework_assignment_status = 'OVERDUE' " +
+            "    FROM {h-schema}homework_assignment ha " +
+            "    WHERE ha.homework_assignment_id = has.homework_assignment_id " +
+            "    AND ha.homework_assignment_id IN (:assignmentIds) AND ha.due_date <= :now " +
+            "    AND has.homework_assignment_status = 'PENDING'" +
+            ") " +
+            "UPDATE {h-schema}homework_assignment " +
+            "SET homework_assignment_status = 'OVERDUE' " +
+            "WHERE homework_assignment_id IN (:assignmentIds) AND due_date <= :now " +
+            "AND homework_assignment_status = 'PENDING'", nativeQuery = true)
+    int markOverdueByIds(@Param("assignmentIds") Collection<UUID> assignmentIds, @Param("now") ZonedDateTime now);
+
+    // row = [assignment_id, due_date]
+    @Query("SELECT ha.id, ha.dueDate FROM HomeworkAssignment ha " +
+           "WHERE ha.status = com.app.umkaSchool.model.enums.HomeworkStatus.PENDING AND ha.dueDate >= :from")
+    List<Object[]> findPendingDueDatesSince(@Param("from") ZonedDateTime from);
 
     List<HomeworkAssignment> findByAssignedGroups_StudentGroup_Id(UUID groupId);
 
@@ -34,31 +82,113 @@ public interface HomeworkAssignmentRepository extends JpaRepository<HomeworkAssi
 
     boolean existsByHomework_IdAndAssignedStudents_Student_Id(UUID homeworkId, UUID studentId);
 
-    /**
-     * Find all homework assignments for a student including:
-     * 1. Assignments directly assigned to the student
-     * 2. Assignments assigned to the student's group
-     */
-    @Query("SELECT DISTINCT ha FROM HomeworkAssignment ha " +
-           "LEFT JOIN ha.assignedStudents ast " +
-           "LEFT JOIN ha.assignedGroups ag " +
-           "LEFT JOIN Student s ON s.id = :studentId " +
-           "WHERE ast.student.id = :studentId " +
-           "OR ag.studentGroup.id = s.group.id")
-    List<HomeworkAssignment> findAllByStudentIdIncludingGroup(@Param("studentId") UUID studentId);
+    // Student homework list: row = [assignment_id, homework_id, homework_title, teacher_id, teacher_first_name,
+    // teacher_last_name, assigned_at, due_date, the student's own status]
+    @Query("SELECT ha.id, h.id, h.title, t.id, u.firstName, u.lastName, ha.assignedAt, ha.dueDate, ast.status " +
+           "FROM HomeworkAssignmentStudent ast " +
+           "JOIN ast.homeworkAssignment ha " +
+           "JOIN ha.homework h " +
+           "LEFT JOIN ha.teacher t " +
+           "LEFT JOIN t.user u " +
+           "WHERE ast.student.id = :studentId")
+    List<Object[]> findStudentAssignmentRows(@Param("studentId") UUID studentId);
+
+    // Targets of many assignments at once: row = [assignment_id, 'G' | 'S', student_group_id | student_id].
+    // Students materialized from a group are not listed; only direct assignments are.
+    @Query(value = "SELECT hasg.homework_assignment_id, 'G', hasg.student_group_id " +
+            "FROM {h-schema}homework_assignment_student_group hasg " +
+            "WHERE hasg.homework_assignment_id IN (:assignmentIds) " +
+            "UNION ALL " +
+            "SELECT has.homework_assignment_id, 'S', has.student_id " +
+            "FROM {h-schema}homework_assignment_student has " +
+            "WHERE has.homework_assignment_id IN (:assignmentIds) AND has.student_group_id IS NULL", nativeQuery = true)
+    List<Object[]> findAssignmentTargets(@Param("assignmentIds") Collection<UUID> assignmentIds);
 
     /**
      * Find all homework assignments that contain a specific exercise and are assigned to a student
      * JOIN: homework_assignment -> homework -> homework_exercise -> exercise
      * AND: homework_assignment -> homework_assignment_student -> student
      */
-    @Query("SELECT DISTINCT ha FROM HomeworkAssignment ha " +
+    @Query("SELECT ha FROM HomeworkAssignment ha " +
            "JOIN ha.homework h " +
            "JOIN h.exercises he " +
-           "LEFT JOIN ha.assignedStudents ast " +
-           "LEFT JOIN ha.assignedGroups ag " +
-           "LEFT JOIN Student s ON s.id = :studentId " +
+           "JOIN ha.assignedStudents ast " +
            "WHERE he.exercise.id = :exerciseId " +
-           "AND (ast.student.id = :studentId OR ag.studentGroup.id = s.group.id)")
+           "AND ast.student.id = :studentId")
     List<HomeworkAssignment> findByExerciseIdAndStudentId(@Param("exerciseId") UUID exerciseId, @Param("studentId") UUID studentId);
+
+    // row = [exercise_id, order_index]
+    @Query("SELECT he.exercise.id, he.orderIndex FROM HomeworkAssignment ha " +
+           "JOIN ha.homework h JOIN h.exercises he " +
+           "WHERE ha.id = :assignmentId")
+    List<Object[]> findExerciseOrder(@Param("assignmentId") UUID assignmentId);
+
+    @Query("SELECT ha.id FROM HomeworkAssignment ha " +
+           "JOIN ha.homework h JOIN h.exercises he " +
+           "WHERE he.exercise.id = :exerciseId")
+    List<UUID> findIdsByExerciseId(@Param("exerciseId") UUID exerciseId);
+
+    // Progress matrix: one row per (exercise, student) =
+    // [exercise_id, order_index, student_id, first_name, last_name, student status, completed, best score].
+    // Student columns are null for an assignment without students; rows come student by student in exercise order.
+    @Query(value = "SELECT he.exercise_id, he.order_index, has.student_id, u.first_name, u.last_name, " +
+            "       CAST(has.homework_assignment_status AS text), " +
+            "       COALESCE(bool_or(ea.completed_at IS NOT NULL), false), " +
+            "       COALESCE(max(ea.score) FILTER (WHERE ea.completed_at IS NOT NULL), 0) " +
+            "FROM {h-schema}homework_assignment ha " +
+            "JOIN {h-schema}homework_exercise he ON he.homework_id = ha.homework_id " +
+            "LEFT JOIN {h-schema}homework_assignment_student has " +
+            "    ON has.homework_assignment_id = ha.homework_assignment_id " +
+            "LEFT JOIN {h-schema}student s ON s.student_id = has.student_id " +
+            "LEFT JOIN {h-schema}app_user u ON u.app_user_id = s.app_user_id " +
+            "LEFT JOIN {h-schema}exercise_attempt ea " +
+            "    ON ea.student_id = has.student_id AND ea.exercise_id = he.exercise_id " +
+            "WHERE ha.homework_assignment_id = :assignmentId " +
+            "GROUP BY he.exercise_id, he.order_index, has.student_id, u.first_name, u.last_name, " +
+            "         has.homework_assignment_status " +
+            "ORDER BY u.last_name, u.first_name, has.student_id, he.order_index, he.exercise_id", nativeQuery = true)
+    List<Object[]> findProgressMatrixRows(@Param("assignmentId") UUID assignmentId);
+
+    @Query("SELECT ag.id.homeworkAssignmentId FROM HomeworkAssignmentStudentGroup ag " +
+           "WHERE ag.id.studentGroupId IN :groupIds")
+    List<UUID> findIdsByGroupIds(@Param("groupIds") Collection<UUID> groupIds);
+
+    @Query("SELECT ha.status FROM HomeworkAssignment ha WHERE ha.id = :assignmentId")
+    HomeworkStatus findStatusById(@Param("assignmentId") UUID assignmentId);
+
+    /**
+     * Recomputes assigned_count and completed_count from the per-student rows, then derives the global
+     * status from them. Used when membership changes.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE {h-schema}homework_assignment ha " +
+            "SET assigned_count = c.assigned, completed_count = c.completed, " +
+            "    homework_assignment_status = CAST(CASE " +
+            "        WHEN c.assigned > 0 AND c.completed >= c.assigned THEN 'COMPLETED' " +
+            "        WHEN ha.due_date < now() THEN 'OVERDUE' " +
+            "        ELSE 'PENDING' END AS {h-schema}homework_status) " +
+            "FROM (" +
+            "    SELECT a.homework_assignment_id, count(has.student_id) AS assigned, " +
+            "           count(has.student_id) FILTER (WHERE has.homework_assignment_status = 'COMPLETED') AS completed " +
+            "    FROM {h-schema}homework_assignment a " +
+            "    LEFT JOIN {h-schema}homework_assignment_student has " +
+            "        ON has.homework_assignment_id = a.homework_assignment_id " +
+            "    WHERE a.homework_assignment_id IN (:assignmentIds) " +
+            "    GROUP BY a.homework_assignment_id" +
+            ") c " +
+            "WHERE ha.homework_assignment_id = c.homework_assignment_id", nativeQuery = true)
+    int recountStudents(@Param("assignmentIds") Collection<UUID> assignmentIds);
+
+    /**
+     * Records one more student completing the assignment; the global status flips to COMPLETED in the same
+     * statement once every assigned student is done.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE {h-schema}homework_assignment " +
+            "SET completed_count = completed_count + 1, " +
+            "    homework_assignment_status = CASE WHEN completed_count + 1 >= assigned_count " +
+            "        THEN 'COMPLETED' ELSE homework_assignment_status END " +
+            "WHERE homework_assignment_id = :assignmentId", nativeQuery = true)
+    int incrementCompletedCount(@Param("assignmentId") UUID assignmentId);
 }
@@ -3,13 +3,174 @@ package com.app.umkaSchool.repository;
 import com.app.umkaSchool.model.HomeworkAssignmentStudent;
 import com.app.umkaSchool.model.HomeworkAssignmentStudentId;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface HomeworkAssignmentStudentRepository extends JpaRepository<HomeworkAssignmentStudent, HomeworkAssignmentStudentId> {
     Optional<HomeworkAssignmentStudent> findById_HomeworkAssignmentIdAndId_StudentId(UUID homeworkAssignmentId, UUID studentId);
+
+    @Query("SELECT has.completedExercises FROM HomeworkAssignmentStudent has " +
+           "WHERE has.id.homeworkAssignmentId = :assignmentId AND has.id.studentId = :studentId")
+    Long findCompletedExercises(@Param("assignmentId") UUID assignmentId, @Param("studentId") UUID studentId);
+
+    /**
+     * Sets the exercise's bit in the completion bitset of every assignment of this student that contains it.
+     * Rows whose bitset was never computed are first seeded from the student's completed attempts.
+     * Exercises with an order index outside 0..63 are not tracked.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE {h-schema}homework_assignment_student has " +
+            "SET completed_exercises = (CAST(1 AS bigint) << he.order_index) | COALESCE(has.completed_exercises, (" +
+            "    SELECT COALESCE(bit_or(CAST(1 AS bigint) << done.order_index), 0) " +
+            "    FROM {h-schema}homework_exercise done " +
+            "    WHERE done.homework_id = ha.homework_id AND done.order_index BETWEEN 0 AND 63 " +
+            "    AND EXISTS (SELECT 1 FROM {h-schema}exercise_attempt ea " +
+            "                WHERE ea.student_id = has.student_id AND ea.exercise_id = done.exercise_id " +
+            "                AND ea.completed_at IS NOT NULL))) " +
+            "FROM {h-schema}homework_assignment ha " +
+            "JOIN {h-schema}homework_exercise he ON he.homework_id = ha.homework_id " +
+            "WHERE has.homework_assignment_id = ha.homework_assignment_id " +
+            "AND has.student_id = :studentId AND he.exercise_id = :exerciseId " +
+            "AND he.order_index BETWEEN 0 AND 63", nativeQuery = true)
+    int markExerciseCompleted(@Param("studentId") UUID studentId, @Param("exerciseId") UUID exerciseId);
+
+    // Completion state of a student's assignments containing an exercise:
+    // row = [assignment_id, status, completed_exercises, full_mask, exercise_count, trackable_count].
+    // The bitset is only usable when every exercise has its own order index in 0..63 (trackable = count).
+    @Query(value = "SELECT has.homework_assignment_id, CAST(has.homework_assignment_status AS text), " +
+            "       has.completed_exercises, m.full_mask, m.exercise_count, m.trackable_count " +
+            "FROM {h-schema}homework_assignment_student has " +
+            "JOIN {h-schema}homework_assignment ha ON ha.homework_assignment_id = has.homework_assignment_id " +
+            "JOIN LATERAL (" +
+            "    SELECT COALESCE(bit_or(CAST(1 AS bigint) << x.order_index) " +
+            "               FILTER (WHERE x.order_index BETWEEN 0 AND 63), 0) AS full_mask, " +
+            "           count(*) AS exercise_count, " +
+            "           count(DISTINCT x.order_index) FILTER (WHERE x.order_index BETWEEN 0 AND 63) AS trackable_count " +
+            "    FROM {h-schema}homework_exercise x WHERE x.homework_id = ha.homework_id" +
+            ") m ON TRUE " +
+            "WHERE has.student_id = :studentId " +
+            "AND EXISTS (SELECT 1 FROM {h-schema}homework_exercise he " +
+            "            WHERE he.homework_id = ha.homework_id AND he.exercise_id = :exerciseId)", nativeQuery = true)
+    List<Object[]> findCompletionByExerciseAndStudent(@Param("studentId") UUID studentId,
+                                                      @Param("exerciseId") UUID exerciseId);
+
+    /**
+     * Expands groups of an assignment into one row per current group member. Students who already have a row
+     * (assigned directly or through another group) are left as they are. Rows for assignments that are already
+     * past due start as OVERDUE.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO {h-schema}homework_assignment_student " +
+            "(homework_assignment_id, student_id, homework_assignment_status, student_group_id) " +
+            "SELECT ha.homework_assignment_id, s.student_id, " +
+            "       CAST(CASE WHEN ha.due_date < now() THEN 'OVERDUE' ELSE 'PENDING' END AS {h-schema}homework_status), " +
+            "       s.student_group_id " +
+            "FROM {h-schema}homework_assignment ha " +
+            "JOIN {h-schema}student s ON s.student_group_id IN (:groupIds) " +
+            "WHERE ha.homework_assignment_id = :assignmentId " +
+            "ON CONFLICT (homework_assignment_id, student_id) DO NOTHING", nativeQuery = true)
+    int insertGroupMembers(@Param("assignmentId") UUID assignmentId, @Param("groupIds") Collection<UUID> groupIds);
+
+    /**
+     * Adds rows for a student who joined a group, one per assignment given to that group.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO {h-schema}homework_assignment_student " +
+            "(homework_assignment_id, student_id, homework_assignment_status, student_group_id) " +
+            "SELECT ha.homework_assignment_id, :studentId, " +
+            "       CAST(CASE WHEN ha.due_date < now() THEN 'OVERDUE' ELSE 'PENDING' END AS {h-schema}homework_status), " +
+            "       hasg.student_group_id " +
+            "FROM {h-schema}homework_assignment_student_group hasg " +
+            "JOIN {h-schema}homework_assignment ha ON ha.homework_assignment_id = hasg.homework_assignment_id " +
+            "WHERE hasg.student_group_id = :groupId " +
+            "ON CONFLICT (homework_assignment_id, student_id) DO NOTHING", nativeQuery = true)
+    int insertForGroupMember(@Param("studentId") UUID studentId, @Param("groupId") UUID groupId);
+
+    /**
+     * Marks the student's row COMPLETED unless it already is. Two completions racing on the same row serialize
+     * on its lock, and only the first one changes it.
+     *
+     * @return 1 if this call completed the row, 0 if it was already completed
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE {h-schema}homework_assignment_student " +
+            "SET homework_assignment_status = CAST('COMPLETED' AS {h-schema}homework_status) " +
+            "WHERE homework_assignment_id = :assignmentId AND student_id = :studentId " +
+            "AND homework_assignment_status <> 'COMPLETED'", nativeQuery = true)
+    int markStudentCompleted(@Param("assignmentId") UUID assignmentId, @Param("studentId") UUID studentId);
+
+    // Due-soon reminders: row = [student_id, email, first_name, homework_title] for each active student
+    // who has not completed the assignment yet
+    @Query(value = "SELECT s.student_id, u.email, u.first_name, h.title " +
+            "FROM {h-schema}homework_assignment_student has " +
+            "JOIN {h-schema}homework_assignment ha ON ha.homework_assignment_id = has.homework_assignment_id " +
+            "JOIN {h-schema}homework h ON h.homework_id = ha.homework_id " +
+            "JOIN {h-schema}student s ON s.student_id = has.student_id " +
+            "JOIN {h-schema}app_user u ON u.app_user_id = s.app_user_id " +
+            "WHERE has.homework_assignment_id = :assignmentId " +
+            "AND has.homework_assignment_status = 'PENDING' AND u.is_active", nativeQuery = true)
+    List<Object[]> findPendingReminderRecipients(@Param("assignmentId") UUID assignmentId);
+
+    @Query("SELECT has.id.homeworkAssignmentId FROM HomeworkAssignmentStudent has WHERE has.id.studentId = :studentId")
+    List<UUID> findAssignmentIdsByStudentId(@Param("studentId") UUID studentId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM {h-schema}homework_assignment_student WHERE student_id = :studentId", nativeQuery = true)
+    int deleteByStudent(@Param("studentId") UUID studentId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM {h-schema}homework_assignment_student " +
+            "WHERE homework_assignment_id = :assignmentId AND student_group_id = :groupId", nativeQuery = true)
+    int deleteByAssignmentAndSourceGroup(@Param("assignmentId") UUID assignmentId, @Param("groupId") UUID groupId);
+
+    /**
+     * Turns the student's completed rows from a group they left into direct rows, so finished homework stays
+     * on their record.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "UPDATE {h-schema}homework_assignment_student SET student_group_id = NULL " +
+            "WHERE student_id = :studentId AND student_group_id = :groupId " +
+            "AND homework_assignment_status = 'COMPLETED'", nativeQuery = true)
+    int detachCompletedFromSourceGroup(@Param("studentId") UUID studentId, @Param("groupId") UUID groupId);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = "DELETE FROM {h-schema}homework_assignment_student " +
+            "WHERE student_id = :studentId AND student_group_id = :groupId " +
+            "AND homework_assignment_status <> 'COMPLETED'", nativeQuery = true)
+    int deleteByStudentAndSourceGroup(@Param("studentId") UUID studentId, @Param("groupId") UUID groupId);
+
+    @Query(value = "SELECT DISTINCT hasg.homework_assignment_id " +
+            "FROM {h-schema}homework_assignment_student_group hasg " +
+            "JOIN {h-schema}student s ON s.student_group_id = hasg.student_group_id " +
+            "WHERE NOT EXISTS (SELECT 1 FROM {h-schema}homework_assignment_student has " +
+            "                  WHERE has.homework_assignment_id = hasg.homework_assignment_id " +
+            "                  AND has.student_id = s.student_id)", nativeQuery = true)
+    List<UUID> findAssignmentIdsMissingGroupMembers();
+
+    /**
+     * Materializes every group assignment that has no per-student rows yet (data created before rows were
+     * expanded at assign time).
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO {h-schema}homework_assignment_student " +
+            "(homework_assignment_id, student_id, homework_assignment_status, student_group_id) " +
+            "SELECT hasg.homework_assignment_id, s.student_id, " +
+            "       CAST(CASE WHEN ha.due_date < now() THEN 'OVERDUE' ELSE 'PENDING' END AS {h-schema}homework_status), " +
+            "       hasg.student_group_id " +
+            "FROM {h-schema}homework_assignment_student_group hasg " +
+            "JOIN {h-schema}homework_assignment ha ON ha.homework_assignment_id = hasg.homework_assignment_id " +
+            "JOIN {h-schema}student s ON s.student_group_id = hasg.student_group_id " +
+            "ON CONFLICT (homework_assignment_id, student_id) DO NOTHING", nativeQuery = true)
+    int insertMissingGroupMembers();
 }
 
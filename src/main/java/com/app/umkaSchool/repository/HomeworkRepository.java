@@ -3,6 +3,7 @@ package com.app.umkaSchool.repository;
 import com.app.umkaSchool.model.Homework;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -32,5 +33,43 @@ public interface HomeworkRepository extends JpaRepository<Homework, UUID> {
            "LEFT JOIN FETCH e.exerciseType " +
            "WHERE h.id = :homeworkId")
     Optional<Homework> findByIdWithExercises(@Param("homeworkId") UUID homeworkId);
-}
 
+    /**
+     * Copies a homework, its exercises and their links in one statement. Clone ids for the exercises are
+     * generated in a materialized CTE so the exercise insert and the link insert see the same values.
+     * @return number of exercises linked to the clone
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "WITH src AS MATERIALIZED (" +
+            "    SELECT he.exercise_id AS source_id, gen_random_uuid() AS clone_id, he.order_index, he.required_attempts " +
+            "    FROM {h-schema}homework_exercise he WHERE he.homework_id = :sourceId" +
+            "), hw AS (" +
+            "    INSERT INTO {h-schema}homework (homework_id, title, description, teacher_id) " +
+            "    SELECT :cloneId, h.title, h.description, h.teacher_id FROM {h-schema}homework h " +
+            "    WHERE h.homework_id = :sourceId " +
+            "    RETURNING homework_id" +
+            "), ex AS (" +
+            "    INSERT INTO {h-schema}exercise (exercise_id, exercise_type_id, parameters, difficulty, points) " +
+            "    SELECT s.clone_id, e.exercise_type_id, e.parameters, e.difficulty, e.points " +
+            "    FROM src s JOIN {h-schema}exercise e ON e.exercise_id = s.source_id " +
+            "    RETURNING exercise_id" +
+            ") " +
+            "INSERT INTO {h-schema}homework_exercise (homework_id, exercise_id, order_index, required_attempts) " +
+            "SELECT hw.homework_id, ex.exercise_id, s.order_index, COALESCE(s.required_attempts, 1) " +
+            "FROM ex JOIN src s ON s.clone_id = ex.exercise_id CROSS JOIN hw", nativeQuery = true)
+    int cloneWithExercises(@Param("sourceId") UUID sourceId, @Param("cloneId") UUID cloneId);
+
+    /**
+     * Changes whenever a homework, its exercise list, one of its exercises or their types, or a teacher
+     * shown as its author changes. Link rows have no updated_at, so they are hashed.
+     */
+    @Query(value = "SELECT md5(concat(" +
+            "    (SELECT concat(count(*), ':', max(updated_at)) FROM {h-schema}homework), '|', " +
+            "    (SELECT concat(count(*), ':', sum(hashtext(CAST(link AS text)))) FROM {h-schema}homework_exercise link), '|', " +
+            "    (SELECT concat(count(*), ':', max(updated_at)) FROM {h-schema}exercise), '|', " +
+            "    (SELECT concat(count(*), ':', max(updated_at)) FROM {h-schema}exercise_type), '|', " +
+            "    (SELECT concat(count(*), ':', max(u.updated_at)) FROM {h-schema}teacher t " +
+            "        JOIN {h-schema}app_user u ON u.app_user_id = t.app_user_id)" +
+            "))", nativeQuery = true)
+    String findCatalogFingerprint();
+}
@@ -8,15 +8,39 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Repository
-public interface StudentAchievementRepository extends JpaRepository<StudentAchievement, StudentAchievementId> {
+public interface StudentAchievementRepository extends JpaRepository<StudentAchievement, StudentAchievementId>,
+        StudentAchievementRepositoryCustom {
     @Query("SELECT sa FROM StudentAchievement sa JOIN FETCH sa.achievement WHERE sa.student.id = :studentId ORDER BY sa.earnedAt DESC")
     List<StudentAchievement> findByStudent_Id(@Param("studentId") UUID studentId);
+
+    @Query("SELECT sa FROM StudentAchievement sa JOIN FETCH sa.achievement " +
+            "WHERE sa.student.id = :studentId AND sa.earnedAt > :cutoff ORDER BY sa.earnedAt DESC")
+    List<StudentAchievement> findRecentByStudentId(@Param("studentId") UUID studentId,
+                                                   @Param("cutoff") ZonedDateTime cutoff);
     
     boolean existsByStudent_IdAndAchievement_Id(UUID studentId, UUID achievementId);
+
+    @Query("SELECT sa.id.achievementId FROM StudentAchievement sa WHERE sa.id.studentId = :studentId")
+    Set<UUID> findAchievementIdsByStudentId(@Param("studentId") UUID studentId);
+
+    /**
+     * Awards several achievements in one statement; ids the student already holds are skipped.
+     * @return ids of the achievements this statement awarded, without those a concurrent award got first
+     */
+    @Query(value = "INSERT INTO {h-schema}student_achievement (student_id, achievement_id, earned_at) " +
+            "SELECT :studentId, a.achievement_id, now() FROM {h-schema}achievement a " +
+            "WHERE a.achievement_id IN (:achievementIds) " +
+            "ON CONFLICT (student_id, achievement_id) DO NOTHING " +
+            "RETURNING achievement_id", nativeQuery = true)
+    List<UUID> insertIgnoringExisting(@Param("studentId") UUID studentId,
+                               @Param("achievementIds") Collection<UUID> achievementIds);
 }
 
 
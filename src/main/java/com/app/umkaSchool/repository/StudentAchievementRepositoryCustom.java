@@ -0,0 +1,19 @@
+package com.app.umkaSchool.repository;
+
+import com.app.umkaSchool.service.achievement.AchievementCriteria;
+
+import java.util.Collection;
+import java.util.UUID;
+
+public interface StudentAchievementRepositoryCustom {
+
+    /**
+     * Awards {@code achievementId} to every student in {@code studentIds} whose latest progress snapshot
+     * satisfies {@code criteria}, in a single INSERT ... SELECT. Students without snapshots are treated as
+     * having all metrics at zero, and a streak counts as zero unless the snapshot is from today or yesterday;
+     * students who already hold the achievement are skipped.
+     *
+     * @return number of students newly awarded
+     */
+    int awardMatching(UUID achievementId, AchievementCriteria criteria, Collection<UUID> studentIds);
+}
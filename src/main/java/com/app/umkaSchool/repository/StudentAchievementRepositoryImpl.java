@@ -0,0 +1,48 @@
+package com.app.umkaSchool.repository;
+
+import com.app.umkaSchool.service.achievement.AchievementCriteria;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.UUID;
+
+public class StudentAchievementRepositoryImpl implements StudentAchievementRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int awardMatching(UUID achievementId, AchievementCriteria criteria, Collection<UUID> studentIds) {
+        if (studentIds.isEmpty()) {
+            return 0;
+        }
+        // Unlike checkAndAward, which runs right after an attempt and reads only today's snapshot, the backfill
+        // reads each student's latest snapshot, which may be older. Its streak still counts if the snapshot is
+        // from yesterday, since the student can extend it today, but not once a whole day was missed.
+        String predicate = criteria.toSql(metric -> metric == AchievementCriteria.Metric.CURRENT_STREAK
+                ? "CASE WHEN ps.snapshot_date >= :streakSince THEN COALESCE(ps.current_streak, 0) ELSE 0 END"
+                : "COALESCE(ps." + metric.column() + ", 0)");
+        String sql = "INSERT INTO {h-schema}student_achievement (student_id, achievement_id, earned_at) " +
+                "SELECT st.student_id, :achievementId, now() " +
+                "FROM {h-schema}student st " +
+                "LEFT JOIN LATERAL (" +
+                "    SELECT p.snapshot_date, p.total_attempts, p.total_correct, p.total_practice_seconds, p.current_streak " +
+                "    FROM {h-schema}progress_snapshot p " +
+                "    WHERE p.student_id = st.student_id " +
+                "    ORDER BY p.snapshot_date DESC " +
+                "    LIMIT 1" +
+                ") ps ON TRUE " +
+                "WHERE st.student_id IN (:studentIds) AND " + predicate + " " +
+                "ON CONFLICT (student_id, achievement_id) DO NOTHING";
+        Query query = entityManager.createNativeQuery(sql)
+                .setParameter("achievementId", achievementId)
+                .setParameter("studentIds", studentIds);
+        if (sql.contains(":streakSince")) {
+            query.setParameter("streakSince", LocalDate.now().minusDays(1));
+        }
+        return query.executeUpdate();
+    }
+}
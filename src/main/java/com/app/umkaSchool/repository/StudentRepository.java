@@ -3,8 +3,11 @@ package com.app.umkaSchool.repository;
 import com.app.umkaSchool.model.Student;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -30,4 +33,124 @@ public interface StudentRepository extends JpaRepository<Student, UUID> {
     List<Student> findByGroupIdOrderByName(UUID groupId);
 
     boolean existsByUser_Email(String email);
+
+    @Query("SELECT s.id FROM Student s")
+    List<UUID> findAllIds();
+
+    // row = [student_id, first_name, last_name]
+    @Query("SELECT s.id, u.firstName, u.lastName FROM Student s JOIN s.user u")
+    List<Object[]> findAllNames();
+
+    @Query("SELECT s.id, u.firstName, u.lastName FROM Student s JOIN s.user u WHERE s.id = :studentId")
+    List<Object[]> findNameById(@Param("studentId") UUID studentId);
+
+    /**
+     * Per-student progress for every student of a teacher (directly or through one of the teacher's groups),
+     * with group totals attached through window functions. Streaks are found with the gaps-and-islands
+     * technique over distinct activity dates: consecutive dates share the same (date - row_number) value.
+     * <p>
+     * Row: [0] group_id, [1] group_name, [2] student_id, [3] first_name, [4] last_name,
+     * [5] attempts, [6] correct, [7] seconds, [8] last_activity, [9] current_streak, [10] best_streak,
+     * [11] group_attempts, [12] group_correct, [13] group_seconds, [14] group_last_activity
+     */
+    @Query(value = "WITH scoped AS (" +
+           "  SELECT s.student_id, s.student_group_id, g.name AS group_name, u.first_name, u.last_name " +
+           "  FROM {h-schema}student s " +
+           "  JOIN {h-schema}app_user u ON u.app_user_id = s.app_user_id " +
+           "  LEFT JOIN {h-schema}student_group g ON g.student_group_id = s.student_group_id " +
+           "  WHERE s.teacher_id = :teacherId OR g.teacher_id = :teacherId" +
+           "), attempts AS (" +
+           "  SELECT ea.student_id, ea.started_at, ea.completed_at, ea.total_attempts, ea.total_correct, " +
+           "         CAST(ea.completed_at AT TIME ZONE :zone AS date) AS activity_date " +
+           "  FROM {h-schema}exercise_attempt ea " +
+           "  JOIN scoped sc ON sc.student_id = ea.student_id " +
+           "  WHERE ea.completed_at IS NOT NULL" +
+           "), totals AS (" +
+           "  SELECT student_id, " +
+           "         SUM(total_attempts) FILTER (WHERE completed_at >= :since) AS attempts, " +
+           "         SUM(total_correct) FILTER (WHERE completed_at >= :since) AS correct, " +
+           "         SUM(EXTRACT(EPOCH FROM (completed_at - started_at))) FILTER (WHERE completed_at >= :since) AS seconds, " +
+           "         MAX(completed_at) AS last_activity " +
+           "  FROM attempts GROUP BY student_id" +
+           "), islands AS (" +
+           "  SELECT student_id, activity_date, " +
+           "         activity_date - CAST(ROW_NUMBER() OVER (PARTITION BY student_id ORDER BY activity_date) AS int) AS island " +
+           "  FROM (SELECT DISTINCT student_id, activity_date FROM attempts) days" +
+           "), streaks AS (" +
+           "  SELECT student_id, COUNT(*) AS streak_length, MAX(activity_date) AS last_day " +
+           "  FROM islands GROUP BY student_id, island" +
+           "), streak_summary AS (" +
+           "  SELECT student_id, MAX(streak_length) AS best_streak, " +
+           "         MAX(CASE WHEN last_day = :today THEN streak_length ELSE 0 END) AS current_streak " +
+           "  FROM streaks GROUP BY student_id" +
+           ") " +
+           "SELECT sc.student_group_id, sc.group_name, sc.student_id, sc.first_name, sc.last_name, " +
+           "       CAST(COALESCE(t.attempts, 0) AS bigint), CAST(COALESCE(t.correct, 0) AS bigint), " +
+           "       CAST(COALESCE(t.seconds, 0) AS bigint), t.last_activity, " +
+           "       CAST(COALESCE(ss.current_streak, 0) AS int), CAST(COALESCE(ss.best_streak, 0) AS int), " +
+           "       CAST(SUM(COALESCE(t.attempts, 0)) OVER w AS bigint), " +
+           "       CAST(SUM(COALESCE(t.correct, 0)) OVER w AS bigint), " +
+           "       CAST(SUM(COALESCE(t.seconds, 0)) OVER w AS bigint), " +
+           "       MAX(t.last_activity) OVER w " +
+           "FROM scoped sc " +
+           "LEFT JOIN totals t ON t.student_id = sc.student_id " +
+           "LEFT JOIN streak_summary ss ON ss.student_id = sc.student_id " +
+           "WINDOW w AS (PARTITION BY sc.student_group_id) " +
+           "ORDER BY sc.group_name NULLS LAST, sc.student_group_id, sc.last_name, sc.first_name", nativeQuery = true)
+    List<Object[]> findTeacherStudentStats(@Param("teacherId") UUID teacherId,
+                                           @Param("since") ZonedDateTime since,
+                                           @Param("today") LocalDate today,
+                                           @Param("zone") String zone);
+
+    /**
+     * Weekly report totals for a chunk of students, one row per student. The current streak uses the same
+     * gaps-and-islands grouping as {@link #findTeacherStudentStats}, but only over attempts completed since
+     * {@code streakSince}, so the scan does not grow with a student's whole history and longer streaks are
+     * reported as the window's length. Homework counts every assignment the student had been given by the end
+     * of the week.
+     * <p>
+     * Row: [0] student_id, [1] first_name, [2] last_name, [3] guardian_email, [4] guardian_first_name,
+     * [5] attempts, [6] correct, [7] seconds, [8] current_streak, [9] completed_homework, [10] total_homework
+     */
+    @Query(value = "WITH week AS (" +
+           "  SELECT student_id, SUM(total_attempts) AS attempts, SUM(total_correct) AS correct, " +
+           "         SUM(EXTRACT(EPOCH FROM (completed_at - started_at))) AS seconds " +
+           "  FROM {h-schema}exercise_attempt " +
+           "  WHERE student_id IN (:studentIds) AND completed_at >= :weekStart AND completed_at < :weekEnd " +
+           "  GROUP BY student_id" +
+           "), islands AS (" +
+           "  SELECT student_id, activity_date, " +
+           "         activity_date - CAST(ROW_NUMBER() OVER (PARTITION BY student_id ORDER BY activity_date) AS int) AS island " +
+           "  FROM (SELECT DISTINCT student_id, CAST(completed_at AT TIME ZONE :zone AS date) AS activity_date " +
+           "        FROM {h-schema}exercise_attempt " +
+           "        WHERE student_id IN (:studentIds) AND completed_at >= :streakSince) days" +
+           "), streaks AS (" +
+           "  SELECT student_id, COUNT(*) AS current_streak " +
+           "  FROM islands GROUP BY student_id, island " +
+           "  HAVING MAX(activity_date) = :today" +
+           "), homework AS (" +
+           "  SELECT has.student_id, COUNT(*) AS total, " +
+           "         COUNT(*) FILTER (WHERE has.homework_assignment_status = 'COMPLETED') AS completed " +
+           "  FROM {h-schema}homework_assignment_student has " +
+           "  JOIN {h-schema}homework_assignment ha ON ha.homework_assignment_id = has.homework_assignment_id " +
+           "  WHERE has.student_id IN (:studentIds) AND ha.assigned_at < :weekEnd " +
+           "  GROUP BY has.student_id" +
+           ") " +
+           "SELECT s.student_id, u.first_name, u.last_name, g.email, g.first_name, " +
+           "       CAST(COALESCE(w.attempts, 0) AS bigint), CAST(COALESCE(w.correct, 0) AS bigint), " +
+           "       CAST(COALESCE(w.seconds, 0) AS bigint), CAST(COALESCE(st.current_streak, 0) AS int), " +
+           "       CAST(COALESCE(h.completed, 0) AS int), CAST(COALESCE(h.total, 0) AS int) " +
+           "FROM {h-schema}student s " +
+           "JOIN {h-schema}app_user u ON u.app_user_id = s.app_user_id " +
+           "JOIN {h-schema}guardian g ON g.guardian_id = s.guardian_id " +
+           "LEFT JOIN week w ON w.student_id = s.student_id " +
+           "LEFT JOIN streaks st ON st.student_id = s.student_id " +
+           "LEFT JOIN homework h ON h.student_id = s.student_id " +
+           "WHERE s.student_id IN (:studentIds)", nativeQuery = true)
+    List<Object[]> findWeeklyReportRows(@Param("studentIds") List<UUID> studentIds,
+                                        @Param("weekStart") ZonedDateTime weekStart,
+                                        @Param("weekEnd") ZonedDateTime weekEnd,
+                                        @Param("streakSince") ZonedDateTime streakSince,
+                                        @Param("today") LocalDate today,
+                                        @Param("zone") String zone);
 }
\ No newline at end of file
@@ -1,9 +1,13 @@
 package com.app.umkaSchool.service;
 
+import com.app.umkaSchool.dto.achievement.AchievementBackfillResponse;
 import com.app.umkaSchool.dto.achievement.AchievementResponse;
+import com.app.umkaSchool.dto.achievement.CreateAchievementRequest;
 import com.app.umkaSchool.model.ExerciseAttempt;
 import com.app.umkaSchool.model.Student;
 
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
 import java.util.List;
 import java.util.UUID;
 
@@ -12,6 +16,10 @@ public interface AchievementService {
     List<AchievementResponse> getAllAchievements();
     List<AchievementResponse> getStudentAchievements(UUID studentId);
     List<AchievementResponse> getRecentStudentAchievements(UUID studentId, int hours);
+    AchievementResponse createAchievement(CreateAchievementRequest request);
+    AchievementBackfillResponse backfillAchievement(UUID achievementId);
+    AchievementBackfillResponse getBackfillStatus(UUID achievementId);
+    SseEmitter subscribeToAchievements(UUID studentId);
 }
 
 
@@ -2,6 +2,8 @@ package com.app.umkaSchool.service;
 
 import com.app.umkaSchool.dto.dailychallenge.CreateDailyChallengeRequest;
 import com.app.umkaSchool.dto.dailychallenge.DailyChallengeResponse;
+import com.app.umkaSchool.dto.dailychallenge.PlanDailyChallengesRequest;
+import com.app.umkaSchool.dto.dailychallenge.PlanDailyChallengesResponse;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -12,8 +14,10 @@ public interface DailyChallengeService {
     DailyChallengeResponse getDailyChallengeById(UUID challengeId);
     DailyChallengeResponse getDailyChallengeByDate(LocalDate date);
     DailyChallengeResponse getTodayChallenge();
+    void refreshTodayChallenge();
     List<DailyChallengeResponse> getAllDailyChallenges();
     void deleteDailyChallenge(UUID challengeId);
     void createTodayChallengeIfNotExists();
+    PlanDailyChallengesResponse planDailyChallenges(PlanDailyChallengesRequest request);
 }
 
@@ -0,0 +1,10 @@
+package com.app.umkaSchool.service;
+
+import com.app.umkaSchool.dto.dailychallenge.DailyChallengeStatsResponse;
+
+import java.util.UUID;
+
+public interface DailyChallengeStatsService {
+    DailyChallengeStatsResponse getChallengeStats(UUID challengeId);
+    void flushCounters();
+}
@@ -2,8 +2,44 @@ package com.app.umkaSchool.service;
 
 import com.app.umkaSchool.dto.weeklyreport.WeeklyReportData;
 
+import java.time.ZonedDateTime;
+import java.util.List;
+
 public interface EmailService {
+    /**
+     * Prefix of the error reported for an email whose request may have reached the provider before it failed,
+     * such as a read timeout. Sending it again could deliver it twice.
+     */
+    String UNKNOWN_OUTCOME = "Outcome unknown: ";
+
     void sendPasswordReset(String toEmail, String resetLink);
     void sendWelcomeEmail(String toEmail, String firstName, String lastName);
     void sendWeeklyReport(String guardianEmail, String guardianFirstName, WeeklyReportData reportData);
+
+    /**
+     * Queues a weekly report in the email outbox; a report already queued under {@code dedupKey} is kept as is.
+     */
+    void queueWeeklyReport(String dedupKey, String guardianEmail, String guardianFirstName, WeeklyReportData reportData);
+
+    /**
+     * Queues a "homework due soon" reminder in the email outbox; a reminder already queued under
+     * {@code dedupKey} is kept as is.
+     */
+    void queueHomeworkReminder(String dedupKey, String toEmail, String firstName, String homeworkTitle,
+                               ZonedDateTime dueDate);
+
+    /**
+     * Sends already rendered emails right away, batching them into as few provider requests as possible.
+     *
+     * @return one entry per email, in order: null if the provider accepted it, otherwise the error, starting
+     * with {@link #UNKNOWN_OUTCOME} if the email may have been sent anyway
+     */
+    List<String> deliverBatch(List<OutgoingEmail> emails);
+
+    static boolean isUnknownOutcome(String error) {
+        return error != null && error.startsWith(UNKNOWN_OUTCOME);
+    }
+
+    record OutgoingEmail(String toEmail, String subject, String htmlContent) {
+    }
 }
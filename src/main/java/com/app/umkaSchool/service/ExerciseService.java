@@ -40,4 +40,10 @@ public interface ExerciseService {
     Integer calculateDifficulty(UUID exerciseTypeId, String parametersJson);
     
     Exercise cloneExercise(UUID exerciseId);
+
+    /**
+     * Clones several exercises with one lookup and one batched insert.
+     * The result has one clone per requested id, in the same order.
+     */
+    List<Exercise> cloneExercises(List<UUID> exerciseIds);
 }
\ No newline at end of file
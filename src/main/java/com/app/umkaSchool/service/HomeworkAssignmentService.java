@@ -2,6 +2,7 @@ package com.app.umkaSchool.service;
 
 import com.app.umkaSchool.dto.homeworkassignment.CreateHomeworkAssignmentRequest;
 import com.app.umkaSchool.dto.homeworkassignment.HomeworkAssignmentResponse;
+import com.app.umkaSchool.dto.homeworkassignment.HomeworkProgressMatrixResponse;
 import com.app.umkaSchool.dto.homeworkassignment.UpdateHomeworkAssignmentRequest;
 import com.app.umkaSchool.model.HomeworkAssignment;
 import com.app.umkaSchool.model.enums.HomeworkStatus;
@@ -48,5 +49,7 @@ public interface HomeworkAssignmentService {
     void checkAndUpdateAssignmentsByExerciseAndStudent(UUID exerciseId, UUID studentId);
 
     List<UUID> getCompletedExerciseIds(UUID homeworkAssignmentId, UUID studentId);
+
+    HomeworkProgressMatrixResponse getProgressMatrix(UUID homeworkAssignmentId);
 }
 
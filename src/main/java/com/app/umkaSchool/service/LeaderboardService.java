@@ -0,0 +1,28 @@
+package com.app.umkaSchool.service;
+
+import com.app.umkaSchool.dto.leaderboard.LeaderboardEntryResponse;
+import com.app.umkaSchool.dto.leaderboard.LeaderboardResponse;
+
+import java.util.UUID;
+
+public interface LeaderboardService {
+    /**
+     * Top students of a group by total score of completed attempts
+     */
+    LeaderboardResponse getGroupLeaderboard(UUID groupId, int limit);
+
+    /**
+     * Top students of a daily challenge by score earned on the challenge's exercises
+     */
+    LeaderboardResponse getDailyChallengeLeaderboard(UUID challengeId, int limit);
+
+    LeaderboardEntryResponse getGroupRank(UUID groupId, UUID studentId);
+
+    LeaderboardEntryResponse getDailyChallengeRank(UUID challengeId, UUID studentId);
+
+    /**
+     * Rebuild all in-memory leaderboards from the database (startup and nightly job).
+     * Also drops challenge boards that are older than the retention window.
+     */
+    void rebuildLeaderboards();
+}
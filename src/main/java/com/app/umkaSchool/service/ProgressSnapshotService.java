@@ -30,7 +30,9 @@ public interface ProgressSnapshotService {
     ProgressSnapshot createOrUpdateSnapshotForDate(Student student, LocalDate date);
 
     /**
-     * Create snapshots for all students for today (scheduled job)
+     * Create snapshots for all students for today (scheduled job).
+     * Students are processed in parallel chunks, each in its own transaction; chunks that already
+     * completed today are checkpointed and skipped when the job is re-run.
      */
     void createSnapshotsForAllStudentsToday();
 
@@ -60,6 +62,13 @@ public interface ProgressSnapshotService {
      */
     List<ProgressSnapshotResponse> getSnapshotsByDateRange(UUID studentId, LocalDate startDate, LocalDate endDate);
 
+    /**
+     * Aggregate a student's completed attempts into day, week or month buckets between two dates (inclusive).
+     * The aggregation runs in the database, so the payload size depends only on the number of buckets.
+     * @param bucket "day", "week" or "month"
+     */
+    com.app.umkaSchool.dto.progresssnapshot.ProgressTimeSeriesResponse getProgressTimeSeries(UUID studentId, LocalDate from, LocalDate to, String bucket);
+
     /**
      * Get student statistics for a specific time period
      * @param student Student entity
@@ -67,4 +76,11 @@ public interface ProgressSnapshotService {
      * @return Statistics response with calculated metrics
      */
     com.app.umkaSchool.dto.stats.StatsResponse getStudentStats(Student student, String period);
+
+    /**
+     * Cached variant of {@link #getStudentStats(Student, String)} used by the dashboard.
+     * Entries are keyed by student, period and date and are evicted when the student completes an attempt.
+     * @throws IllegalArgumentException if the student does not exist
+     */
+    com.app.umkaSchool.dto.stats.StatsResponse getStudentStats(UUID studentId, String period);
 }
@@ -1,6 +1,7 @@
 package com.app.umkaSchool.service;
 
 import com.app.umkaSchool.dto.teacher.CreateTeacherRequest;
+import com.app.umkaSchool.dto.teacher.TeacherGroupStatsResponse;
 import com.app.umkaSchool.dto.teacher.TeacherResponse;
 import com.app.umkaSchool.dto.teacher.UpdateTeacherRequest;
 import com.app.umkaSchool.model.Teacher;
@@ -22,4 +23,10 @@ public interface TeacherService {
     void deleteTeacher(UUID teacherId);
 
     Teacher getTeacherEntity(UUID teacherId);
+
+    /**
+     * Per-group and per-student progress of all students taught by the teacher, computed in one query.
+     * @param period "day", "week", "month" or "all"
+     */
+    TeacherGroupStatsResponse getGroupStats(UUID teacherId, String period);
 }
\ No newline at end of file
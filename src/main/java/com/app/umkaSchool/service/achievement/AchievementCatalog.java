@@ -0,0 +1,42 @@
+package com.app.umkaSchool.service.achievement;
+
+import com.app.umkaSchool.dto.achievement.AchievementResponse;
+import com.app.umkaSchool.repository.AchievementRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Achievement definitions served from the {@code achievements} cache.
+ * Kept as its own bean so that callers inside the achievement service go through the cache proxy.
+ */
+@Component
+public class AchievementCatalog {
+    public static final String CACHE_NAME = "achievements";
+
+    private final AchievementRepository achievementRepository;
+
+    @Autowired
+    public AchievementCatalog(AchievementRepository achievementRepository) {
+        this.achievementRepository = achievementRepository;
+    }
+
+    @Cacheable(value = CACHE_NAME)
+    public List<AchievementResponse> getAll() {
+        return achievementRepository.findAll().stream()
+                .map(achievement -> AchievementResponse.builder()
+                        .id(achievement.getId())
+                        .name(achievement.getName())
+                        .description(achievement.getDescription())
+                        .iconUrl(achievement.getIconUrl())
+                        .requiredCriteria(achievement.getRequiredCriteria())
+                        .points(achievement.getPoints())
+                        .createdAt(achievement.getCreatedAt())
+                        .earnedAt(null)
+                        .isNew(null)
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,148 @@
+package com.app.umkaSchool.service.achievement;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable predicate compiled from an achievement's {@code required_criteria} JSON.
+ * Evaluating it only compares primitives; all parsing happens once in {@link AchievementCriteriaCompiler}.
+ */
+public sealed interface AchievementCriteria {
+
+    boolean matches(StudentMetrics metrics);
+
+    /**
+     * Equivalent SQL boolean expression, used to award an achievement to many students in one statement.
+     * Only numeric literals taken from the compiled criteria are embedded.
+     *
+     * @param column SQL expression for each metric, e.g. a column of the latest progress snapshot
+     */
+    String toSql(Function<Metric, String> column);
+
+    enum Metric {
+        TOTAL_ATTEMPTS("totalAttempts", "total_attempts"),
+        TOTAL_CORRECT("totalCorrect", "total_correct"),
+        TOTAL_PRACTICE_SECONDS("totalPracticeSeconds", "total_practice_seconds"),
+        CURRENT_STREAK("currentStreak", "current_streak");
+
+        private final String key;
+        private final String column;
+
+        Metric(String key, String column) {
+            this.key = key;
+            this.column = column;
+        }
+
+        public String key() {
+            return key;
+        }
+
+        /** Matching column of {@code progress_snapshot}. */
+        public String column() {
+            return column;
+        }
+
+        public long valueOf(StudentMetrics metrics) {
+            return switch (this) {
+                case TOTAL_ATTEMPTS -> metrics.totalAttempts();
+                case TOTAL_CORRECT -> metrics.totalCorrect();
+                case TOTAL_PRACTICE_SECONDS -> metrics.totalPracticeSeconds();
+                case CURRENT_STREAK -> metrics.currentStreak();
+            };
+        }
+    }
+
+    /** Metric must be at least {@code minimum}. */
+    record Threshold(Metric metric, long minimum) implements AchievementCriteria {
+        @Override
+        public boolean matches(StudentMetrics metrics) {
+            return metric.valueOf(metrics) >= minimum;
+        }
+
+        @Override
+        public String toSql(Function<Metric, String> column) {
+            return column.apply(metric) + " >= " + minimum;
+        }
+    }
+
+    /** Correct answers as a percentage of attempts must be at least {@code percent}; never met without attempts. */
+    record MinAccuracy(double percent) implements AchievementCriteria {
+        @Override
+        public boolean matches(StudentMetrics metrics) {
+            if (metrics.totalAttempts() == 0) {
+                return false;
+            }
+            return (double) metrics.totalCorrect() / metrics.totalAttempts() * 100.0 >= percent;
+        }
+
+        @Override
+        public String toSql(Function<Metric, String> column) {
+            // CASE guarantees the division is never evaluated without attempts, which AND does not
+            String attempts = column.apply(Metric.TOTAL_ATTEMPTS);
+            return "CASE WHEN " + attempts + " > 0 THEN " + column.apply(Metric.TOTAL_CORRECT) + " * 100.0 / "
+                    + attempts + " >= " + percent + " ELSE FALSE END";
+        }
+    }
+
+    record AllOf(List<AchievementCriteria> parts) implements AchievementCriteria {
+        public AllOf {
+            parts = List.copyOf(parts);
+        }
+
+        @Override
+        public boolean matches(StudentMetrics metrics) {
+            for (AchievementCriteria part : parts) {
+                if (!part.matches(metrics)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String toSql(Function<Metric, String> column) {
+            return parts.isEmpty() ? "TRUE" : join(parts, " AND ", column);
+        }
+    }
+
+    record AnyOf(List<AchievementCriteria> parts) implements AchievementCriteria {
+        public AnyOf {
+            parts = List.copyOf(parts);
+        }
+
+        @Override
+        public boolean matches(StudentMetrics metrics) {
+            for (AchievementCriteria part : parts) {
+                if (part.matches(metrics)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public String toSql(Function<Metric, String> column) {
+            return parts.isEmpty() ? "FALSE" : join(parts, " OR ", column);
+        }
+    }
+
+    /** Criteria that could not be parsed; such an achievement is never awarded. */
+    record Never() implements AchievementCriteria {
+        @Override
+        public boolean matches(StudentMetrics metrics) {
+            return false;
+        }
+
+        @Override
+        public String toSql(Function<Metric, String> column) {
+            return "FALSE";
+        }
+    }
+
+    private static String join(List<AchievementCriteria> parts, String operator, Function<Metric, String> column) {
+        return parts.stream()
+                .map(part -> part.toSql(column))
+                .collect(Collectors.joining(operator, "(", ")"));
+    }
+}
@@ -0,0 +1,130 @@
+package com.app.umkaSchool.service.achievement;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiles achievement criteria JSON into {@link AchievementCriteria} predicates and keeps them per achievement.
+ * <p>
+ * Supported shape: an object whose metric keys ({@code totalAttempts}, {@code totalCorrect},
+ * {@code totalPracticeSeconds}, {@code currentStreak}, {@code minAccuracy}) must all hold, optionally with
+ * {@code allOf} / {@code anyOf} arrays of nested objects. Unknown keys are ignored. {@code minAccuracy} must be a
+ * number from 0 to 100.
+ * <p>
+ * A cached predicate is reused only while the achievement's raw criteria string is unchanged, so an edited
+ * achievement is recompiled on its next evaluation even if nobody called {@link #evict(UUID)}.
+ */
+@Component
+public class AchievementCriteriaCompiler {
+    private static final Logger logger = LoggerFactory.getLogger(AchievementCriteriaCompiler.class);
+
+    private static final String ALL_OF = "allOf";
+    private static final String ANY_OF = "anyOf";
+    private static final String MIN_ACCURACY = "minAccuracy";
+
+    private record Compiled(String source, AchievementCriteria criteria) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Map<UUID, Compiled> compiled = new ConcurrentHashMap<>();
+
+    @Autowired
+    public AchievementCriteriaCompiler(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public AchievementCriteria criteriaFor(UUID achievementId, String source) {
+        Compiled entry = compiled.get(achievementId);
+        if (entry == null || !Objects.equals(entry.source(), source)) {
+            entry = new Compiled(source, compile(achievementId, source));
+            compiled.put(achievementId, entry);
+        }
+        return entry.criteria();
+    }
+
+    public void evict(UUID achievementId) {
+        compiled.remove(achievementId);
+    }
+
+    public void clear() {
+        compiled.clear();
+    }
+
+    public AchievementCriteria compile(UUID achievementId, String json) {
+        try {
+            return parse(json);
+        } catch (IllegalArgumentException e) {
+            logger.error("Error parsing achievement criteria JSON for achievement {}: {}", achievementId, e.getMessage());
+            return new AchievementCriteria.Never();
+        }
+    }
+
+    /**
+     * Strict variant of {@link #compile(UUID, String)} for validating new criteria.
+     * @throws IllegalArgumentException if the JSON is malformed or not an object
+     */
+    public AchievementCriteria parse(String json) {
+        if (json == null) {
+            throw new IllegalArgumentException("Achievement criteria are required");
+        }
+        try {
+            return compileNode(objectMapper.readTree(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid achievement criteria JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private AchievementCriteria compileNode(JsonNode node) {
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Criteria must be a JSON object");
+        }
+        List<AchievementCriteria> parts = new ArrayList<>();
+        for (AchievementCriteria.Metric metric : AchievementCriteria.Metric.values()) {
+            if (node.has(metric.key())) {
+                parts.add(new AchievementCriteria.Threshold(metric, node.get(metric.key()).asLong()));
+            }
+        }
+        if (node.has(MIN_ACCURACY)) {
+            parts.add(new AchievementCriteria.MinAccuracy(accuracyPercent(node.get(MIN_ACCURACY))));
+        }
+        if (node.has(ALL_OF)) {
+            parts.add(new AchievementCriteria.AllOf(compileArray(node.get(ALL_OF))));
+        }
+        if (node.has(ANY_OF)) {
+            parts.add(new AchievementCriteria.AnyOf(compileArray(node.get(ANY_OF))));
+        }
+        return parts.size() == 1 ? parts.get(0) : new AchievementCriteria.AllOf(parts);
+    }
+
+    private double accuracyPercent(JsonNode value) {
+        // asDouble() would turn "abc" into 0 (always met) and 1e400 into Infinity (never met)
+        double percent = value.isNumber() ? value.doubleValue() : Double.NaN;
+        if (!Double.isFinite(percent) || percent < 0 || percent > 100) {
+            throw new IllegalArgumentException("minAccuracy must be a number from 0 to 100, got " + value);
+        }
+        return percent;
+    }
+
+    private List<AchievementCriteria> compileArray(JsonNode array) {
+        if (!array.isArray()) {
+            throw new IllegalArgumentException("allOf/anyOf must be an array");
+        }
+        List<AchievementCriteria> parts = new ArrayList<>(array.size());
+        for (JsonNode child : array) {
+            parts.add(compileNode(child));
+        }
+        return parts;
+    }
+}
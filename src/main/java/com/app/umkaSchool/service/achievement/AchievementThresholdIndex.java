@@ -0,0 +1,193 @@
+package com.app.umkaSchool.service.achievement;
+
+import com.app.umkaSchool.dto.achievement.AchievementResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Narrows achievement checks to the achievements a completion can actually unlock.
+ * <p>
+ * Criteria built only from metric thresholds (combined with allOf/anyOf) can only become true when one of
+ * their thresholds is crossed. For each metric those thresholds are kept in a sorted array, and the metrics
+ * a student had at their previous check are remembered, so a completion only evaluates achievements with a
+ * threshold in {@code (previous, current]}, found by binary search. Everything else (accuracy rules,
+ * unparseable or empty criteria) is evaluated on every check. Students without remembered metrics, for
+ * example after a restart or eviction, get a full check.
+ */
+@Component
+public class AchievementThresholdIndex {
+
+    private record Tier(long[] thresholds, List<List<AchievementResponse>> achievements) {
+    }
+
+    private record Index(List<AchievementResponse> source, Map<AchievementCriteria.Metric, Tier> tiers,
+                         List<AchievementResponse> residual) {
+    }
+
+    private final AchievementCriteriaCompiler criteriaCompiler;
+    private final Cache<UUID, StudentMetrics> lastChecked;
+    private volatile Index index = new Index(List.of(), Map.of(), List.of());
+
+    @Autowired
+    public AchievementThresholdIndex(AchievementCriteriaCompiler criteriaCompiler,
+                                     @Value("${achievement.index.max-students:10000}") int maxStudents,
+                                     @Value("${achievement.index.ttl:86400}") long ttlSeconds) {
+        this.criteriaCompiler = criteriaCompiler;
+        this.lastChecked = Caffeine.newBuilder()
+                .maximumSize(maxStudents)
+                .expireAfterAccess(ttlSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * Achievements from {@code catalogue} that may have become reachable since the student's previous check.
+     */
+    public List<AchievementResponse> candidates(UUID studentId, List<AchievementResponse> catalogue, StudentMetrics current) {
+        Index active = indexFor(catalogue);
+        StudentMetrics previous = lastChecked.getIfPresent(studentId);
+        if (previous == null) {
+            return catalogue;
+        }
+
+        Map<UUID, AchievementResponse> result = new LinkedHashMap<>();
+        for (AchievementResponse achievement : active.residual()) {
+            result.put(achievement.getId(), achievement);
+        }
+        for (Map.Entry<AchievementCriteria.Metric, Tier> entry : active.tiers().entrySet()) {
+            long from = entry.getKey().valueOf(previous);
+            long to = entry.getKey().valueOf(current);
+            if (to <= from) {
+                continue;
+            }
+            Tier tier = entry.getValue();
+            for (int i = firstAbove(tier.thresholds(), from); i < tier.thresholds().length && tier.thresholds()[i] <= to; i++) {
+                for (AchievementResponse achievement : tier.achievements().get(i)) {
+                    result.putIfAbsent(achievement.getId(), achievement);
+                }
+            }
+        }
+        return new ArrayList<>(result.values());
+    }
+
+    /** Records the metrics a student was checked with; the next check starts from these values. */
+    public void remember(UUID studentId, StudentMetrics metrics) {
+        lastChecked.put(studentId, metrics);
+    }
+
+    /**
+     * Remembers the metrics once the current transaction commits, or right away outside a transaction.
+     * If the awards of a check roll back, the student keeps the previous metrics and is checked again.
+     */
+    public void rememberAfterCommit(UUID studentId, StudentMetrics metrics) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remember(studentId, metrics);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remember(studentId, metrics);
+            }
+        });
+    }
+
+    public void forget(UUID studentId) {
+        lastChecked.invalidate(studentId);
+    }
+
+    private Index indexFor(List<AchievementResponse> catalogue) {
+        Index existing = index;
+        if (existing.source() == catalogue) {
+            return existing;
+        }
+        synchronized (this) {
+            existing = index;
+            if (existing.source() == catalogue) {
+                return existing;
+            }
+            if (sameDefinitions(existing.source(), catalogue)) {
+                // The achievements cache was reloaded without changes; keep what students have been checked against
+                index = new Index(catalogue, existing.tiers(), existing.residual());
+            } else {
+                index = build(catalogue);
+                // A new or edited achievement may already be satisfied by students' earlier progress
+                lastChecked.invalidateAll();
+            }
+            return index;
+        }
+    }
+
+    private Index build(List<AchievementResponse> catalogue) {
+        Map<AchievementCriteria.Metric, TreeMap<Long, List<AchievementResponse>>> byMetric =
+                new EnumMap<>(AchievementCriteria.Metric.class);
+        List<AchievementResponse> residual = new ArrayList<>();
+
+        for (AchievementResponse achievement : catalogue) {
+            AchievementCriteria criteria = criteriaCompiler.criteriaFor(achievement.getId(), achievement.getRequiredCriteria());
+            List<AchievementCriteria.Threshold> thresholds = new ArrayList<>();
+            if (!collectThresholds(criteria, thresholds) || thresholds.isEmpty()) {
+                residual.add(achievement);
+                continue;
+            }
+            for (AchievementCriteria.Threshold threshold : thresholds) {
+                byMetric.computeIfAbsent(threshold.metric(), metric -> new TreeMap<>())
+                        .computeIfAbsent(threshold.minimum(), minimum -> new ArrayList<>())
+                        .add(achievement);
+            }
+        }
+
+        Map<AchievementCriteria.Metric, Tier> tiers = new EnumMap<>(AchievementCriteria.Metric.class);
+        byMetric.forEach((metric, levels) -> tiers.put(metric, new Tier(
+                levels.keySet().stream().mapToLong(Long::longValue).toArray(),
+                levels.values().stream().map(List::copyOf).toList())));
+        return new Index(catalogue, tiers, List.copyOf(residual));
+    }
+
+    /**
+     * Collects the thresholds of a criteria tree.
+     * @return false if the tree contains anything other than thresholds, allOf and anyOf
+     */
+    private boolean collectThresholds(AchievementCriteria criteria, List<AchievementCriteria.Threshold> thresholds) {
+        return switch (criteria) {
+            case AchievementCriteria.Threshold threshold -> thresholds.add(threshold);
+            case AchievementCriteria.AllOf allOf -> allOf.parts().stream().allMatch(part -> collectThresholds(part, thresholds));
+            case AchievementCriteria.AnyOf anyOf -> anyOf.parts().stream().allMatch(part -> collectThresholds(part, thresholds));
+            default -> false;
+        };
+    }
+
+    private static boolean sameDefinitions(List<AchievementResponse> previous, List<AchievementResponse> current) {
+        if (previous.size() != current.size()) {
+            return false;
+        }
+        for (int i = 0; i < previous.size(); i++) {
+            if (!Objects.equals(previous.get(i).getId(), current.get(i).getId())
+                    || !Objects.equals(previous.get(i).getRequiredCriteria(), current.get(i).getRequiredCriteria())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Index of the first threshold strictly greater than {@code value}. */
+    private static int firstAbove(long[] thresholds, long value) {
+        int position = Arrays.binarySearch(thresholds, value);
+        return position >= 0 ? position + 1 : -position - 1;
+    }
+}
@@ -0,0 +1,9 @@
+package com.app.umkaSchool.service.achievement;
+
+/**
+ * Progress counters that achievement criteria are evaluated against.
+ */
+public record StudentMetrics(long totalAttempts, long totalCorrect, long totalPracticeSeconds, long currentStreak) {
+
+    public static final StudentMetrics EMPTY = new StudentMetrics(0, 0, 0, 0);
+}
@@ -1,51 +1,93 @@
 package com.app.umkaSchool.service.impl;
 
+import com.app.umkaSchool.dto.achievement.AchievementBackfillResponse;
 import com.app.umkaSchool.dto.achievement.AchievementResponse;
+import com.app.umkaSchool.dto.achievement.CreateAchievementRequest;
+import com.app.umkaSchool.event.AchievementAwardedEvent;
+import com.app.umkaSchool.exception.ResourceNotFoundException;
 import com.app.umkaSchool.model.Achievement;
 import com.app.umkaSchool.model.ExerciseAttempt;
 import com.app.umkaSchool.model.ProgressSnapshot;
 import com.app.umkaSchool.model.Student;
 import com.app.umkaSchool.model.StudentAchievement;
-import com.app.umkaSchool.model.StudentAchievementId;
 import com.app.umkaSchool.repository.AchievementRepository;
 import com.app.umkaSchool.repository.StudentAchievementRepository;
+import com.app.umkaSchool.repository.StudentRepository;
 import com.app.umkaSchool.service.AchievementService;
 import com.app.umkaSchool.service.ProgressSnapshotService;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.app.umkaSchool.service.achievement.AchievementCatalog;
+import com.app.umkaSchool.service.achievement.AchievementCriteria;
+import com.app.umkaSchool.service.achievement.AchievementCriteriaCompiler;
+import com.app.umkaSchool.service.achievement.AchievementThresholdIndex;
+import com.app.umkaSchool.service.achievement.StudentMetrics;
+import com.app.umkaSchool.util.CatalogVersions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @Service
 public class AchievementServiceImpl implements AchievementService {
     private static final Logger logger = LoggerFactory.getLogger(AchievementServiceImpl.class);
 
+    private static final String BACKFILL_JOB_PREFIX = "backfill-";
+    private static final String BACKFILL_RUNNING = "RUNNING";
+    private static final String BACKFILL_COMPLETED = "COMPLETED";
+    private static final String BACKFILL_FAILED = "FAILED";
+
+    private final AchievementCatalog achievementCatalog;
     private final AchievementRepository achievementRepository;
+    private final StudentRepository studentRepository;
+    private final ChunkedJobExecutor chunkedJobExecutor;
     private final StudentAchievementRepository studentAchievementRepository;
     private final ProgressSnapshotService progressSnapshotService;
-    private final ObjectMapper objectMapper;
+    private final AchievementCriteriaCompiler criteriaCompiler;
+    private final AchievementThresholdIndex thresholdIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AchievementStreamHub achievementStreamHub;
+    private final CatalogVersions catalogVersions;
+    // Latest backfill per achievement since startup
+    private final Map<UUID, AchievementBackfillResponse> backfills = new ConcurrentHashMap<>();
 
     @Autowired
-    public AchievementServiceImpl(AchievementRepository achievementRepository,
+    public AchievementServiceImpl(AchievementCatalog achievementCatalog,
+                                  AchievementRepository achievementRepository,
+                                  StudentRepository studentRepository,
+                                  ChunkedJobExecutor chunkedJobExecutor,
                                   StudentAchievementRepository studentAchievementRepository,
                                   ProgressSnapshotService progressSnapshotService,
-                                  ObjectMapper objectMapper) {
+                                  AchievementCriteriaCompiler criteriaCompiler,
+                                  AchievementThresholdIndex thresholdIndex,
+                                  ApplicationEventPublisher eventPublisher,
+                                  AchievementStreamHub achievementStreamHub,
+                                  CatalogVersions catalogVersions) {
+        this.achievementCatalog = achievementCatalog;
         this.achievementRepository = achievementRepository;
+        this.studentRepository = studentRepository;
+        this.chunkedJobExecutor = chunkedJobExecutor;
         this.studentAchievementRepository = studentAchievementRepository;
         this.progressSnapshotService = progressSnapshotService;
-        this.objectMapper = objectMapper;
+        this.criteriaCompiler = criteriaCompiler;
+        this.thresholdIndex = thresholdIndex;
+        this.eventPublisher = eventPublisher;
+        this.achievementStreamHub = achievementStreamHub;
+        this.catalogVersions = catalogVersions;
     }
 
     @Override
@@ -53,114 +95,148 @@ public class AchievementServiceImpl implements AchievementService {
     public void checkAndAward(Student student, ExerciseAttempt attempt) {
         logger.info("Checking achievements for student: {} after attempt: {}", student.getId(), attempt.getId());
         
-        // Get all achievements
-        List<Achievement> allAchievements = achievementRepository.findAll();
-        
         // Get student's current progress snapshot for today
         Optional<ProgressSnapshot> snapshotOpt = progressSnapshotService.getSnapshotForDate(student, LocalDate.now());
+        StudentMetrics metrics = snapshotOpt.map(this::toMetrics).orElse(StudentMetrics.EMPTY);
         
-        // Get aggregated stats from snapshot or calculate from attempts
-        long totalAttempts = snapshotOpt.map(s -> s.getTotalAttempts() != null ? s.getTotalAttempts() : 0L)
-            .orElse(0L);
-        long totalCorrect = snapshotOpt.map(s -> s.getTotalCorrect() != null ? s.getTotalCorrect() : 0L)
-            .orElse(0L);
-        long totalPracticeSeconds = snapshotOpt.map(s -> s.getTotalPracticeSeconds() != null ? s.getTotalPracticeSeconds() : 0L)
-            .orElse(0L);
-        int currentStreak = snapshotOpt.map(s -> s.getCurrentStreak() != null ? s.getCurrentStreak() : 0)
-            .orElse(0);
+        // Only achievements with a threshold crossed since the previous check (plus non-threshold rules) can unlock
+        List<AchievementResponse> candidates = thresholdIndex.candidates(student.getId(), achievementCatalog.getAll(), metrics);
+        if (candidates.isEmpty()) {
+            thresholdIndex.rememberAfterCommit(student.getId(), metrics);
+            return;
+        }
+        Set<UUID> earned = studentAchievementRepository.findAchievementIdsByStudentId(student.getId());
         
-        // Check each achievement
-        for (Achievement achievement : allAchievements) {
-            // Skip if student already has this achievement
-            if (studentAchievementRepository.existsByStudent_IdAndAchievement_Id(student.getId(), achievement.getId())) {
-                continue;
-            }
-            
-            // Check if criteria are met
-            if (meetsCriteria(achievement, totalAttempts, totalCorrect, totalPracticeSeconds, currentStreak)) {
-                // Award achievement
-                awardAchievement(student, achievement);
-                logger.info("Awarded achievement '{}' to student: {}", achievement.getName(), student.getId());
+        // Criteria are compiled once per achievement; evaluation is plain comparisons
+        List<AchievementResponse> newlyMet = new ArrayList<>();
+        for (AchievementResponse achievement : candidates) {
+            if (!earned.contains(achievement.getId())
+                    && criteriaCompiler.criteriaFor(achievement.getId(), achievement.getRequiredCriteria()).matches(metrics)) {
+                newlyMet.add(achievement);
             }
         }
+        if (newlyMet.isEmpty()) {
+            thresholdIndex.rememberAfterCommit(student.getId(), metrics);
+            return;
+        }
+        
+        // One batch insert; a concurrent award of the same achievement is ignored by the primary key and
+        // left out of the returned ids, so only this check's awards are announced
+        Set<UUID> awarded = new HashSet<>(studentAchievementRepository.insertIgnoringExisting(student.getId(),
+                newlyMet.stream().map(AchievementResponse::getId).toList()));
+        List<AchievementResponse> awardedAchievements = newlyMet.stream()
+                .filter(achievement -> awarded.contains(achievement.getId()))
+                .toList();
+        logger.info("Awarded {} achievement(s) {} to student: {}", awardedAchievements.size(),
+                awardedAchievements.stream().map(AchievementResponse::getName).toList(), student.getId());
+        thresholdIndex.rememberAfterCommit(student.getId(), metrics);
+        if (!awardedAchievements.isEmpty()) {
+            ZonedDateTime earnedAt = ZonedDateTime.now();
+            eventPublisher.publishEvent(new AchievementAwardedEvent(student.getId(), awardedAchievements.stream()
+                    .map(achievement -> toAwardedResponse(achievement, earnedAt))
+                    .toList()));
+        }
     }
 
-    private boolean meetsCriteria(Achievement achievement, long totalAttempts, long totalCorrect, 
-                                  long totalPracticeSeconds, int currentStreak) {
-        try {
-            JsonNode criteria = objectMapper.readTree(achievement.getRequiredCriteria());
-            
-            // Check totalAttempts criteria
-            if (criteria.has("totalAttempts")) {
-                long required = criteria.get("totalAttempts").asLong();
-                if (totalAttempts < required) {
-                    return false;
-                }
-            }
-            
-            // Check totalCorrect criteria
-            if (criteria.has("totalCorrect")) {
-                long required = criteria.get("totalCorrect").asLong();
-                if (totalCorrect < required) {
-                    return false;
-                }
-            }
-            
-            // Check totalPracticeSeconds criteria
-            if (criteria.has("totalPracticeSeconds")) {
-                long required = criteria.get("totalPracticeSeconds").asLong();
-                if (totalPracticeSeconds < required) {
-                    return false;
-                }
-            }
-            
-            // Check currentStreak criteria
-            if (criteria.has("currentStreak")) {
-                int required = criteria.get("currentStreak").asInt();
-                if (currentStreak < required) {
-                    return false;
-                }
-            }
-            
-            // Check accuracy criteria 
-            if (criteria.has("minAccuracy")) {
-                double minAccuracy = criteria.get("minAccuracy").asDouble();
-                if (totalAttempts == 0) {
-                    return false;
-                }
-                double accuracy = (double) totalCorrect / totalAttempts * 100.0;
-                if (accuracy < minAccuracy) {
-                    return false;
-                }
-            }
-            
-            return true;
-        } catch (JsonProcessingException e) {
-            logger.error("Error parsing achievement criteria JSON for achievement {}: {}",
-                    achievement.getId(), e.getMessage(), e);
-            return false;
+    private StudentMetrics toMetrics(ProgressSnapshot snapshot) {
+        return new StudentMetrics(
+                snapshot.getTotalAttempts() != null ? snapshot.getTotalAttempts() : 0L,
+                snapshot.getTotalCorrect() != null ? snapshot.getTotalCorrect() : 0L,
+                snapshot.getTotalPracticeSeconds() != null ? snapshot.getTotalPracticeSeconds() : 0L,
+                snapshot.getCurrentStreak() != null ? snapshot.getCurrentStreak() : 0);
+    }
+
+    @Override
+    public List<AchievementResponse> getAllAchievements() {
+        return achievementCatalog.getAll();
+    }
+
+    @Override
+    @CacheEvict(value = AchievementCatalog.CACHE_NAME, allEntries = true)
+    public AchievementResponse createAchievement(CreateAchievementRequest request) {
+        logger.info("Creating new achievement: {}", request.getName());
+
+        // Reject criteria that would compile to "never"; parse throws IllegalArgumentException
+        criteriaCompiler.parse(request.getRequiredCriteria());
+
+        Achievement achievement = new Achievement();
+        achievement.setName(request.getName());
+        achievement.setDescription(request.getDescription());
+        achievement.setIconUrl(request.getIconUrl());
+        achievement.setRequiredCriteria(request.getRequiredCriteria());
+        achievement.setPoints(request.getPoints() != null ? request.getPoints() : 0);
+        achievement = achievementRepository.save(achievement);
+        catalogVersions.bumpAfterCommit(CatalogVersions.Catalog.ACHIEVEMENTS);
+        logger.info("Achievement created successfully: {}", achievement.getId());
+
+        if (!Boolean.FALSE.equals(request.getBackfill())) {
+            backfillAchievement(achievement.getId());
         }
+        return mapToResponse(achievement);
     }
 
-    private void awardAchievement(Student student, Achievement achievement) {
-        StudentAchievement studentAchievement = new StudentAchievement();
-        StudentAchievementId id = new StudentAchievementId();
-        id.setStudentId(student.getId());
-        id.setAchievementId(achievement.getId());
-        studentAchievement.setId(id);
-        studentAchievement.setStudent(student);
-        studentAchievement.setAchievement(achievement);
-        
-        studentAchievementRepository.save(studentAchievement);
+    /**
+     * Starts awarding an achievement to every existing student who already meets it, based on each student's
+     * latest progress snapshot, and returns right away; {@link #getBackfillStatus} reports the outcome.
+     * The compiled criteria become the WHERE clause of one INSERT ... SELECT per chunk of students, so no
+     * student is evaluated in Java. Chunks are checkpointed per achievement and criteria, so a repeated call
+     * on the same day only covers students a failed chunk missed. While a backfill runs, a repeated call
+     * returns its status instead of starting another one.
+     */
+    @Override
+    public AchievementBackfillResponse backfillAchievement(UUID achievementId) {
+        Achievement achievement = achievementRepository.findById(achievementId)
+                .orElseThrow(() -> new ResourceNotFoundException("Achievement not found"));
+        AchievementCriteria criteria = criteriaCompiler.criteriaFor(achievementId, achievement.getRequiredCriteria());
+
+        AchievementBackfillResponse running = AchievementBackfillResponse.builder()
+                .achievementId(achievementId)
+                .status(BACKFILL_RUNNING)
+                .startedAt(ZonedDateTime.now())
+                .build();
+        AchievementBackfillResponse current = backfills.compute(achievementId, (id, previous) ->
+                previous != null && BACKFILL_RUNNING.equals(previous.getStatus()) ? previous : running);
+        if (current != running) {
+            return current;
+        }
+
+        long start = System.currentTimeMillis();
+        String jobName = BACKFILL_JOB_PREFIX + achievementId + "-" + Integer.toHexString(achievement.getRequiredCriteria().hashCode());
+        chunkedJobExecutor.runAsync(jobName, LocalDate.now(), studentRepository::findAllIds,
+                        chunk -> studentAchievementRepository.awardMatching(achievementId, criteria, chunk))
+                .whenComplete((result, error) -> backfills.put(achievementId,
+                        finishedBackfill(achievement, running, result, error, System.currentTimeMillis() - start)));
+        return running;
+    }
+
+    private AchievementBackfillResponse finishedBackfill(Achievement achievement, AchievementBackfillResponse running,
+                                                         ChunkedJobExecutor.Result result, Throwable error, long duration) {
+        AchievementBackfillResponse.AchievementBackfillResponseBuilder response = AchievementBackfillResponse.builder()
+                .achievementId(achievement.getId())
+                .startedAt(running.getStartedAt())
+                .durationMs(duration);
+        if (error != null) {
+            logger.error("Backfill of achievement '{}' failed: {}", achievement.getName(), error.getMessage(), error);
+            return response.status(BACKFILL_FAILED).build();
+        }
+        logger.info("Backfilled achievement '{}': {} students awarded in {} ms",
+                achievement.getName(), result.processed(), duration);
+        return response
+                .status(BACKFILL_COMPLETED)
+                .studentsChecked(result.totalIds() - result.skippedIds())
+                .studentsSkipped(result.skippedIds())
+                .studentsAwarded(result.processed())
+                .failedChunks(result.failedChunks())
+                .build();
     }
 
     @Override
-    @Cacheable(value = "achievements")
-    public List<AchievementResponse> getAllAchievements() {
-        List<Achievement> achievements = achievementRepository.findAll();
-        return achievements.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+    public AchievementBackfillResponse getBackfillStatus(UUID achievementId) {
+        AchievementBackfillResponse status = backfills.get(achievementId);
+        if (status == null) {
+            throw new ResourceNotFoundException("No backfill has run for this achievement since startup");
+        }
+        return status;
     }
 
     @Override
@@ -180,27 +256,33 @@ public class AchievementServiceImpl implements AchievementService {
     @Override
     public List<AchievementResponse> getRecentStudentAchievements(UUID studentId, int hours) {
         ZonedDateTime cutoffTime = ZonedDateTime.now().minusHours(hours);
-        List<StudentAchievement> studentAchievements = studentAchievementRepository.findByStudent_Id(studentId);
+        List<StudentAchievement> studentAchievements =
+                studentAchievementRepository.findRecentByStudentId(studentId, cutoffTime);
         
         return studentAchievements.stream()
-                .filter(sa -> sa.getEarnedAt() != null && sa.getEarnedAt().isAfter(cutoffTime))
-                .map(sa -> {
-                    AchievementResponse response = mapToStudentAchievementResponse(sa);
-                    return AchievementResponse.builder()
-                            .id(response.getId())
-                            .name(response.getName())
-                            .description(response.getDescription())
-                            .iconUrl(response.getIconUrl())
-                            .requiredCriteria(response.getRequiredCriteria())
-                            .points(response.getPoints())
-                            .createdAt(response.getCreatedAt())
-                            .earnedAt(response.getEarnedAt())
-                            .isNew(true)
-                            .build();
-                })
+                .map(sa -> toAwardedResponse(mapToStudentAchievementResponse(sa), sa.getEarnedAt()))
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public SseEmitter subscribeToAchievements(UUID studentId) {
+        return achievementStreamHub.subscribe(studentId);
+    }
+
+    private AchievementResponse toAwardedResponse(AchievementResponse response, ZonedDateTime earnedAt) {
+        return AchievementResponse.builder()
+                .id(response.getId())
+                .name(response.getName())
+                .description(response.getDescription())
+                .iconUrl(response.getIconUrl())
+                .requiredCriteria(response.getRequiredCriteria())
+                .points(response.getPoints())
+                .createdAt(response.getCreatedAt())
+                .earnedAt(earnedAt)
+                .isNew(true)
+                .build();
+    }
+
     private AchievementResponse mapToResponse(Achievement achievement) {
         return AchievementResponse.builder()
                 .id(achievement.getId())
@@ -0,0 +1,149 @@
+package com.app.umkaSchool.service.impl;
+
+import com.app.umkaSchool.dto.achievement.AchievementResponse;
+import com.app.umkaSchool.event.AchievementAwardedEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes newly earned achievements to students over Server-Sent Events.
+ * <p>
+ * Each open stream has a bounded buffer: events are queued by the publisher and written by a virtual thread,
+ * so a slow client never blocks the award path. When a buffer is full the oldest pending event is dropped;
+ * the client can always catch up through the recent-achievements endpoint. A periodic comment line keeps
+ * idle connections from being closed by proxies and detects clients that went away.
+ */
+@Component
+public class AchievementStreamHub {
+    private static final Logger logger = LoggerFactory.getLogger(AchievementStreamHub.class);
+
+    private static final String EVENT_NAME = "achievement";
+
+    private final Map<UUID, Set<Connection>> connections = new ConcurrentHashMap<>();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+    private final long timeoutMs;
+    private final int bufferSize;
+
+    @Autowired
+    public AchievementStreamHub(@Value("${achievement.stream.timeout-ms:1800000}") long timeoutMs,
+                                @Value("${achievement.stream.buffer-size:16}") int bufferSize) {
+        this.timeoutMs = timeoutMs;
+        this.bufferSize = Math.max(1, bufferSize);
+    }
+
+    public SseEmitter subscribe(UUID studentId) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Connection connection = new Connection(studentId, emitter, bufferSize);
+        connections.computeIfAbsent(studentId, id -> ConcurrentHashMap.newKeySet()).add(connection);
+
+        emitter.onCompletion(() -> unsubscribe(connection));
+        emitter.onTimeout(() -> unsubscribe(connection));
+        emitter.onError(e -> unsubscribe(connection));
+
+        // Flush headers right away so the client sees an open stream before the first award
+        enqueue(connection, SseEmitter.event().comment("connected"));
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAchievementAwarded(AchievementAwardedEvent event) {
+        Set<Connection> targets = connections.get(event.studentId());
+        if (targets == null || targets.isEmpty()) {
+            return;
+        }
+        for (Connection connection : targets) {
+            for (AchievementResponse achievement : event.achievements()) {
+                enqueue(connection, SseEmitter.event()
+                        .name(EVENT_NAME)
+                        .id(achievement.getId().toString())
+                        .data(achievement));
+            }
+        }
+    }
+
+    @Scheduled(fixedRateString = "${achievement.stream.heartbeat-ms:25000}")
+    public void sendHeartbeats() {
+        for (Set<Connection> studentConnections : connections.values()) {
+            for (Connection connection : studentConnections) {
+                enqueue(connection, SseEmitter.event().comment("heartbeat"));
+            }
+        }
+    }
+
+    public int connectionCount() {
+        return connections.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        connections.values().forEach(studentConnections -> studentConnections.forEach(c -> c.emitter.complete()));
+        connections.clear();
+        sender.shutdownNow();
+    }
+
+    private void enqueue(Connection connection, SseEmitter.SseEventBuilder event) {
+        while (!connection.buffer.offer(event)) {
+            connection.buffer.poll();
+        }
+        if (connection.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(connection));
+        }
+    }
+
+    private void drain(Connection connection) {
+        try {
+            SseEmitter.SseEventBuilder event;
+            while ((event = connection.buffer.poll()) != null) {
+                connection.emitter.send(event);
+            }
+        } catch (Exception e) {
+            logger.debug("Closing achievement stream for student {}: {}", connection.studentId, e.getMessage());
+            unsubscribe(connection);
+            connection.emitter.completeWithError(e);
+            return;
+        } finally {
+            connection.draining.set(false);
+        }
+        // An event may have been queued after the last poll but before the flag was cleared
+        if (!connection.buffer.isEmpty() && connection.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(connection));
+        }
+    }
+
+    private void unsubscribe(Connection connection) {
+        connections.computeIfPresent(connection.studentId, (id, studentConnections) -> {
+            studentConnections.remove(connection);
+            return studentConnections.isEmpty() ? null : studentConnections;
+        });
+    }
+
+    private static final class Connection {
+        private final UUID studentId;
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Connection(UUID studentId, SseEmitter emitter, int bufferSize) {
+            this.studentId = studentId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.app.umkaSchool.service.impl;
+
+import com.app.umkaSchool.model.BatchJobCheckpoint;
+import com.app.umkaSchool.model.BatchJobCheckpointId;
+import com.app.umkaSchool.repository.BatchJobCheckpointRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Runs a per-student batch job as a set of independent chunks.
+ * <p>
+ * Student ids are sorted and split into contiguous ranges of {@code batch.chunk-size}. Every chunk
+ * runs in its own short transaction on a virtual thread; the number of chunks in flight is capped
+ * so the job never holds more connections than the Hikari pool can spare for web traffic.
+ * When a chunk commits, a checkpoint row listing its ids is written in the same transaction,
+ * so re-running a job for the same date only processes the ids that were not covered yet, including
+ * ids created since the last run. A chunk whose work throws rolls back as a whole and is retried
+ * on the next run; chunk work must therefore not swallow per-id failures.
+ */
+@Component
+public class ChunkedJobExecutor {
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedJobExecutor.class);
+
+    private static final int CHECKPOINT_RETENTION_DAYS = 7;
+
+    private final BatchJobCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int parallelism;
+    private final ExecutorService backgroundJobs = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Autowired
+    public ChunkedJobExecutor(BatchJobCheckpointRepository checkpointRepository,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${batch.chunk-size:200}") int chunkSize,
+                              @Value("${batch.reserved-connections:2}") int reservedConnections,
+                              @Value("${spring.datasource.hikari.maximum-pool-size:10}") int maxPoolSize) {
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.parallelism = Math.max(1, maxPoolSize - reservedConnections);
+    }
+
+    public record Result(int totalIds, int skippedIds, int chunks, int failedChunks, int processed) {
+    }
+
+    /**
+     * Processes all ids that are not yet checkpointed for {@code jobName} and {@code runDate}.
+     *
+     * @param chunkWork work for one chunk, executed inside a transaction; returns the number of processed ids
+     */
+    public Result run(String jobName, LocalDate runDate, List<UUID> ids, ToIntFunction<List<UUID>> chunkWork) {
+        List<UUID> sortedIds = new ArrayList<>(ids);
+        sortedIds.sort(Comparator.naturalOrder());
+
+        List<BatchJobCheckpoint> checkpoints = transactionTemplate.execute(status -> {
+            checkpointRepository.deleteOlderThan(jobName, runDate.minusDays(CHECKPOINT_RETENTION_DAYS));
+            return checkpointRepository.findById_JobNameAndId_RunDate(jobName, runDate);
+        });
+        List<UUID> pending = removeCheckpointed(sortedIds, checkpoints);
+        int skipped = sortedIds.size() - pending.size();
+
+        List<List<UUID>> chunks = new ArrayList<>();
+        for (int i = 0; i < pending.size(); i += chunkSize) {
+            chunks.add(pending.subList(i, Math.min(i + chunkSize, pending.size())));
+        }
+        logger.info("Job {} for {}: {} ids, {} already checkpointed, {} chunks, parallelism {}",
+                jobName, runDate, sortedIds.size(), skipped, chunks.size(), parallelism);
+
+        Semaphore permits = new Semaphore(parallelism);
+        int processed = 0;
+        int failed = 0;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Integer>> futures = new ArrayList<>(chunks.size());
+            for (List<UUID> chunk : chunks) {
+                futures.add(executor.submit(() -> {
+                    permits.acquire();
+                    try {
+                        return runChunk(jobName, runDate, chunk, chunkWork);
+                    } finally {
+                        permits.release();
+                    }
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    processed += futures.get(i).get();
+                } catch (Exception e) {
+                    failed++;
+                    List<UUID> chunk = chunks.get(i);
+                    logger.error("Job {} chunk [{} .. {}] failed and will be retried on the next run: {}",
+                            jobName, chunk.get(0), chunk.get(chunk.size() - 1), e.getMessage());
+                }
+            }
+        }
+
+        logger.info("Job {} for {} finished: {} processed, {} of {} chunks failed",
+                jobName, runDate, processed, failed, chunks.size());
+        return new Result(sortedIds.size(), skipped, chunks.size(), failed, processed);
+    }
+
+    /**
+     * Starts {@link #run} in the background, for jobs triggered by a request that should not wait for them.
+     * The ids are loaded on the background thread as well.
+     */
+    public CompletableFuture<Result> runAsync(String jobName, LocalDate runDate, Supplier<List<UUID>> ids,
+                                              ToIntFunction<List<UUID>> chunkWork) {
+        return CompletableFuture.supplyAsync(() -> run(jobName, runDate, ids.get(), chunkWork), backgroundJobs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        backgroundJobs.shutdownNow();
+    }
+
+    private int runChunk(String jobName, LocalDate runDate, List<UUID> chunk, ToIntFunction<List<UUID>> chunkWork) {
+        Integer count = transactionTemplate.execute(status -> {
+            int done = chunkWork.applyAsInt(chunk);
+
+            BatchJobCheckpoint checkpoint = new BatchJobCheckpoint();
+            checkpoint.setId(new BatchJobCheckpointId(jobName, runDate, chunk.get(0)));
+            checkpoint.setRangeEnd(chunk.get(chunk.size() - 1));
+            checkpoint.setProcessedIds(new ArrayList<>(chunk));
+            checkpoint.setProcessedCount(done);
+            checkpointRepository.save(checkpoint);
+            return done;
+        });
+        return count == null ? 0 : count;
+    }
+
+    private List<UUID> removeCheckpointed(List<UUID> sortedIds, List<BatchJobCheckpoint> checkpoints) {
+        if (checkpoints.isEmpty()) {
+            return sortedIds;
+        }
+        Set<UUID> done = new HashSet<>();
+        for (BatchJobCheckpoint checkpoint : checkpoints) {
+            done.addAll(checkpoint.getProcessedIds());
+        }
+        List<UUID> pending = new ArrayList<>(sortedIds.size());
+        for (UUID id : sortedIds) {
+            if (!done.contains(id)) {
+                pending.add(id);
+            }
+        }
+        return pending;
+    }
+}
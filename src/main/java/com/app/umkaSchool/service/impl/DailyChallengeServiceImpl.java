@@ -2,6 +2,8 @@ package com.app.umkaSchool.service.impl;
 
 import com.app.umkaSchool.dto.dailychallenge.CreateDailyChallengeRequest;
 import com.app.umkaSchool.dto.dailychallenge.DailyChallengeResponse;
+import com.app.umkaSchool.dto.dailychallenge.PlanDailyChallengesRequest;
+import com.app.umkaSchool.dto.dailychallenge.PlanDailyChallengesResponse;
 import com.app.umkaSchool.exception.ResourceNotFoundException;
 import com.app.umkaSchool.model.*;
 import com.app.umkaSchool.repository.DailyChallengeRepository;
@@ -9,39 +11,76 @@ import com.app.umkaSchool.repository.ExerciseRepository;
 import com.app.umkaSchool.repository.TeacherRepository;
 import com.app.umkaSchool.service.DailyChallengeService;
 import com.app.umkaSchool.service.ExerciseService;
+import com.app.umkaSchool.util.CatalogVersions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
+/**
+ * Today's challenge is requested by every student dashboard, so its response is built once per day and held
+ * in memory. The entry is tagged with its date, rebuilt at startup and right after the midnight job creates
+ * the new challenge, and dropped after a challenge is created or deleted.
+ * <p>
+ * Every drop starts a new generation, and a built response is only stored if the generation it was built
+ * in is still current, so a load that read the database before a commit cannot put the old challenge back.
+ * When today has no challenge yet, the latest earlier one is served instead. It is cached the same way, but
+ * only for a minute, so a challenge for today created through another instance replaces it soon.
+ */
 @Service
 public class DailyChallengeServiceImpl implements DailyChallengeService {
     private static final Logger logger = LoggerFactory.getLogger(DailyChallengeServiceImpl.class);
 
+    private static final long FALLBACK_TTL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    // date and response are null while nothing is cached for the generation
+    private record TodayChallenge(long generation, LocalDate date, DailyChallengeResponse response,
+                                  boolean fallback, long loadedAtNanos) {
+        boolean servesToday(LocalDate today) {
+            return today.equals(date) && (!fallback || System.nanoTime() - loadedAtNanos < FALLBACK_TTL_NANOS);
+        }
+    }
+
     private final DailyChallengeRepository dailyChallengeRepository;
     private final ExerciseRepository exerciseRepository;
     private final TeacherRepository teacherRepository;
     private final ExerciseService exerciseService;
+    private final CatalogVersions catalogVersions;
+    private final AtomicReference<TodayChallenge> todayChallenge =
+            new AtomicReference<>(new TodayChallenge(0, null, null, false, 0));
+
+    @Value("${daily-challenge.plan-ahead-days:7}")
+    private int planAheadDays;
 
     @Autowired
     public DailyChallengeServiceImpl(DailyChallengeRepository dailyChallengeRepository,
                                      ExerciseRepository exerciseRepository,
                                      TeacherRepository teacherRepository,
-                                     ExerciseService exerciseService) {
+                                     ExerciseService exerciseService,
+                                     CatalogVersions catalogVersions) {
         this.dailyChallengeRepository = dailyChallengeRepository;
         this.exerciseRepository = exerciseRepository;
         this.teacherRepository = teacherRepository;
         this.exerciseService = exerciseService;
+        this.catalogVersions = catalogVersions;
     }
 
     @Override
@@ -66,9 +105,14 @@ public class DailyChallengeServiceImpl implements DailyChallengeService {
 
         DailyChallenge savedChallenge = dailyChallengeRepository.save(dailyChallenge);
 
+        List<Exercise> clonedExercises = exerciseService.cloneExercises(request.getExercises().stream()
+                .map(CreateDailyChallengeRequest.ExerciseRequest::getExerciseId)
+                .collect(Collectors.toList()));
+
         Set<DailyChallengeExercise> challengeExercises = new HashSet<>();
-        for (CreateDailyChallengeRequest.ExerciseRequest exerciseRequest : request.getExercises()) {
-            Exercise clonedExercise = exerciseService.cloneExercise(exerciseRequest.getExerciseId());
+        for (int i = 0; i < clonedExercises.size(); i++) {
+            CreateDailyChallengeRequest.ExerciseRequest exerciseRequest = request.getExercises().get(i);
+            Exercise clonedExercise = clonedExercises.get(i);
 
             DailyChallengeExercise challengeExercise = new DailyChallengeExercise();
             DailyChallengeExerciseId id = new DailyChallengeExerciseId();
@@ -83,6 +127,8 @@ public class DailyChallengeServiceImpl implements DailyChallengeService {
 
         savedChallenge.setExercises(challengeExercises);
         savedChallenge = dailyChallengeRepository.save(savedChallenge);
+        invalidateTodayChallengeAfterCommit();
+        catalogVersions.bumpAfterCommit(CatalogVersions.Catalog.DAILY_CHALLENGES);
 
         return mapToResponse(savedChallenge);
     }
@@ -104,17 +150,80 @@ public class DailyChallengeServiceImpl implements DailyChallengeService {
     }
 
     @Override
-    @Transactional(readOnly = true)
     public DailyChallengeResponse getTodayChallenge() {
         LocalDate today = LocalDate.now();
-        Optional<DailyChallenge> todayChallenge = dailyChallengeRepository.findByChallengeDate(today);
-        
-        if (todayChallenge.isPresent()) {
+        TodayChallenge cached = todayChallenge.get();
+        if (cached.servesToday(today)) {
+            return cached.response();
+        }
+        return loadTodayChallenge(today);
+    }
+
+    @Override
+    public void refreshTodayChallenge() {
+        LocalDate today = LocalDate.now();
+        invalidateTodayChallenge();
+        try {
+            if (today.equals(loadTodayChallenge(today).getChallengeDate())) {
+                logger.info("Today's daily challenge ({}) loaded into cache", today);
+            }
+        } catch (ResourceNotFoundException e) {
+            logger.warn("No daily challenge available to cache for {}", today);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmTodayChallenge() {
+        try {
+            refreshTodayChallenge();
+        } catch (Exception e) {
+            logger.error("Failed to load today's daily challenge at startup: {}", e.getMessage(), e);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyPlannedChallenges() {
+        try {
+            LocalDate today = LocalDate.now();
+            LocalDate end = today.plusDays(planAheadDays - 1L);
+            Set<LocalDate> planned = new HashSet<>(dailyChallengeRepository.findChallengeDatesBetween(today, end));
+            List<LocalDate> missing = today.datesUntil(end.plusDays(1))
+                    .filter(date -> !planned.contains(date))
+                    .collect(Collectors.toList());
+            if (missing.isEmpty()) {
+                logger.info("Daily challenges are planned for the next {} days", planAheadDays);
+            } else {
+                logger.warn("No daily challenge planned for {} of the next {} days: {}. They will be copied from "
+                        + "the latest challenge at midnight", missing.size(), planAheadDays, missing);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to verify planned daily challenges: {}", e.getMessage(), e);
+        }
+    }
+
+    private synchronized DailyChallengeResponse loadTodayChallenge(LocalDate today) {
+        // Only the first caller of the day goes to the database; the others wait and reuse its result
+        TodayChallenge observed = todayChallenge.get();
+        if (observed.servesToday(today)) {
+            return observed.response();
+        }
+        long loadedAt = System.nanoTime();
+        DailyChallengeResponse response = buildTodayChallenge(today);
+        // Fails if an invalidation started a new generation while the challenge was being read
+        todayChallenge.compareAndSet(observed, new TodayChallenge(observed.generation(), today, response,
+                !today.equals(response.getChallengeDate()), loadedAt));
+        return response;
+    }
+
+    private DailyChallengeResponse buildTodayChallenge(LocalDate today) {
+        Optional<DailyChallenge> challenge = dailyChallengeRepository.findByChallengeDate(today);
+
+        if (challenge.isPresent()) {
             logger.info("Found daily challenge for today: {}", today);
-            return mapToResponse(todayChallenge.get());
+            return mapToResponse(challenge.get());
         }
         
-        // If no challenge for today, get the most recent one
+        // If no challenge for today, get the most recent one; the caller caches it only briefly
         Optional<DailyChallenge> latestChallenge = dailyChallengeRepository.findFirstByOrderByChallengeDateDesc();
         if (latestChallenge.isPresent()) {
             logger.info("No challenge found for today ({}), returning latest challenge from: {}", 
@@ -140,6 +249,8 @@ public class DailyChallengeServiceImpl implements DailyChallengeService {
             throw new ResourceNotFoundException("Daily challenge not found with id: " + challengeId);
         }
         dailyChallengeRepository.deleteById(challengeId);
+        invalidateTodayChallengeAfterCommit();
+        catalogVersions.bumpAfterCommit(CatalogVersions.Catalog.DAILY_CHALLENGES);
         logger.info("Deleted daily challenge with id: {}", challengeId);
     }
 
@@ -171,29 +282,147 @@ public class DailyChallengeServiceImpl implements DailyChallengeService {
         newChallenge.setCreatedBy(latestChallenge.getCreatedBy()); // Keep the same creator
         
         DailyChallenge savedChallenge = dailyChallengeRepository.save(newChallenge);
-        
-        Set<DailyChallengeExercise> newChallengeExercises = new HashSet<>();
-        int orderIndex = 0;
-        for (DailyChallengeExercise originalExercise : latestChallenge.getExercises()) {
-            Exercise clonedExercise = exerciseService.cloneExercise(originalExercise.getExercise().getId());
-            
-            DailyChallengeExercise newChallengeExercise = new DailyChallengeExercise();
-            DailyChallengeExerciseId id = new DailyChallengeExerciseId();
-            id.setDailyChallengeId(savedChallenge.getId());
-            id.setExerciseId(clonedExercise.getId());
-            newChallengeExercise.setId(id);
-            newChallengeExercise.setDailyChallenge(savedChallenge);
-            newChallengeExercise.setExercise(clonedExercise);
-            newChallengeExercise.setOrderIndex(originalExercise.getOrderIndex() != null ? originalExercise.getOrderIndex() : orderIndex++);
-            
-            newChallengeExercises.add(newChallengeExercise);
+        int exerciseCount = dailyChallengeRepository.cloneExercisesInto(latestChallenge.getId(), savedChallenge.getId());
+        invalidateTodayChallengeAfterCommit();
+        catalogVersions.bumpAfterCommit(CatalogVersions.Catalog.DAILY_CHALLENGES);
+
+        logger.info("Successfully created daily challenge for today ({}) with {} exercises",
+                today, exerciseCount);
+    }
+
+    @Override
+    @Transactional
+    public PlanDailyChallengesResponse planDailyChallenges(PlanDailyChallengesRequest request) {
+        boolean fromTemplates = request.getTemplateChallengeIds() != null && !request.getTemplateChallengeIds().isEmpty();
+        boolean fromPool = request.getExerciseIds() != null && !request.getExerciseIds().isEmpty();
+        if (fromTemplates == fromPool) {
+            throw new IllegalArgumentException("Provide either template challenges or an exercise pool");
         }
-        
-        savedChallenge.setExercises(newChallengeExercises);
-        dailyChallengeRepository.save(savedChallenge);
-        
-        logger.info("Successfully created daily challenge for today ({}) with {} exercises", 
-                today, newChallengeExercises.size());
+        if (fromPool && (request.getTitle() == null || request.getTitle().isBlank()
+                || request.getExercisesPerChallenge() == null)) {
+            throw new IllegalArgumentException("Title and exercises per challenge are required when planning from an exercise pool");
+        }
+
+        LocalDate start = request.getStartDate() != null ? request.getStartDate() : LocalDate.now().plusDays(1);
+        LocalDate end = start.plusDays(request.getDays() - 1L);
+        logger.info("Planning daily challenges from {} to {}", start, end);
+
+        Teacher creator = null;
+        if (request.getCreatedById() != null) {
+            creator = teacherRepository.findById(request.getCreatedById())
+                    .orElseThrow(() -> new ResourceNotFoundException("Teacher not found with id: " + request.getCreatedById()));
+        }
+        List<DailyChallenge> templates = new ArrayList<>();
+        if (fromTemplates) {
+            Map<UUID, DailyChallenge> found = dailyChallengeRepository.findAllById(request.getTemplateChallengeIds()).stream()
+                    .collect(Collectors.toMap(DailyChallenge::getId, challenge -> challenge));
+            for (UUID templateId : request.getTemplateChallengeIds()) {
+                DailyChallenge template = found.get(templateId);
+                if (template == null) {
+                    throw new ResourceNotFoundException("Daily challenge not found with id: " + templateId);
+                }
+                templates.add(template);
+            }
+        }
+
+        Set<LocalDate> taken = new HashSet<>(dailyChallengeRepository.findChallengeDatesBetween(start, end));
+        List<LocalDate> createdDates = new ArrayList<>();
+        List<LocalDate> skippedDates = new ArrayList<>();
+        List<DailyChallenge> challenges = new ArrayList<>();
+        // Rotation position of each planned challenge, counted in days from the start so skipped days keep their turn
+        List<Integer> positions = new ArrayList<>();
+        for (int day = 0; day < request.getDays(); day++) {
+            LocalDate date = start.plusDays(day);
+            if (taken.contains(date)) {
+                skippedDates.add(date);
+                continue;
+            }
+            DailyChallenge challenge = new DailyChallenge();
+            challenge.setChallengeDate(date);
+            if (fromTemplates) {
+                DailyChallenge template = templates.get(day % templates.size());
+                challenge.setTitle(request.getTitle() != null ? request.getTitle() : template.getTitle());
+                challenge.setDescription(request.getDescription() != null ? request.getDescription() : template.getDescription());
+                challenge.setCreatedBy(creator != null ? creator : template.getCreatedBy());
+            } else {
+                challenge.setTitle(request.getTitle());
+                challenge.setDescription(request.getDescription());
+                challenge.setCreatedBy(creator);
+            }
+            challenges.add(challenge);
+            positions.add(day);
+            createdDates.add(date);
+        }
+
+        challenges = dailyChallengeRepository.saveAll(challenges);
+        if (fromTemplates) {
+            for (int i = 0; i < challenges.size(); i++) {
+                DailyChallenge template = templates.get(positions.get(i) % templates.size());
+                dailyChallengeRepository.cloneExercisesInto(template.getId(), challenges.get(i).getId());
+            }
+        } else {
+            linkPoolExercises(challenges, positions, request.getExerciseIds(), request.getExercisesPerChallenge());
+        }
+
+        LocalDate today = LocalDate.now();
+        if (!challenges.isEmpty() && !start.isAfter(today) && !end.isBefore(today)) {
+            invalidateTodayChallengeAfterCommit();
+        }
+        catalogVersions.bumpAfterCommit(CatalogVersions.Catalog.DAILY_CHALLENGES);
+        logger.info("Planned {} daily challenges, skipped {} days that already had one",
+                createdDates.size(), skippedDates.size());
+
+        return PlanDailyChallengesResponse.builder()
+                .createdDates(createdDates)
+                .skippedDates(skippedDates)
+                .build();
+    }
+
+    private void linkPoolExercises(List<DailyChallenge> challenges, List<Integer> positions,
+                                   List<UUID> pool, int perChallenge) {
+        // All clones for the whole plan go through one lookup and one batched insert
+        List<UUID> sourceIds = new ArrayList<>(challenges.size() * perChallenge);
+        for (int position : positions) {
+            for (int i = 0; i < perChallenge; i++) {
+                sourceIds.add(pool.get((position * perChallenge + i) % pool.size()));
+            }
+        }
+        List<Exercise> clones = exerciseService.cloneExercises(sourceIds);
+
+        for (int c = 0; c < challenges.size(); c++) {
+            DailyChallenge challenge = challenges.get(c);
+            for (int i = 0; i < perChallenge; i++) {
+                Exercise clone = clones.get(c * perChallenge + i);
+                DailyChallengeExercise challengeExercise = new DailyChallengeExercise();
+                DailyChallengeExerciseId id = new DailyChallengeExerciseId();
+                id.setDailyChallengeId(challenge.getId());
+                id.setExerciseId(clone.getId());
+                challengeExercise.setId(id);
+                challengeExercise.setDailyChallenge(challenge);
+                challengeExercise.setExercise(clone);
+                challengeExercise.setOrderIndex(i);
+                challenge.getExercises().add(challengeExercise);
+            }
+        }
+        dailyChallengeRepository.saveAll(challenges);
+    }
+
+    private void invalidateTodayChallengeAfterCommit() {
+        // Clearing before commit would let a concurrent request cache the old state again
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidateTodayChallenge();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidateTodayChallenge();
+            }
+        });
+    }
+
+    private void invalidateTodayChallenge() {
+        todayChallenge.updateAndGet(current -> new TodayChallenge(current.generation() + 1, null, null, false, 0));
     }
 
     private DailyChallengeResponse mapToResponse(DailyChallenge challenge) {
@@ -0,0 +1,242 @@
+package com.app.umkaSchool.service.impl;
+
+import com.app.umkaSchool.dto.dailychallenge.DailyChallengeStatsResponse;
+import com.app.umkaSchool.event.ExerciseAttemptCompletedEvent;
+import com.app.umkaSchool.event.ExerciseAttemptStartedEvent;
+import com.app.umkaSchool.exception.ResourceNotFoundException;
+import com.app.umkaSchool.model.DailyChallengeStats;
+import com.app.umkaSchool.repository.DailyChallengeRepository;
+import com.app.umkaSchool.repository.DailyChallengeStatsRepository;
+import com.app.umkaSchool.service.DailyChallengeStatsService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Counts daily challenge participation in striped {@link LongAdder}s, one set per challenge exercise, and adds
+ * the accumulated deltas to {@code daily_challenge_stats} every few seconds. Recording an attempt never touches
+ * the database beyond a cached exercise lookup, so concurrent students never contend on a stats row.
+ * Live numbers are the stored totals plus whatever has not been flushed yet.
+ * <p>
+ * A completed attempt may be reported more than once (auto-completed at its first scored answer, then with the
+ * final results), so only the difference to the previous report is counted. Counters that a flush leaves empty
+ * are removed, so challenge exercises nobody plays any more do not stay in memory. Recording never locks the
+ * map: a recorder that finds its counters were removed meanwhile moves what it added to the new entry.
+ */
+@Service
+public class DailyChallengeStatsServiceImpl implements DailyChallengeStatsService {
+    private static final Logger logger = LoggerFactory.getLogger(DailyChallengeStatsServiceImpl.class);
+
+    // Late attempts on recent challenges still count; exercises are cloned per challenge, so this rarely matters
+    private static final int CHALLENGE_WINDOW_DAYS = 7;
+
+    private record Key(UUID challengeId, UUID exerciseId) {
+    }
+
+    private record Delta(long attempts, long completions, long answers, long correctAnswers, long totalScore) {
+        boolean isEmpty() {
+            return attempts == 0 && completions == 0 && answers == 0 && correctAnswers == 0 && totalScore == 0;
+        }
+    }
+
+    private static final class Counters {
+        final LongAdder attempts = new LongAdder();
+        final LongAdder completions = new LongAdder();
+        final LongAdder answers = new LongAdder();
+        final LongAdder correctAnswers = new LongAdder();
+        final LongAdder totalScore = new LongAdder();
+
+        Delta drain() {
+            return new Delta(attempts.sumThenReset(), completions.sumThenReset(), answers.sumThenReset(),
+                    correctAnswers.sumThenReset(), totalScore.sumThenReset());
+        }
+
+        Delta peek() {
+            return new Delta(attempts.sum(), completions.sum(), answers.sum(), correctAnswers.sum(), totalScore.sum());
+        }
+
+        void add(Delta delta) {
+            attempts.add(delta.attempts());
+            completions.add(delta.completions());
+            answers.add(delta.answers());
+            correctAnswers.add(delta.correctAnswers());
+            totalScore.add(delta.totalScore());
+        }
+    }
+
+    private final DailyChallengeRepository dailyChallengeRepository;
+    private final DailyChallengeStatsRepository dailyChallengeStatsRepository;
+    private final Map<Key, Counters> pending = new ConcurrentHashMap<>();
+    // Most attempts are on homework exercises; remembering that they belong to no challenge avoids a query each
+    private final Cache<UUID, List<UUID>> challengeIdsByExercise = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(1, TimeUnit.HOURS)
+            .build();
+
+    @Autowired
+    public DailyChallengeStatsServiceImpl(DailyChallengeRepository dailyChallengeRepository,
+                                          DailyChallengeStatsRepository dailyChallengeStatsRepository) {
+        this.dailyChallengeRepository = dailyChallengeRepository;
+        this.dailyChallengeStatsRepository = dailyChallengeStatsRepository;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttemptStarted(ExerciseAttemptStartedEvent event) {
+        try {
+            for (UUID challengeId : challengeIdsOf(event.exerciseId())) {
+                record(new Key(challengeId, event.exerciseId()), counters -> counters.attempts.increment());
+            }
+        } catch (Exception e) {
+            logger.error("Error counting started attempt {}: {}", event.attemptId(), e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttemptCompleted(ExerciseAttemptCompletedEvent event) {
+        try {
+            Delta delta = new Delta(0, event.firstCompletion() ? 1 : 0, event.totalAttemptsDelta(),
+                    event.totalCorrectDelta(), event.scoreDelta());
+            if (delta.isEmpty()) {
+                return;
+            }
+            for (UUID challengeId : challengeIdsOf(event.exerciseId())) {
+                record(new Key(challengeId, event.exerciseId()), counters -> counters.add(delta));
+            }
+        } catch (Exception e) {
+            logger.error("Error counting completed attempt {}: {}", event.attemptId(), e.getMessage());
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${daily-challenge.stats.flush-ms:5000}")
+    public void flushCounters() {
+        int flushed = 0;
+        for (Map.Entry<Key, Counters> entry : pending.entrySet()) {
+            Key key = entry.getKey();
+            Delta delta = entry.getValue().drain();
+            if (delta.isEmpty()) {
+                // Nothing was recorded since the last flush; increments that land after the drain are moved on
+                if (pending.remove(key, entry.getValue())) {
+                    requeue(key, entry.getValue());
+                }
+                continue;
+            }
+            try {
+                dailyChallengeStatsRepository.addCounts(key.challengeId(), key.exerciseId(), delta.attempts(),
+                        delta.completions(), delta.answers(), delta.correctAnswers(), delta.totalScore());
+                flushed++;
+            } catch (DataIntegrityViolationException e) {
+                // The challenge or exercise was deleted; its counts have nowhere to go
+                pending.remove(key);
+                logger.warn("Dropped daily challenge stats for deleted {}", key);
+            } catch (Exception e) {
+                // Put the counts back so the next flush retries them
+                record(key, counters -> counters.add(delta));
+                logger.error("Error flushing daily challenge stats for {}: {}", key, e.getMessage());
+            }
+        }
+        if (flushed > 0) {
+            logger.debug("Flushed daily challenge stats for {} challenge exercises", flushed);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushCounters();
+    }
+
+    @Override
+    public DailyChallengeStatsResponse getChallengeStats(UUID challengeId) {
+        if (!dailyChallengeRepository.existsById(challengeId)) {
+            throw new ResourceNotFoundException("Daily challenge not found with id: " + challengeId);
+        }
+
+        Map<UUID, Delta> totals = new HashMap<>();
+        for (DailyChallengeStats stats : dailyChallengeStatsRepository.findById_DailyChallengeId(challengeId)) {
+            totals.put(stats.getId().getExerciseId(), new Delta(stats.getAttempts(), stats.getCompletions(),
+                    stats.getAnswers(), stats.getCorrectAnswers(), stats.getTotalScore()));
+        }
+        pending.forEach((key, counters) -> {
+            if (key.challengeId().equals(challengeId)) {
+                totals.merge(key.exerciseId(), counters.peek(), DailyChallengeStatsServiceImpl::sum);
+            }
+        });
+
+        List<DailyChallengeStatsResponse.ExerciseStats> exercises = new ArrayList<>();
+        Delta challengeTotal = new Delta(0, 0, 0, 0, 0);
+        for (Map.Entry<UUID, Delta> entry : totals.entrySet()) {
+            Delta delta = entry.getValue();
+            exercises.add(DailyChallengeStatsResponse.ExerciseStats.builder()
+                    .exerciseId(entry.getKey())
+                    .attempts(delta.attempts())
+                    .completions(delta.completions())
+                    .answers(delta.answers())
+                    .correctAnswers(delta.correctAnswers())
+                    .averageScore(averageScore(delta))
+                    .build());
+            challengeTotal = sum(challengeTotal, delta);
+        }
+
+        return DailyChallengeStatsResponse.builder()
+                .challengeId(challengeId)
+                .attempts(challengeTotal.attempts())
+                .completions(challengeTotal.completions())
+                .answers(challengeTotal.answers())
+                .correctAnswers(challengeTotal.correctAnswers())
+                .averageScore(averageScore(challengeTotal))
+                .exercises(exercises)
+                .build();
+    }
+
+    private List<UUID> challengeIdsOf(UUID exerciseId) {
+        return challengeIdsByExercise.get(exerciseId, id -> dailyChallengeRepository.findIdsByExerciseIdSince(
+                id, LocalDate.now().minusDays(CHALLENGE_WINDOW_DAYS)));
+    }
+
+    private void record(Key key, Consumer<Counters> update) {
+        Counters counters = pending.computeIfAbsent(key, k -> new Counters());
+        update.accept(counters);
+        if (pending.get(key) != counters) {
+            // A flush removed the entry as idle while it was being updated
+            requeue(key, counters);
+        }
+    }
+
+    /**
+     * Moves whatever is left in counters no longer in the map to the key's current entry. Both the flush that
+     * removed them and a recorder that updated them late call this; draining is atomic, so each count moves once.
+     */
+    private void requeue(Key key, Counters removed) {
+        Delta late = removed.drain();
+        if (!late.isEmpty()) {
+            record(key, counters -> counters.add(late));
+        }
+    }
+
+    private static Delta sum(Delta a, Delta b) {
+        return new Delta(a.attempts() + b.attempts(), a.completions() + b.completions(), a.answers() + b.answers(),
+                a.correctAnswers() + b.correctAnswers(), a.totalScore() + b.totalScore());
+    }
+
+    private static double averageScore(Delta delta) {
+        return delta.completions() == 0 ? 0.0 : (double) delta.totalScore() / delta.completions();
+    }
+}
@@ -0,0 +1,218 @@
+package com.app.umkaSchool.service.impl;
+
+import com.app.umkaSchool.model.EmailOutbox;
+import com.app.umkaSchool.repository.EmailOutboxRepository;
+import com.app.umkaSchool.service.EmailService;
+import io.github.bucket4j.Bandwidth;
+import io.github.bucket4j.Bucket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers queued emails from {@code email_outbox}.
+ * <p>
+ * Each poll claims due rows in small batches with {@code FOR UPDATE SKIP LOCKED}, so several instances can
+ * share the queue. A poll claims at most {@code email.outbox.max-batches-per-poll} batches, so a large backlog
+ * is drained over several polls instead of holding a scheduler thread until the queue is empty. Claimed rows are split into groups of {@code email.outbox.send-batch-size}, each handed to
+ * {@link EmailService#deliverBatch} as one provider request on a virtual thread, with at most
+ * {@code email.outbox.senders} groups in flight. A token bucket keeps the overall number of emails per second
+ * within the provider's quota. A claimed row is leased rather than locked during delivery: if the application
+ * dies mid-send the row becomes due again when the lease runs out. Failed sends are retried per recipient with
+ * exponential backoff until {@code email.outbox.max-attempts}, except those the transport reports with an
+ * unknown outcome: they may have been delivered, so they are marked failed rather than sent twice.
+ */
+@Component
+public class EmailOutboxDispatcher {
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+    private final Bucket rateLimiter;
+    private final int ratePerSecond;
+    private final int batchSize;
+    private final int maxBatchesPerPoll;
+    private final int sendBatchSize;
+    private final int senders;
+    private final int maxAttempts;
+    private final Duration backoffBase;
+    private final Duration backoffMax;
+    private final Duration lease;
+
+    @Autowired
+    public EmailOutboxDispatcher(EmailOutboxRepository emailOutboxRepository,
+                                 EmailService emailService,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${email.outbox.batch-size:100}") int batchSize,
+                                 @Value("${email.outbox.max-batches-per-poll:10}") int maxBatchesPerPoll,
+                                 @Value("${email.outbox.send-batch-size:50}") int sendBatchSize,
+                                 @Value("${email.outbox.senders:8}") int senders,
+                                 @Value("${email.outbox.rate-per-second:10}") int ratePerSecond,
+                                 @Value("${email.outbox.max-attempts:6}") int maxAttempts,
+                                 @Value("${email.outbox.backoff-base-seconds:30}") long backoffBaseSeconds,
+                                 @Value("${email.outbox.backoff-max-seconds:3600}") long backoffMaxSeconds,
+                                 @Value("${email.outbox.lease-seconds:300}") long leaseSeconds) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.emailService = emailService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxBatchesPerPoll = Math.max(1, maxBatchesPerPoll);
+        this.sendBatchSize = Math.max(1, sendBatchSize);
+        this.ratePerSecond = Math.max(1, ratePerSecond);
+        // Holds at most one second of sends, so no burst exceeds the provider's per-second quota
+        this.rateLimiter = Bucket.builder()
+                .addLimit(Bandwidth.builder()
+                        .capacity(this.ratePerSecond)
+                        .refillGreedy(this.ratePerSecond, Duration.ofSeconds(1))
+                        .build())
+                .build();
+        this.senders = Math.max(1, senders);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffBase = Duration.ofSeconds(backoffBaseSeconds);
+        this.backoffMax = Duration.ofSeconds(backoffMaxSeconds);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+    }
+
+    @Scheduled(fixedDelayString = "${email.outbox.poll-ms:5000}")
+    public void dispatchPending() {
+        AtomicInteger sent = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        Semaphore permits = new Semaphore(senders);
+        int claimed = 0;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<EmailOutbox> batch;
+            do {
+                batch = claimBatch();
+                claimed++;
+                for (int from = 0; from < batch.size(); from += sendBatchSize) {
+                    List<EmailOutbox> group = batch.subList(from, Math.min(from + sendBatchSize, batch.size()));
+                    permits.acquireUninterruptibly();
+                    executor.submit(() -> {
+                        try {
+                            int delivered = send(group);
+                            sent.addAndGet(delivered);
+                            failed.addAndGet(group.size() - delivered);
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                }
+            } while (batch.size() == batchSize && claimed < maxBatchesPerPoll);
+        } catch (Exception e) {
+            // Claimed rows stay leased and are picked up again once the lease runs out
+            logger.error("Error dispatching queued emails: {}", e.getMessage(), e);
+        }
+
+        if (sent.get() > 0 || failed.get() > 0) {
+            logger.info("Email outbox: {} sent, {} failed", sent.get(), failed.get());
+        }
+    }
+
+    private List<EmailOutbox> claimBatch() {
+        List<EmailOutbox> batch = transactionTemplate.execute(status -> {
+            ZonedDateTime now = ZonedDateTime.now();
+            List<EmailOutbox> due = emailOutboxRepository.lockDue(now, batchSize);
+            if (!due.isEmpty()) {
+                emailOutboxRepository.claim(due.stream().map(EmailOutbox::getId).toList(), now.plus(lease));
+            }
+            return due;
+        });
+        return batch == null ? List.of() : batch;
+    }
+
+    /**
+     * @return how many emails of the group were delivered
+     */
+    private int send(List<EmailOutbox> group) {
+        List<String> errors;
+        try {
+            acquire(group.size());
+            errors = emailService.deliverBatch(group.stream()
+                    .map(message -> new EmailService.OutgoingEmail(
+                            message.getRecipient(), message.getSubject(), message.getHtmlContent()))
+                    .toList());
+        } catch (InterruptedException e) {
+            // Rows stay leased and are picked up again once the lease runs out
+            Thread.currentThread().interrupt();
+            return 0;
+        } catch (Exception e) {
+            String error = e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+            errors = Collections.nCopies(group.size(), error);
+        }
+
+        int delivered = 0;
+        ZonedDateTime now = ZonedDateTime.now();
+        for (int i = 0; i < group.size(); i++) {
+            EmailOutbox message = group.get(i);
+            if (errors.get(i) == null) {
+                emailOutboxRepository.markSent(message.getId(), now);
+                delivered++;
+            } else {
+                handleFailure(message, truncate(errors.get(i)));
+            }
+        }
+        return delivered;
+    }
+
+    /**
+     * Takes one token per email, at most a second's worth at a time, since the bucket holds no more than that.
+     */
+    private void acquire(int emails) throws InterruptedException {
+        for (int remaining = emails; remaining > 0; ) {
+            int tokens = Math.min(remaining, ratePerSecond);
+            rateLimiter.asBlocking().consume(tokens);
+            remaining -= tokens;
+        }
+    }
+
+    private void handleFailure(EmailOutbox message, String error) {
+        // The row was read before claim() incremented it
+        int attempt = message.getAttempts() + 1;
+        if (EmailService.isUnknownOutcome(error)) {
+            emailOutboxRepository.markFailed(message.getId(), error);
+            logger.warn("Email {} to {} may have been sent, not retrying it: {}",
+                    message.getId(), message.getRecipient(), error);
+        } else if (attempt >= maxAttempts) {
+            emailOutboxRepository.markFailed(message.getId(), error);
+            logger.error("Giving up on email {} to {} after {} attempts: {}",
+                    message.getId(), message.getRecipient(), attempt, error);
+        } else {
+            ZonedDateTime retryAt = ZonedDateTime.now().plus(backoff(attempt));
+            emailOutboxRepository.scheduleRetry(message.getId(), retryAt, error);
+            logger.warn("Email {} to {} failed (attempt {}), retrying at {}: {}",
+                    message.getId(), message.getRecipient(), attempt, retryAt, error);
+        }
+    }
+
+    /**
+     * Exponential backoff with jitter: between half and all of {@code base * 2^(attempt - 1)}, capped at the maximum.
+     */
+    private Duration backoff(int attempt) {
+        long delay = Math.min(backoffMax.toMillis(), backoffBase.toMillis() << Math.min(attempt - 1, 20));
+        long half = delay / 2;
+        return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(delay - half + 1));
+    }
+
+    private static String truncate(String error) {
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+}
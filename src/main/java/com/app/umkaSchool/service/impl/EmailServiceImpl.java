@@ -1,6 +1,7 @@
 package com.app.umkaSchool.service.impl;
 
 import com.app.umkaSchool.dto.weeklyreport.WeeklyReportData;
+import com.app.umkaSchool.repository.EmailOutboxRepository;
 import com.app.umkaSchool.service.EmailService;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
@@ -13,12 +14,24 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.HtmlUtils;
 
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -32,20 +45,30 @@ public class EmailServiceImpl implements EmailService {
     private final String brevoApiUrl;
     private final RestTemplate restTemplate;
     private final boolean useBrevo;
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final int brevoBatchSize;
 
     @Autowired
     public EmailServiceImpl(JavaMailSender mailSender,
                             @Value("${spring.mail.username}") String fromEmail,
                             @Value("${app.name:UmkaSchool}") String appName,
                             @Value("${brevo.api.key:}") String brevoApiKey,
-                            @Value("${app.brevo.api.url:https://api.brevo.com/v3/smtp/email}") String brevoApiUrl) {
+                            @Value("${app.brevo.api.url:https://api.brevo.com/v3/smtp/email}") String brevoApiUrl,
+                            @Value("${app.brevo.batch-size:100}") int brevoBatchSize,
+                            @Value("${app.brevo.timeout-ms:10000}") long brevoTimeoutMillis,
+                            EmailOutboxRepository emailOutboxRepository) {
         this.mailSender = mailSender;
         this.fromEmail = fromEmail;
         this.appName = appName;
         this.brevoApiKey = brevoApiKey;
         this.brevoApiUrl = brevoApiUrl;
-        this.restTemplate = new RestTemplate();
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(Duration.ofMillis(brevoTimeoutMillis));
+        requestFactory.setReadTimeout(Duration.ofMillis(brevoTimeoutMillis));
+        this.restTemplate = new RestTemplate(requestFactory);
         this.useBrevo = brevoApiKey != null && !brevoApiKey.trim().isEmpty();
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.brevoBatchSize = Math.max(1, brevoBatchSize);
         
         if (useBrevo) {
             logger.info("Email service configured to use Brevo API (production mode) at: {}", brevoApiUrl);
@@ -90,37 +113,148 @@ public class EmailServiceImpl implements EmailService {
         }
     }
 
-    private void sendViaBrevo(String toEmail, String subject, String htmlContent) {
-        try {
-            logger.info("Attempting to send email via Brevo API to: {}", toEmail);
-            
-            if (brevoApiKey == null || brevoApiKey.isEmpty()) {
-                logger.error("Brevo API key is not configured!");
-                return;
-            }
+    @Override
+    public void queueWeeklyReport(String dedupKey, String guardianEmail, String guardianFirstName,
+                                  WeeklyReportData reportData) {
+        String subject = "Weekly Progress Report for " + reportData.getStudentFirstName() + " - " + appName;
+        String htmlContent = buildWeeklyReportEmail(guardianFirstName, reportData);
+
+        if (emailOutboxRepository.enqueue(dedupKey, guardianEmail, subject, htmlContent) == 0) {
+            logger.debug("Email {} was already queued", dedupKey);
+        }
+    }
+
+    @Override
+    public void queueHomeworkReminder(String dedupKey, String toEmail, String firstName, String homeworkTitle,
+                                      ZonedDateTime dueDate) {
+        String subject = "Homework due soon: " + homeworkTitle + " - " + appName;
+        String htmlContent = buildHomeworkReminderEmail(firstName, homeworkTitle, dueDate);
+
+        if (emailOutboxRepository.enqueue(dedupKey, toEmail, subject, htmlContent) == 0) {
+            logger.debug("Email {} was already queued", dedupKey);
+        }
+    }
 
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("api-key", brevoApiKey);
+    @Override
+    public List<String> deliverBatch(List<OutgoingEmail> emails) {
+        List<String> errors = new ArrayList<>(emails.size());
+        if (!useBrevo) {
+            for (OutgoingEmail email : emails) {
+                errors.add(deliverOne(email));
+            }
+            return errors;
+        }
+        for (int from = 0; from < emails.size(); from += brevoBatchSize) {
+            errors.addAll(deliverBatchViaBrevo(emails.subList(from, Math.min(from + brevoBatchSize, emails.size()))));
+        }
+        return errors;
+    }
 
-            Map<String, Object> sender = Map.of("email", fromEmail);
-            Map<String, Object> to = Map.of("email", toEmail);
+    /**
+     * Sends one Brevo request carrying a message version per email. Brevo accepts or rejects the request as
+     * a whole, so when it rejects the content (4xx other than 429) the emails are sent one by one to find out
+     * which recipients caused it. If the request may have reached Brevo before failing (a read timeout or a
+     * connection dropped mid-request), the batch is reported with an unknown outcome so it is not sent twice;
+     * on any other failure the whole batch is reported as failed and retried later.
+     */
+    private List<String> deliverBatchViaBrevo(List<OutgoingEmail> batch) {
+        if (batch.size() == 1) {
+            return Collections.singletonList(deliverOne(batch.get(0)));
+        }
+        try {
+            List<Map<String, Object>> versions = new ArrayList<>(batch.size());
+            for (OutgoingEmail email : batch) {
+                versions.add(Map.of(
+                        "to", List.of(Map.of("email", email.toEmail())),
+                        "subject", email.subject(),
+                        "htmlContent", email.htmlContent()
+                ));
+            }
+            // Top-level subject and content are required by Brevo; every version overrides them
             Map<String, Object> requestBody = Map.of(
-                    "sender", sender,
-                    "to", java.util.List.of(to),
-                    "subject", subject,
-                    "htmlContent", htmlContent
+                    "sender", Map.of("email", fromEmail),
+                    "subject", batch.get(0).subject(),
+                    "htmlContent", batch.get(0).htmlContent(),
+                    "messageVersions", versions
             );
-
-            HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
             ResponseEntity<String> response = restTemplate.exchange(
-                    brevoApiUrl,
-                    HttpMethod.POST,
-                    request,
-                    String.class
-            );
+                    brevoApiUrl, HttpMethod.POST, new HttpEntity<>(requestBody, brevoHeaders()), String.class);
 
-            logger.info("Email sent successfully via Brevo API to: {}. Status: {}", toEmail, response.getStatusCode());
+            logger.info("Batch of {} emails sent via Brevo API. Status: {}", batch.size(), response.getStatusCode());
+            return Collections.nCopies(batch.size(), null);
+        } catch (HttpClientErrorException e) {
+            if (e.getStatusCode().value() == 429) {
+                return failAll(batch, e);
+            }
+            logger.warn("Brevo rejected a batch of {} emails ({}), sending them one by one",
+                    batch.size(), e.getStatusCode());
+            List<String> errors = new ArrayList<>(batch.size());
+            for (OutgoingEmail email : batch) {
+                errors.add(deliverOne(email));
+            }
+            return errors;
+        } catch (Exception e) {
+            return failAll(batch, e);
+        }
+    }
+
+    private List<String> failAll(List<OutgoingEmail> batch, Exception e) {
+        logger.error("Failed to send a batch of {} emails via Brevo API: {}", batch.size(), e.getMessage());
+        return Collections.nCopies(batch.size(), brevoError(e));
+    }
+
+    /**
+     * @return null if the email was sent, otherwise the reason it was not
+     */
+    private String deliverOne(OutgoingEmail email) {
+        try {
+            if (useBrevo) {
+                deliverViaBrevo(email.toEmail(), email.subject(), email.htmlContent());
+            } else {
+                deliverViaSmtp(email.toEmail(), email.subject(), email.htmlContent());
+            }
+            return null;
+        } catch (Exception e) {
+            logger.warn("Failed to send email to {}: {}", email.toEmail(), e.getMessage());
+            return useBrevo ? brevoError(e) : errorMessage(e);
+        }
+    }
+
+    private static String errorMessage(Exception e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getName();
+    }
+
+    private static String brevoError(Exception e) {
+        return mayHaveBeenSent(e) ? UNKNOWN_OUTCOME + errorMessage(e) : errorMessage(e);
+    }
+
+    /**
+     * An I/O error other than failing to connect means the request may already have been received.
+     */
+    private static boolean mayHaveBeenSent(Exception e) {
+        if (!(e instanceof ResourceAccessException)) {
+            return false;
+        }
+        Throwable cause = e.getCause();
+        boolean connectFailed = cause instanceof ConnectException || cause instanceof UnknownHostException
+                || cause instanceof SocketTimeoutException && cause.getMessage() != null
+                        && cause.getMessage().startsWith("Connect timed out");
+        return !connectFailed;
+    }
+
+    private HttpHeaders brevoHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("api-key", brevoApiKey);
+        return headers;
+    }
+
+    private void sendViaBrevo(String toEmail, String subject, String htmlContent) {
+        try {
+            logger.info("Attempting to send email via Brevo API to: {}", toEmail);
+            deliverViaBrevo(toEmail, subject, htmlContent);
+        } catch (IllegalStateException e) {
+            logger.error(e.getMessage());
         } catch (Exception e) {
             logger.error("Failed to send email via Brevo API to: {}", toEmail, e);
             logger.warn("=================================================");
@@ -130,11 +264,49 @@ public class EmailServiceImpl implements EmailService {
         }
     }
 
+    private void deliverViaBrevo(String toEmail, String subject, String htmlContent) {
+        if (brevoApiKey == null || brevoApiKey.isEmpty()) {
+            throw new IllegalStateException("Brevo API key is not configured!");
+        }
+
+        HttpHeaders headers = brevoHeaders();
+
+        Map<String, Object> sender = Map.of("email", fromEmail);
+        Map<String, Object> to = Map.of("email", toEmail);
+        Map<String, Object> requestBody = Map.of(
+                "sender", sender,
+                "to", List.of(to),
+                "subject", subject,
+                "htmlContent", htmlContent
+        );
+
+        HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
+        ResponseEntity<String> response = restTemplate.exchange(
+                brevoApiUrl,
+                HttpMethod.POST,
+                request,
+                String.class
+        );
+
+        logger.info("Email sent successfully via Brevo API to: {}. Status: {}", toEmail, response.getStatusCode());
+    }
+
     private void sendViaSmtp(String toEmail, String subject, String htmlContent) {
         try {
             logger.info("Attempting to send email via SMTP to: {}", toEmail);
             logger.info("From email: {}", fromEmail);
+            deliverViaSmtp(toEmail, subject, htmlContent);
+        } catch (Exception e) {
+            logger.error("Failed to send email via SMTP to: {}", toEmail, e);
+            logger.warn("=================================================");
+            logger.warn("EMAIL SEND FAILED VIA SMTP!");
+            logger.warn("Error message: {}", e.getMessage());
+            logger.warn("=================================================");
+        }
+    }
 
+    private void deliverViaSmtp(String toEmail, String subject, String htmlContent) {
+        try {
             MimeMessage message = mailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
 
@@ -143,21 +315,10 @@ public class EmailServiceImpl implements EmailService {
             helper.setSubject(subject);
             helper.setText(htmlContent, true);
 
-            logger.info("Sending email to SMTP server...");
             mailSender.send(message);
             logger.info("Email sent successfully via SMTP to: {}", toEmail);
         } catch (MessagingException e) {
-            logger.error("MessagingException - Failed to send email via SMTP to: {}", toEmail, e);
-            logger.warn("=================================================");
-            logger.warn("EMAIL SEND FAILED VIA SMTP!");
-            logger.warn("Error message: {}", e.getMessage());
-            logger.warn("=================================================");
-        } catch (Exception e) {
-            logger.error("Unexpected error sending email via SMTP to: {}", toEmail, e);
-            logger.warn("=================================================");
-            logger.warn("EMAIL SEND FAILED VIA SMTP!");
-            logger.warn("Error: {}", e.getMessage());
-            logger.warn("=================================================");
+            throw new IllegalStateException("Could not build email to " + toEmail + ": " + e.getMessage(), e);
         }
     }
 
@@ -259,6 +420,54 @@ public class EmailServiceImpl implements EmailService {
                 """;
     }
 
+    private String buildHomeworkReminderEmail(String firstName, String homeworkTitle, ZonedDateTime dueDate) {
+        String due = dueDate.format(DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm z"));
+        // Both are typed in by users and end up in HTML markup
+        String safeFirstName = HtmlUtils.htmlEscape(firstName);
+        String safeTitle = HtmlUtils.htmlEscape(homeworkTitle);
+        return """
+                <!DOCTYPE html>
+                <html>
+                <head>
+                    <meta charset="UTF-8">
+                    <style>
+                        body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }
+                        .container { max-width: 600px; margin: 0 auto; padding: 20px; }
+                        .header { background-color: #4CAF50; color: white; padding: 20px; text-align: center; }
+                        .content { background-color: #f9f9f9; padding: 30px; }
+                        .due { background-color: white; padding: 20px; margin: 20px 0; border-radius: 5px; }
+                        .footer { text-align: center; padding: 20px; font-size: 12px; color: #666; }
+                    </style>
+                </head>
+                <body>
+                    <div class="container">
+                        <div class="header">
+                            <h1>Homework Reminder</h1>
+                        </div>
+                        <div class="content">
+                            <h2>Hello\s""" + safeFirstName + """
+                !</h2>
+                            <p>Your homework is due soon and is not finished yet.</p>
+                            <div class="due">
+                                <h3>""" + safeTitle + """
+                </h3>
+                                <p>Due:\s""" + due + """
+                </p>
+                            </div>
+                            <p>Log in to\s""" + appName + """
+                 to complete the remaining exercises.</p>
+                        </div>
+                        <div class="footer">
+                            <p>© 2025\s""" + appName + """
+                . All rights reserved.</p>
+                            <p>This is an automated email. Please do not reply.</p>
+                        </div>
+                    </div>
+                </body>
+                </html>
+                """;
+    }
+
     private String buildWeeklyReportEmail(String guardianFirstName, WeeklyReportData reportData) {
         DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("MMM dd, yyyy");
         String weekRange = reportData.getWeekStartDate().format(dateFormatter) + " - " + 
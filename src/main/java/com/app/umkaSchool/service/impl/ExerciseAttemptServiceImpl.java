@@ -5,6 +5,8 @@ import com.app.umkaSchool.service.ExerciseAttemptService;
 import com.app.umkaSchool.dto.exerciseattempt.CreateExerciseAttemptRequest;
 import com.app.umkaSchool.dto.exerciseattempt.ExerciseAttemptResponse;
 import com.app.umkaSchool.dto.exerciseattempt.UpdateExerciseAttemptRequest;
+import com.app.umkaSchool.event.ExerciseAttemptCompletedEvent;
+import com.app.umkaSchool.event.ExerciseAttemptStartedEvent;
 import com.app.umkaSchool.exception.ResourceNotFoundException;
 import com.app.umkaSchool.model.Exercise;
 import com.app.umkaSchool.model.ExerciseAttempt;
@@ -18,6 +20,7 @@ import com.app.umkaSchool.service.ProgressSnapshotService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -38,6 +41,7 @@ public class ExerciseAttemptServiceImpl implements ExerciseAttemptService {
     private final ProgressSnapshotService progressSnapshotService;
     private final AchievementService achievementService;
     private final HomeworkAssignmentService homeworkAssignmentService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public ExerciseAttemptServiceImpl(ExerciseAttemptRepository exerciseAttemptRepository,
@@ -45,13 +49,15 @@ public class ExerciseAttemptServiceImpl implements ExerciseAttemptService {
                                      ExerciseRepository exerciseRepository,
                                      ProgressSnapshotService progressSnapshotService,
                                      AchievementService achievementService,
-                                     HomeworkAssignmentService homeworkAssignmentService) {
+                                     HomeworkAssignmentService homeworkAssignmentService,
+                                     ApplicationEventPublisher eventPublisher) {
         this.exerciseAttemptRepository = exerciseAttemptRepository;
         this.studentRepository = studentRepository;
         this.exerciseRepository = exerciseRepository;
         this.progressSnapshotService = progressSnapshotService;
         this.achievementService = achievementService;
         this.homeworkAssignmentService = homeworkAssignmentService;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -75,6 +81,7 @@ public class ExerciseAttemptServiceImpl implements ExerciseAttemptService {
         attempt.setTotalCorrect(0L);
 
         attempt = exerciseAttemptRepository.save(attempt);
+        eventPublisher.publishEvent(new ExerciseAttemptStartedEvent(attempt.getId(), student.getId(), exercise.getId()));
         logger.info("Exercise attempt created successfully: {}", attempt.getId());
 
         return mapToResponse(attempt);
@@ -84,9 +91,15 @@ public class ExerciseAttemptServiceImpl implements ExerciseAttemptService {
     public ExerciseAttemptResponse updateExerciseAttempt(UUID attemptId, UpdateExerciseAttemptRequest request) {
         logger.info("Updating exercise attempt: {}", attemptId);
 
-        ExerciseAttempt attempt = exerciseAttemptRepository.findById(attemptId)
+        ExerciseAttempt attempt = exerciseAttemptRepository.findByIdForUpdate(attemptId)
                 .orElseThrow(() -> new ResourceNotFoundException("Exercise attempt not found"));
 
+        // What earlier completion events for this attempt already reported; listeners only add the difference
+        boolean wasCompleted = attempt.getCompletedAt() != null;
+        int previousScore = wasCompleted && attempt.getScore() != null ? attempt.getScore() : 0;
+        long previousTotalAttempts = wasCompleted && attempt.getTotalAttempts() != null ? attempt.getTotalAttempts() : 0L;
+        long previousTotalCorrect = wasCompleted && attempt.getTotalCorrect() != null ? attempt.getTotalCorrect() : 0L;
+
         if (request.getStudentId() != null) {
             Student student = studentRepository.findById(request.getStudentId())
                     .orElseThrow(() -> new ResourceNotFoundException("Student not found"));
@@ -187,6 +200,23 @@ public class ExerciseAttemptServiceImpl implements ExerciseAttemptService {
             } catch (Exception e) {
                 logger.error("Error updating progress snapshot for student {}: {}", attempt.getStudent().getId(), e.getMessage());
             }
+
+            // Listeners react after commit, so they always see the completed attempt and the new snapshot
+            Long transactionId = exerciseAttemptRepository.currentTransactionId();
+            eventPublisher.publishEvent(new ExerciseAttemptCompletedEvent(
+                    attempt.getId(),
+                    attempt.getStudent().getId(),
+                    attempt.getStudent().getGroup() != null ? attempt.getStudent().getGroup().getId() : null,
+                    attempt.getExercise().getId(),
+                    attempt.getScore() != null ? attempt.getScore() : 0,
+                    attempt.getTotalAttempts() != null ? attempt.getTotalAttempts() : 0L,
+                    attempt.getTotalCorrect() != null ? attempt.getTotalCorrect() : 0L,
+                    attempt.getCompletedAt(),
+                    !wasCompleted,
+                    previousScore,
+                    previousTotalAttempts,
+                    previousTotalCorrect,
+                    transactionId != null ? transactionId : 0L));
         }
 
         return mapToResponse(attempt);
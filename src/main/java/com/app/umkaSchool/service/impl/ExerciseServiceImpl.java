@@ -15,6 +15,7 @@ import com.app.umkaSchool.repository.ExerciseRepository;
 import com.app.umkaSchool.repository.ExerciseTypeRepository;
 import com.app.umkaSchool.repository.TeacherRepository;
 import com.app.umkaSchool.service.ExerciseService;
+import com.app.umkaSchool.util.CatalogVersions;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
@@ -30,6 +31,7 @@ import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -41,16 +43,19 @@ public class ExerciseServiceImpl implements ExerciseService {
     private final ExerciseRepository exerciseRepository;
     private final ExerciseTypeRepository exerciseTypeRepository;
     private final TeacherRepository teacherRepository;
+    private final CatalogVersions catalogVersions;
     private final ObjectMapper objectMapper;
     private final Random random;
 
     @Autowired
     public ExerciseServiceImpl(ExerciseRepository exerciseRepository,
                                ExerciseTypeRepository exerciseTypeRepository,
-                               TeacherRepository teacherRepository) {
+                               TeacherRepository teacherRepository,
+                               CatalogVersions catalogVersions) {
         this.exerciseRepository = exerciseRepository;
         this.exerciseTypeRepository = exerciseTypeRepository;
         this.teacherRepository = teacherRepository;
+        this.catalogVersions = catalogVersions;
         this.objectMapper = new ObjectMapper();
         this.random = new Random();
     }
@@ -125,6 +130,8 @@ public class ExerciseServiceImpl implements ExerciseService {
         }
 
         exercise = exerciseRepository.save(exercise);
+        // Exercises are embedded in homework and challenge responses
+        catalogVersions.bumpAfterCommit(CatalogVersions.Catalog.HOMEWORK, CatalogVersions.Catalog.DAILY_CHALLENGES);
         logger.info("Exercise updated successfully: {}", exerciseId);
 
         return mapToResponse(exercise);
@@ -170,6 +177,7 @@ public class ExerciseServiceImpl implements ExerciseService {
                 .orElseThrow(() -> new ResourceNotFoundException("Exercise not found"));
 
         exerciseRepository.delete(exercise);
+        catalogVersions.bumpAfterCommit(CatalogVersions.Catalog.HOMEWORK, CatalogVersions.Catalog.DAILY_CHALLENGES);
         logger.info("Exercise deleted successfully: {}", exerciseId);
     }
 
@@ -270,6 +278,31 @@ public class ExerciseServiceImpl implements ExerciseService {
         return clonedExercise;
     }
 
+    @Override
+    @Transactional
+    public List<Exercise> cloneExercises(List<UUID> exerciseIds) {
+        Map<UUID, Exercise> originals = exerciseRepository.findAllById(exerciseIds).stream()
+                .collect(Collectors.toMap(Exercise::getId, exercise -> exercise));
+
+        List<Exercise> clones = new ArrayList<>(exerciseIds.size());
+        for (UUID exerciseId : exerciseIds) {
+            Exercise originalExercise = originals.get(exerciseId);
+            if (originalExercise == null) {
+                throw new ResourceNotFoundException("Exercise not found: " + exerciseId);
+            }
+            Exercise clonedExercise = new Exercise();
+            clonedExercise.setExerciseType(originalExercise.getExerciseType());
+            clonedExercise.setParameters(originalExercise.getParameters());
+            clonedExercise.setDifficulty(originalExercise.getDifficulty());
+            clonedExercise.setPoints(originalExercise.getPoints());
+            clones.add(clonedExercise);
+        }
+
+        clones = exerciseRepository.saveAll(clones);
+        logger.info("Cloned {} exercises", clones.size());
+        return clones;
+    }
+
     @Override
     public Integer calculateDifficulty(UUID exerciseTypeId, String parametersJson) {
         ExerciseType exerciseType = exerciseTypeRepository.findById(exerciseTypeId)
@@ -9,6 +9,7 @@ import com.app.umkaSchool.model.Teacher;
 import com.app.umkaSchool.repository.ExerciseTypeRepository;
 import com.app.umkaSchool.repository.TeacherRepository;
 import com.app.umkaSchool.service.ExerciseTypeService;
+import com.app.umkaSchool.util.CatalogVersions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -25,12 +26,15 @@ public class ExerciseTypeServiceImpl implements ExerciseTypeService {
 
     private final ExerciseTypeRepository exerciseTypeRepository;
     private final TeacherRepository teacherRepository;
+    private final CatalogVersions catalogVersions;
 
     @Autowired
     public ExerciseTypeServiceImpl(ExerciseTypeRepository exerciseTypeRepository,
-                                   TeacherRepository teacherRepository) {
+                                   TeacherRepository teacherRepository,
+                                   CatalogVersions catalogVersions) {
         this.exerciseTypeRepository = exerciseTypeRepository;
         this.teacherRepository = teacherRepository;
+        this.catalogVersions = catalogVersions;
     }
 
     @Override
@@ -56,6 +60,7 @@ public class ExerciseTypeServiceImpl implements ExerciseTypeService {
         }
 
         exerciseType = exerciseTypeRepository.save(exerciseType);
+        catalogVersions.bumpAfterCommit(CatalogVersions.Catalog.EXERCISE_TYPES);
         logger.info("Exercise type created successfully: {}", exerciseType.getId());
 
         return mapToResponse(exerciseType);
@@ -94,6 +99,9 @@ public class ExerciseTypeServiceImpl implements ExerciseTypeService {
             exerciseType.setCreatedBy(teacher);
         }
         exerciseType = exerciseTypeRepository.save(exerciseType);
+        // Homework and challenge responses carry the type name
+        catalogVersions.bumpAfterCommit(CatalogVersions.Catalog.EXERCISE_TYPES, CatalogVersions.Catalog.HOMEWORK,
+                CatalogVersions.Catalog.DAILY_CHALLENGES);
         logger.info("Exercise type updated successfully: {}", exerciseTypeId);
 
         return mapToResponse(exerciseType);
@@ -136,6 +144,8 @@ public class ExerciseTypeServiceImpl implements ExerciseTypeService {
                 .orElseThrow(() -> new ResourceNotFoundException("Exercise type not found"));
 
         exerciseTypeRepository.delete(exerciseType);
+        catalogVersions.bumpAfterCommit(CatalogVersions.Catalog.EXERCISE_TYPES, CatalogVersions.Catalog.HOMEWORK,
+                CatalogVersions.Catalog.DAILY_CHALLENGES);
         logger.info("Exercise type deleted successfully: {}", exerciseTypeId);
     }
 
@@ -3,6 +3,7 @@ package com.app.umkaSchool.service.impl;
 import com.app.umkaSchool.dto.group.CreateGroupRequest;
 import com.app.umkaSchool.dto.group.GroupResponse;
 import com.app.umkaSchool.dto.group.UpdateGroupRequest;
+import com.app.umkaSchool.event.StudentGroupChangedEvent;
 import com.app.umkaSchool.exception.ResourceNotFoundException;
 import com.app.umkaSchool.model.Student;
 import com.app.umkaSchool.model.StudentGroup;
@@ -14,10 +15,14 @@ import com.app.umkaSchool.service.GroupService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -28,14 +33,17 @@ public class GroupServiceImpl implements GroupService {
     private final StudentGroupRepository groupRepository;
     private final TeacherRepository teacherRepository;
     private final StudentRepository studentRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public GroupServiceImpl(StudentGroupRepository groupRepository,
                            TeacherRepository teacherRepository,
-                           StudentRepository studentRepository) {
+                           StudentRepository studentRepository,
+                           ApplicationEventPublisher eventPublisher) {
         this.groupRepository = groupRepository;
         this.teacherRepository = teacherRepository;
         this.studentRepository = studentRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -74,8 +82,7 @@ public class GroupServiceImpl implements GroupService {
             for (UUID studentId : request.getStudentIds()) {
                 Student student = studentRepository.findById(studentId)
                         .orElseThrow(() -> new ResourceNotFoundException("Student not found: " + studentId));
-                student.setGroup(group);
-                studentRepository.save(student);
+                moveStudent(student, group);
             }
         }
 
@@ -112,19 +119,19 @@ public class GroupServiceImpl implements GroupService {
 
         // Update students in group if provided
         if (request.getStudentIds() != null) {
-            // Remove all current students from group
+            // Only move students whose membership actually changes, so homework rows of those who stay are kept
+            Set<UUID> newStudentIds = new HashSet<>(request.getStudentIds());
             List<Student> currentStudents = studentRepository.findByGroup_Id(groupId);
             for (Student student : currentStudents) {
-                student.setGroup(null);
-                studentRepository.save(student);
+                if (!newStudentIds.remove(student.getId())) {
+                    moveStudent(student, null);
+                }
             }
 
-            // Add new students to group
-            for (UUID studentId : request.getStudentIds()) {
+            for (UUID studentId : newStudentIds) {
                 Student student = studentRepository.findById(studentId)
                         .orElseThrow(() -> new ResourceNotFoundException("Student not found: " + studentId));
-                student.setGroup(group);
-                studentRepository.save(student);
+                moveStudent(student, group);
             }
         }
 
@@ -171,8 +178,7 @@ public class GroupServiceImpl implements GroupService {
         // Remove group from all students
         List<Student> students = studentRepository.findByGroup_Id(groupId);
         for (Student student : students) {
-            student.setGroup(null);
-            studentRepository.save(student);
+            moveStudent(student, null);
         }
 
         groupRepository.delete(group);
@@ -188,8 +194,7 @@ public class GroupServiceImpl implements GroupService {
         for (UUID studentId : studentIds) {
             Student student = studentRepository.findById(studentId)
                     .orElseThrow(() -> new IllegalArgumentException("Student not found: " + studentId));
-            student.setGroup(group);
-            studentRepository.save(student);
+            moveStudent(student, group);
         }
     }
 
@@ -198,8 +203,17 @@ public class GroupServiceImpl implements GroupService {
     public void removeStudentFromGroup(UUID studentId) {
         Student student = studentRepository.findById(studentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Student not found"));
-        student.setGroup(null);
+        moveStudent(student, null);
+    }
+
+    private void moveStudent(Student student, StudentGroup group) {
+        UUID previousGroupId = student.getGroup() != null ? student.getGroup().getId() : null;
+        UUID newGroupId = group != null ? group.getId() : null;
+        student.setGroup(group);
         studentRepository.save(student);
+        if (!Objects.equals(previousGroupId, newGroupId)) {
+            eventPublisher.publishEvent(new StudentGroupChangedEvent(student.getId(), previousGroupId, newGroupId));
+        }
     }
 
     @Override
@@ -2,7 +2,11 @@ package com.app.umkaSchool.service.impl;
 
 import com.app.umkaSchool.dto.homeworkassignment.CreateHomeworkAssignmentRequest;
 import com.app.umkaSchool.dto.homeworkassignment.HomeworkAssignmentResponse;
+import com.app.umkaSchool.dto.homeworkassignment.HomeworkProgressMatrixResponse;
 import com.app.umkaSchool.dto.homeworkassignment.UpdateHomeworkAssignmentRequest;
+import com.app.umkaSchool.event.HomeworkDueDateChangedEvent;
+import com.app.umkaSchool.event.StudentDeletedEvent;
+import com.app.umkaSchool.event.StudentGroupChangedEvent;
 import com.app.umkaSchool.exception.ResourceNotFoundException;
 import com.app.umkaSchool.model.*;
 import com.app.umkaSchool.model.enums.HomeworkStatus;
@@ -13,12 +17,20 @@ import com.app.umkaSchool.util.SecurityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -38,6 +50,11 @@ public class HomeworkAssignmentServiceImpl implements HomeworkAssignmentService
     private final StudentGroupRepository studentGroupRepository;
     private final ExerciseAttemptRepository exerciseAttemptRepository;
     private final HomeworkAssignmentStudentRepository homeworkAssignmentStudentRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HomeworkMatrixCacheEvictor matrixCacheEvictor;
+
+    @Value("${homework.overdue.lookback-days:7}")
+    private int overdueLookbackDays;
 
     @Autowired
     public HomeworkAssignmentServiceImpl(HomeworkAssignmentRepository homeworkAssignmentRepository,
@@ -47,7 +64,9 @@ public class HomeworkAssignmentServiceImpl implements HomeworkAssignmentService
                                          StudentRepository studentRepository,
                                          StudentGroupRepository studentGroupRepository,
                                          ExerciseAttemptRepository exerciseAttemptRepository,
-                                         HomeworkAssignmentStudentRepository homeworkAssignmentStudentRepository) {
+                                         HomeworkAssignmentStudentRepository homeworkAssignmentStudentRepository,
+                                         ApplicationEventPublisher eventPublisher,
+                                         HomeworkMatrixCacheEvictor matrixCacheEvictor) {
         this.homeworkAssignmentRepository = homeworkAssignmentRepository;
         this.homeworkRepository = homeworkRepository;
         this.homeworkService = homeworkService;
@@ -56,6 +75,8 @@ public class HomeworkAssignmentServiceImpl implements HomeworkAssignmentService
         this.studentGroupRepository = studentGroupRepository;
         this.exerciseAttemptRepository = exerciseAttemptRepository;
         this.homeworkAssignmentStudentRepository = homeworkAssignmentStudentRepository;
+        this.eventPublisher = eventPublisher;
+        this.matrixCacheEvictor = matrixCacheEvictor;
     }
 
     @Override
@@ -115,6 +136,11 @@ public class HomeworkAssignmentServiceImpl implements HomeworkAssignmentService
         }
 
         assignment = homeworkAssignmentRepository.save(assignment);
+        if (request.getGroupIds() != null && !request.getGroupIds().isEmpty()) {
+            homeworkAssignmentStudentRepository.insertGroupMembers(assignment.getId(), request.getGroupIds());
+        }
+        refreshAssignmentCounters(assignment);
+        eventPublisher.publishEvent(new HomeworkDueDateChangedEvent(assignment.getId(), assignment.getDueDate()));
         logger.info("Homework assignment created successfully: {}", assignment.getId());
 
         return mapToResponse(assignment);
@@ -146,12 +172,14 @@ public class HomeworkAssignmentServiceImpl implements HomeworkAssignmentService
 
         if (request.getDueDate() != null) {
             assignment.setDueDate(request.getDueDate());
+            eventPublisher.publishEvent(new HomeworkDueDateChangedEvent(assignmentId, request.getDueDate()));
             
             if (oldStatus == HomeworkStatus.OVERDUE) {
                 assignment.setStatus(HomeworkStatus.PENDING);
                 
                 int updatedCount = 0;
                 
+                // Group members have their own rows, so this covers students assigned through groups too
                 for (HomeworkAssignmentStudent assignmentStudent : assignment.getAssignedStudents()) {
                     if (assignmentStudent.getStatus() == HomeworkStatus.OVERDUE) {
                         assignmentStudent.setStatus(HomeworkStatus.PENDING);
@@ -159,22 +187,6 @@ public class HomeworkAssignmentServiceImpl implements HomeworkAssignmentService
                     }
                 }
                 
-                for (HomeworkAssignmentStudentGroup ag : assignment.getAssignedGroups()) {
-                    UUID groupId = ag.getStudentGroup().getId();
-                    List<Student> groupStudents = studentRepository.findByGroup_Id(groupId);
-                    for (Student s : groupStudents) {
-                        HomeworkAssignmentStudent assignmentStudent = homeworkAssignmentStudentRepository
-                                .findById_HomeworkAssignmentIdAndId_StudentId(assignment.getId(), s.getId())
-                                .orElse(null);
-                        
-                        if (assignmentStudent != null && assignmentStudent.getStatus() == HomeworkStatus.OVERDUE) {
-                            assignmentStudent.setStatus(HomeworkStatus.PENDING);
-                            homeworkAssignmentStudentRepository.save(assignmentStudent);
-                            updatedCount++;
-                        }
-                    }
-                }
-                
                 if (updatedCount > 0) {
                     logger.info("Updated {} student assignment statuses from OVERDUE to PENDING after due date change", updatedCount);
                 }
@@ -202,6 +214,7 @@ public class HomeworkAssignmentServiceImpl implements HomeworkAssignmentService
 
         if (request.getStudentIds() != null) {
             Set<UUID> oldStudentIds = assignment.getAssignedStudents().stream()
+                    .filter(as -> as.getSourceGroupId() == null)
                     .map(as -> as.getStudent().getId())
                     .collect(Collectors.toSet());
             Set<UUID> newStudentIds = new HashSet<>(request.getStudentIds());
@@ -271,8 +284,35 @@ public class HomeworkAssignmentServiceImpl implements HomeworkAssignmentService
 
     @Override
     public List<HomeworkAssignmentResponse> getHomeworkAssignmentsByStudent(UUID studentId) {
-        return homeworkAssignmentRepository.findAllByStudentIdIncludingGroup(studentId).stream()
-                .map(assignment -> mapToResponseForStudent(assignment, studentId))
+        List<Object[]> rows = homeworkAssignmentRepository.findStudentAssignmentRows(studentId);
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        List<UUID> assignmentIds = rows.stream().map(row -> (UUID) row[0]).collect(Collectors.toList());
+        Map<UUID, List<UUID>> groupIds = new HashMap<>();
+        Map<UUID, List<UUID>> studentIds = new HashMap<>();
+        for (Object[] target : homeworkAssignmentRepository.findAssignmentTargets(assignmentIds)) {
+            Map<UUID, List<UUID>> byAssignment = "G".equals(target[1]) ? groupIds : studentIds;
+            byAssignment.computeIfAbsent((UUID) target[0], id -> new ArrayList<>()).add((UUID) target[2]);
+        }
+
+        return rows.stream()
+                .map(row -> {
+                    UUID assignmentId = (UUID) row[0];
+                    return HomeworkAssignmentResponse.builder()
+                            .id(assignmentId)
+                            .homeworkId((UUID) row[1])
+                            .homeworkTitle((String) row[2])
+                            .teacherId((UUID) row[3])
+                            .teacherName(row[3] != null ? row[4] + " " + row[5] : null)
+                            .assignedAt((ZonedDateTime) row[6])
+                            .dueDate((ZonedDateTime) row[7])
+                            .status((HomeworkStatus) row[8])
+                            .assignedGroupIds(groupIds.getOrDefault(assignmentId, List.of()))
+                            .assignedStudentIds(studentIds.getOrDefault(assignmentId, List.of()))
+                            .build();
+                })
                 .collect(Collectors.toList());
     }
 
@@ -300,6 +340,7 @@ public class HomeworkAssignmentServiceImpl implements HomeworkAssignmentService
             }
         }
         homeworkAssignmentRepository.delete(assignment);
+        eventPublisher.publishEvent(new HomeworkDueDateChangedEvent(assignmentId, null));
         logger.info("Homework assignment deleted successfully: {}", assignmentId);
     }
 
@@ -311,7 +352,17 @@ public class HomeworkAssignmentServiceImpl implements HomeworkAssignmentService
         HomeworkAssignment assignment = homeworkAssignmentRepository.findById(assignmentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Homework assignment not found"));
 
+        Map<UUID, HomeworkAssignmentStudent> existingRows = assignment.getAssignedStudents().stream()
+                .collect(Collectors.toMap(as -> as.getId().getStudentId(), as -> as));
+
         for (UUID studentId : studentIds) {
+            HomeworkAssignmentStudent existing = existingRows.get(studentId);
+            if (existing != null) {
+                // Already assigned through a group: keep the row and its progress, just make it direct
+                existing.setSourceGroupId(null);
+                continue;
+            }
+
             Student student = studentRepository.findById(studentId)
                     .orElseThrow(() -> new IllegalArgumentException("Student not found: " + studentId));
 
@@ -327,7 +378,7 @@ public class HomeworkAssignmentServiceImpl implements HomeworkAssignmentService
 
         homeworkAssignmentRepository.save(assignment);
 
-        updateGlobalAssignmentStatus(assignment);
+        refreshAssignmentCounters(assignment);
         
         logger.info("Students added to assignment successfully");
     }
@@ -354,8 +405,11 @@ public class HomeworkAssignmentServiceImpl implements HomeworkAssignmentService
         }
 
         homeworkAssignmentRepository.save(assignment);
-        
-        updateGlobalAssignmentStatus(assignment);
+        if (!groupIds.isEmpty()) {
+            homeworkAssignmentStudentRepository.insertGroupMembers(assignmentId, groupIds);
+        }
+
+        refreshAssignmentCounters(assignment);
 
         logger.info("Groups added to assignment successfully");
     }
@@ -368,10 +422,26 @@ public class HomeworkAssignmentServiceImpl implements HomeworkAssignmentService
         HomeworkAssignment assignment = homeworkAssignmentRepository.findById(assignmentId)
                 .orElseThrow(() -> new ResourceNotFoundException("Homework assignment not found"));
 
-        assignment.getAssignedStudents().removeIf(as -> as.getId().getStudentId().equals(studentId));
+        // A student who is still in one of the assigned groups keeps the row, now owned by that group
+        Set<UUID> assignedGroupIds = assignment.getAssignedGroups().stream()
+                .map(ag -> ag.getId().getStudentGroupId())
+                .collect(Collectors.toSet());
+        UUID coveringGroupId = studentRepository.findById(studentId)
+                .map(Student::getGroup)
+                .map(StudentGroup::getId)
+                .filter(assignedGroupIds::contains)
+                .orElse(null);
+
+        if (coveringGroupId != null) {
+            assignment.getAssignedStudents().stream()
+                    .filter(as -> as.getId().getStudentId().equals(studentId))
+                    .forEach(as -> as.setSourceGroupId(coveringGroupId));
+        } else {
+            assignment.getAssignedStudents().removeIf(as -> as.getId().getStudentId().equals(studentId));
+        }
         homeworkAssignmentRepository.save(assignment);
 
-        updateGlobalAssignmentStatus(assignment);
+        refreshAssignmentCounters(assignment);
 
         logger.info("Student removed from assignment successfully");
     }
@@ -385,9 +455,11 @@ public class HomeworkAssignmentServiceImpl implements HomeworkAssignmentService
                 .orElseThrow(() -> new ResourceNotFoundException("Homework assignment not found"));
 
         assignment.getAssignedGroups().removeIf(ag -> ag.getId().getStudentGroupId().equals(groupId));
+        assignment.getAssignedStudents().removeIf(as -> groupId.equals(as.getSourceGroupId()));
         homeworkAssignmentRepository.save(assignment);
+        homeworkAssignmentStudentRepository.deleteByAssignmentAndSourceGroup(assignmentId, groupId);
 
-        updateGlobalAssignmentStatus(assignment);
+        refreshAssignmentCounters(assignment);
 
         logger.info("Group removed from assignment successfully");
     }
@@ -397,37 +469,19 @@ public class HomeworkAssignmentServiceImpl implements HomeworkAssignmentService
     public void updateOverdueAssignments() {
         logger.info("Updating overdue assignments");
 
-        ZonedDateTime now = ZonedDateTime.now();
-        
-        List<HomeworkAssignment> assignmentsDueToday = homeworkAssignmentRepository
-                .findByDueDateOnDate(now);
+        // Per-assignment transitions fire on time from HomeworkDeadlineScheduler; this catches anything it
+        // missed, looking back a few days in case the application was down
+        ZonedDateTime to = ZonedDateTime.now();
+        ZonedDateTime from = to.minusDays(overdueLookbackDays + 1L);
 
-        int updatedStudentCount = 0;
-        int updatedAssignmentCount = 0;
-        
-        for (HomeworkAssignment assignment : assignmentsDueToday) {
-            boolean assignmentUpdated = false;
-            
-            for (HomeworkAssignmentStudent assignmentStudent : assignment.getAssignedStudents()) {
-                if (assignmentStudent.getStatus() == HomeworkStatus.PENDING) {
-                    assignmentStudent.setStatus(HomeworkStatus.OVERDUE);
-                    updatedStudentCount++;
-                }
-            }
+        int updatedStudentCount = homeworkAssignmentRepository.markStudentsOverdueDueBetween(from, to);
+        int updatedAssignmentCount = homeworkAssignmentRepository.markOverdueDueBetween(from, to);
 
-            if (assignment.getStatus() != HomeworkStatus.COMPLETED) {
-                assignment.setStatus(HomeworkStatus.OVERDUE);
-                assignmentUpdated = true;
-                updatedAssignmentCount++;
-            }
-            
-            if (assignmentUpdated || updatedStudentCount > 0) {
-                homeworkAssignmentRepository.save(assignment);
-            }
+        if (updatedStudentCount > 0 || updatedAssignmentCount > 0) {
+            matrixCacheEvictor.evictAllAfterCommit();
         }
-        
-        logger.info("Updated {} overdue student assignments and {} global assignments (out of {} checked)", 
-                updatedStudentCount, updatedAssignmentCount, assignmentsDueToday.size());
+        logger.info("Updated {} overdue student assignments and {} global assignments due between {} and {}",
+                updatedStudentCount, updatedAssignmentCount, from, to);
     }
 
     @Override
@@ -467,17 +521,14 @@ public class HomeworkAssignmentServiceImpl implements HomeworkAssignmentService
             assignmentStudent.setHomeworkAssignment(assignment);
             assignmentStudent.setStudent(student);
             assignmentStudent.setStatus(HomeworkStatus.PENDING); 
+            assignmentStudent.setSourceGroupId(student.getGroup() != null ? student.getGroup().getId() : null);
             
             assignmentStudent = homeworkAssignmentStudentRepository.save(assignmentStudent);
             logger.info("Created individual assignment record for student {} (assigned via group)", studentId);
         }
 
         if (completedCount >= totalExercises && assignmentStudent.getStatus() != HomeworkStatus.COMPLETED) {
-            assignmentStudent.setStatus(HomeworkStatus.COMPLETED);
-            homeworkAssignmentStudentRepository.save(assignmentStudent);
-            logger.info("Assignment {} marked as COMPLETED for student {}", homeworkAssignmentId, studentId);
-
-            updateGlobalAssignmentStatus(assignment);
+            markCompleted(assignment, studentId);
         }
     }
 
@@ -492,19 +543,35 @@ public class HomeworkAssignmentServiceImpl implements HomeworkAssignmentService
     public void checkAndUpdateAssignmentsByExerciseAndStudent(UUID exerciseId, UUID studentId) {
         logger.info("Checking homework assignments for exercise: {}, student: {}", exerciseId, studentId);
         
-        List<HomeworkAssignment> assignments = homeworkAssignmentRepository.findByExerciseIdAndStudentId(exerciseId, studentId);
-        
-        if (!assignments.isEmpty()) {
-            for (HomeworkAssignment assignment : assignments) {
-                try {
-                    checkAndUpdateAssignmentStatus(assignment.getId(), studentId);
-                } catch (Exception e) {
-                    logger.error("Error checking assignment {} for student {}: {}",
-                        assignment.getId(), studentId, e.getMessage());
+        // One UPDATE sets the exercise's bit everywhere, one SELECT reads the resulting bitsets back
+        homeworkAssignmentStudentRepository.markExerciseCompleted(studentId, exerciseId);
+        List<Object[]> rows = homeworkAssignmentStudentRepository.findCompletionByExerciseAndStudent(studentId, exerciseId);
+
+        for (Object[] row : rows) {
+            UUID assignmentId = (UUID) row[0];
+            if (HomeworkStatus.valueOf((String) row[1]) == HomeworkStatus.COMPLETED) {
+                continue;
+            }
+            try {
+                Long completed = row[2] == null ? null : ((Number) row[2]).longValue();
+                long fullMask = ((Number) row[3]).longValue();
+                boolean trackable = ((Number) row[4]).longValue() == ((Number) row[5]).longValue();
+                if (completed == null || !trackable) {
+                    // Homework with more than 64 exercises or clashing order indexes: count attempts instead
+                    checkAndUpdateAssignmentStatus(assignmentId, studentId);
+                } else if ((completed & fullMask) == fullMask) {
+                    HomeworkAssignment assignment = homeworkAssignmentRepository.findById(assignmentId)
+                            .orElseThrow(() -> new IllegalArgumentException("Homework assignment not found"));
+                    markCompleted(assignment, studentId);
                 }
+            } catch (Exception e) {
+                logger.error("Error checking assignment {} for student {}: {}",
+                    assignmentId, studentId, e.getMessage());
             }
+        }
+        if (!rows.isEmpty()) {
             logger.info("Checked homework assignment status for exercise: {}, student: {} ({} assignments)",
-                exerciseId, studentId, assignments.size());
+                exerciseId, studentId, rows.size());
         }
     }
 
@@ -512,81 +579,204 @@ public class HomeworkAssignmentServiceImpl implements HomeworkAssignmentService
     @Transactional(readOnly = true)
     public List<UUID> getCompletedExerciseIds(UUID homeworkAssignmentId, UUID studentId) {
         logger.info("Getting completed exercise IDs for assignment: {}, student: {}", homeworkAssignmentId, studentId);
-        return exerciseAttemptRepository.findCompletedExerciseIds(homeworkAssignmentId, studentId);
+
+        Long completed = homeworkAssignmentStudentRepository.findCompletedExercises(homeworkAssignmentId, studentId);
+        if (completed == null) {
+            // Bitset not computed yet (no completion since the row was created)
+            return exerciseAttemptRepository.findCompletedExerciseIds(homeworkAssignmentId, studentId);
+        }
+
+        List<UUID> completedIds = new ArrayList<>(Long.bitCount(completed));
+        long seen = 0L;
+        for (Object[] row : homeworkAssignmentRepository.findExerciseOrder(homeworkAssignmentId)) {
+            Integer orderIndex = (Integer) row[1];
+            if (orderIndex == null || orderIndex < 0 || orderIndex >= Long.SIZE || (seen >>> orderIndex & 1L) != 0) {
+                // Order indexes do not map one-to-one onto bits, so the bitset can't be trusted here
+                return exerciseAttemptRepository.findCompletedExerciseIds(homeworkAssignmentId, studentId);
+            }
+            seen |= 1L << orderIndex;
+            if ((completed >>> orderIndex & 1L) != 0) {
+                completedIds.add((UUID) row[0]);
+            }
+        }
+        return completedIds;
     }
 
-    private void updateGlobalAssignmentStatus(HomeworkAssignment assignment) {
-        Set<UUID> allStudentIds = new HashSet<>();
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(value = HomeworkMatrixCacheEvictor.CACHE_NAME, key = "#homeworkAssignmentId")
+    public HomeworkProgressMatrixResponse getProgressMatrix(UUID homeworkAssignmentId) {
+        if (!homeworkAssignmentRepository.existsById(homeworkAssignmentId)) {
+            throw new ResourceNotFoundException("Homework assignment not found");
+        }
+
+        // row = [exercise_id, order_index, student_id, first_name, last_name, status, completed, best_score]
+        List<Object[]> rows = homeworkAssignmentRepository.findProgressMatrixRows(homeworkAssignmentId);
+
+        List<HomeworkProgressMatrixResponse.ExerciseColumn> exercises = new ArrayList<>();
+        Map<UUID, Integer> columns = new HashMap<>();
+        for (Object[] row : rows) {
+            UUID exerciseId = (UUID) row[0];
+            if (columns.putIfAbsent(exerciseId, exercises.size()) == null) {
+                exercises.add(HomeworkProgressMatrixResponse.ExerciseColumn.builder()
+                        .exerciseId(exerciseId)
+                        .orderIndex((Integer) row[1])
+                        .build());
+            }
+        }
 
-        assignment.getAssignedStudents().forEach(as ->
-                allStudentIds.add(as.getStudent().getId())
-        );
+        // Rows arrive grouped by student, so each student's row is closed when the next one starts
+        List<HomeworkProgressMatrixResponse.StudentRow> students = new ArrayList<>();
+        HomeworkProgressMatrixResponse.StudentRow current = null;
+        BitSet completed = new BitSet(exercises.size());
+        for (Object[] row : rows) {
+            UUID studentId = (UUID) row[2];
+            if (studentId == null) {
+                continue;
+            }
+            if (current == null || !current.getStudentId().equals(studentId)) {
+                finishRow(current, completed);
+                current = HomeworkProgressMatrixResponse.StudentRow.builder()
+                        .studentId(studentId)
+                        .studentName(row[3] + " " + row[4])
+                        .status(HomeworkStatus.valueOf((String) row[5]))
+                        .scores(new int[exercises.size()])
+                        .build();
+                completed.clear();
+                students.add(current);
+            }
+            int column = columns.get((UUID) row[0]);
+            if ((Boolean) row[6]) {
+                completed.set(column);
+            }
+            current.getScores()[column] = ((Number) row[7]).intValue();
+        }
+        finishRow(current, completed);
+
+        return HomeworkProgressMatrixResponse.builder()
+                .assignmentId(homeworkAssignmentId)
+                .exercises(exercises)
+                .students(students)
+                .build();
+    }
 
-        assignment.getAssignedGroups().forEach(ag -> {
-            UUID groupId = ag.getStudentGroup().getId();
-            List<Student> groupStudents = studentRepository.findByGroup_Id(groupId);
-            groupStudents.forEach(s -> allStudentIds.add(s.getId()));
-        });
+    private static void finishRow(HomeworkProgressMatrixResponse.StudentRow row, BitSet completed) {
+        if (row != null) {
+            row.setCompleted(Base64.getEncoder().encodeToString(completed.toByteArray()));
+        }
+    }
 
-        if (allStudentIds.isEmpty()) {
+    private void markCompleted(HomeworkAssignment assignment, UUID studentId) {
+        // Conditional in SQL: of two completion paths that both read PENDING, only one counts
+        if (homeworkAssignmentStudentRepository.markStudentCompleted(assignment.getId(), studentId) == 0) {
             return;
         }
+        logger.info("Assignment {} marked as COMPLETED for student {}", assignment.getId(), studentId);
 
-        for (UUID studentId : allStudentIds) {
-            HomeworkAssignmentStudent assignmentStudent = homeworkAssignmentStudentRepository
-                    .findById_HomeworkAssignmentIdAndId_StudentId(assignment.getId(), studentId)
-                    .orElse(null);
+        if (assignment.getAssignedCount() == null || assignment.getAssignedCount() == 0) {
+            // Counters were never initialized (assignment predates them); count once from scratch
+            refreshAssignmentCounters(assignment);
+        } else {
+            homeworkAssignmentRepository.incrementCompletedCount(assignment.getId());
+        }
+    }
 
-            if (assignmentStudent == null || assignmentStudent.getStatus() != HomeworkStatus.COMPLETED) {
-                assignment.setStatus(HomeworkStatus.PENDING);
-                return;
-            }
+    /**
+     * Keeps materialized group rows in line with group membership. Runs inside the transaction that moved
+     * the student, so a student is never visible in a group without its assignments. Rows the student earned
+     * directly are untouched.
+     */
+    @EventListener
+    @Transactional
+    public void onStudentGroupChanged(StudentGroupChangedEvent event) {
+        int kept = 0;
+        int removed = 0;
+        int added = 0;
+        if (event.previousGroupId() != null) {
+            kept = homeworkAssignmentStudentRepository.detachCompletedFromSourceGroup(
+                    event.studentId(), event.previousGroupId());
+            removed = homeworkAssignmentStudentRepository.deleteByStudentAndSourceGroup(
+                    event.studentId(), event.previousGroupId());
+        }
+        if (event.newGroupId() != null) {
+            added = homeworkAssignmentStudentRepository.insertForGroupMember(event.studentId(), event.newGroupId());
+        }
+        if (removed == 0 && added == 0) {
+            return;
         }
 
-        if (assignment.getStatus() != HomeworkStatus.COMPLETED) {
-            assignment.setStatus(HomeworkStatus.COMPLETED);
-            homeworkAssignmentRepository.save(assignment);
-            logger.info("All students completed assignment {}. Marking main assignment as COMPLETED.", assignment.getId());
+        List<UUID> groupIds = new ArrayList<>(2);
+        if (event.previousGroupId() != null) {
+            groupIds.add(event.previousGroupId());
+        }
+        if (event.newGroupId() != null) {
+            groupIds.add(event.newGroupId());
         }
+        List<UUID> affected = homeworkAssignmentRepository.findIdsByGroupIds(groupIds);
+        if (!affected.isEmpty()) {
+            homeworkAssignmentRepository.recountStudents(affected);
+            matrixCacheEvictor.evictAfterCommit(affected);
+        }
+        logger.info("Student {} moved from group {} to {}: {} assignment rows removed, {} added, {} completed kept",
+                event.studentId(), event.previousGroupId(), event.newGroupId(), removed, added, kept);
     }
 
-    private HomeworkAssignmentResponse mapToResponse(HomeworkAssignment assignment) {
-        List<UUID> groupIds = assignment.getAssignedGroups().stream()
-                .map(ag -> ag.getStudentGroup().getId())
-                .collect(Collectors.toList());
-
-        List<UUID> studentIds = assignment.getAssignedStudents().stream()
-                .map(as -> as.getStudent().getId())
-                .collect(Collectors.toList());
+    /**
+     * Removes a student's assignment rows before the student is deleted and recounts those assignments,
+     * which the cascading delete alone would leave with stale counters.
+     */
+    @EventListener
+    @Transactional
+    public void onStudentDeleted(StudentDeletedEvent event) {
+        List<UUID> affected = homeworkAssignmentStudentRepository.findAssignmentIdsByStudentId(event.studentId());
+        if (affected.isEmpty()) {
+            return;
+        }
+        homeworkAssignmentStudentRepository.deleteByStudent(event.studentId());
+        homeworkAssignmentRepository.recountStudents(affected);
+        matrixCacheEvictor.evictAfterCommit(affected);
+        logger.info("Student {} deleted: recounted {} homework assignments", event.studentId(), affected.size());
+    }
 
-        String teacherName = null;
-        UUID teacherId = null;
-        if (assignment.getTeacher() != null) {
-            teacherId = assignment.getTeacher().getId();
-            teacherName = assignment.getTeacher().getUser().getFirstName() + " " +
-                    assignment.getTeacher().getUser().getLastName();
+    /**
+     * Expands group assignments created before group members were materialized at assign time.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void materializeLegacyGroupAssignments() {
+        try {
+            List<UUID> affected = homeworkAssignmentStudentRepository.findAssignmentIdsMissingGroupMembers();
+            if (affected.isEmpty()) {
+                return;
+            }
+            int inserted = homeworkAssignmentStudentRepository.insertMissingGroupMembers();
+            if (inserted > 0) {
+                homeworkAssignmentRepository.recountStudents(affected);
+                matrixCacheEvictor.evictAfterCommit(affected);
+                logger.info("Materialized {} group member rows for existing homework assignments", inserted);
+            }
+        } catch (Exception e) {
+            logger.error("Failed to materialize group homework assignments: {}", e.getMessage(), e);
         }
+    }
 
-        return HomeworkAssignmentResponse.builder()
-                .id(assignment.getId())
-                .homeworkId(assignment.getHomework().getId())
-                .homeworkTitle(assignment.getHomework().getTitle())
-                .teacherId(teacherId)
-                .teacherName(teacherName)
-                .assignedAt(assignment.getAssignedAt())
-                .dueDate(assignment.getDueDate())
-                .status(assignment.getStatus())
-                .assignedGroupIds(groupIds)
-                .assignedStudentIds(studentIds)
-                .build();
+    /**
+     * Recounts assigned and completed students in SQL and picks up the resulting global status,
+     * so later writes of this entity in the same transaction keep it. The roster may have changed,
+     * so the cached progress matrix goes too.
+     */
+    private void refreshAssignmentCounters(HomeworkAssignment assignment) {
+        homeworkAssignmentRepository.recountStudents(List.of(assignment.getId()));
+        assignment.setStatus(homeworkAssignmentRepository.findStatusById(assignment.getId()));
+        matrixCacheEvictor.evictAfterCommit(List.of(assignment.getId()));
     }
 
-    private HomeworkAssignmentResponse mapToResponseForStudent(HomeworkAssignment assignment, UUID studentId) {
+    private HomeworkAssignmentResponse mapToResponse(HomeworkAssignment assignment) {
         List<UUID> groupIds = assignment.getAssignedGroups().stream()
                 .map(ag -> ag.getStudentGroup().getId())
                 .collect(Collectors.toList());
 
         List<UUID> studentIds = assignment.getAssignedStudents().stream()
+                .filter(as -> as.getSourceGroupId() == null)
                 .map(as -> as.getStudent().getId())
                 .collect(Collectors.toList());
 
@@ -598,15 +788,6 @@ public class HomeworkAssignmentServiceImpl implements HomeworkAssignmentService
                     assignment.getTeacher().getUser().getLastName();
         }
 
-        HomeworkStatus studentStatus = HomeworkStatus.PENDING;
-        HomeworkAssignmentStudent assignmentStudent = homeworkAssignmentStudentRepository
-                .findById_HomeworkAssignmentIdAndId_StudentId(assignment.getId(), studentId)
-                .orElse(null);
-        
-        if (assignmentStudent != null) {
-            studentStatus = assignmentStudent.getStatus();
-        }
-
         return HomeworkAssignmentResponse.builder()
                 .id(assignment.getId())
                 .homeworkId(assignment.getHomework().getId())
@@ -615,7 +796,7 @@ public class HomeworkAssignmentServiceImpl implements HomeworkAssignmentService
                 .teacherName(teacherName)
                 .assignedAt(assignment.getAssignedAt())
                 .dueDate(assignment.getDueDate())
-                .status(studentStatus)
+                .status(assignment.getStatus())
                 .assignedGroupIds(groupIds)
                 .assignedStudentIds(studentIds)
                 .build();
@@ -0,0 +1,172 @@
+package com.app.umkaSchool.service.impl;
+
+import com.app.umkaSchool.event.HomeworkDueDateChangedEvent;
+import com.app.umkaSchool.event.HomeworkDueSoonEvent;
+import com.app.umkaSchool.model.enums.HomeworkStatus;
+import com.app.umkaSchool.repository.HomeworkAssignmentRepository;
+import com.app.umkaSchool.util.HierarchicalTimerWheel;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires per-assignment overdue transitions and "due soon" reminders at their exact time from an in-memory
+ * {@link HierarchicalTimerWheel}, instead of scanning due dates periodically.
+ * <p>
+ * The wheel is loaded with pending assignments at startup and kept in sync through
+ * {@link HomeworkDueDateChangedEvent}. Assignments that became overdue while the application was down fire
+ * on the first tick. The nightly overdue job stays as a safety net.
+ * <p>
+ * The wheel ticks on its own thread rather than on the shared {@code @Scheduled} pool, so a slow outbox
+ * drain or nightly job cannot hold deadlines back.
+ */
+@Component
+public class HomeworkDeadlineScheduler {
+    private static final Logger logger = LoggerFactory.getLogger(HomeworkDeadlineScheduler.class);
+
+    // 64 slots per level, 4 levels: one-second ticks cover about 194 days before overflowing
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_LEVELS = 4;
+
+    enum Kind { DUE_SOON, OVERDUE }
+
+    record Deadline(UUID assignmentId, Kind kind) {
+    }
+
+    private final HomeworkAssignmentRepository homeworkAssignmentRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final HomeworkMatrixCacheEvictor matrixCacheEvictor;
+    private final Duration reminderLead;
+    private final int overdueLookbackDays;
+    private final long tickMillis;
+    private final HierarchicalTimerWheel<Deadline> wheel;
+    private final Map<UUID, ZonedDateTime> dueDates = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("homework-deadlines").daemon().factory());
+
+    @Autowired
+    public HomeworkDeadlineScheduler(HomeworkAssignmentRepository homeworkAssignmentRepository,
+                                     ApplicationEventPublisher eventPublisher,
+                                     HomeworkMatrixCacheEvictor matrixCacheEvictor,
+                                     @Value("${homework.deadline.tick-ms:1000}") long tickMillis,
+                                     @Value("${homework.reminder.lead-hours:24}") int reminderLeadHours,
+                                     @Value("${homework.overdue.lookback-days:7}") int overdueLookbackDays) {
+        this.homeworkAssignmentRepository = homeworkAssignmentRepository;
+        this.eventPublisher = eventPublisher;
+        this.matrixCacheEvictor = matrixCacheEvictor;
+        this.reminderLead = Duration.ofHours(reminderLeadHours);
+        this.overdueLookbackDays = overdueLookbackDays;
+        this.tickMillis = tickMillis;
+        this.wheel = new HierarchicalTimerWheel<>(tickMillis, WHEEL_BITS, WHEEL_LEVELS, System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadPendingDeadlines() {
+        try {
+            ZonedDateTime now = ZonedDateTime.now();
+            // row = [assignment_id, due_date]
+            List<Object[]> rows = homeworkAssignmentRepository.findPendingDueDatesSince(now.minusDays(overdueLookbackDays));
+            for (Object[] row : rows) {
+                schedule((UUID) row[0], (ZonedDateTime) row[1], now);
+            }
+            logger.info("Scheduled deadlines for {} pending homework assignments", rows.size());
+        } catch (Exception e) {
+            logger.error("Failed to load homework deadlines at startup: {}", e.getMessage(), e);
+        }
+        ticker.scheduleWithFixedDelay(this::fireDueDeadlines, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDueDateChanged(HomeworkDueDateChangedEvent event) {
+        if (event.dueDate() == null) {
+            wheel.cancel(new Deadline(event.assignmentId(), Kind.OVERDUE));
+            wheel.cancel(new Deadline(event.assignmentId(), Kind.DUE_SOON));
+            dueDates.remove(event.assignmentId());
+            return;
+        }
+        schedule(event.assignmentId(), event.dueDate(), ZonedDateTime.now());
+    }
+
+    public void fireDueDeadlines() {
+        List<Deadline> expired;
+        try {
+            expired = wheel.advance(System.currentTimeMillis());
+        } catch (Exception e) {
+            // An exception would cancel the ticker for good
+            logger.error("Error advancing the homework deadline wheel: {}", e.getMessage(), e);
+            return;
+        }
+        if (expired.isEmpty()) {
+            return;
+        }
+
+        List<UUID> overdue = new ArrayList<>();
+        for (Deadline deadline : expired) {
+            if (deadline.kind() == Kind.OVERDUE) {
+                overdue.add(deadline.assignmentId());
+            } else {
+                publishDueSoon(deadline.assignmentId());
+            }
+        }
+        if (overdue.isEmpty()) {
+            return;
+        }
+        try {
+            int updated = homeworkAssignmentRepository.markOverdueByIds(overdue, ZonedDateTime.now());
+            overdue.forEach(dueDates::remove);
+            matrixCacheEvictor.evictAfterCommit(overdue);
+            logger.info("Marked {} of {} due homework assignments as overdue", updated, overdue.size());
+        } catch (Exception e) {
+            // Left for the nightly overdue job
+            logger.error("Error marking {} homework assignments as overdue: {}", overdue.size(), e.getMessage(), e);
+        }
+    }
+
+    private void schedule(UUID assignmentId, ZonedDateTime dueDate, ZonedDateTime now) {
+        dueDates.put(assignmentId, dueDate);
+        wheel.schedule(new Deadline(assignmentId, Kind.OVERDUE), dueDate.toInstant().toEpochMilli());
+
+        // Reminders whose time has already passed are not sent late
+        ZonedDateTime remindAt = dueDate.minus(reminderLead);
+        Deadline reminder = new Deadline(assignmentId, Kind.DUE_SOON);
+        if (remindAt.isAfter(now)) {
+            wheel.schedule(reminder, remindAt.toInstant().toEpochMilli());
+        } else {
+            wheel.cancel(reminder);
+        }
+    }
+
+    private void publishDueSoon(UUID assignmentId) {
+        ZonedDateTime dueDate = dueDates.get(assignmentId);
+        try {
+            if (dueDate != null && homeworkAssignmentRepository.findStatusById(assignmentId) == HomeworkStatus.PENDING) {
+                eventPublisher.publishEvent(new HomeworkDueSoonEvent(assignmentId, dueDate));
+            }
+        } catch (Exception e) {
+            logger.error("Error publishing due-soon reminder for assignment {}: {}", assignmentId, e.getMessage());
+        }
+    }
+}
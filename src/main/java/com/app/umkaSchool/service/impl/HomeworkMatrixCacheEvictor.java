@@ -0,0 +1,115 @@
+package com.app.umkaSchool.service.impl;
+
+import com.app.umkaSchool.event.ExerciseAttemptCompletedEvent;
+import com.app.umkaSchool.event.HomeworkDueDateChangedEvent;
+import com.app.umkaSchool.repository.HomeworkAssignmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Drops cached progress matrices once the data behind them has been committed: a completed attempt on one
+ * of the assignment's exercises, a roster change, a status flip to overdue or a new due date.
+ * Exercises are cloned per assignment, so an attempt normally evicts a single entry.
+ */
+@Component
+public class HomeworkMatrixCacheEvictor {
+    private static final Logger logger = LoggerFactory.getLogger(HomeworkMatrixCacheEvictor.class);
+
+    public static final String CACHE_NAME = "homeworkMatrix";
+
+    private final CacheManager cacheManager;
+    private final HomeworkAssignmentRepository homeworkAssignmentRepository;
+
+    @Autowired
+    public HomeworkMatrixCacheEvictor(CacheManager cacheManager,
+                                      HomeworkAssignmentRepository homeworkAssignmentRepository) {
+        this.cacheManager = cacheManager;
+        this.homeworkAssignmentRepository = homeworkAssignmentRepository;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttemptCompleted(ExerciseAttemptCompletedEvent event) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null || isEmpty(cache)) {
+            return;
+        }
+        evict(cache, homeworkAssignmentRepository.findIdsByExerciseId(event.exerciseId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onDueDateChanged(HomeworkDueDateChangedEvent event) {
+        evict(List.of(event.assignmentId()));
+    }
+
+    /**
+     * Evicts the given assignments once the current transaction commits, or right away outside of one.
+     */
+    public void evictAfterCommit(Collection<UUID> assignmentIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(assignmentIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(assignmentIds);
+            }
+        });
+    }
+
+    /**
+     * Clears the whole cache once the current transaction commits, for bulk updates that do not report
+     * which assignments they touched.
+     */
+    public void evictAllAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictAll();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictAll();
+            }
+        });
+    }
+
+    private void evict(Collection<UUID> assignmentIds) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache != null && !isEmpty(cache)) {
+            evict(cache, assignmentIds);
+        }
+    }
+
+    private void evict(Cache cache, Collection<UUID> assignmentIds) {
+        for (UUID assignmentId : assignmentIds) {
+            cache.evict(assignmentId);
+            logger.debug("Evicted cached progress matrix for assignment {}", assignmentId);
+        }
+    }
+
+    private void evictAll() {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache != null) {
+            cache.clear();
+            logger.debug("Cleared cached progress matrices");
+        }
+    }
+
+    private boolean isEmpty(Cache cache) {
+        // Skip the assignment lookup entirely while nobody has looked at a matrix
+        return cache instanceof CaffeineCache caffeine && caffeine.getNativeCache().estimatedSize() == 0;
+    }
+}
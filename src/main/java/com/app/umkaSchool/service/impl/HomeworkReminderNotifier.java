@@ -0,0 +1,52 @@
+package com.app.umkaSchool.service.impl;
+
+import com.app.umkaSchool.event.HomeworkDueSoonEvent;
+import com.app.umkaSchool.repository.HomeworkAssignmentStudentRepository;
+import com.app.umkaSchool.service.EmailService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Queues a "due soon" email for every student who has not completed an assignment when its reminder fires.
+ * The dedup key includes the due date, so a reminder is sent again only if the due date moves.
+ */
+@Component
+public class HomeworkReminderNotifier {
+    private static final Logger logger = LoggerFactory.getLogger(HomeworkReminderNotifier.class);
+
+    private final HomeworkAssignmentStudentRepository homeworkAssignmentStudentRepository;
+    private final EmailService emailService;
+
+    @Autowired
+    public HomeworkReminderNotifier(HomeworkAssignmentStudentRepository homeworkAssignmentStudentRepository,
+                                    EmailService emailService) {
+        this.homeworkAssignmentStudentRepository = homeworkAssignmentStudentRepository;
+        this.emailService = emailService;
+    }
+
+    @EventListener
+    public void onDueSoon(HomeworkDueSoonEvent event) {
+        // row = [student_id, email, first_name, homework_title]
+        List<Object[]> recipients = homeworkAssignmentStudentRepository.findPendingReminderRecipients(event.assignmentId());
+        int queued = 0;
+        for (Object[] row : recipients) {
+            UUID studentId = (UUID) row[0];
+            String dedupKey = "homework-due:" + event.assignmentId() + ":" + studentId + ":"
+                    + event.dueDate().toInstant().toEpochMilli();
+            try {
+                emailService.queueHomeworkReminder(dedupKey, (String) row[1], (String) row[2], (String) row[3],
+                        event.dueDate());
+                queued++;
+            } catch (Exception e) {
+                logger.error("Failed to queue homework reminder for student {}: {}", studentId, e.getMessage());
+            }
+        }
+        logger.info("Queued {} due-soon reminders for homework assignment {}", queued, event.assignmentId());
+    }
+}
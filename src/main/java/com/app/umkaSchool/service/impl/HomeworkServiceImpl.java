@@ -10,6 +10,7 @@ import com.app.umkaSchool.repository.HomeworkRepository;
 import com.app.umkaSchool.repository.TeacherRepository;
 import com.app.umkaSchool.service.ExerciseService;
 import com.app.umkaSchool.service.HomeworkService;
+import com.app.umkaSchool.util.CatalogVersions;
 import com.app.umkaSchool.util.SecurityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,16 +33,19 @@ public class HomeworkServiceImpl implements HomeworkService {
     private final TeacherRepository teacherRepository;
     private final ExerciseRepository exerciseRepository;
     private final ExerciseService exerciseService;
+    private final CatalogVersions catalogVersions;
 
     @Autowired
     public HomeworkServiceImpl(HomeworkRepository homeworkRepository,
                                TeacherRepository teacherRepository,
                                ExerciseRepository exerciseRepository,
-                               ExerciseService exerciseService) {
+                               ExerciseService exerciseService,
+                               CatalogVersions catalogVersions) {
         this.homeworkRepository = homeworkRepository;
         this.teacherRepository = teacherRepository;
         this.exerciseRepository = exerciseRepository;
         this.exerciseService = exerciseService;
+        this.catalogVersions = catalogVersions;
     }
 
     @Override
@@ -66,9 +70,7 @@ public class HomeworkServiceImpl implements HomeworkService {
 
         if (request.getExerciseIds() != null && !request.getExerciseIds().isEmpty()) {
             int orderIndex = 0;
-            for (UUID originalExerciseId : request.getExerciseIds()) {
-                Exercise clonedExercise = exerciseService.cloneExercise(originalExerciseId);
-
+            for (Exercise clonedExercise : exerciseService.cloneExercises(request.getExerciseIds())) {
                 HomeworkExercise homeworkExercise = new HomeworkExercise();
                 homeworkExercise.getId().setHomeworkId(homework.getId());
                 homeworkExercise.getId().setExerciseId(clonedExercise.getId());
@@ -82,6 +84,7 @@ public class HomeworkServiceImpl implements HomeworkService {
             homeworkRepository.flush();
         }
 
+        catalogVersions.bumpAfterCommit(CatalogVersions.Catalog.HOMEWORK);
         logger.info("Homework created successfully: {}", homework.getId());
 
         return mapToResponse(homework);
@@ -128,9 +131,7 @@ public class HomeworkServiceImpl implements HomeworkService {
             homework.getExercises().clear();
             Set<HomeworkExercise> homeworkExercises = new HashSet<>();
             int orderIndex = 0;
-            for (UUID originalExerciseId : request.getExerciseIds()) {
-                Exercise clonedExercise = exerciseService.cloneExercise(originalExerciseId);
-
+            for (Exercise clonedExercise : exerciseService.cloneExercises(request.getExerciseIds())) {
                 HomeworkExercise homeworkExercise = new HomeworkExercise();
                 homeworkExercise.getId().setHomeworkId(homework.getId());
                 homeworkExercise.getId().setExerciseId(clonedExercise.getId());
@@ -145,6 +146,7 @@ public class HomeworkServiceImpl implements HomeworkService {
         }
 
         homework = homeworkRepository.save(homework);
+        catalogVersions.bumpAfterCommit(CatalogVersions.Catalog.HOMEWORK);
         logger.info("Homework updated successfully: {}", homeworkId);
 
         return mapToResponse(homework);
@@ -209,6 +211,7 @@ public class HomeworkServiceImpl implements HomeworkService {
             }
         }
         homeworkRepository.delete(homework);
+        catalogVersions.bumpAfterCommit(CatalogVersions.Catalog.HOMEWORK);
         logger.info("Homework deleted successfully: {}", homeworkId);
     }
 
@@ -223,38 +226,19 @@ public class HomeworkServiceImpl implements HomeworkService {
     public Homework cloneHomework(UUID homeworkId) {
         logger.info("Cloning homework: {}", homeworkId);
 
-        Homework originalHomework = homeworkRepository.findByIdWithExercises(homeworkId)
-                .orElseThrow(() -> new ResourceNotFoundException("Homework not found"));
-
-        Set<HomeworkExercise> originalExercises = originalHomework.getExercises();
-        Homework clonedHomework = new Homework();
-        clonedHomework.setTitle(originalHomework.getTitle());
-        clonedHomework.setDescription(originalHomework.getDescription());
-        clonedHomework.setTeacher(originalHomework.getTeacher());
-        clonedHomework.setExercises(new HashSet<>());
-
-        clonedHomework = homeworkRepository.saveAndFlush(clonedHomework);
-        if (!originalExercises.isEmpty()) {
-            for (HomeworkExercise originalHomeworkExercise : originalExercises) {
-                Exercise originalExercise = originalHomeworkExercise.getExercise();
-                Exercise clonedExercise = exerciseService.cloneExercise(originalExercise.getId());
-
-                HomeworkExercise clonedHomeworkExercise = new HomeworkExercise();
-                clonedHomeworkExercise.getId().setHomeworkId(clonedHomework.getId());
-                clonedHomeworkExercise.getId().setExerciseId(clonedExercise.getId());
-                clonedHomeworkExercise.setHomework(clonedHomework);
-                clonedHomeworkExercise.setExercise(clonedExercise);
-                clonedHomeworkExercise.setOrderIndex(originalHomeworkExercise.getOrderIndex());
-                clonedHomeworkExercise.setRequiredAttempts(originalHomeworkExercise.getRequiredAttempts() != null 
-                        ? originalHomeworkExercise.getRequiredAttempts() : 1);
-
-                clonedHomework.getExercises().add(clonedHomeworkExercise);
-            }
-            homeworkRepository.flush();
+        if (!homeworkRepository.existsById(homeworkId)) {
+            throw new ResourceNotFoundException("Homework not found");
         }
 
-        logger.info("Homework cloned successfully. Original: {}, Clone: {}", 
-                homeworkId, clonedHomework.getId());
+        // Homework row, exercises and links are copied by one statement; the clone is then loaded fresh
+        UUID cloneId = UUID.randomUUID();
+        int exerciseCount = homeworkRepository.cloneWithExercises(homeworkId, cloneId);
+        Homework clonedHomework = homeworkRepository.findById(cloneId)
+                .orElseThrow(() -> new IllegalStateException("Cloned homework not found: " + cloneId));
+
+        catalogVersions.bumpAfterCommit(CatalogVersions.Catalog.HOMEWORK);
+        logger.info("Homework cloned successfully. Original: {}, Clone: {}, exercises: {}",
+                homeworkId, clonedHomework.getId(), exerciseCount);
         return clonedHomework;
     }
 
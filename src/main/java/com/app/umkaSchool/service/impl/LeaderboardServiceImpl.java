@@ -0,0 +1,296 @@
+package com.app.umkaSchool.service.impl;
+
+import com.app.umkaSchool.dto.leaderboard.LeaderboardEntryResponse;
+import com.app.umkaSchool.dto.leaderboard.LeaderboardResponse;
+import com.app.umkaSchool.event.ExerciseAttemptCompletedEvent;
+import com.app.umkaSchool.exception.ResourceNotFoundException;
+import com.app.umkaSchool.repository.DailyChallengeRepository;
+import com.app.umkaSchool.repository.ExerciseAttemptRepository;
+import com.app.umkaSchool.repository.StudentRepository;
+import com.app.umkaSchool.service.LeaderboardService;
+import com.app.umkaSchool.util.RankedScoreBoard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Serves leaderboards from in-memory {@link RankedScoreBoard}s instead of aggregating attempts per request.
+ * Boards are seeded from the database at startup, updated incrementally when an attempt completes and
+ * rebuilt nightly, which also picks up students that moved between groups.
+ * <p>
+ * Incremental updates add the score difference carried by the completion event, so an attempt reported
+ * more than once is still counted with its latest score only, matching the {@code SUM(score)} seed.
+ * Updates that arrive while a rebuild runs are applied to the old boards and replayed onto the new ones,
+ * except those whose transaction the seed snapshot already saw: an attempt that commits just before the
+ * snapshot can still reach its listener after the rebuild log is opened.
+ */
+@Service
+public class LeaderboardServiceImpl implements LeaderboardService {
+    private static final Logger logger = LoggerFactory.getLogger(LeaderboardServiceImpl.class);
+
+    private static final String SCOPE_GROUP = "GROUP";
+    private static final String SCOPE_DAILY_CHALLENGE = "DAILY_CHALLENGE";
+
+    private final ExerciseAttemptRepository exerciseAttemptRepository;
+    private final DailyChallengeRepository dailyChallengeRepository;
+    private final StudentRepository studentRepository;
+    private final int challengeRetentionDays;
+
+    private final TransactionTemplate seedTransaction;
+
+    private volatile Map<UUID, RankedScoreBoard> groupBoards = new ConcurrentHashMap<>();
+    private volatile Map<UUID, RankedScoreBoard> challengeBoards = new ConcurrentHashMap<>();
+    private final Map<UUID, String> studentNames = new ConcurrentHashMap<>();
+
+    // Updates take the read lock, the board swap takes the write lock, so no update falls between the two
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private final Object rebuildLock = new Object();
+    // Non-null while a rebuild runs; collects updates to replay onto the new boards
+    private Queue<Contribution> rebuildLog;
+
+    /**
+     * One score change of one student, with the boards it applies to and the transaction that made it
+     * (0 if unknown).
+     */
+    private record Contribution(UUID studentId, UUID groupId, List<UUID> challengeIds, long delta,
+                                long transactionId) {
+    }
+
+    /**
+     * A PostgreSQL snapshot as reported by {@code txid_current_snapshot()}: transactions below xmin had
+     * finished, those from xmax on had not started, and of those in between only the listed ones were running.
+     */
+    record SeedSnapshot(long xmin, long xmax, Set<Long> running) {
+
+        static SeedSnapshot parse(String text) {
+            String[] parts = text.split(":", -1);
+            Set<Long> running = new HashSet<>();
+            if (parts.length > 2 && !parts[2].isEmpty()) {
+                for (String xid : parts[2].split(",")) {
+                    running.add(Long.parseLong(xid));
+                }
+            }
+            return new SeedSnapshot(Long.parseLong(parts[0]), Long.parseLong(parts[1]), running);
+        }
+
+        /**
+         * Whether the snapshot sees the changes of a transaction known to have committed.
+         */
+        boolean includes(long transactionId) {
+            return transactionId < xmin || transactionId < xmax && !running.contains(transactionId);
+        }
+    }
+
+    @Autowired
+    public LeaderboardServiceImpl(ExerciseAttemptRepository exerciseAttemptRepository,
+                                  DailyChallengeRepository dailyChallengeRepository,
+                                  StudentRepository studentRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${leaderboard.challenge-retention-days:7}") int challengeRetentionDays) {
+        this.exerciseAttemptRepository = exerciseAttemptRepository;
+        this.dailyChallengeRepository = dailyChallengeRepository;
+        this.studentRepository = studentRepository;
+        this.challengeRetentionDays = challengeRetentionDays;
+        // Both seed queries read the same snapshot, so a concurrent update lands in both or in neither
+        this.seedTransaction = new TransactionTemplate(transactionManager);
+        this.seedTransaction.setReadOnly(true);
+        this.seedTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            rebuildLeaderboards();
+        } catch (Exception e) {
+            logger.error("Failed to build leaderboards at startup: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void rebuildLeaderboards() {
+        synchronized (rebuildLock) {
+            long start = System.currentTimeMillis();
+
+            for (Object[] row : studentRepository.findAllNames()) {
+                studentNames.put((UUID) row[0], row[1] + " " + row[2]);
+            }
+
+            Queue<Contribution> log = new ConcurrentLinkedQueue<>();
+            swapLock.writeLock().lock();
+            try {
+                rebuildLog = log;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+
+            Map<UUID, RankedScoreBoard> groups = new ConcurrentHashMap<>();
+            Map<UUID, RankedScoreBoard> challenges = new ConcurrentHashMap<>();
+            SeedSnapshot snapshot;
+            try {
+                LocalDate since = LocalDate.now().minusDays(challengeRetentionDays);
+                snapshot = seedTransaction.execute(status -> {
+                    // The first statement fixes the snapshot both seed queries read
+                    String seedSnapshot = exerciseAttemptRepository.currentSnapshot();
+                    for (Object[] row : exerciseAttemptRepository.sumScoresByGroupAndStudent()) {
+                        groups.computeIfAbsent((UUID) row[0], id -> new RankedScoreBoard())
+                                .add((UUID) row[1], ((Number) row[2]).longValue());
+                    }
+                    for (Object[] row : exerciseAttemptRepository.sumScoresByDailyChallengeAndStudent(since)) {
+                        challenges.computeIfAbsent((UUID) row[0], id -> new RankedScoreBoard())
+                                .add((UUID) row[1], ((Number) row[2]).longValue());
+                    }
+                    return seedSnapshot != null ? SeedSnapshot.parse(seedSnapshot) : null;
+                });
+            } catch (RuntimeException e) {
+                swapLock.writeLock().lock();
+                try {
+                    rebuildLog = null;
+                } finally {
+                    swapLock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            // Swap whole maps so readers never observe a half-built board
+            int replayed = 0;
+            swapLock.writeLock().lock();
+            try {
+                for (Contribution contribution : log) {
+                    if (snapshot != null && contribution.transactionId() != 0
+                            && snapshot.includes(contribution.transactionId())) {
+                        // Already part of the seed sums
+                        continue;
+                    }
+                    apply(contribution, groups, challenges);
+                    replayed++;
+                }
+                groupBoards = groups;
+                challengeBoards = challenges;
+                rebuildLog = null;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+            logger.info("Leaderboards rebuilt in {} ms: {} group boards, {} challenge boards, {} updates replayed",
+                    System.currentTimeMillis() - start, groups.size(), challenges.size(), replayed);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttemptCompleted(ExerciseAttemptCompletedEvent event) {
+        long delta = event.scoreDelta();
+        if (delta == 0) {
+            return;
+        }
+        try {
+            LocalDate since = LocalDate.now().minusDays(challengeRetentionDays);
+            Contribution contribution = new Contribution(event.studentId(), event.groupId(),
+                    dailyChallengeRepository.findIdsByExerciseIdSince(event.exerciseId(), since), delta,
+                    event.transactionId());
+
+            swapLock.readLock().lock();
+            try {
+                apply(contribution, groupBoards, challengeBoards);
+                if (rebuildLog != null) {
+                    rebuildLog.add(contribution);
+                }
+            } finally {
+                swapLock.readLock().unlock();
+            }
+        } catch (Exception e) {
+            logger.error("Error updating leaderboards for attempt {}: {}", event.attemptId(), e.getMessage());
+        }
+    }
+
+    private static void apply(Contribution contribution, Map<UUID, RankedScoreBoard> groups,
+                              Map<UUID, RankedScoreBoard> challenges) {
+        if (contribution.groupId() != null) {
+            groups.computeIfAbsent(contribution.groupId(), id -> new RankedScoreBoard())
+                    .add(contribution.studentId(), contribution.delta());
+        }
+        for (UUID challengeId : contribution.challengeIds()) {
+            challenges.computeIfAbsent(challengeId, id -> new RankedScoreBoard())
+                    .add(contribution.studentId(), contribution.delta());
+        }
+    }
+
+    @Override
+    public LeaderboardResponse getGroupLeaderboard(UUID groupId, int limit) {
+        return buildLeaderboard(SCOPE_GROUP, groupId, groupBoards.get(groupId), limit);
+    }
+
+    @Override
+    public LeaderboardResponse getDailyChallengeLeaderboard(UUID challengeId, int limit) {
+        return buildLeaderboard(SCOPE_DAILY_CHALLENGE, challengeId, challengeBoards.get(challengeId), limit);
+    }
+
+    @Override
+    public LeaderboardEntryResponse getGroupRank(UUID groupId, UUID studentId) {
+        return buildRank(groupBoards.get(groupId), studentId);
+    }
+
+    @Override
+    public LeaderboardEntryResponse getDailyChallengeRank(UUID challengeId, UUID studentId) {
+        return buildRank(challengeBoards.get(challengeId), studentId);
+    }
+
+    private LeaderboardResponse buildLeaderboard(String scope, UUID scopeId, RankedScoreBoard board, int limit) {
+        List<LeaderboardEntryResponse> entries = board == null ? List.of() : board.top(limit).stream()
+                .map(ranked -> mapToEntry(ranked, board.size()))
+                .collect(Collectors.toList());
+
+        return LeaderboardResponse.builder()
+                .scope(scope)
+                .scopeId(scopeId)
+                .totalParticipants(board == null ? 0 : board.size())
+                .entries(entries)
+                .build();
+    }
+
+    private LeaderboardEntryResponse buildRank(RankedScoreBoard board, UUID studentId) {
+        if (board == null) {
+            throw new ResourceNotFoundException("Student has no score on this leaderboard");
+        }
+        return board.rankOf(studentId)
+                .map(ranked -> mapToEntry(ranked, board.size()))
+                .orElseThrow(() -> new ResourceNotFoundException("Student has no score on this leaderboard"));
+    }
+
+    private LeaderboardEntryResponse mapToEntry(RankedScoreBoard.Ranked ranked, int totalParticipants) {
+        return LeaderboardEntryResponse.builder()
+                .rank(ranked.rank())
+                .studentId(ranked.studentId())
+                .studentName(resolveStudentName(ranked.studentId()))
+                .score(ranked.score())
+                .totalParticipants(totalParticipants)
+                .build();
+    }
+
+    private String resolveStudentName(UUID studentId) {
+        // Names are preloaded at rebuild; only students who joined since then need a lookup
+        return studentNames.computeIfAbsent(studentId, id -> studentRepository.findNameById(id).stream()
+                .findFirst()
+                .map(row -> row[1] + " " + row[2])
+                .orElse("Unknown"));
+    }
+}
@@ -1,6 +1,7 @@
 package com.app.umkaSchool.service.impl;
 
 import com.app.umkaSchool.dto.progresssnapshot.ProgressSnapshotResponse;
+import com.app.umkaSchool.dto.progresssnapshot.ProgressTimeSeriesResponse;
 import com.app.umkaSchool.dto.stats.StatsResponse;
 import com.app.umkaSchool.model.ExerciseAttempt;
 import com.app.umkaSchool.model.ProgressSnapshot;
@@ -13,12 +14,18 @@ import com.app.umkaSchool.service.StudentActivityService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -26,20 +33,25 @@ import java.util.stream.Collectors;
 @Service
 public class ProgressSnapshotServiceImpl implements ProgressSnapshotService {
     private static final Logger logger = LoggerFactory.getLogger(ProgressSnapshotServiceImpl.class);
+    private static final String SNAPSHOT_JOB_NAME = "progress-snapshots";
+    private static final int MAX_TIME_SERIES_BUCKETS = 1000;
     private final ProgressSnapshotRepository repository;
     private final StudentActivityService studentActivityService;
     private final StudentRepository studentRepository;
     private final ExerciseAttemptRepository exerciseAttemptRepository;
+    private final ChunkedJobExecutor chunkedJobExecutor;
 
     @Autowired
     public ProgressSnapshotServiceImpl(ProgressSnapshotRepository repository, 
                                        StudentActivityService studentActivityService,
                                        StudentRepository studentRepository,
-                                       ExerciseAttemptRepository exerciseAttemptRepository) {
+                                       ExerciseAttemptRepository exerciseAttemptRepository,
+                                       ChunkedJobExecutor chunkedJobExecutor) {
         this.repository = repository;
         this.studentActivityService = studentActivityService;
         this.studentRepository = studentRepository;
         this.exerciseAttemptRepository = exerciseAttemptRepository;
+        this.chunkedJobExecutor = chunkedJobExecutor;
     }
 
     @Override
@@ -158,33 +170,33 @@ public class ProgressSnapshotServiceImpl implements ProgressSnapshotService {
     }
 
     @Override
-    @Transactional
     public void createSnapshotsForAllStudentsToday() {
         LocalDate today = LocalDate.now();
         logger.info("Creating progress snapshots for all students for date: {}", today);
-        
-        List<Student> students = studentRepository.findAll();
-        int created = 0;
-        int updated = 0;
-        
-        for (Student student : students) {
-            try {
-                Optional<ProgressSnapshot> existing = getLatestSnapshotForDate(student, today);
-                if (existing.isPresent()) {
-                    updateSnapshotFromActivity(existing.get(), student, today);
-                    repository.save(existing.get());
-                    updated++;
-                } else {
-                    ProgressSnapshot snap = buildSnapshotFromActivity(student, today);
-                    repository.save(snap);
-                    created++;
-                }
-            } catch (Exception e) {
-                logger.error("Error creating snapshot for student {}: {}", student.getId(), e.getMessage());
+
+        // Each chunk runs in its own transaction, so this method must not open one itself
+        ChunkedJobExecutor.Result result = chunkedJobExecutor.run(SNAPSHOT_JOB_NAME, today,
+                studentRepository.findAllIds(), chunk -> createSnapshotsForChunk(chunk, today));
+
+        logger.info("Progress snapshots processed: {}, skipped (already done): {}, failed chunks: {}",
+                result.processed(), result.skippedIds(), result.failedChunks());
+    }
+
+    private int createSnapshotsForChunk(List<UUID> studentIds, LocalDate date) {
+        // A failure propagates so the whole chunk rolls back and stays pending for the next run;
+        // catching it here would checkpoint the student as done
+        int processed = 0;
+        for (Student student : studentRepository.findAllById(studentIds)) {
+            Optional<ProgressSnapshot> existing = getLatestSnapshotForDate(student, date);
+            if (existing.isPresent()) {
+                updateSnapshotFromActivity(existing.get(), student, date);
+                repository.save(existing.get());
+            } else {
+                repository.save(buildSnapshotFromActivity(student, date));
             }
+            processed++;
         }
-        
-        logger.info("Progress snapshots created: {}, updated: {}", created, updated);
+        return processed;
     }
 
     @Override
@@ -325,6 +337,81 @@ public class ProgressSnapshotServiceImpl implements ProgressSnapshotService {
             .findFirst();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public ProgressTimeSeriesResponse getProgressTimeSeries(UUID studentId, LocalDate from, LocalDate to, String bucket) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        String unit = bucket.toLowerCase();
+
+        // Generate every bucket start in the range so that empty buckets are returned as zeros
+        List<LocalDate> dates = new ArrayList<>();
+        for (LocalDate d = truncateToBucket(from, unit); !d.isAfter(to); d = nextBucket(d, unit)) {
+            dates.add(d);
+            if (dates.size() > MAX_TIME_SERIES_BUCKETS) {
+                throw new IllegalArgumentException("Requested range has more than " + MAX_TIME_SERIES_BUCKETS + " buckets");
+            }
+        }
+
+        ZoneId zone = ZoneId.systemDefault();
+        List<Object[]> rows = exerciseAttemptRepository.sumCompletedAttemptsByBucket(studentId, unit, zone.getId(),
+                from.atStartOfDay(zone), to.plusDays(1).atStartOfDay(zone));
+        Map<LocalDate, Object[]> rowsByDate = new HashMap<>();
+        for (Object[] row : rows) {
+            LocalDate bucketStart = row[0] instanceof java.sql.Date sqlDate ? sqlDate.toLocalDate() : (LocalDate) row[0];
+            rowsByDate.put(bucketStart, row);
+        }
+
+        List<Long> attempts = new ArrayList<>(dates.size());
+        List<Long> correct = new ArrayList<>(dates.size());
+        List<Long> seconds = new ArrayList<>(dates.size());
+        for (LocalDate date : dates) {
+            Object[] row = rowsByDate.get(date);
+            attempts.add(row == null ? 0L : ((Number) row[1]).longValue());
+            correct.add(row == null ? 0L : ((Number) row[2]).longValue());
+            seconds.add(row == null ? 0L : ((Number) row[3]).longValue());
+        }
+
+        return ProgressTimeSeriesResponse.builder()
+                .studentId(studentId)
+                .bucket(unit)
+                .from(from)
+                .to(to)
+                .dates(dates)
+                .attempts(attempts)
+                .correct(correct)
+                .seconds(seconds)
+                .build();
+    }
+
+    // Mirrors PostgreSQL date_trunc: weeks start on Monday, months on the 1st
+    private LocalDate truncateToBucket(LocalDate date, String bucket) {
+        return switch (bucket) {
+            case "week" -> date.with(DayOfWeek.MONDAY);
+            case "month" -> date.withDayOfMonth(1);
+            default -> date;
+        };
+    }
+
+    private LocalDate nextBucket(LocalDate bucketStart, String bucket) {
+        return switch (bucket) {
+            case "week" -> bucketStart.plusWeeks(1);
+            case "month" -> bucketStart.plusMonths(1);
+            default -> bucketStart.plusDays(1);
+        };
+    }
+
+    @Override
+    @Cacheable(value = StudentStatsCacheEvictor.CACHE_NAME,
+            key = "T(com.app.umkaSchool.service.impl.StudentStatsCacheEvictor).key(#studentId, #period, T(java.time.LocalDate).now())")
+    @Transactional(readOnly = true)
+    public StatsResponse getStudentStats(UUID studentId, String period) {
+        Student student = studentRepository.findById(studentId)
+                .orElseThrow(() -> new IllegalArgumentException("Student not found"));
+        return getStudentStats(student, period);
+    }
+
     @Override
     public StatsResponse getStudentStats(Student student, String period) {
         logger.info("Getting stats for student: {}, period: {}", student.getId(), period);
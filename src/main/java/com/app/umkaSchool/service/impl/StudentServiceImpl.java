@@ -3,6 +3,8 @@ package com.app.umkaSchool.service.impl;
 import com.app.umkaSchool.dto.student.CreateStudentRequest;
 import com.app.umkaSchool.dto.student.StudentResponse;
 import com.app.umkaSchool.dto.student.UpdateStudentRequest;
+import com.app.umkaSchool.event.StudentDeletedEvent;
+import com.app.umkaSchool.event.StudentGroupChangedEvent;
 import com.app.umkaSchool.exception.ResourceNotFoundException;
 import com.app.umkaSchool.model.*;
 import com.app.umkaSchool.model.enums.GuardianRelationship;
@@ -12,12 +14,14 @@ import com.app.umkaSchool.util.SecurityUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -30,18 +34,21 @@ public class StudentServiceImpl implements StudentService {
     private final GuardianRepository guardianRepository;
     private final TeacherRepository teacherRepository;
     private final StudentGroupRepository groupRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public StudentServiceImpl(StudentRepository studentRepository,
                               AppUserRepository userRepository,
                               GuardianRepository guardianRepository,
                               TeacherRepository teacherRepository,
-                              StudentGroupRepository groupRepository) {
+                              StudentGroupRepository groupRepository,
+                              ApplicationEventPublisher eventPublisher) {
         this.studentRepository = studentRepository;
         this.userRepository = userRepository;
         this.guardianRepository = guardianRepository;
         this.teacherRepository = teacherRepository;
         this.groupRepository = groupRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
@@ -103,6 +110,9 @@ public class StudentServiceImpl implements StudentService {
         }
 
         student = studentRepository.save(student);
+        if (student.getGroup() != null) {
+            publishGroupChange(student.getId(), null, student.getGroup().getId());
+        }
         logger.info("Student created successfully: {}", student.getId());
 
         return mapToResponse(student);
@@ -145,6 +155,7 @@ public class StudentServiceImpl implements StudentService {
         }
 
         // Update group
+        UUID previousGroupId = student.getGroup() != null ? student.getGroup().getId() : null;
         if (request.getGroupId() != null) {
             StudentGroup group = groupRepository.findById(request.getGroupId())
                     .orElseThrow(() -> new ResourceNotFoundException("Group not found"));
@@ -172,6 +183,7 @@ public class StudentServiceImpl implements StudentService {
         guardianRepository.save(guardian);
         userRepository.save(user);
         student = studentRepository.save(student);
+        publishGroupChange(studentId, previousGroupId, student.getGroup() != null ? student.getGroup().getId() : null);
 
         logger.info("Student updated successfully: {}", studentId);
         return mapToResponse(student);
@@ -239,6 +251,7 @@ public class StudentServiceImpl implements StudentService {
             }
         }
 
+        eventPublisher.publishEvent(new StudentDeletedEvent(studentId));
         AppUser user = student.getUser();
         studentRepository.delete(student);
         userRepository.delete(user);
@@ -276,8 +289,10 @@ public class StudentServiceImpl implements StudentService {
         StudentGroup group = groupRepository.findById(groupId)
                 .orElseThrow(() -> new ResourceNotFoundException("Group not found"));
 
+        UUID previousGroupId = student.getGroup() != null ? student.getGroup().getId() : null;
         student.setGroup(group);
         studentRepository.save(student);
+        publishGroupChange(studentId, previousGroupId, groupId);
     }
 
     @Override
@@ -295,6 +310,12 @@ public class StudentServiceImpl implements StudentService {
                 .orElseThrow(() -> new IllegalArgumentException("Student not found"));
     }
 
+    private void publishGroupChange(UUID studentId, UUID previousGroupId, UUID newGroupId) {
+        if (!Objects.equals(previousGroupId, newGroupId)) {
+            eventPublisher.publishEvent(new StudentGroupChangedEvent(studentId, previousGroupId, newGroupId));
+        }
+    }
+
     private StudentResponse mapToResponse(Student student) {
         AppUser user = student.getUser();
         Guardian guardian = student.getGuardian();
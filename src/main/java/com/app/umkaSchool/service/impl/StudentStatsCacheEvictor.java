@@ -0,0 +1,50 @@
+package com.app.umkaSchool.service.impl;
+
+import com.app.umkaSchool.event.ExerciseAttemptCompletedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Owns the key format of the {@code studentStats} cache and drops a student's entries for today
+ * once a completed attempt has been committed, so the next dashboard view recomputes fresh stats.
+ */
+@Component
+public class StudentStatsCacheEvictor {
+    private static final Logger logger = LoggerFactory.getLogger(StudentStatsCacheEvictor.class);
+
+    public static final String CACHE_NAME = "studentStats";
+    private static final List<String> PERIODS = List.of("day", "week", "month", "all");
+
+    private final CacheManager cacheManager;
+
+    @Autowired
+    public StudentStatsCacheEvictor(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    public static String key(UUID studentId, String period, LocalDate date) {
+        return studentId + ":" + period.toLowerCase() + ":" + date;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAttemptCompleted(ExerciseAttemptCompletedEvent event) {
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        for (String period : PERIODS) {
+            cache.evict(key(event.studentId(), period, today));
+        }
+        logger.debug("Evicted cached stats for student {}", event.studentId());
+    }
+}
@@ -1,6 +1,7 @@
 package com.app.umkaSchool.service.impl;
 
 import com.app.umkaSchool.dto.teacher.CreateTeacherRequest;
+import com.app.umkaSchool.dto.teacher.TeacherGroupStatsResponse;
 import com.app.umkaSchool.dto.teacher.TeacherResponse;
 import com.app.umkaSchool.dto.teacher.UpdateTeacherRequest;
 import com.app.umkaSchool.exception.ResourceNotFoundException;
@@ -11,13 +12,24 @@ import com.app.umkaSchool.repository.StudentGroupRepository;
 import com.app.umkaSchool.repository.StudentRepository;
 import com.app.umkaSchool.repository.TeacherRepository;
 import com.app.umkaSchool.service.TeacherService;
+import com.app.umkaSchool.util.CatalogVersions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -29,16 +41,19 @@ public class TeacherServiceImpl implements TeacherService {
     private final AppUserRepository userRepository;
     private final StudentRepository studentRepository;
     private final StudentGroupRepository groupRepository;
+    private final CatalogVersions catalogVersions;
 
     @Autowired
     public TeacherServiceImpl(TeacherRepository teacherRepository,
                               AppUserRepository userRepository,
                               StudentRepository studentRepository,
-                              StudentGroupRepository groupRepository) {
+                              StudentGroupRepository groupRepository,
+                              CatalogVersions catalogVersions) {
         this.teacherRepository = teacherRepository;
         this.userRepository = userRepository;
         this.studentRepository = studentRepository;
         this.groupRepository = groupRepository;
+        this.catalogVersions = catalogVersions;
     }
 
     @Override
@@ -111,6 +126,9 @@ public class TeacherServiceImpl implements TeacherService {
 
         userRepository.save(user);
         teacher = teacherRepository.save(teacher);
+        // Catalog responses carry the teacher's name as author
+        catalogVersions.bumpAfterCommit(CatalogVersions.Catalog.EXERCISE_TYPES, CatalogVersions.Catalog.HOMEWORK,
+                CatalogVersions.Catalog.DAILY_CHALLENGES);
 
         logger.info("Teacher updated successfully: {}", teacherId);
         return mapToResponse(teacher);
@@ -151,6 +169,8 @@ public class TeacherServiceImpl implements TeacherService {
         AppUser user = teacher.getUser();
         teacherRepository.delete(teacher);
         userRepository.delete(user);
+        catalogVersions.bumpAfterCommit(CatalogVersions.Catalog.EXERCISE_TYPES, CatalogVersions.Catalog.HOMEWORK,
+                CatalogVersions.Catalog.DAILY_CHALLENGES);
 
         logger.info("Teacher deleted successfully: {}", teacherId);
     }
@@ -161,6 +181,89 @@ public class TeacherServiceImpl implements TeacherService {
                 .orElseThrow(() -> new IllegalArgumentException("Teacher not found"));
     }
 
+    @Override
+    @Cacheable(value = "teacherGroupStats", key = "#teacherId.toString() + ':' + #period.toLowerCase()")
+    @Transactional(readOnly = true)
+    public TeacherGroupStatsResponse getGroupStats(UUID teacherId, String period) {
+        if (!teacherRepository.existsById(teacherId)) {
+            throw new ResourceNotFoundException("Teacher not found");
+        }
+
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate today = LocalDate.now(zone);
+        LocalDate since = switch (period.toLowerCase()) {
+            case "day" -> today;
+            case "week" -> today.minusDays(7);
+            case "month" -> today.minusMonths(1);
+            default -> LocalDate.of(1970, 1, 1);
+        };
+
+        List<Object[]> rows = studentRepository.findTeacherStudentStats(teacherId, since.atStartOfDay(zone), today, zone.getId());
+
+        // Rows are ordered by group, so groups keep the query's ordering
+        Map<UUID, TeacherGroupStatsResponse.GroupStats> groups = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            UUID groupId = (UUID) row[0];
+            TeacherGroupStatsResponse.GroupStats group = groups.computeIfAbsent(groupId, id ->
+                    TeacherGroupStatsResponse.GroupStats.builder()
+                            .groupId(id)
+                            .groupName(row[1] != null ? (String) row[1] : "No group")
+                            .totalAttempts(toLong(row[11]))
+                            .totalCorrect(toLong(row[12]))
+                            .accuracyRate(accuracy(toLong(row[12]), toLong(row[11])))
+                            .practiceTimeSeconds(toLong(row[13]))
+                            .lastActivityAt(toZonedDateTime(row[14]))
+                            .students(new ArrayList<>())
+                            .build());
+
+            long attempts = toLong(row[5]);
+            long correct = toLong(row[6]);
+            group.getStudents().add(TeacherGroupStatsResponse.StudentStats.builder()
+                    .studentId((UUID) row[2])
+                    .firstName((String) row[3])
+                    .lastName((String) row[4])
+                    .totalAttempts(attempts)
+                    .totalCorrect(correct)
+                    .accuracyRate(accuracy(correct, attempts))
+                    .practiceTimeSeconds(toLong(row[7]))
+                    .lastActivityAt(toZonedDateTime(row[8]))
+                    .currentStreak(((Number) row[9]).intValue())
+                    .bestStreak(((Number) row[10]).intValue())
+                    .build());
+        }
+        groups.values().forEach(group -> group.setStudentCount(group.getStudents().size()));
+
+        return TeacherGroupStatsResponse.builder()
+                .teacherId(teacherId)
+                .period(period.toLowerCase())
+                .groups(new ArrayList<>(groups.values()))
+                .build();
+    }
+
+    private static long toLong(Object value) {
+        return value == null ? 0L : ((Number) value).longValue();
+    }
+
+    private static int accuracy(long correct, long attempts) {
+        return attempts > 0 ? (int) Math.round(correct * 100.0 / attempts) : 0;
+    }
+
+    private static ZonedDateTime toZonedDateTime(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof ZonedDateTime zoned) {
+            return zoned;
+        }
+        if (value instanceof OffsetDateTime offset) {
+            return offset.toZonedDateTime();
+        }
+        if (value instanceof Instant instant) {
+            return instant.atZone(ZoneId.systemDefault());
+        }
+        return ((Timestamp) value).toInstant().atZone(ZoneId.systemDefault());
+    }
+
     private TeacherResponse mapToResponse(Teacher teacher) {
         AppUser user = teacher.getUser();
 
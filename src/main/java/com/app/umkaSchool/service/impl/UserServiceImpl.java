@@ -7,6 +7,7 @@ import com.app.umkaSchool.exception.ResourceNotFoundException;
 import com.app.umkaSchool.model.AppUser;
 import com.app.umkaSchool.repository.AppUserRepository;
 import com.app.umkaSchool.service.UserService;
+import com.app.umkaSchool.util.CatalogVersions;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
@@ -24,11 +25,14 @@ public class UserServiceImpl implements UserService {
 
     private final AppUserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final CatalogVersions catalogVersions;
 
     @Autowired
-    public UserServiceImpl(AppUserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(AppUserRepository userRepository, PasswordEncoder passwordEncoder,
+                           CatalogVersions catalogVersions) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.catalogVersions = catalogVersions;
     }
 
     @Override
@@ -122,6 +126,7 @@ public class UserServiceImpl implements UserService {
         }
 
         user = userRepository.save(user);
+        bumpAuthoredCatalogs(user);
         return mapToResponse(user);
     }
 
@@ -132,6 +137,7 @@ public class UserServiceImpl implements UserService {
         AppUser user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         userRepository.delete(user);
+        bumpAuthoredCatalogs(user);
     }
 
     @Override
@@ -169,4 +175,14 @@ public class UserServiceImpl implements UserService {
                 .lastLoginAt(user.getLastLoginAt())
                 .build();
     }
+
+    /**
+     * Catalog responses show teachers' names as authors, so a teacher's profile change invalidates their tags.
+     */
+    private void bumpAuthoredCatalogs(AppUser user) {
+        if (user.getUserRole() == AppUser.UserRole.TEACHER) {
+            catalogVersions.bumpAfterCommit(CatalogVersions.Catalog.EXERCISE_TYPES, CatalogVersions.Catalog.HOMEWORK,
+                    CatalogVersions.Catalog.DAILY_CHALLENGES);
+        }
+    }
 }
@@ -1,18 +1,10 @@
 package com.app.umkaSchool.service.impl;
 
-import com.app.umkaSchool.dto.stats.StatsResponse;
 import com.app.umkaSchool.dto.weeklyreport.WeeklyReportData;
-import com.app.umkaSchool.model.ExerciseAttempt;
-import com.app.umkaSchool.model.HomeworkAssignment;
-import com.app.umkaSchool.model.HomeworkAssignmentStudent;
-import com.app.umkaSchool.model.Student;
-import com.app.umkaSchool.model.enums.HomeworkStatus;
+import com.app.umkaSchool.exception.ResourceNotFoundException;
 import com.app.umkaSchool.repository.ExerciseAttemptRepository;
-import com.app.umkaSchool.repository.HomeworkAssignmentRepository;
-import com.app.umkaSchool.repository.HomeworkAssignmentStudentRepository;
 import com.app.umkaSchool.repository.StudentRepository;
 import com.app.umkaSchool.service.EmailService;
-import com.app.umkaSchool.service.ProgressSnapshotService;
 import com.app.umkaSchool.service.WeeklyReportService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,244 +15,157 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
-import java.util.*;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Builds weekly reports for a whole chunk of students at once: one grouped query returns every student's
+ * weekly totals, streak and homework counts, a second one the per-subject breakdown. Monday's job therefore
+ * reads one row per student plus one per student and subject, instead of each student's full attempt history.
+ */
 @Service
 public class WeeklyReportServiceImpl implements WeeklyReportService {
     private static final Logger logger = LoggerFactory.getLogger(WeeklyReportServiceImpl.class);
-    
+
+    private static final String WEEKLY_REPORT_JOB_NAME = "weekly-reports";
+    // Longest streak a report can show; bounds the attempt history the streak query reads
+    private static final int MAX_STREAK_DAYS = 366;
+
     private final StudentRepository studentRepository;
     private final ExerciseAttemptRepository exerciseAttemptRepository;
-    private final HomeworkAssignmentRepository homeworkAssignmentRepository;
-    private final HomeworkAssignmentStudentRepository homeworkAssignmentStudentRepository;
-    private final ProgressSnapshotService progressSnapshotService;
+    private final ChunkedJobExecutor chunkedJobExecutor;
     private final EmailService emailService;
-    
+
+    /**
+     * A built report together with where to send it.
+     */
+    private record Report(UUID studentId, String guardianEmail, String guardianFirstName, WeeklyReportData data) {
+    }
+
     @Autowired
     public WeeklyReportServiceImpl(
             StudentRepository studentRepository,
             ExerciseAttemptRepository exerciseAttemptRepository,
-            HomeworkAssignmentRepository homeworkAssignmentRepository,
-            HomeworkAssignmentStudentRepository homeworkAssignmentStudentRepository,
-            ProgressSnapshotService progressSnapshotService,
+            ChunkedJobExecutor chunkedJobExecutor,
             EmailService emailService) {
         this.studentRepository = studentRepository;
         this.exerciseAttemptRepository = exerciseAttemptRepository;
-        this.homeworkAssignmentRepository = homeworkAssignmentRepository;
-        this.homeworkAssignmentStudentRepository = homeworkAssignmentStudentRepository;
-        this.progressSnapshotService = progressSnapshotService;
+        this.chunkedJobExecutor = chunkedJobExecutor;
         this.emailService = emailService;
     }
-    
+
     @Override
     @Transactional(readOnly = true)
     public WeeklyReportData generateWeeklyReport(UUID studentId, LocalDate weekStartDate, LocalDate weekEndDate) {
         logger.info("Generating weekly report for student {} from {} to {}", studentId, weekStartDate, weekEndDate);
-        
-        Student student = studentRepository.findById(studentId)
-                .orElseThrow(() -> new RuntimeException("Student not found: " + studentId));
-        
-        ZonedDateTime weekStart = weekStartDate.atStartOfDay(ZoneId.systemDefault());
-        ZonedDateTime weekEnd = weekEndDate.atTime(23, 59, 59).atZone(ZoneId.systemDefault());
-        
-        List<ExerciseAttempt> attempts = exerciseAttemptRepository.findByStudent_IdOrderByCompletedAtDesc(studentId)
-                .stream()
-                .filter(attempt -> attempt.getCompletedAt() != null 
-                        && attempt.getCompletedAt().isAfter(weekStart.minusSeconds(1))
-                        && attempt.getCompletedAt().isBefore(weekEnd.plusSeconds(1)))
-                .collect(Collectors.toList());
-        
-        long totalProblemsSolved = attempts.stream()
-                .mapToLong(attempt -> attempt.getTotalAttempts() != null ? attempt.getTotalAttempts() : 0L)
-                .sum();
-        
-        long totalCorrect = attempts.stream()
-                .mapToLong(attempt -> attempt.getTotalCorrect() != null ? attempt.getTotalCorrect() : 0L)
-                .sum();
-        
-        int accuracyRate = totalProblemsSolved > 0 
-                ? (int) Math.round((double) totalCorrect * 100.0 / totalProblemsSolved)
-                : 0;
-        
-        long totalPracticeTimeSeconds = attempts.stream()
-                .mapToLong(attempt -> {
-                    if (attempt.getStartedAt() != null && attempt.getCompletedAt() != null) {
-                        return java.time.Duration.between(
-                                attempt.getStartedAt(), 
-                                attempt.getCompletedAt()
-                        ).getSeconds();
-                    }
-                    return 0L;
-                })
-                .sum();
-        
-        StatsResponse stats = progressSnapshotService.getStudentStats(student, "week");
-        int currentStreak = stats.getCurrentStreak() != null ? stats.getCurrentStreak() : 0;
-        
-        List<HomeworkAssignment> allAssignments = homeworkAssignmentRepository.findAllByStudentIdIncludingGroup(studentId);
-        
-        int completedHomeworkCount = 0;
-        int totalHomeworkCount = 0;
-        
-        for (HomeworkAssignment assignment : allAssignments) {
-            if (assignment.getAssignedAt() != null && assignment.getAssignedAt().isAfter(weekEnd)) {
-                continue;
-            }
-            totalHomeworkCount++;
-            
-            Optional<HomeworkAssignmentStudent> assignmentStudentOpt = 
-                    homeworkAssignmentStudentRepository.findById_HomeworkAssignmentIdAndId_StudentId(
-                            assignment.getId(), studentId);
-            
-            if (assignmentStudentOpt.isPresent() && 
-                    assignmentStudentOpt.get().getStatus() == HomeworkStatus.COMPLETED) {
-                completedHomeworkCount++;
-                logger.debug("Found completed homework assignment {} for student {}", 
-                        assignment.getId(), studentId);
-            }
+
+        List<Report> reports = buildReports(List.of(studentId), weekStartDate, weekEndDate);
+        if (reports.isEmpty()) {
+            throw new ResourceNotFoundException("Student not found: " + studentId);
         }
-        
-        logger.info("Homework statistics for student {}: {} completed out of {} total assignments", 
-                studentId, completedHomeworkCount, totalHomeworkCount);
-        
-        Map<String, List<ExerciseAttempt>> attemptsBySubject = attempts.stream()
-                .filter(attempt -> attempt.getExercise() != null 
-                        && attempt.getExercise().getExerciseType() != null)
-                .collect(Collectors.groupingBy(
-                        attempt -> attempt.getExercise().getExerciseType().getName()
-                ));
-        
-        List<WeeklyReportData.SubjectProgress> subjectProgressList = attemptsBySubject.entrySet().stream()
-                .map(entry -> {
-                    String subjectName = entry.getKey();
-                    List<ExerciseAttempt> subjectAttempts = entry.getValue();
-                    
-                    long subjectTotalProblems = subjectAttempts.stream()
-                            .mapToLong(attempt -> attempt.getTotalAttempts() != null ? attempt.getTotalAttempts() : 0L)
-                            .sum();
-                    
-                    long subjectTotalCorrect = subjectAttempts.stream()
-                            .mapToLong(attempt -> attempt.getTotalCorrect() != null ? attempt.getTotalCorrect() : 0L)
-                            .sum();
-                    
-                    int subjectAccuracyRate = subjectTotalProblems > 0 
-                            ? (int) Math.round((double) subjectTotalCorrect * 100.0 / subjectTotalProblems)
-                            : 0;
-                    
-                    long practiceTime = subjectAttempts.stream()
-                            .mapToLong(attempt -> {
-                                if (attempt.getStartedAt() != null && attempt.getCompletedAt() != null) {
-                                    return java.time.Duration.between(
-                                            attempt.getStartedAt(), 
-                                            attempt.getCompletedAt()
-                                    ).getSeconds();
-                                }
-                                return 0L;
-                            })
-                            .sum();
-                    
-                    return WeeklyReportData.SubjectProgress.builder()
-                            .subjectName(subjectName)
-                            .problemsSolved(subjectTotalProblems)
-                            .accuracyRate(subjectAccuracyRate)
-                            .practiceTimeSeconds(practiceTime)
-                            .build();
-                })
-                .sorted((a, b) -> Long.compare(b.getProblemsSolved(), a.getProblemsSolved()))
-                .collect(Collectors.toList());
-        
-        return WeeklyReportData.builder()
-                .studentFirstName(student.getUser().getFirstName())
-                .studentLastName(student.getUser().getLastName())
-                .weekStartDate(weekStartDate)
-                .weekEndDate(weekEndDate)
-                .problemsSolved(totalProblemsSolved)
-                .accuracyRate(accuracyRate)
-                .practiceTimeSeconds(totalPracticeTimeSeconds)
-                .currentStreak(currentStreak)
-                .completedHomeworkCount(completedHomeworkCount)
-                .totalHomeworkCount(totalHomeworkCount)
-                .subjectProgress(subjectProgressList)
-                .build();
+        return reports.get(0).data();
     }
-    
+
     @Override
-    @Transactional
     public void sendWeeklyReportsToAllGuardians() {
         logger.info("Starting weekly reports sending to all guardians");
-        
+
         LocalDate today = LocalDate.now();
         LocalDate weekStartDate = today;
-        while (weekStartDate.getDayOfWeek().getValue() != 1) { 
+        while (weekStartDate.getDayOfWeek().getValue() != 1) {
             weekStartDate = weekStartDate.minusDays(1);
         }
-        LocalDate weekEndDate = today; 
-        
+        LocalDate weekEndDate = today;
+        LocalDate reportWeekStart = weekStartDate;
+
         logger.info("Generating reports for week: {} to {}", weekStartDate, weekEndDate);
-        
-        List<Student> allStudents = studentRepository.findAll();
-        logger.info("Found {} students in total", allStudents.size());
-        
-        if (allStudents.isEmpty()) {
-            logger.warn("No students found in database");
-            return;
-        }
-        
-        int successCount = 0;
-        int errorCount = 0;
-        int skippedCount = 0;
-        
-        for (Student student : allStudents) {
-            try {
-                logger.debug("Processing student: {} {}",
-                        student.getUser().getFirstName(), student.getUser().getLastName());
-                
-                if (student.getGuardian() == null) {
-                    logger.warn("Student {} {} does not have a guardian, skipping",
-                            student.getUser().getFirstName(), student.getUser().getLastName());
-                    skippedCount++;
-                    continue;
-                }
-                
-                if (student.getGuardian().getEmail() == null || student.getGuardian().getEmail().trim().isEmpty()) {
-                    logger.warn("Student {} {} guardian does not have email, skipping",
-                            student.getUser().getFirstName(), student.getUser().getLastName());
-                    skippedCount++;
-                    continue;
-                }
-                
-                logger.info("Generating report for student: {} {}",
-                        student.getUser().getFirstName(), student.getUser().getLastName());
-                WeeklyReportData reportData = generateWeeklyReport(
-                        student.getId(), 
-                        weekStartDate, 
-                        weekEndDate
-                );
-                
-                String guardianEmail = student.getGuardian().getEmail();
-                String guardianFirstName = student.getGuardian().getFirstName();
-                
-                logger.info("Sending email to guardian: {} for student: {} {}",
-                        guardianEmail, student.getUser().getFirstName(), student.getUser().getLastName());
-                
-                emailService.sendWeeklyReport(guardianEmail, guardianFirstName, reportData);
-                successCount++;
-                
-                logger.info("Weekly report sent successfully to {} for student {} {}",
-                        guardianEmail, student.getUser().getFirstName(), student.getUser().getLastName());
-                
-            } catch (Exception e) {
-                errorCount++;
-                logger.error("Error sending weekly report for student {} {}: {}",
-                        student.getUser().getFirstName(), student.getUser().getLastName(), e.getMessage(), e);
+
+        AtomicInteger skippedCount = new AtomicInteger();
+
+        // Reports are only queued here; EmailOutboxDispatcher delivers them. Each chunk queues its emails in
+        // the same transaction as its checkpoint, so a re-run on the same day resumes where the last one stopped
+        ChunkedJobExecutor.Result result = chunkedJobExecutor.run(WEEKLY_REPORT_JOB_NAME, today,
+                studentRepository.findAllIds(),
+                chunk -> queueReportsForChunk(chunk, reportWeekStart, weekEndDate, skippedCount));
+
+        logger.info("Weekly reports queued: {}, skipped: {}, already queued: {}, failed chunks: {}",
+                result.processed(), skippedCount.get(), result.skippedIds(), result.failedChunks());
+    }
+
+    private int queueReportsForChunk(List<UUID> studentIds, LocalDate weekStartDate, LocalDate weekEndDate,
+                                     AtomicInteger skippedCount) {
+        int queued = 0;
+        for (Report report : buildReports(studentIds, weekStartDate, weekEndDate)) {
+            WeeklyReportData data = report.data();
+            if (report.guardianEmail() == null || report.guardianEmail().trim().isEmpty()) {
+                logger.warn("Student {} {} guardian does not have email, skipping",
+                        data.getStudentFirstName(), data.getStudentLastName());
+                skippedCount.incrementAndGet();
+                continue;
             }
+            String dedupKey = WEEKLY_REPORT_JOB_NAME + ":" + weekStartDate + ":" + report.studentId();
+            emailService.queueWeeklyReport(dedupKey, report.guardianEmail(), report.guardianFirstName(), data);
+            queued++;
+        }
+        return queued;
+    }
+
+    private List<Report> buildReports(List<UUID> studentIds, LocalDate weekStartDate, LocalDate weekEndDate) {
+        ZoneId zone = ZoneId.systemDefault();
+        ZonedDateTime weekStart = weekStartDate.atStartOfDay(zone);
+        ZonedDateTime weekEnd = weekEndDate.plusDays(1).atStartOfDay(zone);
+
+        // row = [student_id, exercise_type name, attempts, correct, seconds]
+        Map<UUID, List<WeeklyReportData.SubjectProgress>> subjectsByStudent = new HashMap<>();
+        for (Object[] row : exerciseAttemptRepository.sumCompletedAttemptsBySubject(studentIds, weekStart, weekEnd)) {
+            long problems = toLong(row[2]);
+            subjectsByStudent.computeIfAbsent((UUID) row[0], id -> new ArrayList<>())
+                    .add(WeeklyReportData.SubjectProgress.builder()
+                            .subjectName((String) row[1])
+                            .problemsSolved(problems)
+                            .accuracyRate(accuracy(toLong(row[3]), problems))
+                            .practiceTimeSeconds(toLong(row[4]))
+                            .build());
         }
-        
-        logger.info("Weekly reports sending completed. Success: {}, Errors: {}, Skipped: {}",
-                successCount, errorCount, skippedCount);
+
+        LocalDate today = LocalDate.now(zone);
+        List<Object[]> rows = studentRepository.findWeeklyReportRows(studentIds, weekStart, weekEnd,
+                today.minusDays(MAX_STREAK_DAYS - 1).atStartOfDay(zone), today, zone.getId());
+        List<Report> reports = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            UUID studentId = (UUID) row[0];
+            List<WeeklyReportData.SubjectProgress> subjects = subjectsByStudent.getOrDefault(studentId, new ArrayList<>());
+            subjects.sort(Comparator.comparing(WeeklyReportData.SubjectProgress::getProblemsSolved).reversed());
+
+            long problems = toLong(row[5]);
+            WeeklyReportData data = WeeklyReportData.builder()
+                    .studentFirstName((String) row[1])
+                    .studentLastName((String) row[2])
+                    .weekStartDate(weekStartDate)
+                    .weekEndDate(weekEndDate)
+                    .problemsSolved(problems)
+                    .accuracyRate(accuracy(toLong(row[6]), problems))
+                    .practiceTimeSeconds(toLong(row[7]))
+                    .currentStreak(((Number) row[8]).intValue())
+                    .completedHomeworkCount(((Number) row[9]).intValue())
+                    .totalHomeworkCount(((Number) row[10]).intValue())
+                    .subjectProgress(subjects)
+                    .build();
+            reports.add(new Report(studentId, (String) row[3], (String) row[4], data));
+        }
+        return reports;
+    }
+
+    private static long toLong(Object value) {
+        return value == null ? 0L : ((Number) value).longValue();
+    }
+
+    private static int accuracy(long correct, long attempts) {
+        return attempts > 0 ? (int) Math.round(correct * 100.0 / attempts) : 0;
     }
-}
\ No newline at end of file
+}
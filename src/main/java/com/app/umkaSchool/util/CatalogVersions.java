@@ -0,0 +1,146 @@
+package com.app.umkaSchool.util;
+
+import com.app.umkaSchool.repository.AchievementRepository;
+import com.app.umkaSchool.repository.DailyChallengeRepository;
+import com.app.umkaSchool.repository.ExerciseTypeRepository;
+import com.app.umkaSchool.repository.HomeworkRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Versions of rarely changing catalogs, used as strong ETags on their read endpoints.
+ * <p>
+ * A version is a fingerprint of the catalog's rows read from the database, so every instance derives the
+ * same tag from the same data and tags survive restarts. Each instance caches the fingerprint for a short
+ * TTL, which bounds how long it can miss a write made through another instance; services bump a catalog
+ * after their own writes commit so this instance picks the change up at once. A conditional GET whose
+ * {@code If-None-Match} still matches is answered with 304 before the service is called, so it costs no
+ * serialization and at most one fingerprint query per TTL.
+ */
+@Component
+public class CatalogVersions {
+
+    public enum Catalog { EXERCISE_TYPES, ACHIEVEMENTS, DAILY_CHALLENGES, HOMEWORK }
+
+    /**
+     * A fingerprint with the bump generation it was read under; {@code fingerprint} is null once bumped.
+     */
+    private record Version(long generation, String fingerprint, long loadedAtNanos) {
+    }
+
+    private final Function<Catalog, String> fingerprints;
+    private final long ttlNanos;
+    private final Map<Catalog, AtomicReference<Version>> versions = new EnumMap<>(Catalog.class);
+
+    @Autowired
+    public CatalogVersions(ExerciseTypeRepository exerciseTypeRepository,
+                           AchievementRepository achievementRepository,
+                           DailyChallengeRepository dailyChallengeRepository,
+                           HomeworkRepository homeworkRepository,
+                           @Value("${catalog.versions.ttl-ms:5000}") long ttlMillis) {
+        this(catalog -> switch (catalog) {
+            case EXERCISE_TYPES -> exerciseTypeRepository.findCatalogFingerprint();
+            case ACHIEVEMENTS -> achievementRepository.findCatalogFingerprint();
+            case DAILY_CHALLENGES -> dailyChallengeRepository.findCatalogFingerprint();
+            case HOMEWORK -> homeworkRepository.findCatalogFingerprint();
+        }, ttlMillis);
+    }
+
+    CatalogVersions(Function<Catalog, String> fingerprints, long ttlMillis) {
+        this.fingerprints = fingerprints;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        for (Catalog catalog : Catalog.values()) {
+            versions.put(catalog, new AtomicReference<>(new Version(0, null, 0)));
+        }
+    }
+
+    public String etag(Catalog catalog) {
+        return etag(catalog, null);
+    }
+
+    /**
+     * @param qualifier extra state the response depends on besides the catalog itself, such as today's date
+     */
+    public String etag(Catalog catalog, String qualifier) {
+        StringBuilder tag = new StringBuilder("\"")
+                .append(catalog.name().toLowerCase())
+                .append('-').append(fingerprint(catalog));
+        if (qualifier != null) {
+            tag.append('-').append(qualifier);
+        }
+        return tag.append('"').toString();
+    }
+
+    /**
+     * Bumps the given catalogs once the current transaction commits, or right away outside a transaction.
+     * Bumping earlier would let a concurrent read cache the fingerprint of the old data again.
+     */
+    public void bumpAfterCommit(Catalog... catalogs) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(catalogs);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bump(catalogs);
+            }
+        });
+    }
+
+    /**
+     * Answers 304 if the request already holds the current version, otherwise builds the body and tags it.
+     * Responses are private and must be revalidated, so browsers keep them but always send If-None-Match.
+     */
+    public <T> ResponseEntity<T> conditional(WebRequest request, String etag, Supplier<T> body) {
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(body.get());
+    }
+
+    /**
+     * Returns the cached fingerprint, reading it again once it is older than the TTL or was bumped. A read
+     * that raced with a bump is discarded and repeated, since it may have seen the data from before the write.
+     */
+    private String fingerprint(Catalog catalog) {
+        AtomicReference<Version> ref = versions.get(catalog);
+        while (true) {
+            Version current = ref.get();
+            long now = System.nanoTime();
+            if (current.fingerprint() != null && now - current.loadedAtNanos() < ttlNanos) {
+                return current.fingerprint();
+            }
+            Version loaded = new Version(current.generation(), fingerprints.apply(catalog), now);
+            if (ref.compareAndSet(current, loaded)) {
+                return loaded.fingerprint();
+            }
+            Version winner = ref.get();
+            if (winner.generation() == current.generation() && winner.fingerprint() != null) {
+                return winner.fingerprint();
+            }
+        }
+    }
+
+    private void bump(Catalog... catalogs) {
+        for (Catalog catalog : catalogs) {
+            versions.get(catalog).updateAndGet(version -> new Version(version.generation() + 1, null, 0));
+        }
+    }
+}
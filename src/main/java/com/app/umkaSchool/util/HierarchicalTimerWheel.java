@@ -0,0 +1,139 @@
+package com.app.umkaSchool.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hierarchical timer wheel keyed by an arbitrary timer key.
+ * <p>
+ * Level 0 has one bucket per tick; each level above covers {@code 2^wheelBits} buckets of the level below.
+ * A timer is placed on the lowest level whose current window contains its deadline and cascades one level
+ * down each time the clock enters its bucket, so scheduling, cancelling and expiring are all O(1) per timer
+ * and {@link #advance(long)} only touches buckets that are due. Deadlines past the top level wait in an
+ * overflow set that is re-sorted once per top-level rotation.
+ * <p>
+ * Deadlines are rounded up to the next tick, so a timer never fires early. All methods are synchronized.
+ */
+public class HierarchicalTimerWheel<K> {
+
+    private record Timer(long deadlineTick, int level, int slot) {
+    }
+
+    private static final int OVERFLOW = -1;
+    private static final int DUE = -2;
+
+    private final long tickMillis;
+    private final int wheelBits;
+    private final int levels;
+    private final long slotMask;
+    private final List<List<Set<K>>> wheels = new ArrayList<>();
+    private final Set<K> overflow = new HashSet<>();
+    private final List<K> due = new ArrayList<>();
+    private final Map<K, Timer> timers = new HashMap<>();
+    private long currentTick;
+
+    public HierarchicalTimerWheel(long tickMillis, int wheelBits, int levels, long startMillis) {
+        if (tickMillis <= 0 || wheelBits <= 0 || levels <= 0 || (long) wheelBits * levels >= 63) {
+            throw new IllegalArgumentException("Invalid timer wheel dimensions");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelBits = wheelBits;
+        this.levels = levels;
+        this.slotMask = (1L << wheelBits) - 1;
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+        for (int level = 0; level < levels; level++) {
+            List<Set<K>> wheel = new ArrayList<>(1 << wheelBits);
+            for (int slot = 0; slot < 1 << wheelBits; slot++) {
+                wheel.add(new HashSet<>());
+            }
+            wheels.add(wheel);
+        }
+    }
+
+    /**
+     * Schedules {@code key} to expire at {@code deadlineMillis}, replacing any timer already set for it.
+     * A deadline that has already passed expires on the next {@link #advance(long)}.
+     */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        long deadlineTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        if (deadlineTick <= currentTick) {
+            due.add(key);
+            timers.put(key, new Timer(deadlineTick, DUE, DUE));
+            return;
+        }
+        place(key, deadlineTick);
+    }
+
+    public synchronized boolean cancel(K key) {
+        Timer timer = timers.remove(key);
+        if (timer == null) {
+            return false;
+        }
+        switch (timer.level()) {
+            case OVERFLOW -> overflow.remove(key);
+            case DUE -> due.remove(key);
+            default -> wheels.get(timer.level()).get(timer.slot()).remove(key);
+        }
+        return true;
+    }
+
+    /**
+     * Moves the clock forward to {@code nowMillis} and returns the keys whose deadline has been reached,
+     * in expiry order. Moving backwards is a no-op.
+     */
+    public synchronized List<K> advance(long nowMillis) {
+        List<K> expired = new ArrayList<>(due);
+        due.clear();
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < targetTick) {
+            currentTick++;
+            if ((currentTick & ((1L << wheelBits * levels) - 1)) == 0) {
+                List<K> waiting = new ArrayList<>(overflow);
+                overflow.clear();
+                waiting.forEach(key -> place(key, timers.get(key).deadlineTick()));
+            }
+            // Cascade from the top so a timer can drop several levels within one tick
+            for (int level = levels - 1; level > 0; level--) {
+                if ((currentTick & ((1L << wheelBits * level) - 1)) == 0) {
+                    cascade(level, (int) ((currentTick >>> wheelBits * level) & slotMask));
+                }
+            }
+            Set<K> bucket = wheels.get(0).get((int) (currentTick & slotMask));
+            expired.addAll(bucket);
+            bucket.clear();
+        }
+        expired.forEach(timers::remove);
+        return expired;
+    }
+
+    public synchronized int size() {
+        return timers.size();
+    }
+
+    private void cascade(int level, int slot) {
+        Set<K> bucket = wheels.get(level).get(slot);
+        List<K> moving = new ArrayList<>(bucket);
+        bucket.clear();
+        moving.forEach(key -> place(key, timers.get(key).deadlineTick()));
+    }
+
+    private void place(K key, long deadlineTick) {
+        // Lowest level whose enclosing window (one level up) is the one the clock is in now
+        for (int level = 0; level < levels; level++) {
+            int shift = wheelBits * (level + 1);
+            if ((deadlineTick >>> shift) == (currentTick >>> shift)) {
+                int slot = (int) ((deadlineTick >>> wheelBits * level) & slotMask);
+                wheels.get(level).get(slot).add(key);
+                timers.put(key, new Timer(deadlineTick, level, slot));
+                return;
+            }
+        }
+        overflow.add(key);
+        timers.put(key, new Timer(deadlineTick, OVERFLOW, OVERFLOW));
+    }
+}
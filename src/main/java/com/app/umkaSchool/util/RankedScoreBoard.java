@@ -0,0 +1,210 @@
+package com.app.umkaSchool.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * In-memory ranking of students by score, highest first.
+ * <p>
+ * Entries are kept in a skip list ordered by (score desc, studentId), so a score change is a remove plus
+ * an insert, both O(log n). A second index counts students per score in a treap whose nodes know the size
+ * of their subtree, so a student's rank is found in O(log n) without walking the students above them.
+ * Writers are serialized per board; {@link #top} never blocks and sees a weakly consistent view, while
+ * {@link #rankOf} briefly takes the board's lock. Students with equal scores share a rank (1, 1, 3, ...).
+ */
+public class RankedScoreBoard {
+
+    private record Entry(long score, UUID studentId) {
+    }
+
+    public record Ranked(int rank, UUID studentId, long score) {
+    }
+
+    private static final Comparator<Entry> ORDER = Comparator.comparingLong(Entry::score).reversed()
+            .thenComparing(Entry::studentId);
+
+    private final ConcurrentSkipListSet<Entry> ranking = new ConcurrentSkipListSet<>(ORDER);
+    private final Map<UUID, Long> scores = new ConcurrentHashMap<>();
+    private final ScoreCounts scoreCounts = new ScoreCounts();
+
+    /**
+     * Adds {@code delta} to the student's score, creating the entry if needed.
+     * @return the new score
+     */
+    public synchronized long add(UUID studentId, long delta) {
+        Long previous = scores.get(studentId);
+        long updated = (previous == null ? 0L : previous) + delta;
+        if (previous != null) {
+            ranking.remove(new Entry(previous, studentId));
+            scoreCounts.add(previous, -1);
+        }
+        scores.put(studentId, updated);
+        ranking.add(new Entry(updated, studentId));
+        scoreCounts.add(updated, 1);
+        return updated;
+    }
+
+    public synchronized void remove(UUID studentId) {
+        Long previous = scores.remove(studentId);
+        if (previous != null) {
+            ranking.remove(new Entry(previous, studentId));
+            scoreCounts.add(previous, -1);
+        }
+    }
+
+    public List<Ranked> top(int limit) {
+        List<Ranked> result = new ArrayList<>(Math.min(limit, ranking.size()));
+        Iterator<Entry> iterator = ranking.iterator();
+        int position = 0;
+        int rank = 0;
+        long previousScore = Long.MIN_VALUE;
+        while (iterator.hasNext() && result.size() < limit) {
+            Entry entry = iterator.next();
+            position++;
+            if (position == 1 || entry.score() != previousScore) {
+                rank = position;
+                previousScore = entry.score();
+            }
+            result.add(new Ranked(rank, entry.studentId(), entry.score()));
+        }
+        return result;
+    }
+
+    /**
+     * Rank of one student: one more than the number of students with a strictly higher score, in O(log n).
+     */
+    public synchronized Optional<Ranked> rankOf(UUID studentId) {
+        Long score = scores.get(studentId);
+        if (score == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new Ranked(scoreCounts.countAbove(score) + 1, studentId, score));
+    }
+
+    public int size() {
+        return scores.size();
+    }
+
+    /**
+     * Number of students per distinct score, in a treap ordered by score. Each node also holds the number
+     * of students in its subtree, so counting the students above a score follows a single root-to-leaf path.
+     * Not thread-safe; guarded by the board's lock.
+     */
+    private static final class ScoreCounts {
+
+        private static final class Node {
+            final long score;
+            final int priority = ThreadLocalRandom.current().nextInt();
+            int count;
+            int size;
+            Node left;
+            Node right;
+
+            Node(long score) {
+                this.score = score;
+            }
+        }
+
+        private Node root;
+
+        void add(long score, int delta) {
+            root = add(root, score, delta);
+        }
+
+        int countAbove(long score) {
+            int above = 0;
+            Node node = root;
+            while (node != null) {
+                if (score < node.score) {
+                    above += node.count + size(node.right);
+                    node = node.left;
+                } else if (score > node.score) {
+                    node = node.right;
+                } else {
+                    above += size(node.right);
+                    break;
+                }
+            }
+            return above;
+        }
+
+        private static Node add(Node node, long score, int delta) {
+            if (node == null) {
+                Node created = new Node(score);
+                created.count = delta;
+                created.size = delta;
+                return created;
+            }
+            if (score == node.score) {
+                node.count += delta;
+                if (node.count == 0) {
+                    return merge(node.left, node.right);
+                }
+            } else if (score < node.score) {
+                node.left = add(node.left, score, delta);
+                if (node.left != null && node.left.priority > node.priority) {
+                    node = rotateRight(node);
+                }
+            } else {
+                node.right = add(node.right, score, delta);
+                if (node.right != null && node.right.priority > node.priority) {
+                    node = rotateLeft(node);
+                }
+            }
+            update(node);
+            return node;
+        }
+
+        // Joins two treaps where every score in the first is lower than every score in the second
+        private static Node merge(Node lower, Node higher) {
+            if (lower == null) {
+                return higher;
+            }
+            if (higher == null) {
+                return lower;
+            }
+            if (lower.priority > higher.priority) {
+                lower.right = merge(lower.right, higher);
+                update(lower);
+                return lower;
+            }
+            higher.left = merge(lower, higher.left);
+            update(higher);
+            return higher;
+        }
+
+        private static Node rotateRight(Node node) {
+            Node pivot = node.left;
+            node.left = pivot.right;
+            pivot.right = node;
+            update(node);
+            update(pivot);
+            return pivot;
+        }
+
+        private static Node rotateLeft(Node node) {
+            Node pivot = node.right;
+            node.right = pivot.left;
+            pivot.left = node;
+            update(node);
+            update(pivot);
+            return pivot;
+        }
+
+        private static void update(Node node) {
+            node.size = node.count + size(node.left) + size(node.right);
+        }
+
+        private static int size(Node node) {
+            return node == null ? 0 : node.size;
+        }
+    }
+}
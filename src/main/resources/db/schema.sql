@@ -115,6 +115,8 @@ CREATE TABLE daily_challenge_exercise (
     PRIMARY KEY (daily_challenge_id, exercise_id)
 );
 
+CREATE INDEX idx_daily_challenge_exercise_exercise ON daily_challenge_exercise (exercise_id);
+
 -- Table: homework
 CREATE TABLE homework (
     homework_id uuid PRIMARY KEY DEFAULT gen_random_uuid(),
@@ -134,6 +136,8 @@ CREATE TABLE homework_exercise (
     PRIMARY KEY (homework_id, exercise_id)
 );
 
+CREATE INDEX idx_homework_exercise_exercise ON homework_exercise (exercise_id);
+
 -- Table: homework_assignment
 CREATE TABLE homework_assignment (
     homework_assignment_id uuid PRIMARY KEY DEFAULT gen_random_uuid(),
@@ -141,9 +145,13 @@ CREATE TABLE homework_assignment (
     teacher_id uuid REFERENCES teacher(teacher_id) ON DELETE SET NULL,
     assigned_at timestamptz NOT NULL DEFAULT now(),
     due_date timestamptz NOT NULL,
-    homework_assignment_status homework_status NOT NULL DEFAULT 'PENDING'
+    homework_assignment_status homework_status NOT NULL DEFAULT 'PENDING',
+    assigned_count int NOT NULL DEFAULT 0,
+    completed_count int NOT NULL DEFAULT 0
 );
 
+CREATE INDEX idx_homework_assignment_due_date ON homework_assignment (due_date);
+
 -- Table: homework_assignment_student_group
 CREATE TABLE homework_assignment_student_group (
     homework_assignment_id uuid NOT NULL REFERENCES homework_assignment(homework_assignment_id) ON DELETE CASCADE,
@@ -151,13 +159,21 @@ CREATE TABLE homework_assignment_student_group (
     PRIMARY KEY (homework_assignment_id, student_group_id)
 );
 
+CREATE INDEX idx_homework_assignment_student_group_group ON homework_assignment_student_group (student_group_id);
+
 -- Table: homework_assignment_student
 CREATE TABLE homework_assignment_student (
     homework_assignment_id uuid NOT NULL REFERENCES homework_assignment(homework_assignment_id) ON DELETE CASCADE,
     student_id uuid NOT NULL REFERENCES student(student_id) ON DELETE CASCADE,
+    homework_assignment_status homework_status NOT NULL DEFAULT 'PENDING',
+    student_group_id uuid REFERENCES student_group(student_group_id) ON DELETE CASCADE,
+    -- Bit n set = exercise with order_index n completed; NULL until first computed from exercise_attempt
+    completed_exercises bigint,
     PRIMARY KEY (homework_assignment_id, student_id)
 );
 
+CREATE INDEX idx_homework_assignment_student_student ON homework_assignment_student (student_id);
+
 -- Table: exercise_attempt
 CREATE TABLE exercise_attempt (
     attempt_id uuid PRIMARY KEY DEFAULT gen_random_uuid(),
@@ -171,6 +187,9 @@ CREATE TABLE exercise_attempt (
     total_correct bigint NOT NULL DEFAULT 0
 );
 
+CREATE INDEX idx_exercise_attempt_student_exercise ON exercise_attempt (student_id, exercise_id);
+CREATE INDEX idx_exercise_attempt_student_completed ON exercise_attempt (student_id, completed_at);
+
 -- Table: achievement
 CREATE TABLE achievement (
     achievement_id uuid PRIMARY KEY DEFAULT gen_random_uuid(),
@@ -202,6 +221,8 @@ CREATE TABLE progress_snapshot (
        created_at timestamptz NOT NULL DEFAULT now()
 );
 
+CREATE INDEX idx_progress_snapshot_student_date ON progress_snapshot (student_id, snapshot_date DESC);
+
 -- Table: user_token
 CREATE TABLE user_token (
     token_id uuid PRIMARY KEY DEFAULT gen_random_uuid(),
@@ -213,4 +234,50 @@ CREATE TABLE user_token (
     is_used boolean DEFAULT false
 );
 
+-- Table: batch_job_checkpoint
+CREATE TABLE batch_job_checkpoint (
+    job_name varchar(64) NOT NULL,
+    run_date date NOT NULL,
+    range_start uuid NOT NULL,
+    range_end uuid NOT NULL,
+    -- Exact ids the chunk covered; ids added inside the range later are still pending
+    processed_ids uuid[] NOT NULL,
+    processed_count int NOT NULL DEFAULT 0,
+    completed_at timestamptz NOT NULL DEFAULT now(),
+    PRIMARY KEY (job_name, run_date, range_start)
+);
+
+-- Table: daily_challenge_stats
+-- Participation counters per challenge exercise, accumulated in memory and added here every few seconds
+CREATE TABLE daily_challenge_stats (
+    daily_challenge_id uuid NOT NULL REFERENCES daily_challenge(daily_challenge_id) ON DELETE CASCADE,
+    exercise_id uuid NOT NULL REFERENCES exercise(exercise_id) ON DELETE CASCADE,
+    attempts bigint NOT NULL DEFAULT 0,
+    completions bigint NOT NULL DEFAULT 0,
+    answers bigint NOT NULL DEFAULT 0,
+    correct_answers bigint NOT NULL DEFAULT 0,
+    total_score bigint NOT NULL DEFAULT 0,
+    updated_at timestamptz NOT NULL DEFAULT now(),
+    PRIMARY KEY (daily_challenge_id, exercise_id)
+);
+
+-- Table: email_outbox
+-- Emails queued for background delivery; senders claim due rows with FOR UPDATE SKIP LOCKED.
+-- dedup_key makes queueing idempotent, so a re-run of a job never queues the same email twice.
+CREATE TABLE email_outbox (
+    email_outbox_id uuid PRIMARY KEY DEFAULT gen_random_uuid(),
+    dedup_key varchar(200) UNIQUE NOT NULL,
+    recipient varchar(255) NOT NULL,
+    subject varchar(500) NOT NULL,
+    html_content text NOT NULL,
+    status varchar(20) NOT NULL DEFAULT 'PENDING' CHECK (status IN ('PENDING', 'SENDING', 'SENT', 'FAILED')),
+    attempts int NOT NULL DEFAULT 0,
+    next_attempt_at timestamptz NOT NULL DEFAULT now(),
+    last_error text,
+    created_at timestamptz NOT NULL DEFAULT now(),
+    sent_at timestamptz
+);
+
+CREATE INDEX idx_email_outbox_due ON email_outbox (next_attempt_at) WHERE status IN ('PENDING', 'SENDING');
+
 -- End of file.
\ No newline at end of file
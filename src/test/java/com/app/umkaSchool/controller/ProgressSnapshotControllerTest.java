@@ -130,6 +130,32 @@ class ProgressSnapshotControllerTest extends TestContainersConfiguration {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void getProgressTimeSeries_ShouldReturnZeroFilledBuckets() throws Exception {
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(6);
+
+        mockMvc.perform(get("/api/progress-snapshots/student/" + studentId + "/timeseries")
+                        .param("from", from.toString())
+                        .param("to", to.toString())
+                        .param("bucket", "day")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dates.length()").value(7))
+                .andExpect(jsonPath("$.attempts.length()").value(7))
+                .andExpect(jsonPath("$.attempts[0]").value(0));
+    }
+
+    @Test
+    void getProgressTimeSeries_WithInvalidBucket_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/progress-snapshots/student/" + studentId + "/timeseries")
+                        .param("bucket", "year")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void getSnapshotsByStudent_WithInvalidStudentId_ShouldReturnNotFound() throws Exception {
         UUID invalidId = UUID.randomUUID();
@@ -1,37 +1,74 @@
 package com.app.umkaSchool.service;
 
+import com.app.umkaSchool.dto.achievement.AchievementBackfillResponse;
 import com.app.umkaSchool.dto.achievement.AchievementResponse;
+import com.app.umkaSchool.dto.achievement.CreateAchievementRequest;
+import com.app.umkaSchool.event.AchievementAwardedEvent;
 import com.app.umkaSchool.model.Achievement;
+import com.app.umkaSchool.model.ExerciseAttempt;
+import com.app.umkaSchool.model.Student;
 import com.app.umkaSchool.model.StudentAchievement;
 import com.app.umkaSchool.model.StudentAchievementId;
 import com.app.umkaSchool.repository.AchievementRepository;
 import com.app.umkaSchool.repository.StudentAchievementRepository;
+import com.app.umkaSchool.repository.StudentRepository;
 import com.app.umkaSchool.service.ProgressSnapshotService;
+import com.app.umkaSchool.service.achievement.AchievementCatalog;
+import com.app.umkaSchool.service.achievement.AchievementCriteria;
+import com.app.umkaSchool.service.achievement.AchievementCriteriaCompiler;
+import com.app.umkaSchool.service.achievement.AchievementThresholdIndex;
+import com.app.umkaSchool.service.achievement.StudentMetrics;
 import com.app.umkaSchool.service.impl.AchievementServiceImpl;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.app.umkaSchool.service.impl.AchievementStreamHub;
+import com.app.umkaSchool.service.impl.ChunkedJobExecutor;
+import com.app.umkaSchool.util.CatalogVersions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 @ActiveProfiles("test")
 class AchievementServiceTest {
 
+    @Mock
+    private AchievementCatalog achievementCatalog;
+
     @Mock
     private AchievementRepository achievementRepository;
 
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Mock
+    private ChunkedJobExecutor chunkedJobExecutor;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private AchievementStreamHub achievementStreamHub;
+
     @Mock
     private StudentAchievementRepository studentAchievementRepository;
 
@@ -39,7 +76,13 @@ class AchievementServiceTest {
     private ProgressSnapshotService progressSnapshotService;
 
     @Mock
-    private ObjectMapper objectMapper;
+    private AchievementCriteriaCompiler criteriaCompiler;
+
+    @Mock
+    private AchievementThresholdIndex thresholdIndex;
+
+    @Mock
+    private CatalogVersions catalogVersions;
 
     @InjectMocks
     private AchievementServiceImpl achievementService;
@@ -72,13 +115,16 @@ class AchievementServiceTest {
 
     @Test
     void getAllAchievements_ShouldReturnList() {
-        when(achievementRepository.findAll()).thenReturn(List.of(testAchievement));
+        when(achievementCatalog.getAll()).thenReturn(List.of(AchievementResponse.builder()
+                .id(achievementId)
+                .name(testAchievement.getName())
+                .build()));
 
         List<AchievementResponse> result = achievementService.getAllAchievements();
 
         assertNotNull(result);
         assertFalse(result.isEmpty());
-        verify(achievementRepository).findAll();
+        verify(achievementCatalog).getAll();
     }
 
     @Test
@@ -93,12 +139,117 @@ class AchievementServiceTest {
 
     @Test
     void getRecentStudentAchievements_ShouldReturnList() {
-        when(studentAchievementRepository.findByStudent_Id(studentId)).thenReturn(List.of(testStudentAchievement));
+        when(studentAchievementRepository.findRecentByStudentId(eq(studentId), any(ZonedDateTime.class)))
+                .thenReturn(List.of(testStudentAchievement));
 
         List<AchievementResponse> result = achievementService.getRecentStudentAchievements(studentId, 24);
 
         assertNotNull(result);
-        verify(studentAchievementRepository).findByStudent_Id(studentId);
+        assertTrue(result.get(0).getIsNew());
+        verify(studentAchievementRepository).findRecentByStudentId(eq(studentId), any(ZonedDateTime.class));
+        verify(studentAchievementRepository, never()).findByStudent_Id(any());
+    }
+
+    @Test
+    void checkAndAward_ShouldInsertOnlyUnearnedMatchingAchievementsInOneBatch() {
+        UUID earnedId = UUID.randomUUID();
+        UUID unmetId = UUID.randomUUID();
+        Student student = new Student();
+        student.setId(studentId);
+        ExerciseAttempt attempt = new ExerciseAttempt();
+
+        List<AchievementResponse> catalogue = List.of(
+                AchievementResponse.builder().id(achievementId).name("New").requiredCriteria("{}").build(),
+                AchievementResponse.builder().id(earnedId).name("Earned").requiredCriteria("{}").build(),
+                AchievementResponse.builder().id(unmetId).name("Unmet").requiredCriteria("{}").build());
+        when(achievementCatalog.getAll()).thenReturn(catalogue);
+        when(thresholdIndex.candidates(eq(studentId), eq(catalogue), any())).thenReturn(catalogue);
+        when(studentAchievementRepository.findAchievementIdsByStudentId(studentId)).thenReturn(Set.of(earnedId));
+        when(progressSnapshotService.getSnapshotForDate(eq(student), any())).thenReturn(Optional.empty());
+        when(criteriaCompiler.criteriaFor(achievementId, "{}")).thenReturn(new AchievementCriteria.AllOf(List.of()));
+        when(criteriaCompiler.criteriaFor(unmetId, "{}")).thenReturn(new AchievementCriteria.Never());
+        when(studentAchievementRepository.insertIgnoringExisting(studentId, List.of(achievementId)))
+                .thenReturn(List.of(achievementId));
+
+        achievementService.checkAndAward(student, attempt);
+
+        verify(studentAchievementRepository).insertIgnoringExisting(studentId, List.of(achievementId));
+        verify(criteriaCompiler, never()).criteriaFor(eq(earnedId), any());
+        verify(studentAchievementRepository, never()).existsByStudent_IdAndAchievement_Id(any(), any());
+        verify(thresholdIndex).rememberAfterCommit(studentId, StudentMetrics.EMPTY);
+        verify(eventPublisher).publishEvent(argThat((AchievementAwardedEvent event) ->
+                event.studentId().equals(studentId) && event.achievements().size() == 1
+                        && event.achievements().get(0).getId().equals(achievementId)));
+    }
+
+    @Test
+    void checkAndAward_ShouldAnnounceOnlyAchievementsThisCheckInserted() {
+        UUID raceId = UUID.randomUUID();
+        Student student = new Student();
+        student.setId(studentId);
+
+        List<AchievementResponse> catalogue = List.of(
+                AchievementResponse.builder().id(achievementId).name("New").requiredCriteria("{}").build(),
+                AchievementResponse.builder().id(raceId).name("Raced").requiredCriteria("{}").build());
+        when(achievementCatalog.getAll()).thenReturn(catalogue);
+        when(thresholdIndex.candidates(eq(studentId), eq(catalogue), any())).thenReturn(catalogue);
+        when(studentAchievementRepository.findAchievementIdsByStudentId(studentId)).thenReturn(Set.of());
+        when(progressSnapshotService.getSnapshotForDate(eq(student), any())).thenReturn(Optional.empty());
+        when(criteriaCompiler.criteriaFor(any(), eq("{}"))).thenReturn(new AchievementCriteria.AllOf(List.of()));
+        // A concurrent check awarded raceId between reading earned ids and inserting
+        when(studentAchievementRepository.insertIgnoringExisting(studentId, List.of(achievementId, raceId)))
+                .thenReturn(List.of(achievementId));
+
+        achievementService.checkAndAward(student, new ExerciseAttempt());
+
+        verify(eventPublisher).publishEvent(argThat((AchievementAwardedEvent event) ->
+                event.achievements().size() == 1 && event.achievements().get(0).getId().equals(achievementId)));
+    }
+
+    @Test
+    void createAchievement_ShouldRejectInvalidCriteria() {
+        CreateAchievementRequest request = new CreateAchievementRequest();
+        request.setName("Broken");
+        request.setIconUrl("/icons/broken.png");
+        request.setRequiredCriteria("not json");
+        when(criteriaCompiler.parse("not json")).thenThrow(new IllegalArgumentException("Invalid achievement criteria JSON"));
+
+        assertThrows(IllegalArgumentException.class, () -> achievementService.createAchievement(request));
+        verify(achievementRepository, never()).save(any());
     }
-}
 
+    @Test
+    void backfillAchievement_ShouldAwardMatchingStudentsPerChunkInTheBackground() {
+        testAchievement.setRequiredCriteria("{\"totalAttempts\": 10}");
+        AchievementCriteria criteria = new AchievementCriteria.Threshold(AchievementCriteria.Metric.TOTAL_ATTEMPTS, 10);
+        List<UUID> studentIds = List.of(studentId, UUID.randomUUID());
+        when(achievementRepository.findById(achievementId)).thenReturn(Optional.of(testAchievement));
+        when(criteriaCompiler.criteriaFor(achievementId, "{\"totalAttempts\": 10}")).thenReturn(criteria);
+        when(studentRepository.findAllIds()).thenReturn(studentIds);
+        when(studentAchievementRepository.awardMatching(achievementId, criteria, studentIds)).thenReturn(1);
+        CompletableFuture<ChunkedJobExecutor.Result> job = new CompletableFuture<>();
+        when(chunkedJobExecutor.runAsync(startsWith("backfill-" + achievementId), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    Supplier<List<UUID>> ids = invocation.getArgument(2);
+                    ToIntFunction<List<UUID>> work = invocation.getArgument(3);
+                    int processed = work.applyAsInt(ids.get());
+                    return job.thenApply(ignored -> new ChunkedJobExecutor.Result(studentIds.size(), 0, 1, 0, processed));
+                });
+
+        AchievementBackfillResponse started = achievementService.backfillAchievement(achievementId);
+
+        assertEquals("RUNNING", started.getStatus());
+        assertNull(started.getStudentsAwarded());
+        // A second request while the first runs reports it instead of starting another job
+        assertSame(started, achievementService.backfillAchievement(achievementId));
+        verify(chunkedJobExecutor, times(1)).runAsync(any(), any(), any(), any());
+
+        job.complete(null);
+
+        AchievementBackfillResponse finished = achievementService.getBackfillStatus(achievementId);
+        assertEquals("COMPLETED", finished.getStatus());
+        assertEquals(1, finished.getStudentsAwarded());
+        assertEquals(2, finished.getStudentsChecked());
+        assertEquals(0, finished.getFailedChunks());
+    }
+}
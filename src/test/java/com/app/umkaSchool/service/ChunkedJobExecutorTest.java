@@ -0,0 +1,119 @@
+package com.app.umkaSchool.service;
+
+import com.app.umkaSchool.model.BatchJobCheckpoint;
+import com.app.umkaSchool.model.BatchJobCheckpointId;
+import com.app.umkaSchool.repository.BatchJobCheckpointRepository;
+import com.app.umkaSchool.service.impl.ChunkedJobExecutor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@ActiveProfiles("test")
+class ChunkedJobExecutorTest {
+
+    @Mock
+    private BatchJobCheckpointRepository checkpointRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TransactionStatus transactionStatus;
+
+    private ChunkedJobExecutor executor;
+    private List<UUID> ids;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        executor = new ChunkedJobExecutor(checkpointRepository, transactionManager, 3, 2, 6);
+        today = LocalDate.now();
+
+        ids = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        Collections.sort(ids);
+    }
+
+    @Test
+    void run_ShouldProcessAllIdsInChunksAndCheckpointEach() {
+        when(checkpointRepository.findById_JobNameAndId_RunDate("job", today)).thenReturn(List.of());
+        List<UUID> seen = new CopyOnWriteArrayList<>();
+
+        ChunkedJobExecutor.Result result = executor.run("job", today, ids, chunk -> {
+            seen.addAll(chunk);
+            return chunk.size();
+        });
+
+        assertEquals(10, result.processed());
+        assertEquals(4, result.chunks());
+        assertEquals(0, result.failedChunks());
+        assertEquals(10, seen.size());
+        verify(checkpointRepository, times(4)).save(any(BatchJobCheckpoint.class));
+    }
+
+    @Test
+    void run_ShouldSkipCheckpointedRangesAndKeepFailedChunkPending() {
+        BatchJobCheckpoint done = new BatchJobCheckpoint();
+        done.setId(new BatchJobCheckpointId("job", today, ids.get(0)));
+        done.setRangeEnd(ids.get(5));
+        done.setProcessedIds(new ArrayList<>(ids.subList(0, 6)));
+        done.setProcessedCount(6);
+        when(checkpointRepository.findById_JobNameAndId_RunDate("job", today)).thenReturn(List.of(done));
+
+        ChunkedJobExecutor.Result result = executor.run("job", today, ids, chunk -> {
+            if (chunk.contains(ids.get(9))) {
+                throw new IllegalStateException("boom");
+            }
+            return chunk.size();
+        });
+
+        assertEquals(6, result.skippedIds());
+        assertEquals(2, result.chunks());
+        assertEquals(1, result.failedChunks());
+        assertEquals(3, result.processed());
+        verify(checkpointRepository, times(1)).save(any(BatchJobCheckpoint.class));
+        verify(checkpointRepository).deleteOlderThan(eq("job"), any(LocalDate.class));
+    }
+
+    @Test
+    void run_ShouldProcessIdsAddedInsideACheckpointedRange() {
+        List<UUID> firstRun = new ArrayList<>(ids);
+        UUID added = firstRun.remove(4);
+        BatchJobCheckpoint done = new BatchJobCheckpoint();
+        done.setId(new BatchJobCheckpointId("job", today, firstRun.get(0)));
+        done.setRangeEnd(firstRun.get(firstRun.size() - 1));
+        done.setProcessedIds(firstRun);
+        when(checkpointRepository.findById_JobNameAndId_RunDate("job", today)).thenReturn(List.of(done));
+        List<UUID> seen = new CopyOnWriteArrayList<>();
+
+        ChunkedJobExecutor.Result result = executor.run("job", today, ids, chunk -> {
+            seen.addAll(chunk);
+            return chunk.size();
+        });
+
+        assertEquals(List.of(added), seen);
+        assertEquals(9, result.skippedIds());
+        assertEquals(1, result.processed());
+    }
+}
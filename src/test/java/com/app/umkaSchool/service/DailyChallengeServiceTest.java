@@ -0,0 +1,182 @@
+package com.app.umkaSchool.service;
+
+import com.app.umkaSchool.dto.dailychallenge.DailyChallengeResponse;
+import com.app.umkaSchool.dto.dailychallenge.PlanDailyChallengesRequest;
+import com.app.umkaSchool.dto.dailychallenge.PlanDailyChallengesResponse;
+import com.app.umkaSchool.exception.ResourceNotFoundException;
+import com.app.umkaSchool.model.DailyChallenge;
+import com.app.umkaSchool.model.Exercise;
+import com.app.umkaSchool.repository.DailyChallengeRepository;
+import com.app.umkaSchool.repository.ExerciseRepository;
+import com.app.umkaSchool.repository.TeacherRepository;
+import com.app.umkaSchool.service.impl.DailyChallengeServiceImpl;
+import com.app.umkaSchool.util.CatalogVersions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@ActiveProfiles("test")
+class DailyChallengeServiceTest {
+
+    @Mock
+    private DailyChallengeRepository dailyChallengeRepository;
+
+    @Mock
+    private ExerciseRepository exerciseRepository;
+
+    @Mock
+    private TeacherRepository teacherRepository;
+
+    @Mock
+    private ExerciseService exerciseService;
+
+    @Mock
+    private CatalogVersions catalogVersions;
+
+    @InjectMocks
+    private DailyChallengeServiceImpl dailyChallengeService;
+
+    private DailyChallenge testChallenge;
+
+    @BeforeEach
+    void setUp() {
+        testChallenge = new DailyChallenge();
+        testChallenge.setId(UUID.randomUUID());
+        testChallenge.setChallengeDate(LocalDate.now());
+        testChallenge.setTitle("Today");
+        testChallenge.setExercises(new HashSet<>());
+    }
+
+    @Test
+    void getTodayChallenge_ShouldQueryOncePerDay() {
+        when(dailyChallengeRepository.findByChallengeDate(LocalDate.now())).thenReturn(Optional.of(testChallenge));
+
+        DailyChallengeResponse first = dailyChallengeService.getTodayChallenge();
+        DailyChallengeResponse second = dailyChallengeService.getTodayChallenge();
+
+        assertSame(first, second);
+        assertEquals(testChallenge.getId(), first.getId());
+        verify(dailyChallengeRepository, times(1)).findByChallengeDate(any());
+    }
+
+    @Test
+    void refreshTodayChallenge_ShouldPrewarmAndDeleteShouldInvalidate() {
+        when(dailyChallengeRepository.findByChallengeDate(LocalDate.now())).thenReturn(Optional.of(testChallenge));
+        when(dailyChallengeRepository.existsById(testChallenge.getId())).thenReturn(true);
+
+        dailyChallengeService.refreshTodayChallenge();
+        dailyChallengeService.getTodayChallenge();
+        verify(dailyChallengeRepository, times(1)).findByChallengeDate(any());
+
+        dailyChallengeService.deleteDailyChallenge(testChallenge.getId());
+        dailyChallengeService.getTodayChallenge();
+        verify(dailyChallengeRepository, times(2)).findByChallengeDate(any());
+    }
+
+    @Test
+    void getTodayChallenge_ShouldNotCacheMissingChallenge() {
+        when(dailyChallengeRepository.findByChallengeDate(any())).thenReturn(Optional.empty());
+        when(dailyChallengeRepository.findFirstByOrderByChallengeDateDesc()).thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class, () -> dailyChallengeService.getTodayChallenge());
+        assertThrows(ResourceNotFoundException.class, () -> dailyChallengeService.getTodayChallenge());
+        verify(dailyChallengeRepository, times(2)).findByChallengeDate(any());
+    }
+
+    @Test
+    void getTodayChallenge_ShouldCacheFallbackUntilTodaysChallengeIsCreated() {
+        testChallenge.setChallengeDate(LocalDate.now().minusDays(1));
+        when(dailyChallengeRepository.findByChallengeDate(LocalDate.now())).thenReturn(Optional.empty());
+        when(dailyChallengeRepository.findFirstByOrderByChallengeDateDesc()).thenReturn(Optional.of(testChallenge));
+        when(dailyChallengeRepository.existsByChallengeDate(LocalDate.now())).thenReturn(false);
+        when(dailyChallengeRepository.save(any(DailyChallenge.class))).thenAnswer(invocation -> {
+            DailyChallenge created = invocation.getArgument(0);
+            created.setId(UUID.randomUUID());
+            return created;
+        });
+
+        assertEquals(testChallenge.getId(), dailyChallengeService.getTodayChallenge().getId());
+        dailyChallengeService.getTodayChallenge();
+        verify(dailyChallengeRepository, times(1)).findByChallengeDate(any());
+
+        dailyChallengeService.createTodayChallengeIfNotExists();
+        dailyChallengeService.getTodayChallenge();
+
+        verify(dailyChallengeRepository, times(2)).findByChallengeDate(any());
+    }
+
+    @Test
+    void getTodayChallenge_ShouldDropResponseLoadedAcrossAnInvalidation() {
+        when(dailyChallengeRepository.existsById(testChallenge.getId())).thenReturn(true);
+        when(dailyChallengeRepository.findByChallengeDate(LocalDate.now())).thenAnswer(invocation -> {
+            // A delete commits while the challenge is being read
+            dailyChallengeService.deleteDailyChallenge(testChallenge.getId());
+            return Optional.of(testChallenge);
+        });
+
+        dailyChallengeService.getTodayChallenge();
+        dailyChallengeService.getTodayChallenge();
+
+        verify(dailyChallengeRepository, times(2)).findByChallengeDate(any());
+    }
+
+    @Test
+    void planDailyChallenges_ShouldRotatePoolAndSkipPlannedDays() {
+        LocalDate start = LocalDate.now().plusDays(1);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        PlanDailyChallengesRequest request = new PlanDailyChallengesRequest();
+        request.setStartDate(start);
+        request.setDays(3);
+        request.setExerciseIds(List.of(first, second, third));
+        request.setExercisesPerChallenge(2);
+        request.setTitle("Planned");
+        when(dailyChallengeRepository.findChallengeDatesBetween(start, start.plusDays(2)))
+                .thenReturn(List.of(start.plusDays(1)));
+        when(dailyChallengeRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<DailyChallenge> challenges = invocation.getArgument(0);
+            challenges.forEach(challenge -> challenge.setId(UUID.randomUUID()));
+            return challenges;
+        });
+        when(exerciseService.cloneExercises(anyList())).thenAnswer(invocation -> {
+            List<UUID> ids = invocation.getArgument(0);
+            return ids.stream().map(id -> {
+                Exercise clone = new Exercise();
+                clone.setId(UUID.randomUUID());
+                return clone;
+            }).toList();
+        });
+
+        PlanDailyChallengesResponse response = dailyChallengeService.planDailyChallenges(request);
+
+        assertEquals(List.of(start, start.plusDays(2)), response.getCreatedDates());
+        assertEquals(List.of(start.plusDays(1)), response.getSkippedDates());
+        // Day 0 takes pool[0..1], day 2 takes pool[4..5] wrapped around
+        verify(exerciseService).cloneExercises(List.of(first, second, second, third));
+        verify(dailyChallengeRepository, never()).cloneExercisesInto(any(), any());
+    }
+
+    @Test
+    void planDailyChallenges_ShouldRejectAmbiguousSource() {
+        PlanDailyChallengesRequest request = new PlanDailyChallengesRequest();
+        request.setDays(3);
+
+        assertThrows(IllegalArgumentException.class, () -> dailyChallengeService.planDailyChallenges(request));
+        verifyNoInteractions(dailyChallengeRepository);
+    }
+}
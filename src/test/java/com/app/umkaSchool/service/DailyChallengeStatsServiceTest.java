@@ -0,0 +1,173 @@
+package com.app.umkaSchool.service;
+
+import com.app.umkaSchool.dto.dailychallenge.DailyChallengeStatsResponse;
+import com.app.umkaSchool.event.ExerciseAttemptCompletedEvent;
+import com.app.umkaSchool.event.ExerciseAttemptStartedEvent;
+import com.app.umkaSchool.model.DailyChallengeStats;
+import com.app.umkaSchool.repository.DailyChallengeRepository;
+import com.app.umkaSchool.repository.DailyChallengeStatsRepository;
+import com.app.umkaSchool.service.impl.DailyChallengeStatsServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@ActiveProfiles("test")
+class DailyChallengeStatsServiceTest {
+
+    @Mock
+    private DailyChallengeRepository dailyChallengeRepository;
+
+    @Mock
+    private DailyChallengeStatsRepository dailyChallengeStatsRepository;
+
+    @InjectMocks
+    private DailyChallengeStatsServiceImpl dailyChallengeStatsService;
+
+    private UUID challengeId;
+    private UUID exerciseId;
+
+    @BeforeEach
+    void setUp() {
+        challengeId = UUID.randomUUID();
+        exerciseId = UUID.randomUUID();
+    }
+
+    @Test
+    void flushCounters_ShouldAddAccumulatedDeltasOnce() {
+        when(dailyChallengeRepository.findIdsByExerciseIdSince(eq(exerciseId), any())).thenReturn(List.of(challengeId));
+
+        dailyChallengeStatsService.onAttemptStarted(new ExerciseAttemptStartedEvent(UUID.randomUUID(), UUID.randomUUID(), exerciseId));
+        dailyChallengeStatsService.onAttemptStarted(new ExerciseAttemptStartedEvent(UUID.randomUUID(), UUID.randomUUID(), exerciseId));
+        dailyChallengeStatsService.onAttemptCompleted(completed(exerciseId, 10, 5, 4));
+        dailyChallengeStatsService.flushCounters();
+        dailyChallengeStatsService.flushCounters();
+
+        verify(dailyChallengeStatsRepository).addCounts(challengeId, exerciseId, 2, 1, 5, 4, 10);
+        verify(dailyChallengeStatsRepository, times(1)).addCounts(any(), any(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+        // The exercise-to-challenge lookup is cached
+        verify(dailyChallengeRepository, times(1)).findIdsByExerciseIdSince(eq(exerciseId), any());
+    }
+
+    @Test
+    void onAttemptCompleted_ShouldCountRepeatedReportsOfOneAttemptOnce() {
+        when(dailyChallengeRepository.findIdsByExerciseIdSince(eq(exerciseId), any())).thenReturn(List.of(challengeId));
+        UUID attemptId = UUID.randomUUID();
+        UUID studentId = UUID.randomUUID();
+
+        // Auto-complete at the first scored answer, then the final results, then the same final results again
+        dailyChallengeStatsService.onAttemptCompleted(new ExerciseAttemptCompletedEvent(attemptId, studentId, null,
+                exerciseId, 4, 2, 2, ZonedDateTime.now(), true, 0, 0, 0));
+        dailyChallengeStatsService.onAttemptCompleted(new ExerciseAttemptCompletedEvent(attemptId, studentId, null,
+                exerciseId, 10, 5, 4, ZonedDateTime.now(), false, 4, 2, 2));
+        dailyChallengeStatsService.onAttemptCompleted(new ExerciseAttemptCompletedEvent(attemptId, studentId, null,
+                exerciseId, 10, 5, 4, ZonedDateTime.now(), false, 10, 5, 4));
+        dailyChallengeStatsService.flushCounters();
+
+        verify(dailyChallengeStatsRepository).addCounts(challengeId, exerciseId, 0, 1, 5, 4, 10);
+    }
+
+    @Test
+    void flushCounters_ShouldNotLoseCountsRecordedWhileIdleEntriesAreRemoved() throws Exception {
+        when(dailyChallengeRepository.findIdsByExerciseIdSince(eq(exerciseId), any())).thenReturn(List.of(challengeId));
+        AtomicLong flushedAttempts = new AtomicLong();
+        doAnswer(invocation -> {
+            flushedAttempts.addAndGet(invocation.<Long>getArgument(2));
+            return 1;
+        })
+                .when(dailyChallengeStatsRepository)
+                .addCounts(any(), any(), anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+        int threads = 4;
+        int attemptsPerThread = 5_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        AtomicBoolean recording = new AtomicBoolean(true);
+
+        try {
+            Future<?> flusher = executor.submit(() -> {
+                while (recording.get()) {
+                    dailyChallengeStatsService.flushCounters();
+                }
+            });
+            List<Future<?>> recorders = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                recorders.add(executor.submit(() -> {
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        dailyChallengeStatsService.onAttemptStarted(
+                                new ExerciseAttemptStartedEvent(UUID.randomUUID(), UUID.randomUUID(), exerciseId));
+                    }
+                }));
+            }
+            for (Future<?> recorder : recorders) {
+                recorder.get(30, TimeUnit.SECONDS);
+            }
+            recording.set(false);
+            flusher.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        dailyChallengeStatsService.flushCounters();
+
+        assertEquals((long) threads * attemptsPerThread, flushedAttempts.get());
+    }
+
+    @Test
+    void onAttemptCompleted_ShouldIgnoreExercisesOutsideChallenges() {
+        UUID homeworkExercise = UUID.randomUUID();
+        when(dailyChallengeRepository.findIdsByExerciseIdSince(eq(homeworkExercise), any())).thenReturn(List.of());
+
+        dailyChallengeStatsService.onAttemptCompleted(completed(homeworkExercise, 10, 5, 5));
+        dailyChallengeStatsService.flushCounters();
+
+        verifyNoInteractions(dailyChallengeStatsRepository);
+    }
+
+    @Test
+    void getChallengeStats_ShouldAddPendingCountsToStoredTotals() {
+        DailyChallengeStats stored = new DailyChallengeStats();
+        stored.getId().setDailyChallengeId(challengeId);
+        stored.getId().setExerciseId(exerciseId);
+        stored.setAttempts(3L);
+        stored.setCompletions(2L);
+        stored.setAnswers(10L);
+        stored.setCorrectAnswers(8L);
+        stored.setTotalScore(30L);
+        when(dailyChallengeRepository.existsById(challengeId)).thenReturn(true);
+        when(dailyChallengeRepository.findIdsByExerciseIdSince(eq(exerciseId), any())).thenReturn(List.of(challengeId));
+        when(dailyChallengeStatsRepository.findById_DailyChallengeId(challengeId)).thenReturn(List.of(stored));
+
+        dailyChallengeStatsService.onAttemptCompleted(completed(exerciseId, 15, 5, 5));
+        DailyChallengeStatsResponse response = dailyChallengeStatsService.getChallengeStats(challengeId);
+
+        assertEquals(3, response.getAttempts());
+        assertEquals(3, response.getCompletions());
+        assertEquals(13, response.getCorrectAnswers());
+        assertEquals(15.0, response.getAverageScore());
+        assertEquals(1, response.getExercises().size());
+    }
+
+    private static ExerciseAttemptCompletedEvent completed(UUID exerciseId, int score, long answers, long correct) {
+        return new ExerciseAttemptCompletedEvent(UUID.randomUUID(), UUID.randomUUID(), null, exerciseId,
+                score, answers, correct, ZonedDateTime.now());
+    }
+}
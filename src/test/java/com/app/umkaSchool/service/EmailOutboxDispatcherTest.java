@@ -0,0 +1,148 @@
+package com.app.umkaSchool.service;
+
+import com.app.umkaSchool.model.EmailOutbox;
+import com.app.umkaSchool.repository.EmailOutboxRepository;
+import com.app.umkaSchool.service.impl.EmailOutboxDispatcher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@ActiveProfiles("test")
+class EmailOutboxDispatcherTest {
+
+    @Mock
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EmailOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        // claim 2 up to 3 times per poll, send groups of 2, 4 senders, 1000 per second, 3 attempts,
+        // backoff 60 s .. 1 h, lease 300 s
+        dispatcher = new EmailOutboxDispatcher(emailOutboxRepository, emailService, transactionManager,
+                2, 3, 2, 4, 1000, 3, 60, 3600, 300);
+    }
+
+    @Test
+    void dispatchPending_ShouldClaimUntilQueueDrainedAndMarkSent() {
+        EmailOutbox first = message(0);
+        EmailOutbox second = message(0);
+        EmailOutbox third = message(0);
+        when(emailOutboxRepository.lockDue(any(), eq(2)))
+                .thenReturn(List.of(first, second))
+                .thenReturn(List.of(third));
+        when(emailService.deliverBatch(anyList()))
+                .thenAnswer(invocation -> Collections.nCopies(invocation.<List<?>>getArgument(0).size(), null));
+
+        dispatcher.dispatchPending();
+
+        verify(emailOutboxRepository, times(2)).lockDue(any(), eq(2));
+        verify(emailOutboxRepository).claim(eq(List.of(first.getId(), second.getId())), any());
+        verify(emailOutboxRepository).claim(eq(List.of(third.getId())), any());
+        // One transport call per claimed group
+        verify(emailService).deliverBatch(List.of(
+                new EmailService.OutgoingEmail("parent@example.com", "Weekly report", "<p>report</p>"),
+                new EmailService.OutgoingEmail("parent@example.com", "Weekly report", "<p>report</p>")));
+        verify(emailService).deliverBatch(List.of(
+                new EmailService.OutgoingEmail("parent@example.com", "Weekly report", "<p>report</p>")));
+        verify(emailOutboxRepository).markSent(eq(first.getId()), any());
+        verify(emailOutboxRepository).markSent(eq(second.getId()), any());
+        verify(emailOutboxRepository).markSent(eq(third.getId()), any());
+        verify(emailOutboxRepository, never()).scheduleRetry(any(), any(), any());
+    }
+
+    @Test
+    void dispatchPending_ShouldLeaveBacklogBeyondMaxBatchesToNextPoll() {
+        when(emailOutboxRepository.lockDue(any(), eq(2))).thenAnswer(invocation -> List.of(message(0), message(0)));
+        when(emailService.deliverBatch(anyList()))
+                .thenAnswer(invocation -> Collections.nCopies(invocation.<List<?>>getArgument(0).size(), null));
+
+        dispatcher.dispatchPending();
+
+        verify(emailOutboxRepository, times(3)).lockDue(any(), eq(2));
+        verify(emailOutboxRepository, times(6)).markSent(any(), any());
+    }
+
+    @Test
+    void dispatchPending_ShouldRetryWithBackoffAndGiveUpAfterMaxAttempts() {
+        EmailOutbox firstFailure = message(0);
+        EmailOutbox lastAttempt = message(2);
+        when(emailOutboxRepository.lockDue(any(), anyInt())).thenReturn(List.of(firstFailure, lastAttempt), List.of());
+        when(emailService.deliverBatch(anyList())).thenThrow(new IllegalStateException("503 Service Unavailable"));
+
+        ZonedDateTime before = ZonedDateTime.now();
+        dispatcher.dispatchPending();
+
+        ArgumentCaptor<ZonedDateTime> retryAt = ArgumentCaptor.forClass(ZonedDateTime.class);
+        verify(emailOutboxRepository).scheduleRetry(eq(firstFailure.getId()), retryAt.capture(), eq("503 Service Unavailable"));
+        // First retry waits between half and all of the 60 s base delay
+        assertFalse(retryAt.getValue().isBefore(before.plusSeconds(30)));
+        assertFalse(retryAt.getValue().isAfter(ZonedDateTime.now().plusSeconds(60)));
+        verify(emailOutboxRepository).markFailed(lastAttempt.getId(), "503 Service Unavailable");
+        verify(emailOutboxRepository, never()).markSent(any(), any());
+    }
+
+    @Test
+    void dispatchPending_ShouldRetryOnlyTheRecipientsThatFailedInAGroup() {
+        EmailOutbox delivered = message(0);
+        EmailOutbox rejected = message(0);
+        when(emailOutboxRepository.lockDue(any(), anyInt())).thenReturn(List.of(delivered, rejected), List.of());
+        when(emailService.deliverBatch(anyList())).thenReturn(Arrays.asList(null, "400 invalid email"));
+
+        dispatcher.dispatchPending();
+
+        verify(emailOutboxRepository).markSent(eq(delivered.getId()), any());
+        verify(emailOutboxRepository).scheduleRetry(eq(rejected.getId()), any(), eq("400 invalid email"));
+        verify(emailOutboxRepository, never()).scheduleRetry(eq(delivered.getId()), any(), any());
+        verify(emailOutboxRepository, never()).markFailed(any(), any());
+    }
+
+    @Test
+    void dispatchPending_ShouldNotRetryEmailsWithUnknownOutcome() {
+        EmailOutbox timedOut = message(0);
+        String error = EmailService.UNKNOWN_OUTCOME + "Read timed out";
+        when(emailOutboxRepository.lockDue(any(), anyInt())).thenReturn(List.of(timedOut), List.of());
+        when(emailService.deliverBatch(anyList())).thenReturn(List.of(error));
+
+        dispatcher.dispatchPending();
+
+        verify(emailOutboxRepository).markFailed(timedOut.getId(), error);
+        verify(emailOutboxRepository, never()).scheduleRetry(any(), any(), any());
+    }
+
+    private static EmailOutbox message(int attempts) {
+        EmailOutbox message = new EmailOutbox();
+        message.setId(UUID.randomUUID());
+        message.setRecipient("parent@example.com");
+        message.setSubject("Weekly report");
+        message.setHtmlContent("<p>report</p>");
+        message.setStatus(EmailOutbox.Status.PENDING);
+        message.setAttempts(attempts);
+        return message;
+    }
+}
@@ -0,0 +1,176 @@
+package com.app.umkaSchool.service;
+
+import com.app.umkaSchool.repository.EmailOutboxRepository;
+import com.app.umkaSchool.service.impl.EmailServiceImpl;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Runs the Brevo transport against a local stub of the Brevo API.
+ */
+@ExtendWith(MockitoExtension.class)
+@ActiveProfiles("test")
+class EmailServiceTest {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private JavaMailSender mailSender;
+
+    @Mock
+    private EmailOutboxRepository emailOutboxRepository;
+
+    private HttpServer server;
+    private final List<JsonNode> requests = new CopyOnWriteArrayList<>();
+    private final List<String> apiKeys = new CopyOnWriteArrayList<>();
+    private volatile ToIntFunction<JsonNode> responder = body -> 201;
+    private volatile long responseDelayMillis;
+
+    private EmailServiceImpl emailService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/v3/smtp/email", this::handle);
+        server.start();
+
+        // Brevo batches of 2, 2 s timeout
+        emailService = new EmailServiceImpl(mailSender, "noreply@test.com", "UmkaSchool", "test-key",
+                "http://localhost:" + server.getAddress().getPort() + "/v3/smtp/email", 2, 2000,
+                emailOutboxRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void deliverBatch_ShouldSendOneRequestPerBatchWithMessageVersions() {
+        List<String> errors = emailService.deliverBatch(List.of(
+                email("a@example.com"), email("b@example.com"), email("c@example.com")));
+
+        assertEquals(Arrays.asList(null, null, null), errors);
+        assertEquals(2, requests.size());
+        assertEquals(List.of("test-key", "test-key"), apiKeys);
+
+        JsonNode batch = requests.get(0);
+        assertEquals("noreply@test.com", batch.path("sender").path("email").asText());
+        assertTrue(batch.hasNonNull("subject"));
+        assertTrue(batch.hasNonNull("htmlContent"));
+        assertFalse(batch.has("to"));
+        JsonNode versions = batch.path("messageVersions");
+        assertEquals(2, versions.size());
+        assertEquals("a@example.com", versions.get(0).path("to").get(0).path("email").asText());
+        assertEquals("b@example.com", versions.get(1).path("to").get(0).path("email").asText());
+        assertEquals("Report for a@example.com", versions.get(0).path("subject").asText());
+        assertEquals("<p>a@example.com</p>", versions.get(0).path("htmlContent").asText());
+
+        // A batch of one goes out as a plain single-recipient request
+        JsonNode single = requests.get(1);
+        assertFalse(single.has("messageVersions"));
+        assertEquals("c@example.com", single.path("to").get(0).path("email").asText());
+    }
+
+    @Test
+    void deliverBatch_ShouldFallBackToSingleSendsWhenBatchRejected() {
+        responder = body -> body.has("messageVersions")
+                || "bad@example.com".equals(body.path("to").path(0).path("email").asText()) ? 400 : 201;
+
+        List<String> errors = emailService.deliverBatch(List.of(email("good@example.com"), email("bad@example.com")));
+
+        assertNull(errors.get(0));
+        assertNotNull(errors.get(1));
+        assertTrue(errors.get(1).contains("400"));
+        // The rejected batch, then one request per recipient
+        assertEquals(3, requests.size());
+    }
+
+    @Test
+    void deliverBatch_ShouldFailWholeBatchOnServerError() {
+        responder = body -> 503;
+
+        List<String> errors = emailService.deliverBatch(List.of(email("a@example.com"), email("b@example.com")));
+
+        assertEquals(2, errors.size());
+        assertTrue(errors.stream().allMatch(error -> error != null && error.contains("503")));
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    void deliverBatch_ShouldReportUnknownOutcomeOnReadTimeout() {
+        // Brevo received the request but answers after the client gave up
+        responseDelayMillis = 600;
+        EmailServiceImpl impatient = new EmailServiceImpl(mailSender, "noreply@test.com", "UmkaSchool", "test-key",
+                "http://localhost:" + server.getAddress().getPort() + "/v3/smtp/email", 2, 200,
+                emailOutboxRepository);
+
+        List<String> errors = impatient.deliverBatch(List.of(email("a@example.com"), email("b@example.com")));
+
+        assertEquals(2, errors.size());
+        assertTrue(errors.stream().allMatch(EmailService::isUnknownOutcome));
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    void queueHomeworkReminder_ShouldEscapeUserTextInHtml() {
+        emailService.queueHomeworkReminder("homework-due:1", "student@test.com", "<b>Ann</b>",
+                "Fractions <script>alert(1)</script>", ZonedDateTime.now());
+
+        ArgumentCaptor<String> html = ArgumentCaptor.forClass(String.class);
+        verify(emailOutboxRepository).enqueue(eq("homework-due:1"), eq("student@test.com"), anyString(), html.capture());
+        assertTrue(html.getValue().contains("Fractions &lt;script&gt;alert(1)&lt;/script&gt;"));
+        assertTrue(html.getValue().contains("Hello &lt;b&gt;Ann&lt;/b&gt;"));
+        assertFalse(html.getValue().contains("<script>"));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        JsonNode body = objectMapper.readTree(exchange.getRequestBody().readAllBytes());
+        requests.add(body);
+        apiKeys.add(exchange.getRequestHeaders().getFirst("api-key"));
+        if (responseDelayMillis > 0) {
+            try {
+                Thread.sleep(responseDelayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        int status = responder.applyAsInt(body);
+        byte[] response = (status == 201 ? "{\"messageIds\":[]}" : "{\"code\":\"error\"}")
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, response.length);
+        exchange.getResponseBody().write(response);
+        exchange.close();
+    }
+
+    private static EmailService.OutgoingEmail email(String to) {
+        return new EmailService.OutgoingEmail(to, "Report for " + to, "<p>" + to + "</p>");
+    }
+}
@@ -10,6 +10,7 @@ import com.app.umkaSchool.model.Teacher;
 import com.app.umkaSchool.repository.ExerciseRepository;
 import com.app.umkaSchool.repository.ExerciseTypeRepository;
 import com.app.umkaSchool.service.impl.ExerciseServiceImpl;
+import com.app.umkaSchool.util.CatalogVersions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -40,6 +41,9 @@ class ExerciseServiceTest {
     @Mock
     private ExerciseTypeRepository exerciseTypeRepository;
 
+    @Mock
+    private CatalogVersions catalogVersions;
+
     @InjectMocks
     private ExerciseServiceImpl exerciseService;
 
@@ -9,6 +9,7 @@ import com.app.umkaSchool.model.Teacher;
 import com.app.umkaSchool.repository.ExerciseTypeRepository;
 import com.app.umkaSchool.repository.TeacherRepository;
 import com.app.umkaSchool.service.impl.ExerciseTypeServiceImpl;
+import com.app.umkaSchool.util.CatalogVersions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -35,6 +36,9 @@ class ExerciseTypeServiceTest {
     @Mock
     private TeacherRepository teacherRepository;
 
+    @Mock
+    private CatalogVersions catalogVersions;
+
     @InjectMocks
     private ExerciseTypeServiceImpl exerciseTypeService;
 
@@ -3,8 +3,10 @@ package com.app.umkaSchool.service;
 import com.app.umkaSchool.dto.group.CreateGroupRequest;
 import com.app.umkaSchool.dto.group.GroupResponse;
 import com.app.umkaSchool.dto.group.UpdateGroupRequest;
+import com.app.umkaSchool.event.StudentGroupChangedEvent;
 import com.app.umkaSchool.exception.ResourceNotFoundException;
 import com.app.umkaSchool.model.AppUser;
+import com.app.umkaSchool.model.Student;
 import com.app.umkaSchool.model.StudentGroup;
 import com.app.umkaSchool.model.Teacher;
 import com.app.umkaSchool.repository.StudentGroupRepository;
@@ -16,6 +18,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.List;
@@ -39,6 +42,9 @@ class GroupServiceTest {
     @Mock
     private com.app.umkaSchool.repository.StudentRepository studentRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private GroupServiceImpl groupService;
 
@@ -154,5 +160,17 @@ class GroupServiceTest {
 
         verify(groupRepository).delete(testGroup);
     }
-}
 
+    @Test
+    void removeStudentFromGroup_ShouldPublishGroupChange() {
+        Student student = new Student();
+        student.setId(UUID.randomUUID());
+        student.setGroup(testGroup);
+        when(studentRepository.findById(student.getId())).thenReturn(Optional.of(student));
+
+        groupService.removeStudentFromGroup(student.getId());
+
+        assertNull(student.getGroup());
+        verify(eventPublisher).publishEvent(new StudentGroupChangedEvent(student.getId(), groupId, null));
+    }
+}
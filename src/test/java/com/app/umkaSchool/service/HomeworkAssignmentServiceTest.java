@@ -0,0 +1,361 @@
+package com.app.umkaSchool.service;
+
+import com.app.umkaSchool.dto.homeworkassignment.HomeworkAssignmentResponse;
+import com.app.umkaSchool.dto.homeworkassignment.HomeworkProgressMatrixResponse;
+import com.app.umkaSchool.event.StudentDeletedEvent;
+import com.app.umkaSchool.event.StudentGroupChangedEvent;
+import com.app.umkaSchool.model.Homework;
+import com.app.umkaSchool.model.HomeworkAssignment;
+import com.app.umkaSchool.model.HomeworkAssignmentStudent;
+import com.app.umkaSchool.model.HomeworkExercise;
+import com.app.umkaSchool.model.Student;
+import com.app.umkaSchool.model.StudentGroup;
+import com.app.umkaSchool.model.enums.HomeworkStatus;
+import com.app.umkaSchool.repository.ExerciseAttemptRepository;
+import com.app.umkaSchool.repository.HomeworkAssignmentRepository;
+import com.app.umkaSchool.repository.HomeworkAssignmentStudentRepository;
+import com.app.umkaSchool.repository.HomeworkRepository;
+import com.app.umkaSchool.repository.StudentGroupRepository;
+import com.app.umkaSchool.repository.StudentRepository;
+import com.app.umkaSchool.repository.TeacherRepository;
+import com.app.umkaSchool.service.impl.HomeworkAssignmentServiceImpl;
+import com.app.umkaSchool.service.impl.HomeworkMatrixCacheEvictor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.ZonedDateTime;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@ActiveProfiles("test")
+class HomeworkAssignmentServiceTest {
+
+    @Mock
+    private HomeworkAssignmentRepository homeworkAssignmentRepository;
+
+    @Mock
+    private HomeworkRepository homeworkRepository;
+
+    @Mock
+    private HomeworkService homeworkService;
+
+    @Mock
+    private TeacherRepository teacherRepository;
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Mock
+    private StudentGroupRepository studentGroupRepository;
+
+    @Mock
+    private ExerciseAttemptRepository exerciseAttemptRepository;
+
+    @Mock
+    private HomeworkAssignmentStudentRepository homeworkAssignmentStudentRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private HomeworkMatrixCacheEvictor matrixCacheEvictor;
+
+    @InjectMocks
+    private HomeworkAssignmentServiceImpl homeworkAssignmentService;
+
+    private HomeworkAssignment testAssignment;
+    private Student testStudent;
+    private UUID assignmentId;
+    private UUID studentId;
+
+    @BeforeEach
+    void setUp() {
+        assignmentId = UUID.randomUUID();
+        studentId = UUID.randomUUID();
+
+        testStudent = new Student();
+        testStudent.setId(studentId);
+
+        Homework homework = new Homework();
+        homework.setId(UUID.randomUUID());
+        homework.setTitle("Test Homework");
+        homework.setExercises(new HashSet<>(Set.of(homeworkExercise(homework, 0), homeworkExercise(homework, 1))));
+
+        testAssignment = new HomeworkAssignment();
+        testAssignment.setId(assignmentId);
+        testAssignment.setHomework(homework);
+        testAssignment.setDueDate(ZonedDateTime.now().plusDays(3));
+        testAssignment.setAssignedGroups(new HashSet<>());
+        testAssignment.setAssignedStudents(new HashSet<>());
+    }
+
+    @Test
+    void addStudentsToAssignment_ShouldRecountInSqlWithoutPerStudentLookups() {
+        when(homeworkAssignmentRepository.findById(assignmentId)).thenReturn(Optional.of(testAssignment));
+        when(studentRepository.findById(studentId)).thenReturn(Optional.of(testStudent));
+        when(homeworkAssignmentRepository.findStatusById(assignmentId)).thenReturn(HomeworkStatus.PENDING);
+
+        homeworkAssignmentService.addStudentsToAssignment(assignmentId, List.of(studentId));
+
+        verify(homeworkAssignmentRepository).recountStudents(List.of(assignmentId));
+        assertEquals(HomeworkStatus.PENDING, testAssignment.getStatus());
+        verify(studentRepository, never()).findByGroup_Id(any());
+        verify(homeworkAssignmentStudentRepository, never()).findById_HomeworkAssignmentIdAndId_StudentId(any(), any());
+    }
+
+    @Test
+    void addStudentsToAssignment_WhenAssignedThroughGroup_ShouldPromoteExistingRow() {
+        UUID groupId = UUID.randomUUID();
+        HomeworkAssignmentStudent groupRow = new HomeworkAssignmentStudent();
+        groupRow.getId().setHomeworkAssignmentId(assignmentId);
+        groupRow.getId().setStudentId(studentId);
+        groupRow.setStudent(testStudent);
+        groupRow.setStatus(HomeworkStatus.COMPLETED);
+        groupRow.setSourceGroupId(groupId);
+        testAssignment.getAssignedStudents().add(groupRow);
+        when(homeworkAssignmentRepository.findById(assignmentId)).thenReturn(Optional.of(testAssignment));
+        when(homeworkAssignmentRepository.findStatusById(assignmentId)).thenReturn(HomeworkStatus.PENDING);
+
+        homeworkAssignmentService.addStudentsToAssignment(assignmentId, List.of(studentId));
+
+        assertEquals(1, testAssignment.getAssignedStudents().size());
+        assertNull(groupRow.getSourceGroupId());
+        assertEquals(HomeworkStatus.COMPLETED, groupRow.getStatus());
+        verify(studentRepository, never()).findById(any());
+    }
+
+    @Test
+    void addGroupsToAssignment_ShouldMaterializeGroupMembersInOneInsert() {
+        UUID groupId = UUID.randomUUID();
+        StudentGroup group = new StudentGroup();
+        group.setId(groupId);
+        when(homeworkAssignmentRepository.findById(assignmentId)).thenReturn(Optional.of(testAssignment));
+        when(studentGroupRepository.findById(groupId)).thenReturn(Optional.of(group));
+        when(homeworkAssignmentRepository.findStatusById(assignmentId)).thenReturn(HomeworkStatus.PENDING);
+
+        homeworkAssignmentService.addGroupsToAssignment(assignmentId, List.of(groupId));
+
+        verify(homeworkAssignmentStudentRepository).insertGroupMembers(assignmentId, List.of(groupId));
+        verify(homeworkAssignmentRepository).recountStudents(List.of(assignmentId));
+        verify(studentRepository, never()).findByGroup_Id(any());
+    }
+
+    @Test
+    void onStudentGroupChanged_ShouldMoveGroupRowsAndRecountAffectedAssignments() {
+        UUID oldGroupId = UUID.randomUUID();
+        UUID newGroupId = UUID.randomUUID();
+        List<UUID> affected = List.of(assignmentId, UUID.randomUUID());
+        when(homeworkAssignmentStudentRepository.deleteByStudentAndSourceGroup(studentId, oldGroupId)).thenReturn(1);
+        when(homeworkAssignmentStudentRepository.insertForGroupMember(studentId, newGroupId)).thenReturn(1);
+        when(homeworkAssignmentRepository.findIdsByGroupIds(List.of(oldGroupId, newGroupId))).thenReturn(affected);
+
+        homeworkAssignmentService.onStudentGroupChanged(new StudentGroupChangedEvent(studentId, oldGroupId, newGroupId));
+
+        // Completed homework from the old group is kept as direct rows before the rest is removed
+        InOrder inOrder = inOrder(homeworkAssignmentStudentRepository);
+        inOrder.verify(homeworkAssignmentStudentRepository).detachCompletedFromSourceGroup(studentId, oldGroupId);
+        inOrder.verify(homeworkAssignmentStudentRepository).deleteByStudentAndSourceGroup(studentId, oldGroupId);
+        verify(homeworkAssignmentRepository).recountStudents(affected);
+        verify(matrixCacheEvictor).evictAfterCommit(affected);
+    }
+
+    @Test
+    void materializeLegacyGroupAssignments_ShouldRecountOnlyAssignmentsMissingRows() {
+        List<UUID> affected = List.of(assignmentId);
+        when(homeworkAssignmentStudentRepository.findAssignmentIdsMissingGroupMembers()).thenReturn(affected);
+        when(homeworkAssignmentStudentRepository.insertMissingGroupMembers()).thenReturn(3);
+
+        homeworkAssignmentService.materializeLegacyGroupAssignments();
+
+        verify(homeworkAssignmentRepository).recountStudents(affected);
+    }
+
+    @Test
+    void checkAndUpdateAssignmentStatus_ShouldIncrementCompletedCountOnCompletion() {
+        testAssignment.setAssignedCount(3);
+        HomeworkAssignmentStudent assignmentStudent = new HomeworkAssignmentStudent();
+        assignmentStudent.setStatus(HomeworkStatus.PENDING);
+        when(homeworkAssignmentRepository.findById(assignmentId)).thenReturn(Optional.of(testAssignment));
+        when(exerciseAttemptRepository.countCompletedExercises(assignmentId, studentId)).thenReturn(2L);
+        when(homeworkAssignmentStudentRepository.findById_HomeworkAssignmentIdAndId_StudentId(assignmentId, studentId))
+                .thenReturn(Optional.of(assignmentStudent));
+        when(homeworkAssignmentStudentRepository.markStudentCompleted(assignmentId, studentId)).thenReturn(1);
+
+        homeworkAssignmentService.checkAndUpdateAssignmentStatus(assignmentId, studentId);
+
+        verify(homeworkAssignmentStudentRepository).markStudentCompleted(assignmentId, studentId);
+        verify(homeworkAssignmentRepository).incrementCompletedCount(assignmentId);
+        verify(homeworkAssignmentRepository, never()).recountStudents(any());
+    }
+
+    @Test
+    void checkAndUpdateAssignmentStatus_WhenAlreadyCompletedConcurrently_ShouldNotIncrementAgain() {
+        testAssignment.setAssignedCount(3);
+        HomeworkAssignmentStudent assignmentStudent = new HomeworkAssignmentStudent();
+        assignmentStudent.setStatus(HomeworkStatus.PENDING);
+        when(homeworkAssignmentRepository.findById(assignmentId)).thenReturn(Optional.of(testAssignment));
+        when(exerciseAttemptRepository.countCompletedExercises(assignmentId, studentId)).thenReturn(2L);
+        when(homeworkAssignmentStudentRepository.findById_HomeworkAssignmentIdAndId_StudentId(assignmentId, studentId))
+                .thenReturn(Optional.of(assignmentStudent));
+        // The other completion path committed first
+        when(homeworkAssignmentStudentRepository.markStudentCompleted(assignmentId, studentId)).thenReturn(0);
+
+        homeworkAssignmentService.checkAndUpdateAssignmentStatus(assignmentId, studentId);
+
+        verify(homeworkAssignmentRepository, never()).incrementCompletedCount(any());
+        verify(homeworkAssignmentRepository, never()).recountStudents(any());
+    }
+
+    @Test
+    void onStudentDeleted_ShouldRemoveRowsAndRecountTheirAssignments() {
+        List<UUID> affected = List.of(assignmentId, UUID.randomUUID());
+        when(homeworkAssignmentStudentRepository.findAssignmentIdsByStudentId(studentId)).thenReturn(affected);
+
+        homeworkAssignmentService.onStudentDeleted(new StudentDeletedEvent(studentId));
+
+        verify(homeworkAssignmentStudentRepository).deleteByStudent(studentId);
+        verify(homeworkAssignmentRepository).recountStudents(affected);
+        verify(matrixCacheEvictor).evictAfterCommit(affected);
+    }
+
+    @Test
+    void updateOverdueAssignments_ShouldRunTwoBulkUpdatesOverHalfOpenDueDateRange() {
+        ArgumentCaptor<ZonedDateTime> from = ArgumentCaptor.forClass(ZonedDateTime.class);
+        ArgumentCaptor<ZonedDateTime> to = ArgumentCaptor.forClass(ZonedDateTime.class);
+        when(homeworkAssignmentRepository.markStudentsOverdueDueBetween(from.capture(), to.capture())).thenReturn(4);
+
+        ZonedDateTime before = ZonedDateTime.now();
+        homeworkAssignmentService.updateOverdueAssignments();
+
+        verify(homeworkAssignmentRepository).markOverdueDueBetween(from.getValue(), to.getValue());
+        assertFalse(to.getValue().isBefore(before));
+        assertFalse(to.getValue().isAfter(ZonedDateTime.now()));
+        assertTrue(from.getValue().isBefore(to.getValue()));
+        verify(homeworkAssignmentRepository, never()).findAll();
+        verify(matrixCacheEvictor).evictAllAfterCommit();
+    }
+
+    @Test
+    void getHomeworkAssignmentsByStudent_ShouldBuildResponsesFromTwoQueries() {
+        UUID homeworkId = UUID.randomUUID();
+        UUID teacherId = UUID.randomUUID();
+        UUID groupId = UUID.randomUUID();
+        ZonedDateTime dueDate = ZonedDateTime.now().plusDays(2);
+        List<Object[]> rows = List.<Object[]>of(new Object[]{assignmentId, homeworkId, "Fractions", teacherId, "Ann", "Lee",
+                ZonedDateTime.now(), dueDate, HomeworkStatus.COMPLETED});
+        List<Object[]> targets = List.<Object[]>of(new Object[]{assignmentId, "G", groupId},
+                new Object[]{assignmentId, "S", studentId});
+        when(homeworkAssignmentRepository.findStudentAssignmentRows(studentId)).thenReturn(rows);
+        when(homeworkAssignmentRepository.findAssignmentTargets(List.of(assignmentId))).thenReturn(targets);
+
+        List<HomeworkAssignmentResponse> result = homeworkAssignmentService.getHomeworkAssignmentsByStudent(studentId);
+
+        assertEquals(1, result.size());
+        HomeworkAssignmentResponse response = result.get(0);
+        assertEquals("Fractions", response.getHomeworkTitle());
+        assertEquals("Ann Lee", response.getTeacherName());
+        assertEquals(dueDate, response.getDueDate());
+        assertEquals(HomeworkStatus.COMPLETED, response.getStatus());
+        assertEquals(List.of(groupId), response.getAssignedGroupIds());
+        assertEquals(List.of(studentId), response.getAssignedStudentIds());
+        verifyNoInteractions(homeworkAssignmentStudentRepository);
+    }
+
+    @Test
+    void checkAndUpdateAssignmentsByExerciseAndStudent_ShouldCompleteWhenBitsetIsFull() {
+        UUID exerciseId = UUID.randomUUID();
+        testAssignment.setAssignedCount(5);
+        List<Object[]> rows = List.<Object[]>of(new Object[]{assignmentId, "PENDING", 0b111L, 0b111L, 3L, 3L});
+        when(homeworkAssignmentStudentRepository.findCompletionByExerciseAndStudent(studentId, exerciseId)).thenReturn(rows);
+        when(homeworkAssignmentRepository.findById(assignmentId)).thenReturn(Optional.of(testAssignment));
+        when(homeworkAssignmentStudentRepository.markStudentCompleted(assignmentId, studentId)).thenReturn(1);
+
+        homeworkAssignmentService.checkAndUpdateAssignmentsByExerciseAndStudent(exerciseId, studentId);
+
+        verify(homeworkAssignmentStudentRepository).markExerciseCompleted(studentId, exerciseId);
+        verify(homeworkAssignmentStudentRepository).markStudentCompleted(assignmentId, studentId);
+        verify(homeworkAssignmentRepository).incrementCompletedCount(assignmentId);
+        verifyNoInteractions(exerciseAttemptRepository);
+    }
+
+    @Test
+    void checkAndUpdateAssignmentsByExerciseAndStudent_ShouldLeavePartialBitsetPending() {
+        UUID exerciseId = UUID.randomUUID();
+        List<Object[]> rows = List.<Object[]>of(new Object[]{assignmentId, "PENDING", 0b101L, 0b111L, 3L, 3L});
+        when(homeworkAssignmentStudentRepository.findCompletionByExerciseAndStudent(studentId, exerciseId)).thenReturn(rows);
+
+        homeworkAssignmentService.checkAndUpdateAssignmentsByExerciseAndStudent(exerciseId, studentId);
+
+        verify(homeworkAssignmentRepository, never()).findById(any());
+        verify(homeworkAssignmentRepository, never()).incrementCompletedCount(any());
+        verifyNoInteractions(exerciseAttemptRepository);
+    }
+
+    @Test
+    void getCompletedExerciseIds_ShouldScanBitset() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        when(homeworkAssignmentStudentRepository.findCompletedExercises(assignmentId, studentId)).thenReturn(0b101L);
+        when(homeworkAssignmentRepository.findExerciseOrder(assignmentId)).thenReturn(List.<Object[]>of(
+                new Object[]{first, 0}, new Object[]{second, 1}, new Object[]{third, 2}));
+
+        List<UUID> result = homeworkAssignmentService.getCompletedExerciseIds(assignmentId, studentId);
+
+        assertEquals(List.of(first, third), result);
+        verifyNoInteractions(exerciseAttemptRepository);
+    }
+
+    @Test
+    void getProgressMatrix_ShouldPackOneRowPerStudent() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        when(homeworkAssignmentRepository.existsById(assignmentId)).thenReturn(true);
+        when(homeworkAssignmentRepository.findProgressMatrixRows(assignmentId)).thenReturn(List.<Object[]>of(
+                new Object[]{first, 0, studentId, "Ann", "Able", "PENDING", true, 8},
+                new Object[]{second, 1, studentId, "Ann", "Able", "PENDING", false, 0},
+                new Object[]{first, 0, other, "Bob", "Brown", "COMPLETED", true, 10},
+                new Object[]{second, 1, other, "Bob", "Brown", "COMPLETED", true, 9}));
+
+        HomeworkProgressMatrixResponse result = homeworkAssignmentService.getProgressMatrix(assignmentId);
+
+        assertEquals(List.of(first, second), result.getExercises().stream()
+                .map(HomeworkProgressMatrixResponse.ExerciseColumn::getExerciseId).toList());
+        assertEquals(2, result.getStudents().size());
+        HomeworkProgressMatrixResponse.StudentRow ann = result.getStudents().get(0);
+        assertEquals("Ann Able", ann.getStudentName());
+        assertEquals(HomeworkStatus.PENDING, ann.getStatus());
+        assertArrayEquals(new byte[]{0b01}, Base64.getDecoder().decode(ann.getCompleted()));
+        assertArrayEquals(new int[]{8, 0}, ann.getScores());
+        HomeworkProgressMatrixResponse.StudentRow bob = result.getStudents().get(1);
+        assertArrayEquals(new byte[]{0b11}, Base64.getDecoder().decode(bob.getCompleted()));
+        assertArrayEquals(new int[]{10, 9}, bob.getScores());
+    }
+
+    private static HomeworkExercise homeworkExercise(Homework homework, int orderIndex) {
+        HomeworkExercise homeworkExercise = new HomeworkExercise();
+        homeworkExercise.getId().setHomeworkId(homework.getId());
+        homeworkExercise.getId().setExerciseId(UUID.randomUUID());
+        homeworkExercise.setHomework(homework);
+        homeworkExercise.setOrderIndex(orderIndex);
+        return homeworkExercise;
+    }
+}
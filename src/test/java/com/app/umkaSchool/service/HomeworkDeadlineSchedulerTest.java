@@ -0,0 +1,89 @@
+package com.app.umkaSchool.service;
+
+import com.app.umkaSchool.event.HomeworkDueDateChangedEvent;
+import com.app.umkaSchool.event.HomeworkDueSoonEvent;
+import com.app.umkaSchool.model.enums.HomeworkStatus;
+import com.app.umkaSchool.repository.HomeworkAssignmentRepository;
+import com.app.umkaSchool.service.impl.HomeworkDeadlineScheduler;
+import com.app.umkaSchool.service.impl.HomeworkMatrixCacheEvictor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@ActiveProfiles("test")
+class HomeworkDeadlineSchedulerTest {
+
+    @Mock
+    private HomeworkAssignmentRepository homeworkAssignmentRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private HomeworkMatrixCacheEvictor matrixCacheEvictor;
+
+    private HomeworkDeadlineScheduler scheduler;
+
+    private final UUID assignmentId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        // 1 ms ticks, reminders one hour ahead; the ticker thread is never started, ticks are driven by hand
+        scheduler = new HomeworkDeadlineScheduler(homeworkAssignmentRepository, eventPublisher, matrixCacheEvictor,
+                1, 1, 7);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    void fireDueDeadlines_ShouldMarkPassedDeadlineOverdueOnNextTick() throws InterruptedException {
+        scheduler.onDueDateChanged(new HomeworkDueDateChangedEvent(assignmentId, ZonedDateTime.now().minusMinutes(5)));
+        Thread.sleep(5);
+
+        scheduler.fireDueDeadlines();
+
+        verify(homeworkAssignmentRepository).markOverdueByIds(eq(List.of(assignmentId)), any());
+        verify(matrixCacheEvictor).evictAfterCommit(List.of(assignmentId));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void fireDueDeadlines_ShouldPublishReminderForPendingAssignment() throws InterruptedException {
+        when(homeworkAssignmentRepository.findStatusById(assignmentId)).thenReturn(HomeworkStatus.PENDING);
+        ZonedDateTime dueDate = ZonedDateTime.now().plusHours(1).plusNanos(200_000_000);
+        scheduler.onDueDateChanged(new HomeworkDueDateChangedEvent(assignmentId, dueDate));
+        Thread.sleep(300);
+
+        scheduler.fireDueDeadlines();
+
+        verify(eventPublisher).publishEvent(new HomeworkDueSoonEvent(assignmentId, dueDate));
+        verify(homeworkAssignmentRepository, never()).markOverdueByIds(any(), any());
+    }
+
+    @Test
+    void onDueDateChanged_WhenCleared_ShouldCancelDeadlines() throws InterruptedException {
+        scheduler.onDueDateChanged(new HomeworkDueDateChangedEvent(assignmentId, ZonedDateTime.now().minusMinutes(5)));
+        scheduler.onDueDateChanged(new HomeworkDueDateChangedEvent(assignmentId, null));
+        Thread.sleep(5);
+
+        scheduler.fireDueDeadlines();
+
+        verifyNoInteractions(homeworkAssignmentRepository, eventPublisher, matrixCacheEvictor);
+    }
+}
@@ -10,6 +10,7 @@ import com.app.umkaSchool.repository.HomeworkRepository;
 import com.app.umkaSchool.repository.TeacherRepository;
 import com.app.umkaSchool.service.ExerciseService;
 import com.app.umkaSchool.service.impl.HomeworkServiceImpl;
+import com.app.umkaSchool.util.CatalogVersions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -25,6 +26,7 @@ import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -43,6 +45,9 @@ class HomeworkServiceTest {
     @Mock
     private ExerciseService exerciseService;
 
+    @Mock
+    private CatalogVersions catalogVersions;
+
     @InjectMocks
     private HomeworkServiceImpl homeworkService;
 
@@ -144,6 +149,23 @@ class HomeworkServiceTest {
         verify(homeworkRepository).save(testHomework);
     }
 
+    @Test
+    void cloneHomework_ShouldCopyInOneStatementAndLoadClone() {
+        Homework clone = new Homework();
+        when(homeworkRepository.existsById(homeworkId)).thenReturn(true);
+        when(homeworkRepository.cloneWithExercises(eq(homeworkId), any(UUID.class))).thenReturn(20);
+        when(homeworkRepository.findById(any(UUID.class))).thenAnswer(invocation -> {
+            clone.setId(invocation.getArgument(0));
+            return Optional.of(clone);
+        });
+
+        Homework result = homeworkService.cloneHomework(homeworkId);
+
+        assertSame(clone, result);
+        verify(homeworkRepository).cloneWithExercises(homeworkId, clone.getId());
+        verifyNoInteractions(exerciseService);
+    }
+
     @Test
     void deleteHomework_ShouldDeleteHomework() {
         when(homeworkRepository.findById(homeworkId)).thenReturn(Optional.of(testHomework));
@@ -0,0 +1,116 @@
+package com.app.umkaSchool.service;
+
+import com.app.umkaSchool.event.ExerciseAttemptCompletedEvent;
+import com.app.umkaSchool.repository.DailyChallengeRepository;
+import com.app.umkaSchool.repository.ExerciseAttemptRepository;
+import com.app.umkaSchool.repository.StudentRepository;
+import com.app.umkaSchool.service.impl.LeaderboardServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@ActiveProfiles("test")
+class LeaderboardServiceTest {
+
+    @Mock
+    private ExerciseAttemptRepository exerciseAttemptRepository;
+
+    @Mock
+    private DailyChallengeRepository dailyChallengeRepository;
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TransactionStatus transactionStatus;
+
+    private LeaderboardServiceImpl leaderboardService;
+
+    private final UUID groupId = UUID.randomUUID();
+    private final UUID studentId = UUID.randomUUID();
+    private final UUID attemptId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        leaderboardService = new LeaderboardServiceImpl(exerciseAttemptRepository, dailyChallengeRepository,
+                studentRepository, transactionManager, 7);
+    }
+
+    @Test
+    void onAttemptCompleted_ShouldCountAnAttemptReportedTwiceOnce() {
+        // Auto-complete at the first scored answer, then the final results, then a repeated final report
+        leaderboardService.onAttemptCompleted(completed(4, true, 0));
+        leaderboardService.onAttemptCompleted(completed(10, false, 4));
+        leaderboardService.onAttemptCompleted(completed(10, false, 10));
+
+        assertEquals(10L, leaderboardService.getGroupRank(groupId, studentId).getScore());
+    }
+
+    @Test
+    void rebuildLeaderboards_ShouldReplayUpdatesThatArriveWhileSeeding() {
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        List<Object[]> seed = new ArrayList<>();
+        seed.add(new Object[]{groupId, studentId, 20L});
+        when(exerciseAttemptRepository.sumScoresByGroupAndStudent()).thenAnswer(invocation -> {
+            // Committed after the seed snapshot was taken, so the seed does not include it
+            leaderboardService.onAttemptCompleted(completed(5, true, 0));
+            return seed;
+        });
+
+        leaderboardService.rebuildLeaderboards();
+
+        assertEquals(25L, leaderboardService.getGroupRank(groupId, studentId).getScore());
+
+        leaderboardService.onAttemptCompleted(completed(8, false, 5));
+        assertEquals(28L, leaderboardService.getGroupRank(groupId, studentId).getScore());
+    }
+
+    @Test
+    void rebuildLeaderboards_ShouldNotReplayUpdatesTheSeedSnapshotAlreadySaw() {
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        // Transactions below 100 had finished, 103 was still running, 105 and later had not started
+        when(exerciseAttemptRepository.currentSnapshot()).thenReturn("100:105:103");
+        List<Object[]> seed = new ArrayList<>();
+        // 20 from earlier attempts plus 5 from transaction 101, which committed before the snapshot
+        seed.add(new Object[]{groupId, studentId, 25L});
+        when(exerciseAttemptRepository.sumScoresByGroupAndStudent()).thenAnswer(invocation -> {
+            // Listeners that only run while the seed query does
+            leaderboardService.onAttemptCompleted(completed(5, 101L));
+            leaderboardService.onAttemptCompleted(completed(2, 103L));
+            leaderboardService.onAttemptCompleted(completed(3, 106L));
+            return seed;
+        });
+
+        leaderboardService.rebuildLeaderboards();
+
+        assertEquals(30L, leaderboardService.getGroupRank(groupId, studentId).getScore());
+    }
+
+    private ExerciseAttemptCompletedEvent completed(int score, boolean firstCompletion, int previousScore) {
+        return new ExerciseAttemptCompletedEvent(attemptId, studentId, groupId, UUID.randomUUID(), score,
+                10L, 8L, ZonedDateTime.now(), firstCompletion, previousScore, 0L, 0L);
+    }
+
+    private ExerciseAttemptCompletedEvent completed(int score, long transactionId) {
+        return new ExerciseAttemptCompletedEvent(UUID.randomUUID(), studentId, groupId, UUID.randomUUID(), score,
+                10L, 8L, ZonedDateTime.now(), true, 0, 0L, 0L, transactionId);
+    }
+}
@@ -0,0 +1,103 @@
+package com.app.umkaSchool.service;
+
+import com.app.umkaSchool.config.CacheConfig;
+import com.app.umkaSchool.dto.stats.StatsResponse;
+import com.app.umkaSchool.event.ExerciseAttemptCompletedEvent;
+import com.app.umkaSchool.model.Student;
+import com.app.umkaSchool.repository.ExerciseAttemptRepository;
+import com.app.umkaSchool.repository.ProgressSnapshotRepository;
+import com.app.umkaSchool.repository.StudentRepository;
+import com.app.umkaSchool.service.impl.ChunkedJobExecutor;
+import com.app.umkaSchool.service.impl.ProgressSnapshotServiceImpl;
+import com.app.umkaSchool.service.impl.StudentStatsCacheEvictor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.ZonedDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the cached stats lookup through Spring's cache proxy, with the repositories mocked.
+ */
+@SpringJUnitConfig({CacheConfig.class, ProgressSnapshotServiceImpl.class, StudentStatsCacheEvictor.class})
+@ActiveProfiles("test")
+class StudentStatsCacheTest {
+
+    @MockitoBean
+    private ProgressSnapshotRepository progressSnapshotRepository;
+
+    @MockitoBean
+    private StudentActivityService studentActivityService;
+
+    @MockitoBean
+    private StudentRepository studentRepository;
+
+    @MockitoBean
+    private ExerciseAttemptRepository exerciseAttemptRepository;
+
+    @MockitoBean
+    private ChunkedJobExecutor chunkedJobExecutor;
+
+    @Autowired
+    private ProgressSnapshotService progressSnapshotService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private UUID studentId;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(StudentStatsCacheEvictor.CACHE_NAME).clear();
+        studentId = UUID.randomUUID();
+        Student student = new Student();
+        student.setId(studentId);
+        when(studentRepository.findById(studentId)).thenReturn(Optional.of(student));
+    }
+
+    @Test
+    void getStudentStats_ShouldServeRepeatViewsFromCache() {
+        StatsResponse first = progressSnapshotService.getStudentStats(studentId, "week");
+        StatsResponse second = progressSnapshotService.getStudentStats(studentId, "WEEK");
+
+        assertSame(first, second);
+        verify(studentRepository, times(1)).findById(studentId);
+    }
+
+    @Test
+    void getStudentStats_ShouldRecomputeAfterAttemptCompleted() {
+        progressSnapshotService.getStudentStats(studentId, "week");
+        progressSnapshotService.getStudentStats(studentId, "all");
+
+        eventPublisher.publishEvent(new ExerciseAttemptCompletedEvent(UUID.randomUUID(), studentId, null,
+                UUID.randomUUID(), 10, 5, 4, ZonedDateTime.now()));
+        progressSnapshotService.getStudentStats(studentId, "week");
+        progressSnapshotService.getStudentStats(studentId, "all");
+
+        verify(studentRepository, times(4)).findById(studentId);
+    }
+
+    @Test
+    void getStudentStats_ShouldKeepOtherStudentsCachedAfterAttemptCompleted() {
+        progressSnapshotService.getStudentStats(studentId, "day");
+
+        eventPublisher.publishEvent(new ExerciseAttemptCompletedEvent(UUID.randomUUID(), UUID.randomUUID(), null,
+                UUID.randomUUID(), 10, 5, 4, ZonedDateTime.now()));
+        progressSnapshotService.getStudentStats(studentId, "day");
+
+        verify(studentRepository, times(1)).findById(studentId);
+    }
+}
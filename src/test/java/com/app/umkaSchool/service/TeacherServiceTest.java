@@ -1,6 +1,7 @@
 package com.app.umkaSchool.service;
 
 import com.app.umkaSchool.dto.teacher.CreateTeacherRequest;
+import com.app.umkaSchool.dto.teacher.TeacherGroupStatsResponse;
 import com.app.umkaSchool.dto.teacher.TeacherResponse;
 import com.app.umkaSchool.dto.teacher.UpdateTeacherRequest;
 import com.app.umkaSchool.exception.ResourceNotFoundException;
@@ -9,6 +10,7 @@ import com.app.umkaSchool.model.Teacher;
 import com.app.umkaSchool.repository.AppUserRepository;
 import com.app.umkaSchool.repository.TeacherRepository;
 import com.app.umkaSchool.service.impl.TeacherServiceImpl;
+import com.app.umkaSchool.util.CatalogVersions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -23,6 +25,7 @@ import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,6 +44,9 @@ class TeacherServiceTest {
     @Mock
     private com.app.umkaSchool.repository.StudentGroupRepository groupRepository;
 
+    @Mock
+    private CatalogVersions catalogVersions;
+
     @InjectMocks
     private TeacherServiceImpl teacherService;
 
@@ -125,6 +131,8 @@ class TeacherServiceTest {
         assertNotNull(result);
         verify(teacherRepository).save(testTeacher);
         verify(userRepository).save(testUser);
+        verify(catalogVersions).bumpAfterCommit(CatalogVersions.Catalog.EXERCISE_TYPES,
+                CatalogVersions.Catalog.HOMEWORK, CatalogVersions.Catalog.DAILY_CHALLENGES);
     }
 
     @Test
@@ -135,6 +143,38 @@ class TeacherServiceTest {
         teacherService.deleteTeacher(teacherId);
 
         verify(teacherRepository).delete(testTeacher);
+        verify(catalogVersions).bumpAfterCommit(CatalogVersions.Catalog.EXERCISE_TYPES,
+                CatalogVersions.Catalog.HOMEWORK, CatalogVersions.Catalog.DAILY_CHALLENGES);
     }
-}
 
+    @Test
+    void getGroupStats_ShouldGroupStudentRowsByGroup() {
+        UUID groupId = UUID.randomUUID();
+        UUID firstStudent = UUID.randomUUID();
+        UUID secondStudent = UUID.randomUUID();
+        List<Object[]> rows = List.of(
+                new Object[]{groupId, "Group A", firstStudent, "Ann", "Lee", 40L, 30L, 600L, null, 2, 5, 60L, 45L, 900L, null},
+                new Object[]{groupId, "Group A", secondStudent, "Bob", "Ray", 20L, 15L, 300L, null, 0, 1, 60L, 45L, 900L, null},
+                new Object[]{null, null, UUID.randomUUID(), "Cid", "Moe", 0L, 0L, 0L, null, 0, 0, 0L, 0L, 0L, null});
+        when(teacherRepository.existsById(teacherId)).thenReturn(true);
+        when(studentRepository.findTeacherStudentStats(eq(teacherId), any(), any(), any())).thenReturn(rows);
+
+        TeacherGroupStatsResponse result = teacherService.getGroupStats(teacherId, "week");
+
+        assertEquals(2, result.getGroups().size());
+        TeacherGroupStatsResponse.GroupStats group = result.getGroups().get(0);
+        assertEquals(groupId, group.getGroupId());
+        assertEquals(2, group.getStudentCount());
+        assertEquals(60L, group.getTotalAttempts());
+        assertEquals(75, group.getAccuracyRate());
+        assertEquals(5, group.getStudents().get(0).getBestStreak());
+        assertNull(result.getGroups().get(1).getGroupId());
+    }
+
+    @Test
+    void getGroupStats_WhenTeacherMissing_ShouldThrowException() {
+        when(teacherRepository.existsById(teacherId)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> teacherService.getGroupStats(teacherId, "week"));
+    }
+}
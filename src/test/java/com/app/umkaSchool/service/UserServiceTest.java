@@ -7,6 +7,7 @@ import com.app.umkaSchool.exception.ResourceNotFoundException;
 import com.app.umkaSchool.model.AppUser;
 import com.app.umkaSchool.repository.AppUserRepository;
 import com.app.umkaSchool.service.impl.UserServiceImpl;
+import com.app.umkaSchool.util.CatalogVersions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -34,6 +35,9 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private CatalogVersions catalogVersions;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -186,6 +190,18 @@ class UserServiceTest {
         userService.deleteUser(userId);
 
         verify(userRepository).delete(testUser);
+        verifyNoInteractions(catalogVersions);
+    }
+
+    @Test
+    void deleteUser_WhenTeacher_ShouldBumpAuthoredCatalogs() {
+        testUser.setUserRole(AppUser.UserRole.TEACHER);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
+
+        userService.deleteUser(userId);
+
+        verify(catalogVersions).bumpAfterCommit(CatalogVersions.Catalog.EXERCISE_TYPES,
+                CatalogVersions.Catalog.HOMEWORK, CatalogVersions.Catalog.DAILY_CHALLENGES);
     }
 
     @Test
@@ -0,0 +1,113 @@
+package com.app.umkaSchool.service;
+
+import com.app.umkaSchool.dto.weeklyreport.WeeklyReportData;
+import com.app.umkaSchool.exception.ResourceNotFoundException;
+import com.app.umkaSchool.repository.ExerciseAttemptRepository;
+import com.app.umkaSchool.repository.StudentRepository;
+import com.app.umkaSchool.service.impl.ChunkedJobExecutor;
+import com.app.umkaSchool.service.impl.WeeklyReportServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@ActiveProfiles("test")
+class WeeklyReportServiceTest {
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Mock
+    private ExerciseAttemptRepository exerciseAttemptRepository;
+
+    @Mock
+    private ChunkedJobExecutor chunkedJobExecutor;
+
+    @Mock
+    private EmailService emailService;
+
+    @InjectMocks
+    private WeeklyReportServiceImpl weeklyReportService;
+
+    @Test
+    void generateWeeklyReport_ShouldAssembleTotalsAndSortedSubjectsFromGroupedRows() {
+        UUID studentId = UUID.randomUUID();
+        LocalDate weekStart = LocalDate.of(2026, 10, 12);
+        List<Object[]> subjectRows = new ArrayList<>();
+        subjectRows.add(new Object[]{studentId, "Addition", 10L, 9L, 120L});
+        subjectRows.add(new Object[]{studentId, "Flash cards", 30L, 15L, 300L});
+        when(exerciseAttemptRepository.sumCompletedAttemptsBySubject(eq(List.of(studentId)), any(), any()))
+                .thenReturn(subjectRows);
+        when(studentRepository.findWeeklyReportRows(eq(List.of(studentId)), any(), any(), any(), any(), anyString()))
+                .thenReturn(List.<Object[]>of(reportRow(studentId, "parent@example.com")));
+
+        WeeklyReportData report = weeklyReportService.generateWeeklyReport(studentId, weekStart, weekStart.plusDays(6));
+
+        assertEquals("Anna", report.getStudentFirstName());
+        assertEquals(40L, report.getProblemsSolved());
+        assertEquals(60, report.getAccuracyRate());
+        assertEquals(420L, report.getPracticeTimeSeconds());
+        assertEquals(3, report.getCurrentStreak());
+        assertEquals(2, report.getCompletedHomeworkCount());
+        assertEquals(5, report.getTotalHomeworkCount());
+        assertEquals(List.of("Flash cards", "Addition"),
+                report.getSubjectProgress().stream().map(WeeklyReportData.SubjectProgress::getSubjectName).toList());
+        assertEquals(50, report.getSubjectProgress().get(0).getAccuracyRate());
+    }
+
+    @Test
+    void generateWeeklyReport_ShouldThrowWhenStudentMissing() {
+        UUID studentId = UUID.randomUUID();
+        when(studentRepository.findWeeklyReportRows(any(), any(), any(), any(), any(), anyString())).thenReturn(List.of());
+
+        LocalDate weekStart = LocalDate.of(2026, 10, 12);
+        assertThrows(ResourceNotFoundException.class,
+                () -> weeklyReportService.generateWeeklyReport(studentId, weekStart, weekStart.plusDays(6)));
+    }
+
+    @Test
+    void sendWeeklyReportsToAllGuardians_ShouldQueuePerChunkAndSkipMissingEmails() {
+        UUID withEmail = UUID.randomUUID();
+        UUID withoutEmail = UUID.randomUUID();
+        List<UUID> studentIds = List.of(withEmail, withoutEmail);
+        when(studentRepository.findAllIds()).thenReturn(studentIds);
+        when(studentRepository.findWeeklyReportRows(eq(studentIds), any(), any(), any(), any(), anyString()))
+                .thenReturn(List.of(reportRow(withEmail, "parent@example.com"), reportRow(withoutEmail, " ")));
+        when(chunkedJobExecutor.run(eq("weekly-reports"), any(), eq(studentIds), any()))
+                .thenAnswer(invocation -> {
+                    ToIntFunction<List<UUID>> work = invocation.getArgument(3);
+                    int processed = work.applyAsInt(studentIds);
+                    return new ChunkedJobExecutor.Result(studentIds.size(), 0, 1, 0, processed);
+                });
+
+        weeklyReportService.sendWeeklyReportsToAllGuardians();
+
+        ArgumentCaptor<WeeklyReportData> report = ArgumentCaptor.forClass(WeeklyReportData.class);
+        verify(emailService, times(1)).queueWeeklyReport(startsWith("weekly-reports:"), eq("parent@example.com"),
+                eq("Maria"), report.capture());
+        verify(emailService, never()).sendWeeklyReport(any(), any(), any());
+        assertEquals(40L, report.getValue().getProblemsSolved());
+        verify(exerciseAttemptRepository, times(1)).sumCompletedAttemptsBySubject(eq(studentIds), any(), any());
+    }
+
+    private static Object[] reportRow(UUID studentId, String guardianEmail) {
+        return new Object[]{studentId, "Anna", "Ivanova", guardianEmail, "Maria", 40L, 24L, 420L, 3, 2, 5};
+    }
+}
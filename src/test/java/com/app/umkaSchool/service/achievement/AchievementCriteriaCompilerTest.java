@@ -0,0 +1,79 @@
+package com.app.umkaSchool.service.achievement;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AchievementCriteriaCompilerTest {
+
+    private AchievementCriteriaCompiler compiler;
+
+    @BeforeEach
+    void setUp() {
+        compiler = new AchievementCriteriaCompiler(new ObjectMapper());
+    }
+
+    @Test
+    void compile_ShouldRequireAllTopLevelThresholds() {
+        AchievementCriteria criteria = compiler.compile(UUID.randomUUID(),
+                "{\"totalAttempts\": 10, \"minAccuracy\": 80}");
+
+        assertTrue(criteria.matches(new StudentMetrics(10, 8, 0, 0)));
+        assertFalse(criteria.matches(new StudentMetrics(10, 7, 0, 0)));
+        assertFalse(criteria.matches(new StudentMetrics(9, 9, 0, 0)));
+        assertFalse(compiler.compile(UUID.randomUUID(), "{\"minAccuracy\": 0}").matches(StudentMetrics.EMPTY));
+    }
+
+    @Test
+    void compile_ShouldSupportNestedAnyOf() {
+        AchievementCriteria criteria = compiler.compile(UUID.randomUUID(),
+                "{\"totalCorrect\": 5, \"anyOf\": [{\"currentStreak\": 7}, {\"totalPracticeSeconds\": 3600}]}");
+
+        assertTrue(criteria.matches(new StudentMetrics(5, 5, 0, 7)));
+        assertTrue(criteria.matches(new StudentMetrics(5, 5, 3600, 0)));
+        assertFalse(criteria.matches(new StudentMetrics(5, 5, 100, 6)));
+        assertFalse(criteria.matches(new StudentMetrics(4, 4, 3600, 7)));
+    }
+
+    @Test
+    void criteriaFor_ShouldReuseUntilCriteriaChange() {
+        UUID achievementId = UUID.randomUUID();
+
+        AchievementCriteria first = compiler.criteriaFor(achievementId, "{\"totalAttempts\": 1}");
+        assertSame(first, compiler.criteriaFor(achievementId, "{\"totalAttempts\": 1}"));
+
+        AchievementCriteria recompiled = compiler.criteriaFor(achievementId, "{\"totalAttempts\": 100}");
+        assertNotSame(first, recompiled);
+        assertFalse(recompiled.matches(new StudentMetrics(1, 1, 0, 0)));
+
+        assertInstanceOf(AchievementCriteria.Never.class, compiler.criteriaFor(achievementId, "not json"));
+    }
+
+    @Test
+    void toSql_ShouldMirrorCompiledPredicate() {
+        AchievementCriteria criteria = compiler.parse(
+                "{\"totalAttempts\": 10, \"anyOf\": [{\"currentStreak\": 7}, {\"minAccuracy\": 90}]}");
+
+        assertEquals("(s.total_attempts >= 10 AND (s.current_streak >= 7 OR "
+                        + "CASE WHEN s.total_attempts > 0 THEN s.total_correct * 100.0 / s.total_attempts >= 90.0 "
+                        + "ELSE FALSE END))",
+                criteria.toSql(metric -> "s." + metric.column()));
+        assertEquals("TRUE", compiler.parse("{}").toSql(metric -> metric.column()));
+        assertThrows(IllegalArgumentException.class, () -> compiler.parse("[1, 2]"));
+    }
+
+    @Test
+    void parse_ShouldRejectMinAccuracyOutsidePercentRange() {
+        assertThrows(IllegalArgumentException.class, () -> compiler.parse("{\"minAccuracy\": \"abc\"}"));
+        assertThrows(IllegalArgumentException.class, () -> compiler.parse("{\"minAccuracy\": 1e400}"));
+        assertThrows(IllegalArgumentException.class, () -> compiler.parse("{\"minAccuracy\": -1}"));
+        assertThrows(IllegalArgumentException.class, () -> compiler.parse("{\"minAccuracy\": 100.5}"));
+        assertInstanceOf(AchievementCriteria.Never.class,
+                compiler.compile(UUID.randomUUID(), "{\"minAccuracy\": \"abc\"}"));
+        assertInstanceOf(AchievementCriteria.MinAccuracy.class, compiler.parse("{\"minAccuracy\": 100}"));
+    }
+}
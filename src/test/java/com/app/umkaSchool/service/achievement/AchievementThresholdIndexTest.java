@@ -0,0 +1,111 @@
+package com.app.umkaSchool.service.achievement;
+
+import com.app.umkaSchool.dto.achievement.AchievementResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AchievementThresholdIndexTest {
+
+    private AchievementThresholdIndex index;
+    private List<AchievementResponse> catalogue;
+    private UUID studentId;
+
+    @BeforeEach
+    void setUp() {
+        index = new AchievementThresholdIndex(new AchievementCriteriaCompiler(new ObjectMapper()), 100, 3600);
+        studentId = UUID.randomUUID();
+        catalogue = List.of(
+                achievement("Ten", "{\"totalAttempts\": 10}"),
+                achievement("Fifty", "{\"totalAttempts\": 50}"),
+                achievement("Hundred", "{\"totalAttempts\": 100}"),
+                achievement("Streak", "{\"currentStreak\": 7}"),
+                achievement("Accurate", "{\"totalAttempts\": 20, \"minAccuracy\": 90}"));
+    }
+
+    @Test
+    void candidates_ShouldReturnWholeCatalogueForUnknownStudent() {
+        assertEquals(catalogue, index.candidates(studentId, catalogue, StudentMetrics.EMPTY));
+    }
+
+    @Test
+    void candidates_ShouldReturnOnlyCrossedThresholdsAndResidualRules() {
+        index.candidates(studentId, catalogue, new StudentMetrics(9, 9, 0, 6));
+        index.remember(studentId, new StudentMetrics(9, 9, 0, 6));
+
+        List<String> names = names(index.candidates(studentId, catalogue, new StudentMetrics(50, 50, 0, 6)));
+        assertEquals(List.of("Accurate", "Ten", "Fifty"), names);
+
+        index.remember(studentId, new StudentMetrics(50, 50, 0, 6));
+        assertEquals(List.of("Accurate", "Streak"),
+                names(index.candidates(studentId, catalogue, new StudentMetrics(51, 51, 0, 7))));
+    }
+
+    @Test
+    void candidates_ShouldFallBackToFullCheckWhenCatalogueChanges() {
+        index.candidates(studentId, catalogue, new StudentMetrics(60, 60, 0, 0));
+        index.remember(studentId, new StudentMetrics(60, 60, 0, 0));
+        assertEquals(1, index.candidates(studentId, catalogue, new StudentMetrics(61, 61, 0, 0)).size());
+
+        List<AchievementResponse> extended = new ArrayList<>(catalogue);
+        extended.add(achievement("Five", "{\"totalAttempts\": 5}"));
+
+        assertEquals(extended, index.candidates(studentId, extended, new StudentMetrics(61, 61, 0, 0)));
+    }
+
+    @Test
+    void rememberAfterCommit_ShouldKeepPreviousMetricsWhenTransactionRollsBack() {
+        index.candidates(studentId, catalogue, new StudentMetrics(9, 9, 0, 0));
+        index.remember(studentId, new StudentMetrics(9, 9, 0, 0));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.rememberAfterCommit(studentId, new StudentMetrics(50, 50, 0, 0));
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // The rolled back check crossed 10 and 50; both must still be candidates
+        assertEquals(List.of("Accurate", "Ten", "Fifty"),
+                names(index.candidates(studentId, catalogue, new StudentMetrics(50, 50, 0, 0))));
+    }
+
+    @Test
+    void rememberAfterCommit_ShouldApplyMetricsOnCommit() {
+        index.candidates(studentId, catalogue, new StudentMetrics(9, 9, 0, 0));
+        index.remember(studentId, new StudentMetrics(9, 9, 0, 0));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.rememberAfterCommit(studentId, new StudentMetrics(50, 50, 0, 0));
+            assertEquals(List.of("Accurate", "Ten", "Fifty"),
+                    names(index.candidates(studentId, catalogue, new StudentMetrics(50, 50, 0, 0))));
+            for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.afterCommit();
+            }
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of("Accurate"), names(index.candidates(studentId, catalogue, new StudentMetrics(50, 50, 0, 0))));
+    }
+
+    private static AchievementResponse achievement(String name, String criteria) {
+        return AchievementResponse.builder().id(UUID.randomUUID()).name(name).requiredCriteria(criteria).build();
+    }
+
+    private static List<String> names(List<AchievementResponse> achievements) {
+        return achievements.stream().map(AchievementResponse::getName).toList();
+    }
+}
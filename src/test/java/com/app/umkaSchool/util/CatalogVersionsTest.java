@@ -0,0 +1,159 @@
+package com.app.umkaSchool.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogVersionsTest {
+
+    /**
+     * Stands in for the database: a catalog's fingerprint is its data version here.
+     */
+    private final Map<CatalogVersions.Catalog, AtomicInteger> data = new EnumMap<>(CatalogVersions.Catalog.class);
+    private final AtomicInteger loads = new AtomicInteger();
+    private final CatalogVersions catalogVersions = instance(60_000);
+
+    private CatalogVersions instance(long ttlMillis) {
+        return new CatalogVersions(catalog -> {
+            loads.incrementAndGet();
+            return "v" + data.computeIfAbsent(catalog, c -> new AtomicInteger()).get();
+        }, ttlMillis);
+    }
+
+    private void write(CatalogVersions.Catalog catalog) {
+        data.computeIfAbsent(catalog, c -> new AtomicInteger()).incrementAndGet();
+    }
+
+    @Test
+    void etag_ShouldReuseFingerprintUntilBumped() {
+        String homework = catalogVersions.etag(CatalogVersions.Catalog.HOMEWORK);
+        String achievements = catalogVersions.etag(CatalogVersions.Catalog.ACHIEVEMENTS);
+        write(CatalogVersions.Catalog.HOMEWORK);
+
+        assertEquals(homework, catalogVersions.etag(CatalogVersions.Catalog.HOMEWORK));
+        assertEquals(2, loads.get());
+
+        catalogVersions.bumpAfterCommit(CatalogVersions.Catalog.HOMEWORK);
+
+        assertNotEquals(homework, catalogVersions.etag(CatalogVersions.Catalog.HOMEWORK));
+        assertEquals(achievements, catalogVersions.etag(CatalogVersions.Catalog.ACHIEVEMENTS));
+        assertEquals(3, loads.get());
+        assertNotEquals(catalogVersions.etag(CatalogVersions.Catalog.DAILY_CHALLENGES, "2026-01-01"),
+                catalogVersions.etag(CatalogVersions.Catalog.DAILY_CHALLENGES, "2026-01-02"));
+    }
+
+    @Test
+    void etag_ShouldMatchAcrossInstancesAndSeeTheirWritesAfterTtl() {
+        CatalogVersions other = instance(0);
+        String before = catalogVersions.etag(CatalogVersions.Catalog.EXERCISE_TYPES);
+        assertEquals(before, other.etag(CatalogVersions.Catalog.EXERCISE_TYPES));
+
+        write(CatalogVersions.Catalog.EXERCISE_TYPES);
+        catalogVersions.bumpAfterCommit(CatalogVersions.Catalog.EXERCISE_TYPES);
+
+        assertNotEquals(before, other.etag(CatalogVersions.Catalog.EXERCISE_TYPES));
+        assertEquals(catalogVersions.etag(CatalogVersions.Catalog.EXERCISE_TYPES),
+                other.etag(CatalogVersions.Catalog.EXERCISE_TYPES));
+    }
+
+    @Test
+    void conditional_ShouldAnswerNotModifiedWithoutBuildingBody() {
+        String etag = catalogVersions.etag(CatalogVersions.Catalog.EXERCISE_TYPES);
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/exercise-types");
+        servletRequest.addHeader("If-None-Match", etag);
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+        AtomicInteger calls = new AtomicInteger();
+
+        ResponseEntity<String> result = catalogVersions.conditional(
+                new ServletWebRequest(servletRequest, servletResponse), etag, () -> "body" + calls.incrementAndGet());
+
+        assertNull(result);
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), servletResponse.getStatus());
+        assertEquals(0, servletResponse.getContentAsByteArray().length);
+        assertEquals(etag, servletResponse.getHeader("ETag"));
+        assertEquals(0, calls.get());
+    }
+
+    @Test
+    void bumpAfterCommit_ShouldChangeEtagOnlyOnceTransactionCommits() {
+        String before = catalogVersions.etag(CatalogVersions.Catalog.HOMEWORK);
+        AtomicReference<String> insideTransaction = new AtomicReference<>();
+
+        new TransactionTemplate(new NoOpTransactionManager()).executeWithoutResult(status -> {
+            write(CatalogVersions.Catalog.HOMEWORK);
+            catalogVersions.bumpAfterCommit(CatalogVersions.Catalog.HOMEWORK);
+            insideTransaction.set(catalogVersions.etag(CatalogVersions.Catalog.HOMEWORK));
+        });
+
+        assertEquals(before, insideTransaction.get());
+        assertNotEquals(before, catalogVersions.etag(CatalogVersions.Catalog.HOMEWORK));
+    }
+
+    @Test
+    void bumpAfterCommit_ShouldNotBumpOnRollback() {
+        String before = catalogVersions.etag(CatalogVersions.Catalog.HOMEWORK);
+
+        new TransactionTemplate(new NoOpTransactionManager()).executeWithoutResult(status -> {
+            catalogVersions.bumpAfterCommit(CatalogVersions.Catalog.HOMEWORK);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(before, catalogVersions.etag(CatalogVersions.Catalog.HOMEWORK));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void conditional_ShouldReturnTaggedBodyWhenStale() {
+        String stale = catalogVersions.etag(CatalogVersions.Catalog.EXERCISE_TYPES);
+        write(CatalogVersions.Catalog.EXERCISE_TYPES);
+        catalogVersions.bumpAfterCommit(CatalogVersions.Catalog.EXERCISE_TYPES);
+        String current = catalogVersions.etag(CatalogVersions.Catalog.EXERCISE_TYPES);
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/exercise-types");
+        servletRequest.addHeader("If-None-Match", stale);
+
+        ResponseEntity<String> result = catalogVersions.conditional(
+                new ServletWebRequest(servletRequest, new MockHttpServletResponse()), current, () -> "body");
+
+        assertNotNull(result);
+        assertEquals(HttpStatus.OK, result.getStatusCode());
+        assertEquals(current, result.getHeaders().getETag());
+        assertEquals("body", result.getBody());
+    }
+
+    /**
+     * Runs transaction synchronization without a resource behind it.
+     */
+    private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.app.umkaSchool.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimerWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    @Test
+    void advance_ShouldFireEachTimerAtItsTickAcrossLevels() {
+        // 4 slots per level, 3 levels: level 0 spans 4 ticks, level 1 spans 16, level 2 spans 64
+        HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(10, 2, 3, START);
+        wheel.schedule("near", START + 25);
+        wheel.schedule("middle", START + 130);
+        wheel.schedule("far", START + 500);
+
+        List<String> fired = new ArrayList<>();
+        long firstFiring = -1;
+        for (long now = START; now <= START + 600; now += 10) {
+            List<String> expired = wheel.advance(now);
+            if (!expired.isEmpty() && firstFiring < 0) {
+                firstFiring = now;
+            }
+            if (expired.contains("middle")) {
+                assertEquals(START + 130, now);
+            }
+            if (expired.contains("far")) {
+                assertEquals(START + 500, now);
+            }
+            fired.addAll(expired);
+        }
+
+        assertEquals(List.of("near", "middle", "far"), fired);
+        assertEquals(START + 30, firstFiring);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_ShouldCatchUpAfterLongPauseAndKeepOverflowTimers() {
+        HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(10, 2, 2, START);
+        wheel.schedule("past", START - 50);
+        wheel.schedule("overflow", START + 2_000);
+        wheel.schedule("soon", START + 40);
+
+        assertEquals(List.of("past"), wheel.advance(START));
+        assertEquals(List.of("soon"), wheel.advance(START + 1_000));
+        assertTrue(wheel.advance(START + 1_990).isEmpty());
+        assertEquals(List.of("overflow"), wheel.advance(START + 2_000));
+    }
+
+    @Test
+    void schedule_ShouldReplaceAndCancelTimers() {
+        HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(10, 2, 3, START);
+        wheel.schedule("moved", START + 30);
+        wheel.schedule("moved", START + 300);
+        wheel.schedule("cancelled", START + 30);
+
+        assertTrue(wheel.cancel("cancelled"));
+        assertFalse(wheel.cancel("cancelled"));
+        assertTrue(wheel.advance(START + 290).isEmpty());
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("moved"), wheel.advance(START + 300));
+    }
+}
@@ -0,0 +1,88 @@
+package com.app.umkaSchool.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RankedScoreBoardTest {
+
+    @Test
+    void add_ShouldAccumulateScoresAndReorder() {
+        RankedScoreBoard board = new RankedScoreBoard();
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+
+        board.add(alice, 10);
+        board.add(bob, 15);
+        assertEquals(bob, board.top(1).get(0).studentId());
+
+        assertEquals(20, board.add(alice, 10));
+        List<RankedScoreBoard.Ranked> top = board.top(10);
+        assertEquals(2, top.size());
+        assertEquals(alice, top.get(0).studentId());
+        assertEquals(1, top.get(0).rank());
+        assertEquals(2, top.get(1).rank());
+        assertEquals(2, board.size());
+    }
+
+    @Test
+    void rankOf_ShouldShareRankForEqualScores() {
+        RankedScoreBoard board = new RankedScoreBoard();
+        UUID first = UUID.randomUUID();
+        UUID tiedA = UUID.randomUUID();
+        UUID tiedB = UUID.randomUUID();
+        UUID last = UUID.randomUUID();
+
+        board.add(first, 30);
+        board.add(tiedA, 20);
+        board.add(tiedB, 20);
+        board.add(last, 5);
+
+        assertEquals(1, board.rankOf(first).orElseThrow().rank());
+        assertEquals(2, board.rankOf(tiedA).orElseThrow().rank());
+        assertEquals(2, board.rankOf(tiedB).orElseThrow().rank());
+        assertEquals(4, board.rankOf(last).orElseThrow().rank());
+        assertEquals(List.of(1, 2, 2, 4), board.top(4).stream().map(RankedScoreBoard.Ranked::rank).toList());
+    }
+
+    @Test
+    void remove_ShouldDropStudentFromRanking() {
+        RankedScoreBoard board = new RankedScoreBoard();
+        UUID student = UUID.randomUUID();
+        board.add(student, 7);
+
+        board.remove(student);
+
+        assertTrue(board.rankOf(student).isEmpty());
+        assertTrue(board.top(5).isEmpty());
+        assertEquals(0, board.size());
+    }
+
+    @Test
+    void rankOf_ShouldMatchPositionInTopAfterManyChanges() {
+        RankedScoreBoard board = new RankedScoreBoard();
+        Random random = new Random(42);
+        List<UUID> students = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            students.add(UUID.randomUUID());
+        }
+        // Few distinct scores, so many ties; some students lose points or leave
+        for (int i = 0; i < 5_000; i++) {
+            UUID student = students.get(random.nextInt(students.size()));
+            if (random.nextInt(20) == 0) {
+                board.remove(student);
+            } else {
+                board.add(student, random.nextInt(7) - 2);
+            }
+        }
+
+        for (RankedScoreBoard.Ranked ranked : board.top(board.size())) {
+            assertEquals(ranked, board.rankOf(ranked.studentId()).orElseThrow());
+        }
+    }
+}